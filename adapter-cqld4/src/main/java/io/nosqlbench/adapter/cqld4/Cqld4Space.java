@@ -42,6 +42,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 public class Cqld4Space implements AutoCloseable {
@@ -49,6 +50,7 @@ public class Cqld4Space implements AutoCloseable {
     private final String space;
 
     CqlSession session;
+    private final List<Runnable> closeHooks = new CopyOnWriteArrayList<>();
 
     public Cqld4Space(String space, NBConfiguration cfg) {
         this.space = space;
@@ -276,6 +278,15 @@ public class Cqld4Space implements AutoCloseable {
         return session;
     }
 
+    /**
+     * Add a hook which will be run when this space is closed, before the session is closed. This allows
+     * op dispensers to send any operations which are still buffered at the end of an activity.
+     * @param hook The hook to run on close
+     */
+    public void addCloseHook(Runnable hook) {
+        closeHooks.add(hook);
+    }
+
     public static NBConfigModel getConfigModel() {
         return ConfigModel.of(Cqld4Space.class)
             .add(Param.optional("localdc"))
@@ -299,6 +310,13 @@ public class Cqld4Space implements AutoCloseable {
 
     @Override
     public void close() {
+        for (Runnable closeHook : closeHooks) {
+            try {
+                closeHook.run();
+            } catch (Exception e) {
+                logger.warn("close hook threw exception in cql space(" + this.space + "): " + e);
+            }
+        }
         try {
             this.getSession().close();
         } catch (Exception e) {
@@ -46,23 +46,30 @@ public class RSProcessors implements ResultProcessor<ResultSet,Row>, Supplier<Li
         return this;
     }
 
+    /**
+     * @return true if there are no processors, in which case rows do not need to be buffered
+     */
+    public boolean isEmpty() {
+        return suppliers.isEmpty();
+    }
+
     @Override
     public void start(long cycle, ResultSet container) {
-        for (ResultSetProcessor processor : get()) {
+        for (ResultSetProcessor processor : processors.get()) {
             processor.start(cycle, container);
         }
     }
 
     @Override
     public void buffer(Row element) {
-        for (ResultSetProcessor processor : get()) {
+        for (ResultSetProcessor processor : processors.get()) {
             processor.buffer(element);
         }
     }
 
     @Override
     public void flush() {
-        for (ResultSetProcessor processor : get()) {
+        for (ResultSetProcessor processor : processors.get()) {
             processor.flush();
         }
     }
@@ -67,6 +67,15 @@ public abstract class Cqld4BaseOpDispenser extends BaseOpDispenser<Cqld4CqlOp, C
         return maxLwtRetries;
     }
 
+    /**
+     * Rows are only kept by the op for the duration of a cycle when something will look at them afterwards,
+     * which is currently only the expected result expression. Otherwise, they are only given to the
+     * result set processors as they are read.
+     */
+    public boolean isRetainRows() {
+        return getExpectedResultExpression() != null;
+    }
+
 
     public LongFunction<CqlSession> getSessionFunc() {
         return sessionFunc;
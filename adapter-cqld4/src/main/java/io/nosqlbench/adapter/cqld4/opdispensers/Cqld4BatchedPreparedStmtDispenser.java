@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.cqld4.opdispensers;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.*;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import io.nosqlbench.adapter.cqld4.Cqld4Space;
+import io.nosqlbench.adapter.cqld4.RSProcessors;
+import io.nosqlbench.adapter.cqld4.optypes.Cqld4CqlBatchStatement;
+import io.nosqlbench.adapter.cqld4.optypes.Cqld4CqlOp;
+import io.nosqlbench.adapter.cqld4.optypes.Cqld4CqlStagedStatement;
+import io.nosqlbench.adapter.cqld4.optypes.Cqld4StagedCycles;
+import io.nosqlbench.api.engine.metrics.ActivityMetrics;
+import io.nosqlbench.api.errors.OpConfigError;
+import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+import io.nosqlbench.virtdata.core.templates.ParsedTemplateString;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongFunction;
+
+/**
+ * <p>This dispenser coalesces the bound statements of successive cycles on each thread into
+ * unlogged batches of the configured size. Each cycle which does not complete a batch yields a
+ * {@link Cqld4CqlStagedStatement}, which only adds its statement to the pending batch of the
+ * calling thread. The cycle which completes a batch yields a {@link Cqld4CqlBatchStatement},
+ * which sends all of them at once.</p>
+ *
+ * <p>With the <em>token</em> grouping, a pending batch is kept for each distinct replica set in the
+ * token ring, so that every batch only contains partitions which are owned by the same replicas.
+ * This is the same as keeping one batch per token range, but without keeping a separate batch for
+ * each of the many token ranges which are owned by the same nodes when vnodes are used.</p>
+ *
+ * <p>The staged cycles were already reported as successful, so if their batch fails without a successful
+ * retry, they are counted by the <em>discarded-cycles</em> metric of the op. Any statements which are
+ * still pending when the activity ends are sent when the space is closed, and counted the same way
+ * if they can not be sent. Since pending batches are kept for the one space of the dispenser, the
+ * space of a batched op must be static.</p>
+ */
+public class Cqld4BatchedPreparedStmtDispenser extends Cqld4PreparedStmtDispenser {
+    private final static Logger logger = LogManager.getLogger(Cqld4BatchedPreparedStmtDispenser.class);
+
+    public enum Grouping {
+        /**
+         * Statements are batched in the order they are bound, regardless of partition
+         */
+        none,
+        /**
+         * Statements are batched together only with others which are owned by the same replicas
+         */
+        token
+    }
+
+    private final int batchSize;
+    private final Histogram batchSizes;
+    private final Counter discardedCycles;
+    private final ThreadLocal<Cqld4PendingBatches<BatchableStatement<?>>> buffers = ThreadLocal.withInitial(this::newBuffer);
+    private final Queue<Cqld4PendingBatches<BatchableStatement<?>>> allBuffers = new ConcurrentLinkedQueue<>();
+
+    // Only used with token grouping
+    private TokenMap tokenMap;
+    private Cqld4TokenGroups tokenGroups;
+
+    public Cqld4BatchedPreparedStmtDispenser(
+        DriverAdapter adapter,
+        LongFunction<CqlSession> sessionFunc,
+        ParsedOp op,
+        ParsedTemplateString stmtTpl,
+        RSProcessors processors,
+        Cqld4Space space,
+        int batchSize,
+        Grouping grouping
+    ) {
+        super(adapter, sessionFunc, op, stmtTpl, processors);
+        if (stmtTpl.getCaptures().size() > 0) {
+            throw new OpConfigError("Captures are not supported for batched statements, since they return no rows, for op '" + op.getName() + "'");
+        }
+        this.batchSize = batchSize;
+        int hdrDigits = op.getStaticConfigOr("hdr_digits", 4).intValue();
+        this.batchSizes = ActivityMetrics.histogram(op, "batch-size", hdrDigits);
+        this.discardedCycles = ActivityMetrics.counter(op, "discarded-cycles");
+        if (grouping == Grouping.token) {
+            initTokenGroups(op);
+        }
+        space.addCloseHook(this::flushPending);
+    }
+
+    private void initTokenGroups(ParsedOp op) {
+        Optional<TokenMap> optionalTokenMap = getBoundSession().getMetadata().getTokenMap();
+        ColumnDefinitions variables = getPreparedStmt().getVariableDefinitions();
+        if (optionalTokenMap.isEmpty() || variables.size() == 0) {
+            logger.warn("Token metadata is not available for '" + op.getName() + "', so batches will not be grouped by token.");
+            return;
+        }
+        tokenMap = optionalTokenMap.get();
+        CqlIdentifier keyspace = variables.get(0).getKeyspace();
+        tokenGroups = new Cqld4TokenGroups(tokenMap.getTokenRanges(), range -> tokenMap.getReplicas(keyspace, range));
+        logger.info(() -> "Grouping batches for '" + op.getName() + "' by " + tokenGroups.getGroupCount() +
+            " replica sets over " + tokenGroups.getRangeCount() + " token ranges");
+    }
+
+    private Cqld4PendingBatches<BatchableStatement<?>> newBuffer() {
+        int groupCount = (tokenGroups == null) ? 1 : tokenGroups.getGroupCount();
+        Cqld4PendingBatches<BatchableStatement<?>> buffer = new Cqld4PendingBatches<>(groupCount, batchSize);
+        allBuffers.add(buffer);
+        return buffer;
+    }
+
+    @Override
+    protected Cqld4CqlOp opFor(long cycle, BoundStatement boundStatement) {
+        List<BatchableStatement<?>> full = buffers.get().add(groupOf(boundStatement), boundStatement);
+        if (full == null) {
+            return new Cqld4CqlStagedStatement(getBoundSession(), boundStatement);
+        }
+        // The statement of this cycle is sent with the batch, so only the others were staged before
+        return batchOf(full, full.size() - 1);
+    }
+
+    private int groupOf(BoundStatement boundStatement) {
+        if (tokenGroups == null) {
+            return 0;
+        }
+        Token token = boundStatement.getRoutingToken();
+        if (token == null) {
+            ByteBuffer routingKey = boundStatement.getRoutingKey();
+            if (routingKey == null) {
+                return 0;
+            }
+            token = tokenMap.newToken(routingKey);
+        }
+        return tokenGroups.groupOf(token);
+    }
+
+    private Cqld4CqlBatchStatement batchOf(List<BatchableStatement<?>> statements, int stagedCycles) {
+        batchSizes.update(statements.size());
+        BatchStatement batch = BatchStatement.newInstance(DefaultBatchType.UNLOGGED, statements);
+        // Statement level settings apply to the batch as a whole, so they are taken from the first statement
+        BatchableStatement<?> first = statements.get(0);
+        if (first.getConsistencyLevel() != null) {
+            batch = batch.setConsistencyLevel(first.getConsistencyLevel());
+        }
+        if (first.getSerialConsistencyLevel() != null) {
+            batch = batch.setSerialConsistencyLevel(first.getSerialConsistencyLevel());
+        }
+        if (first.isIdempotent() != null) {
+            batch = batch.setIdempotent(first.isIdempotent());
+        }
+        if (first.getTimeout() != null) {
+            batch = batch.setTimeout(first.getTimeout());
+        }
+        Cqld4StagedCycles staged = new Cqld4StagedCycles(stagedCycles, discardedCycles);
+        return new Cqld4CqlBatchStatement(getBoundSession(), batch, getMaxPages(), getMaxLwtRetries(), false, staged);
+    }
+
+    private void flushPending() {
+        int statements = 0;
+        for (Cqld4PendingBatches<BatchableStatement<?>> buffer : allBuffers) {
+            statements += buffer.flush(pending -> getBoundSession().execute(batchOf(pending, 0).getStmt()), discardedCycles);
+        }
+        if (statements > 0) {
+            int flushed = statements;
+            logger.info(() -> "Sent " + flushed + " pending statements at close");
+        }
+    }
+}
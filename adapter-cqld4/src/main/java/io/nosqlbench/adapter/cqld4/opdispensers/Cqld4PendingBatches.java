@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.cqld4.opdispensers;
+
+import com.codahale.metrics.Counter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The pending statements of one thread, with a separate batch for each group. This is only shared
+ * with the close hook, which runs after the thread is done with it.
+ * @param <T> the type of the batched statements
+ */
+final class Cqld4PendingBatches<T> {
+    private final static Logger logger = LogManager.getLogger(Cqld4PendingBatches.class);
+
+    private final int batchSize;
+    private final List<T>[] groups;
+
+    @SuppressWarnings("unchecked")
+    Cqld4PendingBatches(int groupCount, int batchSize) {
+        this.batchSize = batchSize;
+        this.groups = new List[groupCount];
+    }
+
+    /**
+     * @return the statements of the group, if this statement filled it, or null otherwise
+     */
+    synchronized List<T> add(int group, T statement) {
+        List<T> pending = groups[group];
+        if (pending == null) {
+            pending = new ArrayList<>(batchSize);
+            groups[group] = pending;
+        }
+        pending.add(statement);
+        if (pending.size() >= batchSize) {
+            groups[group] = null;
+            return pending;
+        }
+        return null;
+    }
+
+    synchronized List<List<T>> drain() {
+        List<List<T>> drained = new ArrayList<>();
+        for (int i = 0; i < groups.length; i++) {
+            if (groups[i] != null && !groups[i].isEmpty()) {
+                drained.add(groups[i]);
+            }
+            groups[i] = null;
+        }
+        return drained;
+    }
+
+    /**
+     * Send all of the pending batches, as when the activity ends. The cycles of these statements
+     * were already reported as successful, so those of any batch which can not be sent are counted
+     * as discarded, and the remaining batches are still sent.
+     * @return the number of statements which were sent
+     */
+    int flush(Consumer<List<T>> sender, Counter discardedCycles) {
+        int sent = 0;
+        for (List<T> pending : drain()) {
+            try {
+                sender.accept(pending);
+                sent += pending.size();
+            } catch (RuntimeException e) {
+                discardedCycles.inc(pending.size());
+                logger.error("Unable to send a pending batch of " + pending.size() +
+                    " statements at close, which were already reported as successful: " + e);
+            }
+        }
+        return sent;
+    }
+}
@@ -30,6 +30,9 @@ import io.nosqlbench.virtdata.core.templates.ParsedTemplateString;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.function.LongFunction;
 
 public class Cqld4PreparedStmtDispenser extends Cqld4BaseOpDispenser {
@@ -39,6 +42,7 @@ public class Cqld4PreparedStmtDispenser extends Cqld4BaseOpDispenser {
     private final LongFunction<Statement> stmtFunc;
     private final ParsedTemplateString stmtTpl;
     private final LongFunction<Object[]> fieldsF;
+    private final CompletionStage<PreparedStatement> preparing;
     private PreparedStatement preparedStmt;
     private CqlSession boundSession;
 
@@ -51,10 +55,22 @@ public class Cqld4PreparedStmtDispenser extends Cqld4BaseOpDispenser {
         }
         this.processors = processors;
         this.stmtTpl = stmtTpl;
+        // The statement is prepared while the bindings are resolved, and only waited for when it is needed
+        this.preparing = prepareAsync();
         this.fieldsF = getFieldsFunction(op);
         stmtFunc = createStmtFunc(fieldsF, op);
     }
 
+    private CompletionStage<PreparedStatement> prepareAsync() {
+        String preparedQueryString = stmtTpl.getPositionalStatement(s -> "?");
+        boundSession = getSessionFunc().apply(0);
+        try {
+            return boundSession.prepareAsync(preparedQueryString);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     private LongFunction<Object[]> getFieldsFunction(ParsedOp op) {
         LongFunction<Object[]> varbinder;
         varbinder = op.newArrayBinderFromBindPoints(stmtTpl.getBindPoints());
@@ -63,12 +79,11 @@ public class Cqld4PreparedStmtDispenser extends Cqld4BaseOpDispenser {
 
     protected LongFunction<Statement> createStmtFunc(LongFunction<Object[]> fieldsF, ParsedOp op) {
 
-        String preparedQueryString = stmtTpl.getPositionalStatement(s -> "?");
-        boundSession = getSessionFunc().apply(0);
         try {
-            preparedStmt = boundSession.prepare(preparedQueryString);
-        } catch (Exception e) {
-            throw new OpConfigError(e + "( for statement '" + stmtTpl + "')");
+            preparedStmt = preparing.toCompletableFuture().join();
+        } catch (CompletionException e) {
+            Throwable cause = (e.getCause() != null) ? e.getCause() : e;
+            throw new OpConfigError(cause + "( for statement '" + stmtTpl + "')");
         }
 
         LongFunction<Statement> boundStmtFunc = c -> {
@@ -84,14 +99,6 @@ public class Cqld4PreparedStmtDispenser extends Cqld4BaseOpDispenser {
         BoundStatement boundStatement;
         try {
             boundStatement = (BoundStatement) stmtFunc.apply(cycle);
-            return new Cqld4CqlPreparedStatement(
-                boundSession,
-                boundStatement,
-                getMaxPages(),
-                isRetryReplace(),
-                getMaxLwtRetries(),
-                processors
-            );
         } catch (Exception exception) {
             return CQLD4PreparedStmtDiagnostics.rebindWithDiagnostics(
                 preparedStmt,
@@ -100,5 +107,30 @@ public class Cqld4PreparedStmtDispenser extends Cqld4BaseOpDispenser {
                 exception
             );
         }
+        return opFor(cycle, boundStatement);
+    }
+
+    /**
+     * @return the op which will execute the bound statement for the given cycle
+     */
+    protected Cqld4CqlOp opFor(long cycle, BoundStatement boundStatement) {
+        Cqld4CqlPreparedStatement op = new Cqld4CqlPreparedStatement(
+            boundSession,
+            boundStatement,
+            getMaxPages(),
+            isRetryReplace(),
+            getMaxLwtRetries(),
+            processors
+        );
+        op.setRetainRows(isRetainRows());
+        return op;
+    }
+
+    protected CqlSession getBoundSession() {
+        return boundSession;
+    }
+
+    protected PreparedStatement getPreparedStmt() {
+        return preparedStmt;
     }
 }
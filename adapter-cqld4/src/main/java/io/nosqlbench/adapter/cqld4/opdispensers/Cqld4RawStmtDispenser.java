@@ -45,13 +45,15 @@ public class Cqld4RawStmtDispenser extends Cqld4BaseOpDispenser {
 
     @Override
     public Cqld4CqlOp apply(long value) {
-        return new Cqld4CqlSimpleStatement(
+        Cqld4CqlSimpleStatement op = new Cqld4CqlSimpleStatement(
             getSessionFunc().apply(value),
             (SimpleStatement) stmtFunc.apply(value),
             getMaxPages(),
             isRetryReplace(),
             getMaxLwtRetries()
         );
+        op.setRetainRows(isRetainRows());
+        return op;
     }
 
 }
@@ -42,13 +42,15 @@ public class Cqld4SimpleCqlStmtDispenser extends Cqld4BaseOpDispenser {
 
     @Override
     public Cqld4CqlSimpleStatement apply(long value) {
-        return new Cqld4CqlSimpleStatement(
+        Cqld4CqlSimpleStatement op = new Cqld4CqlSimpleStatement(
             getSessionFunc().apply(value),
             (SimpleStatement) stmtFunc.apply(value),
             getMaxPages(),
             isRetryReplace(),
             getMaxLwtRetries()
         );
+        op.setRetainRows(isRetainRows());
+        return op;
     }
 
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.cqld4.opdispensers;
+
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Numbers the distinct replica sets of the token ring, so that statements can be grouped by the
+ * replicas which own them. This is the same as grouping them by token range, but without keeping a
+ * separate group for each of the many token ranges which are owned by the same nodes when vnodes are used.
+ */
+final class Cqld4TokenGroups {
+    private final Token[] rangeEnds;
+    private final int[] rangeGroups;
+    private final int groupCount;
+
+    /**
+     * @param ranges the token ranges of the ring, in any order
+     * @param replicasOf the replicas of each range, which are equal for ranges which share a group
+     */
+    Cqld4TokenGroups(Collection<TokenRange> ranges, Function<TokenRange, ? extends Set<?>> replicasOf) {
+        List<TokenRange> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparing(TokenRange::getEnd));
+        rangeEnds = new Token[sorted.size()];
+        rangeGroups = new int[sorted.size()];
+        Map<Set<?>, Integer> replicaGroups = new HashMap<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            rangeEnds[i] = sorted.get(i).getEnd();
+            rangeGroups[i] = replicaGroups.computeIfAbsent(replicasOf.apply(sorted.get(i)), r -> replicaGroups.size());
+        }
+        groupCount = Math.max(1, replicaGroups.size());
+    }
+
+    /**
+     * @return the group of the range which contains the token
+     */
+    int groupOf(Token token) {
+        if (rangeEnds.length == 0) {
+            return 0;
+        }
+        // Each range includes its end token, and the last range wraps around to the first
+        int pos = Arrays.binarySearch(rangeEnds, token);
+        if (pos < 0) {
+            pos = -pos - 1;
+        }
+        return rangeGroups[pos == rangeEnds.length ? 0 : pos];
+    }
+
+    int getGroupCount() {
+        return groupCount;
+    }
+
+    int getRangeCount() {
+        return rangeEnds.length;
+    }
+}
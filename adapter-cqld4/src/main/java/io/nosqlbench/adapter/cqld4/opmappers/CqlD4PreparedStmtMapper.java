@@ -18,8 +18,10 @@ package io.nosqlbench.adapter.cqld4.opmappers;
 
 import com.datastax.oss.driver.api.core.CqlSession;
 import io.nosqlbench.adapter.cqld4.Cqld4Processors;
+import io.nosqlbench.adapter.cqld4.Cqld4Space;
 import io.nosqlbench.adapter.cqld4.RSProcessors;
 import io.nosqlbench.adapter.cqld4.ResultSetProcessor;
+import io.nosqlbench.adapter.cqld4.opdispensers.Cqld4BatchedPreparedStmtDispenser;
 import io.nosqlbench.adapter.cqld4.opdispensers.Cqld4PreparedStmtDispenser;
 import io.nosqlbench.adapter.cqld4.optypes.Cqld4CqlOp;
 import io.nosqlbench.adapter.cqld4.processors.CqlFieldCaptureProcessor;
@@ -30,6 +32,7 @@ import io.nosqlbench.engine.api.templating.ParsedOp;
 import io.nosqlbench.engine.api.templating.TypeAndTarget;
 import io.nosqlbench.api.config.params.ParamsParser;
 import io.nosqlbench.api.errors.BasicError;
+import io.nosqlbench.api.errors.OpConfigError;
 import io.nosqlbench.virtdata.core.templates.ParsedTemplateString;
 
 import java.util.List;
@@ -40,10 +43,12 @@ import java.util.function.LongFunction;
 public class CqlD4PreparedStmtMapper implements OpMapper<Cqld4CqlOp> {
 
     private final LongFunction<CqlSession> sessionFunc;
+    private final LongFunction<? extends Cqld4Space> spaceFunc;
     private final TypeAndTarget<CqlD4OpType, String> target;
     private final DriverAdapter adapter;
 
-    public CqlD4PreparedStmtMapper(DriverAdapter adapter, LongFunction<CqlSession> sessionFunc, TypeAndTarget<CqlD4OpType,String> target) {
+    public CqlD4PreparedStmtMapper(DriverAdapter adapter, LongFunction<? extends Cqld4Space> spaceFunc, LongFunction<CqlSession> sessionFunc, TypeAndTarget<CqlD4OpType,String> target) {
+        this.spaceFunc=spaceFunc;
         this.sessionFunc=sessionFunc;
         this.target = target;
         this.adapter = adapter;
@@ -70,6 +75,22 @@ public class CqlD4PreparedStmtMapper implements OpMapper<Cqld4CqlOp> {
             });
         });
 
+        int batch = op.getStaticConfigOr("batch", 1);
+        if (batch > 1) {
+            if (op.isDynamic("space")) {
+                throw new OpConfigError("batch=" + batch + " requires a static space for op '" + op.getName() + "', since" +
+                    " pending batches are kept for one space and flushed when that space is closed.");
+            }
+            String batchgroup = op.getStaticConfigOr("batchgroup", "none");
+            Cqld4BatchedPreparedStmtDispenser.Grouping grouping;
+            try {
+                grouping = Cqld4BatchedPreparedStmtDispenser.Grouping.valueOf(batchgroup);
+            } catch (IllegalArgumentException e) {
+                throw new OpConfigError("batchgroup must be one of none or token, but was '" + batchgroup + "'");
+            }
+            return new Cqld4BatchedPreparedStmtDispenser(adapter, sessionFunc, op, stmtTpl, processors, spaceFunc.apply(0), batch, grouping);
+        }
+
         return new Cqld4PreparedStmtDispenser(adapter, sessionFunc, op, stmtTpl, processors);
 
     }
@@ -60,7 +60,8 @@ public class Cqld4CoreOpMapper implements OpMapper<Op> {
         LongFunction<String> spaceName = op.getAsFunctionOr("space", "default");
         // Since the only needed thing in the Cqld4Space is the session, we can short-circuit
         // to it here instead of stepping down from the cycle to the space to the session
-        LongFunction<CqlSession> sessionFunc = l -> cache.get(spaceName.apply(l)).getSession();
+        LongFunction<? extends Cqld4Space> spaceFunc = l -> cache.get(spaceName.apply(l));
+        LongFunction<CqlSession> sessionFunc = l -> spaceFunc.apply(l).getSession();
 
         CqlD4OpType opType = CqlD4OpType.prepared;
 
@@ -71,7 +72,7 @@ public class Cqld4CoreOpMapper implements OpMapper<Op> {
         return switch (target.enumId) {
             case raw -> new CqlD4RawStmtMapper(adapter, sessionFunc, target.targetFunction).apply(op);
             case simple -> new CqlD4CqlSimpleStmtMapper(adapter, sessionFunc, target.targetFunction).apply(op);
-            case prepared -> new CqlD4PreparedStmtMapper(adapter, sessionFunc, target).apply(op);
+            case prepared -> new CqlD4PreparedStmtMapper(adapter, spaceFunc, sessionFunc, target).apply(op);
             case gremlin -> new Cqld4GremlinOpMapper(adapter, sessionFunc, target.targetFunction).apply(op);
             case fluent -> new Cqld4FluentGraphOpMapper(adapter, sessionFunc, target).apply(op);
             case rainbow -> new CqlD4RainbowTableMapper(adapter, sessionFunc, target.targetFunction).apply(op);
@@ -18,15 +18,46 @@ package io.nosqlbench.adapter.cqld4.optypes;
 
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
 import io.nosqlbench.adapter.cqld4.RSProcessors;
 
+import java.util.List;
+
+/**
+ * An unlogged batch of the statements of several cycles. The cycles other than the one which sends
+ * the batch were already reported as successful when their statements were staged, so if the batch
+ * fails, they are counted as discarded by the {@link Cqld4StagedCycles} of the batch.
+ */
 public class Cqld4CqlBatchStatement extends Cqld4CqlOp {
 
     private final BatchStatement stmt;
+    private final Cqld4StagedCycles staged;
 
-    public Cqld4CqlBatchStatement(CqlSession session, BatchStatement stmt, int maxPage, int maxLwtRetries, boolean retryReplace) {
+    public Cqld4CqlBatchStatement(CqlSession session, BatchStatement stmt, int maxPage, int maxLwtRetries, boolean retryReplace, Cqld4StagedCycles staged) {
         super(session,maxPage,retryReplace,maxLwtRetries,new RSProcessors());
         this.stmt = stmt;
+        this.staged = staged;
+    }
+
+    @Override
+    public List<Row> apply(long cycle) {
+        try {
+            List<Row> rows = super.apply(cycle);
+            staged.sent();
+            return rows;
+        } catch (RuntimeException e) {
+            staged.failed();
+            throw e;
+        }
+    }
+
+    public Cqld4StagedCycles getStaged() {
+        return staged;
+    }
+
+    @Override
+    public long getResultSize() {
+        return stmt.size();
     }
 
     @Override
@@ -17,6 +17,7 @@
 package io.nosqlbench.adapter.cqld4.optypes;
 
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.ResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
@@ -28,10 +29,13 @@ import io.nosqlbench.adapter.cqld4.exceptions.UndefinedResultSetException;
 import io.nosqlbench.adapter.cqld4.exceptions.UnexpectedPagingException;
 import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.*;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
 
 
 // TODO: add statement filtering
@@ -40,10 +44,17 @@ import java.util.Map;
 // TODO: add/document max tries exhausted exception
 // TODO: add/document UnexpectedPagingException
 // TODO: add/document chnge unapplied exception
-// TODO: add total rows metrics
-// TODO: add rows histogram resultSetSizeHisto
 
 
+/**
+ * <p>The rows of each page are passed to the {@link RSProcessors} as they are read, and are counted
+ * as the result size of the op. They are only kept and returned as the result of the op when
+ * {@link #setRetainRows(boolean)} is set, as when there is an expected result expression which
+ * needs to see them. Otherwise, an empty list is returned, and no rows are held past their page.</p>
+ *
+ * <p>When there is more than one page, the next page is requested before the rows of the current
+ * page are read, so that reading the rows and fetching the next page overlap.</p>
+ */
 public abstract class Cqld4CqlOp implements CycleOp<List<Row>>, VariableCapture, OpGenerator, OpResultSize {
 
     private final CqlSession session;
@@ -55,8 +66,8 @@ public abstract class Cqld4CqlOp implements CycleOp<List<Row>>, VariableCapture,
     private ResultSet rs;
     private Cqld4CqlOp nextOp;
     private final RSProcessors processors;
-
-    private final ThreadLocal<List<Row>> results = new ThreadLocal<>();
+    private boolean retainRows;
+    private long rowCount;
 
     public Cqld4CqlOp(CqlSession session, int maxPages, boolean retryReplace, int maxLwtRetries, RSProcessors processors) {
         this.session = session;
@@ -75,12 +86,14 @@ public abstract class Cqld4CqlOp implements CycleOp<List<Row>>, VariableCapture,
         this.processors = processors;
     }
 
-    public final List<Row> apply(long cycle) {
+    public List<Row> apply(long cycle) {
 
         Statement<?> stmt = getStmt();
         rs = session.execute(stmt);
         processors.start(cycle, rs);
-        int totalRows = 0;
+        boolean processing = !processors.isEmpty();
+        List<Row> resultRows = retainRows ? new ArrayList<>() : List.of();
+        rowCount = 0;
 
         if (!rs.wasApplied()) {
             if (!retryReplace) {
@@ -92,38 +105,83 @@ public abstract class Cqld4CqlOp implements CycleOp<List<Row>>, VariableCapture,
                 }
                 Row one = rs.one();
                 processors.buffer(one);
-                totalRows++;
+                rowCount++;
                 nextOp = this.rebindLwt(stmt, one);
             }
         }
 
         // Paginated Op
 
+        // Only the first page is read from the result set. Any further pages are fetched asynchronously
+        // with the paging state, one page ahead of the rows being read.
+        CompletionStage<AsyncResultSet> nextPage = null;
+        if (!rs.isFullyFetched()) {
+            ByteBuffer pagingState = rs.getExecutionInfo().getPagingState();
+            nextPage = session.executeAsync(stmt.setPagingState(pagingState));
+        }
+
         Iterator<Row> reader = rs.iterator();
+        int pageRows = rs.getAvailableWithoutFetching();
+        for (int i = 0; i < pageRows; i++) {
+            accept(reader.next(), resultRows, processing);
+        }
         int pages = 0;
-        // TODO/MVEL: An optimization to this would be to collect the results in a result set processor,
-        // but allow/require this processor to be added to an op _only_ in the event that it would
-        // be needed by a downstream consumer like the MVEL expected result evaluator
-
-        var resultRows = new ArrayList<Row>();
-        while (true) {
-            int pageRows = rs.getAvailableWithoutFetching();
-            for (int i = 0; i < pageRows; i++) {
-                Row row = reader.next();
-                resultRows.add(row);
-                processors.buffer(row);
+        if (pages++ > maxPages) {
+            throw new UnexpectedPagingException(rs, getQueryString(), pages, maxPages, stmt.getPageSize());
+        }
+
+        while (nextPage != null) {
+            AsyncResultSet page = awaitPage(nextPage);
+            nextPage = page.hasMorePages() ? page.fetchNextPage() : null;
+            for (Row row : page.currentPage()) {
+                accept(row, resultRows, processing);
             }
             if (pages++ > maxPages) {
                 throw new UnexpectedPagingException(rs, getQueryString(), pages, maxPages, stmt.getPageSize());
             }
-            if (rs.isFullyFetched()) {
-                results.set(resultRows);
-                break;
-            }
-            totalRows += pageRows;
         }
+
         processors.flush();
-        return results.get();
+        return resultRows;
+    }
+
+    private void accept(Row row, List<Row> resultRows, boolean processing) {
+        rowCount++;
+        if (retainRows) {
+            resultRows.add(row);
+        }
+        if (processing) {
+            processors.buffer(row);
+        }
+    }
+
+    private static AsyncResultSet awaitPage(CompletionStage<AsyncResultSet> page) {
+        try {
+            return page.toCompletableFuture().get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @param retainRows If true, all rows are kept and returned as the result of the op
+     */
+    public void setRetainRows(boolean retainRows) {
+        this.retainRows = retainRows;
+    }
+
+    /**
+     * @return the number of rows which were read by the op
+     */
+    @Override
+    public long getResultSize() {
+        return rowCount;
     }
 
     @Override
@@ -147,7 +205,9 @@ public abstract class Cqld4CqlOp implements CycleOp<List<Row>>, VariableCapture,
 
     private Cqld4CqlOp rebindLwt(Statement<?> stmt, Row row) {
         BoundStatement rebound = LWTRebinder.rebindUnappliedStatement(stmt, row);
-        return new Cqld4CqlReboundStatement(session, maxPages, retryReplace, maxLwtRetries, retryReplaceCount, rebound, processors);
+        Cqld4CqlReboundStatement reboundOp = new Cqld4CqlReboundStatement(session, maxPages, retryReplace, maxLwtRetries, retryReplaceCount, rebound, processors);
+        reboundOp.setRetainRows(retainRows);
+        return reboundOp;
     }
 
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.cqld4.optypes;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import io.nosqlbench.adapter.cqld4.RSProcessors;
+
+import java.util.List;
+
+/**
+ * A bound statement which has been added to a pending batch instead of being executed on its own.
+ * It is sent to the server later, as part of the {@link Cqld4CqlBatchStatement} of another cycle.
+ */
+public class Cqld4CqlStagedStatement extends Cqld4CqlOp {
+
+    private final BoundStatement stmt;
+
+    public Cqld4CqlStagedStatement(CqlSession session, BoundStatement stmt) {
+        super(session, 0, false, 0, new RSProcessors());
+        this.stmt = stmt;
+    }
+
+    @Override
+    public List<Row> apply(long cycle) {
+        return List.of();
+    }
+
+    @Override
+    public BoundStatement getStmt() {
+        return stmt;
+    }
+
+    @Override
+    public String getQueryString() {
+        return stmt.getPreparedStatement().getQuery();
+    }
+}
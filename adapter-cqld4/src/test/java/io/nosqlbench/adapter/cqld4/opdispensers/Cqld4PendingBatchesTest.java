@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.cqld4.opdispensers;
+
+import com.codahale.metrics.Counter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class Cqld4PendingBatchesTest {
+
+    @Test
+    public void testBatchIsReturnedWhenFull() {
+        Cqld4PendingBatches<String> batches = new Cqld4PendingBatches<>(1, 3);
+        assertThat(batches.add(0, "a")).isNull();
+        assertThat(batches.add(0, "b")).isNull();
+        assertThat(batches.add(0, "c")).isEqualTo(List.of("a", "b", "c"));
+        assertThat(batches.add(0, "d")).isNull();
+        assertThat(batches.drain()).isEqualTo(List.of(List.of("d")));
+    }
+
+    @Test
+    public void testGroupsFillSeparately() {
+        Cqld4PendingBatches<String> batches = new Cqld4PendingBatches<>(3, 2);
+        assertThat(batches.add(0, "a0")).isNull();
+        assertThat(batches.add(2, "a2")).isNull();
+        assertThat(batches.add(1, "a1")).isNull();
+        assertThat(batches.add(2, "b2")).isEqualTo(List.of("a2", "b2"));
+        assertThat(batches.add(0, "b0")).isEqualTo(List.of("a0", "b0"));
+        assertThat(batches.drain()).isEqualTo(List.of(List.of("a1")));
+        assertThat(batches.drain()).isEmpty();
+    }
+
+    @Test
+    public void testFlushSendsAllPendingBatches() {
+        Cqld4PendingBatches<String> batches = new Cqld4PendingBatches<>(2, 10);
+        batches.add(0, "a");
+        batches.add(1, "b");
+        batches.add(1, "c");
+        List<List<String>> sent = new ArrayList<>();
+        Counter discarded = new Counter();
+        assertThat(batches.flush(sent::add, discarded)).isEqualTo(3);
+        assertThat(sent).isEqualTo(List.of(List.of("a"), List.of("b", "c")));
+        assertThat(discarded.getCount()).isEqualTo(0L);
+        assertThat(batches.flush(sent::add, discarded)).isEqualTo(0);
+    }
+
+    @Test
+    public void testFailedFlushCountsDiscardedCycles() {
+        Cqld4PendingBatches<String> batches = new Cqld4PendingBatches<>(2, 10);
+        batches.add(0, "a");
+        batches.add(1, "b");
+        batches.add(1, "c");
+        List<List<String>> sent = new ArrayList<>();
+        Counter discarded = new Counter();
+        int count = batches.flush(pending -> {
+            if (pending.size() > 1) {
+                throw new RuntimeException("write timeout");
+            }
+            sent.add(pending);
+        }, discarded);
+        assertThat(count).isEqualTo(1);
+        assertThat(sent).isEqualTo(List.of(List.of("a")));
+        assertThat(discarded.getCount()).isEqualTo(2L);
+    }
+}
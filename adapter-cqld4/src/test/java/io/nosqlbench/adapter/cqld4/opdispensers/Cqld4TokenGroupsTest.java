@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.cqld4.opdispensers;
+
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3Token;
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3TokenRange;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class Cqld4TokenGroupsTest {
+
+    private static TokenRange range(long start, long end) {
+        return new Murmur3TokenRange(new Murmur3Token(start), new Murmur3Token(end));
+    }
+
+    // The first and last ranges are owned by the same replicas, and the last one wraps around the ring
+    private final TokenRange low = range(-100, 0);
+    private final TokenRange high = range(0, 100);
+    private final TokenRange wrap = range(100, -100);
+    private final Map<TokenRange, Set<String>> replicas = Map.of(
+        low, Set.of("a", "b"),
+        high, Set.of("b", "c"),
+        wrap, Set.of("a", "b")
+    );
+    private final Cqld4TokenGroups groups = new Cqld4TokenGroups(List.of(high, wrap, low), replicas::get);
+
+    private int groupOf(long token) {
+        return groups.groupOf(new Murmur3Token(token));
+    }
+
+    @Test
+    public void testRangesWithSameReplicasShareAGroup() {
+        assertThat(groups.getRangeCount()).isEqualTo(3);
+        assertThat(groups.getGroupCount()).isEqualTo(2);
+        assertThat(groupOf(-50)).isEqualTo(groupOf(150));
+        assertThat(groupOf(-50)).isNotEqualTo(groupOf(50));
+    }
+
+    @Test
+    public void testRangesIncludeTheirEndToken() {
+        assertThat(groupOf(0)).isEqualTo(groupOf(-1));
+        assertThat(groupOf(1)).isEqualTo(groupOf(100));
+        assertThat(groupOf(101)).isNotEqualTo(groupOf(100));
+    }
+
+    @Test
+    public void testLastRangeWrapsAround() {
+        assertThat(groupOf(Long.MAX_VALUE)).isEqualTo(groupOf(-100));
+        assertThat(groupOf(Long.MIN_VALUE)).isEqualTo(groupOf(-100));
+        assertThat(groupOf(-101)).isEqualTo(groupOf(-100));
+    }
+
+    @Test
+    public void testEmptyRingHasOneGroup() {
+        Cqld4TokenGroups empty = new Cqld4TokenGroups(List.of(), r -> Set.of());
+        assertThat(empty.getGroupCount()).isEqualTo(1);
+        assertThat(empty.groupOf(new Murmur3Token(42))).isEqualTo(0);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.adapter.cqld4.optypes;
+
+import com.codahale.metrics.Counter;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class Cqld4CqlBatchStatementTest {
+
+    @Test
+    public void testFailedBatchCountsStagedCycles() {
+        Counter discarded = new Counter();
+        CqlSession session = scriptedSession(List.of(false, false));
+        Cqld4CqlBatchStatement op = batchOp(session, new Cqld4StagedCycles(3, discarded));
+
+        assertThatExceptionOfType(RuntimeException.class).isThrownBy(() -> op.apply(3L));
+        assertThat(discarded.getCount()).isEqualTo(3L);
+
+        // A retry which fails again does not count the same cycles twice
+        assertThatExceptionOfType(RuntimeException.class).isThrownBy(() -> op.apply(3L));
+        assertThat(discarded.getCount()).isEqualTo(3L);
+    }
+
+    @Test
+    public void testSuccessfulRetryUncountsStagedCycles() {
+        Counter discarded = new Counter();
+        CqlSession session = scriptedSession(List.of(false, true));
+        Cqld4CqlBatchStatement op = batchOp(session, new Cqld4StagedCycles(3, discarded));
+
+        assertThatExceptionOfType(RuntimeException.class).isThrownBy(() -> op.apply(3L));
+        assertThat(discarded.getCount()).isEqualTo(3L);
+        op.apply(3L);
+        assertThat(discarded.getCount()).isEqualTo(0L);
+    }
+
+    @Test
+    public void testSentBatchCountsNothing() {
+        Counter discarded = new Counter();
+        Cqld4CqlBatchStatement op = batchOp(scriptedSession(List.of(true)), new Cqld4StagedCycles(3, discarded));
+        op.apply(3L);
+        assertThat(discarded.getCount()).isEqualTo(0L);
+    }
+
+    private static Cqld4CqlBatchStatement batchOp(CqlSession session, Cqld4StagedCycles staged) {
+        BatchStatement batch = BatchStatement.newInstance(DefaultBatchType.UNLOGGED);
+        return new Cqld4CqlBatchStatement(session, batch, 1, 1, false, staged);
+    }
+
+    /**
+     * @param outcomes whether each execution in turn succeeds, or fails with a write timeout
+     */
+    private static CqlSession scriptedSession(List<Boolean> outcomes) {
+        LinkedList<Boolean> remaining = new LinkedList<>(outcomes);
+        return (CqlSession) Proxy.newProxyInstance(
+            CqlSession.class.getClassLoader(),
+            new Class<?>[]{CqlSession.class},
+            (proxy, method, args) -> {
+                if (!method.getName().equals("execute")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                if (!remaining.removeFirst()) {
+                    throw new IllegalStateException("write timeout");
+                }
+                return emptyResultSet();
+            });
+    }
+
+    private static ResultSet emptyResultSet() {
+        return (ResultSet) Proxy.newProxyInstance(
+            ResultSet.class.getClassLoader(),
+            new Class<?>[]{ResultSet.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "wasApplied", "isFullyFetched" -> true;
+                case "getAvailableWithoutFetching" -> 0;
+                case "iterator" -> Collections.emptyIterator();
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+}
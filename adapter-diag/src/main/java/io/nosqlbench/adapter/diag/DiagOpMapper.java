@@ -24,12 +24,15 @@ import io.nosqlbench.engine.api.activityimpl.OpMapper;
 import io.nosqlbench.engine.api.templating.ParsedOp;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.LongFunction;
 
 public class DiagOpMapper implements OpMapper<DiagOp>, NBReconfigurable {
-    private final Map<String,DiagOpDispenser> dispensers = new LinkedHashMap<>();
+    // Op templates may be mapped on several threads at once, as with initthreads
+    private final Map<String,DiagOpDispenser> dispensers = Collections.synchronizedMap(new LinkedHashMap<>());
     private final DiagDriverAdapter adapter;
 
     public DiagOpMapper(DiagDriverAdapter adapter) {
@@ -47,11 +50,17 @@ public class DiagOpMapper implements OpMapper<DiagOp>, NBReconfigurable {
 
     @Override
     public void applyReconfig(NBConfiguration recfg) {
-        NBReconfigurable.applyMatching(recfg, dispensers.values());
+        NBReconfigurable.applyMatching(recfg, getDispensers());
     }
 
     @Override
     public NBConfigModel getReconfigModel() {
-        return NBReconfigurable.collectModels(this.getClass(),new ArrayList<>(dispensers.values()));
+        return NBReconfigurable.collectModels(this.getClass(),getDispensers());
+    }
+
+    List<DiagOpDispenser> getDispensers() {
+        synchronized (dispensers) {
+            return new ArrayList<>(dispensers.values());
+        }
     }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.diag;
+
+import io.nosqlbench.api.config.NBLabeledElement;
+import io.nosqlbench.engine.api.activityapi.planning.OpSequence;
+import io.nosqlbench.engine.api.activityconfig.OpsLoader;
+import io.nosqlbench.engine.api.activityconfig.yaml.OpTemplate;
+import io.nosqlbench.engine.api.activityconfig.yaml.OpTemplateFormat;
+import io.nosqlbench.engine.api.activityimpl.OpDispenser;
+import io.nosqlbench.engine.api.activityimpl.SimpleActivity;
+import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.Op;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DiagParallelInitTest {
+
+    private final static int OPS = 64;
+
+    @Test
+    public void testParallelInitKeepsAllDispensersInOrder() {
+        StringBuilder yaml = new StringBuilder("ops:\n");
+        for (int i = 0; i < OPS; i++) {
+            yaml.append(String.format("  op%02d:\n    check: type=noop\n", i));
+        }
+        List<String> names = IntStream.range(0, OPS).mapToObj(i -> String.format("op%02d", i)).toList();
+
+        InitActivity activity = new InitActivity("initthreads=8");
+        DiagDriverAdapter adapter = new DiagDriverAdapter();
+        adapter.applyConfig(adapter.getConfigModel().matchConfig(activity.getActivityDef().getParams()));
+
+        List<OpTemplate> templates = OpsLoader.loadString(yaml.toString(), OpTemplateFormat.yaml, Map.of(), null).getOps();
+        List<ParsedOp> pops = new ArrayList<>();
+        for (OpTemplate template : templates) {
+            pops.add(new ParsedOp(template, adapter.getConfiguration(), List.of(adapter.getPreprocessor()), activity));
+        }
+        List<DriverAdapter> adapters = Collections.nCopies(pops.size(), adapter);
+
+        OpSequence<OpDispenser<? extends Op>> sequence = activity.map(adapters, pops);
+
+        List<String> sequenced = sequence.getOps().stream()
+            .map(d -> ((DiagOpDispenser) d).getLabels().only("op"))
+            .toList();
+        assertThat(sequenced).containsExactlyElementsOf(names);
+
+        List<DiagOpDispenser> mapped = ((DiagOpMapper) adapter.getOpMapper()).getDispensers();
+        assertThat(mapped).hasSize(OPS);
+        assertThat(mapped).containsExactlyInAnyOrderElementsOf(
+            sequence.getOps().stream().map(d -> (DiagOpDispenser) d).toList()
+        );
+    }
+
+    private static class InitActivity extends SimpleActivity {
+        InitActivity(String params) {
+            super("alias=diaginit;" + params, NBLabeledElement.EMPTY);
+        }
+
+        OpSequence<OpDispenser<? extends Op>> map(List<DriverAdapter> adapters, List<ParsedOp> pops) {
+            return createOpSourceFromParsedOps(new HashMap<>(), new HashMap<>(), adapters, pops);
+        }
+    }
+}
@@ -27,5 +27,8 @@ public enum DynamoDBCmdType {
     DeleteTable,
     PutItem,
     GetItem,
-    Query
+    Query,
+    BatchWriteItem,
+    BatchGetItem,
+    Scan
 }
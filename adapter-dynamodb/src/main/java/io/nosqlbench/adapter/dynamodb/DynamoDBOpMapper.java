@@ -42,7 +42,8 @@ public class DynamoDBOpMapper implements OpMapper<DynamoDBOp> {
     @Override
     public OpDispenser<DynamoDBOp> apply(ParsedOp op) {
         String space = op.getStaticConfigOr("space", "default");
-        DynamoDB ddb = cache.get(space).getDynamoDB();
+        DynamoDBSpace ddbSpace = cache.get(space);
+        DynamoDB ddb = ddbSpace.getDynamoDB();
 
         /*
          * If the user provides a body element, then they want to provide the JSON or
@@ -60,6 +61,9 @@ public class DynamoDBOpMapper implements OpMapper<DynamoDBOp> {
                 case PutItem -> new DDBPutItemOpDispenser(adapter, ddb, op, cmdType.targetFunction);
                 case GetItem -> new DDBGetItemOpDispenser(adapter, ddb, op, cmdType.targetFunction);
                 case Query -> new DDBQueryOpDispenser(adapter,ddb, op, cmdType.targetFunction);
+                case BatchWriteItem -> new DDBBatchWriteItemOpDispenser(adapter, ddbSpace, op, cmdType.targetFunction);
+                case BatchGetItem -> new DDBBatchGetItemOpDispenser(adapter, ddbSpace, op, cmdType.targetFunction);
+                case Scan -> new DDBScanOpDispenser(adapter, ddb, op, cmdType.targetFunction);
             };
         }
 
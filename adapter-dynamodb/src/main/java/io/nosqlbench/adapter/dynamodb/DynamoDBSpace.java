@@ -26,12 +26,18 @@ import io.nosqlbench.api.config.standard.NBConfigModel;
 import io.nosqlbench.api.config.standard.NBConfiguration;
 import io.nosqlbench.api.config.standard.Param;
 import io.nosqlbench.api.errors.OpConfigError;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-public class DynamoDBSpace {
+public class DynamoDBSpace implements AutoCloseable {
+    private final static Logger logger = LogManager.getLogger(DynamoDBSpace.class);
     private final String name;
     DynamoDB dynamoDB;
+    private final List<Runnable> closeHooks = new CopyOnWriteArrayList<>();
 
     public DynamoDBSpace(String name, NBConfiguration cfg) {
         this.name = name;
@@ -43,6 +49,14 @@ public class DynamoDBSpace {
         return dynamoDB;
     }
 
+    /**
+     * Add a hook to be run when this space is closed, before the client is shut down.
+     * This allows op dispensers to send any work which is still pending on their threads.
+     */
+    public void addCloseHook(Runnable hook) {
+        closeHooks.add(hook);
+    }
+
     private AmazonDynamoDB createClient(NBConfiguration cfg) {
         AmazonDynamoDBClientBuilder builder = AmazonDynamoDBClientBuilder.standard();
         Optional<String> region = cfg.getOptional("region");
@@ -109,4 +123,15 @@ public class DynamoDBSpace {
             .asReadOnly();
     }
 
+    @Override
+    public void close() {
+        for (Runnable closeHook : closeHooks) {
+            try {
+                closeHook.run();
+            } catch (Exception e) {
+                logger.warn("close hook threw exception in dynamodb space(" + this.name + "): " + e);
+            }
+        }
+        dynamoDB.shutdown();
+    }
 }
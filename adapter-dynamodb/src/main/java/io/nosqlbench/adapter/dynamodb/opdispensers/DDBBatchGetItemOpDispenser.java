@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.dynamodb.opdispensers;
+
+import com.amazonaws.services.dynamodbv2.document.DynamoDB;
+import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
+import com.amazonaws.services.dynamodbv2.document.TableKeysAndAttributes;
+import com.codahale.metrics.Counter;
+import io.nosqlbench.adapter.dynamodb.DynamoDBSpace;
+import io.nosqlbench.adapter.dynamodb.optypes.DDBBatchGetItemOp;
+import io.nosqlbench.adapter.dynamodb.optypes.DDBStagedCycles;
+import io.nosqlbench.adapter.dynamodb.optypes.DDBStagedOp;
+import io.nosqlbench.adapter.dynamodb.optypes.DynamoDBOp;
+import io.nosqlbench.api.engine.metrics.ActivityMetrics;
+import io.nosqlbench.api.errors.OpConfigError;
+import io.nosqlbench.engine.api.activityimpl.BaseOpDispenser;
+import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongFunction;
+
+/**
+ * <p>This dispenser gathers the keys of successive cycles on each thread into BatchGetItem
+ * requests of <em>batch</em> keys, up to the service limit of 100. Each cycle which does not complete
+ * a batch yields a {@link DDBStagedOp}, which only adds its key to the pending batch of the calling
+ * thread. The cycle which completes a batch yields a {@link DDBBatchGetItemOp}, which reads all of
+ * them at once and resubmits any unprocessed keys. The result size of that cycle is the number of
+ * items found for the whole batch.</p>
+ *
+ * <p>The other cycles of a batch are reported as successful before it is sent. If the batch can
+ * not be read, the error is raised on the cycle which sent it, and the other cycles are counted
+ * by the <em>discarded-cycles</em> metric of the op.</p>
+ *
+ * <p>A key which is repeated within a batch is only read once, since the service rejects duplicate
+ * keys. Any keys which are still pending when the activity ends are read when the space is closed.</p>
+ */
+public class DDBBatchGetItemOpDispenser extends BaseOpDispenser<DynamoDBOp, DynamoDBSpace> {
+    private final static Logger logger = LogManager.getLogger(DDBBatchGetItemOpDispenser.class);
+
+    public final static int MAX_BATCH_SIZE = 100;
+
+    private final DynamoDB ddb;
+    private final LongFunction<String> tableNameFunc;
+    private final LongFunction<PrimaryKey> keyFunc;
+    private final Optional<String> projection;
+    private final Optional<Boolean> consistentRead;
+    private final int batchSize;
+    private final int maxRetries;
+    private final Counter discardedCycles;
+    private final ThreadLocal<DDBPendingBatch<PrimaryKey>> batches = ThreadLocal.withInitial(this::newBatch);
+    private final Queue<DDBPendingBatch<PrimaryKey>> allBatches = new ConcurrentLinkedQueue<>();
+
+    public DDBBatchGetItemOpDispenser(DriverAdapter adapter, DynamoDBSpace space, ParsedOp cmd, LongFunction<?> targetFunc) {
+        super(adapter, cmd);
+        this.ddb = space.getDynamoDB();
+        this.tableNameFunc = l -> targetFunc.apply(l).toString();
+        LongFunction<? extends Map> keysmap_func = cmd.getAsRequiredFunction("key", Map.class);
+        this.keyFunc = l -> {
+            PrimaryKey pk = new PrimaryKey();
+            keysmap_func.apply(l).forEach((k, v) -> pk.addComponent(k.toString(), v));
+            return pk;
+        };
+        if (cmd.isDynamic("projection") || cmd.isDynamic("ConsistentRead")) {
+            throw new OpConfigError("projection and ConsistentRead apply to the whole batch, so they must be static for op '" + cmd.getName() + "'");
+        }
+        this.projection = cmd.getOptionalStaticValue("projection", String.class);
+        this.consistentRead = cmd.getOptionalStaticValue("ConsistentRead", Boolean.class);
+        this.batchSize = cmd.getStaticConfigOr("batch", MAX_BATCH_SIZE);
+        this.maxRetries = cmd.getStaticConfigOr("unprocessed_retries", 10);
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE || maxRetries < 0) {
+            throw new OpConfigError("batch must be between 1 and " + MAX_BATCH_SIZE +
+                ", and unprocessed_retries must not be negative, for op '" + cmd.getName() + "'");
+        }
+        this.discardedCycles = ActivityMetrics.counter(cmd, "discarded-cycles");
+        space.addCloseHook(this::flushPending);
+    }
+
+    private DDBPendingBatch<PrimaryKey> newBatch() {
+        DDBPendingBatch<PrimaryKey> batch = new DDBPendingBatch<>(batchSize, true);
+        allBatches.add(batch);
+        return batch;
+    }
+
+    @Override
+    public DynamoDBOp apply(long value) {
+        DDBPendingBatch.Drained<PrimaryKey> full = batches.get().add(tableNameFunc.apply(value), keyFunc.apply(value));
+        if (full == null) {
+            return new DDBStagedOp(ddb);
+        }
+        // the cycle which completed the batch reports its own outcome
+        return batchOf(full.getTables(), full.getCycles() - 1);
+    }
+
+    private DDBBatchGetItemOp batchOf(Map<String, Collection<PrimaryKey>> keysByTable, int stagedCycles) {
+        TableKeysAndAttributes[] reads = keysByTable.entrySet().stream()
+            .map(e -> {
+                TableKeysAndAttributes keys = new TableKeysAndAttributes(e.getKey())
+                    .withPrimaryKeys(e.getValue().toArray(new PrimaryKey[0]));
+                projection.ifPresent(keys::withProjectionExpression);
+                consistentRead.ifPresent(keys::withConsistentRead);
+                return keys;
+            })
+            .toArray(TableKeysAndAttributes[]::new);
+        return new DDBBatchGetItemOp(ddb, reads, maxRetries, new DDBStagedCycles(stagedCycles, discardedCycles));
+    }
+
+    private void flushPending() {
+        long items = 0;
+        for (DDBPendingBatch<PrimaryKey> batch : allBatches) {
+            DDBPendingBatch.Drained<PrimaryKey> pending = batch.drain();
+            if (!pending.isEmpty()) {
+                DDBBatchGetItemOp op = batchOf(pending.getTables(), pending.getCycles());
+                try {
+                    op.apply(0L);
+                    items += op.getResultSize();
+                } catch (RuntimeException e) {
+                    logger.error("Unable to read pending batched keys at close, " + discardedCycles.getCount() +
+                        " cycles have been discarded in total: " + e);
+                }
+            }
+        }
+        if (items > 0) {
+            long found = items;
+            logger.info(() -> "Read " + found + " items for pending batched keys at close");
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.dynamodb.opdispensers;
+
+import com.amazonaws.services.dynamodbv2.document.DynamoDB;
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.TableWriteItems;
+import com.codahale.metrics.Counter;
+import io.nosqlbench.adapter.dynamodb.DynamoDBSpace;
+import io.nosqlbench.adapter.dynamodb.optypes.DDBBatchWriteItemOp;
+import io.nosqlbench.adapter.dynamodb.optypes.DDBStagedCycles;
+import io.nosqlbench.adapter.dynamodb.optypes.DDBStagedOp;
+import io.nosqlbench.adapter.dynamodb.optypes.DynamoDBOp;
+import io.nosqlbench.api.engine.metrics.ActivityMetrics;
+import io.nosqlbench.api.errors.OpConfigError;
+import io.nosqlbench.engine.api.activityimpl.BaseOpDispenser;
+import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongFunction;
+
+/**
+ * <p>This dispenser gathers the items of successive cycles on each thread into BatchWriteItem
+ * requests of <em>batch</em> items, up to the service limit of 25. Each cycle which does not complete
+ * a batch yields a {@link DDBStagedOp}, which only adds its item to the pending batch of the calling
+ * thread. The cycle which completes a batch yields a {@link DDBBatchWriteItemOp}, which writes all of
+ * them at once and resubmits any unprocessed items.</p>
+ *
+ * <p>The other cycles of a batch are reported as successful before it is sent. If the batch can
+ * not be written, the error is raised on the cycle which sent it, and the other cycles are counted
+ * by the <em>discarded-cycles</em> metric of the op.</p>
+ *
+ * <p>The service rejects batches which put the same key twice, so the cycles of one batch
+ * should write distinct keys. Any items which are still pending when the activity ends are
+ * written when the space is closed.</p>
+ */
+public class DDBBatchWriteItemOpDispenser extends BaseOpDispenser<DynamoDBOp, DynamoDBSpace> {
+    private final static Logger logger = LogManager.getLogger(DDBBatchWriteItemOpDispenser.class);
+
+    public final static int MAX_BATCH_SIZE = 25;
+
+    private final DynamoDB ddb;
+    private final LongFunction<String> tableNameFunc;
+    private final LongFunction<? extends Item> itemfunc;
+    private final int batchSize;
+    private final int maxRetries;
+    private final Counter discardedCycles;
+    private final ThreadLocal<DDBPendingBatch<Item>> batches = ThreadLocal.withInitial(this::newBatch);
+    private final Queue<DDBPendingBatch<Item>> allBatches = new ConcurrentLinkedQueue<>();
+
+    public DDBBatchWriteItemOpDispenser(DriverAdapter adapter, DynamoDBSpace space, ParsedOp cmd, LongFunction<?> targetFunc) {
+        super(adapter, cmd);
+        this.ddb = space.getDynamoDB();
+        this.tableNameFunc = l -> targetFunc.apply(l).toString();
+        if (cmd.isDefined("item")) {
+            LongFunction<? extends Map> f1 = cmd.getAsRequiredFunction("item", Map.class);
+            this.itemfunc = l -> Item.fromMap(f1.apply(l));
+        } else if (cmd.isDefined("json")) {
+            LongFunction<? extends String> f1 = cmd.getAsRequiredFunction("json", String.class);
+            this.itemfunc = l -> Item.fromJSON(f1.apply(l));
+        } else {
+            throw new OpConfigError("BatchWriteItem op templates require either an 'item' map field or a 'json' text field");
+        }
+        this.batchSize = cmd.getStaticConfigOr("batch", MAX_BATCH_SIZE);
+        this.maxRetries = cmd.getStaticConfigOr("unprocessed_retries", 10);
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE || maxRetries < 0) {
+            throw new OpConfigError("batch must be between 1 and " + MAX_BATCH_SIZE +
+                ", and unprocessed_retries must not be negative, for op '" + cmd.getName() + "'");
+        }
+        this.discardedCycles = ActivityMetrics.counter(cmd, "discarded-cycles");
+        space.addCloseHook(this::flushPending);
+    }
+
+    private DDBPendingBatch<Item> newBatch() {
+        DDBPendingBatch<Item> batch = new DDBPendingBatch<>(batchSize, false);
+        allBatches.add(batch);
+        return batch;
+    }
+
+    @Override
+    public DynamoDBOp apply(long value) {
+        DDBPendingBatch.Drained<Item> full = batches.get().add(tableNameFunc.apply(value), itemfunc.apply(value));
+        if (full == null) {
+            return new DDBStagedOp(ddb);
+        }
+        // the cycle which completed the batch reports its own outcome
+        return batchOf(full.getTables(), full.getCycles() - 1);
+    }
+
+    private DDBBatchWriteItemOp batchOf(Map<String, Collection<Item>> itemsByTable, int stagedCycles) {
+        TableWriteItems[] writes = itemsByTable.entrySet().stream()
+            .map(e -> new TableWriteItems(e.getKey()).withItemsToPut(e.getValue()))
+            .toArray(TableWriteItems[]::new);
+        return new DDBBatchWriteItemOp(ddb, writes, maxRetries, new DDBStagedCycles(stagedCycles, discardedCycles));
+    }
+
+    private void flushPending() {
+        long items = 0;
+        for (DDBPendingBatch<Item> batch : allBatches) {
+            DDBPendingBatch.Drained<Item> pending = batch.drain();
+            if (!pending.isEmpty()) {
+                DDBBatchWriteItemOp op = batchOf(pending.getTables(), pending.getCycles());
+                try {
+                    op.apply(0L);
+                    items += op.getResultSize();
+                } catch (RuntimeException e) {
+                    logger.error("Unable to write pending batched items at close, " + discardedCycles.getCount() +
+                        " cycles have been discarded in total: " + e);
+                }
+            }
+        }
+        if (items > 0) {
+            long flushed = items;
+            logger.info(() -> "Wrote " + flushed + " pending batched items at close");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.dynamodb.opdispensers;
+
+import java.util.*;
+
+/**
+ * The pending elements of the batch of one thread, grouped by table in the order they were added.
+ * This is only shared with close hooks, which run after the thread is done with it.
+ * @param <T> the type of the batched elements, items for writes or keys for reads
+ */
+final class DDBPendingBatch<T> {
+    private final int batchSize;
+    private final boolean distinct;
+    private Map<String, Collection<T>> tables = new LinkedHashMap<>();
+    private int size = 0;
+    private int cycles = 0;
+
+    /**
+     * @param batchSize the number of elements which completes a batch
+     * @param distinct whether equal elements of the same table are only sent once per batch
+     */
+    DDBPendingBatch(int batchSize, boolean distinct) {
+        this.batchSize = batchSize;
+        this.distinct = distinct;
+    }
+
+    /**
+     * Add the element of one cycle to the batch.
+     * @return the batch, if this element completed it, or null otherwise
+     */
+    synchronized Drained<T> add(String table, T element) {
+        Collection<T> pending = tables.computeIfAbsent(table, t -> distinct ? new LinkedHashSet<>() : new ArrayList<>());
+        if (pending.add(element)) {
+            size++;
+        }
+        cycles++;
+        return (size >= batchSize) ? drain() : null;
+    }
+
+    synchronized Drained<T> drain() {
+        Drained<T> drained = new Drained<>(tables, cycles);
+        tables = new LinkedHashMap<>();
+        size = 0;
+        cycles = 0;
+        return drained;
+    }
+
+    /**
+     * The elements of a batch by table, and the number of cycles which added them. This can be
+     * more than the number of elements when repeated elements are only sent once.
+     */
+    static final class Drained<T> {
+        private final Map<String, Collection<T>> tables;
+        private final int cycles;
+
+        private Drained(Map<String, Collection<T>> tables, int cycles) {
+            this.tables = tables;
+            this.cycles = cycles;
+        }
+
+        Map<String, Collection<T>> getTables() {
+            return tables;
+        }
+
+        int getCycles() {
+            return cycles;
+        }
+
+        boolean isEmpty() {
+            return cycles == 0;
+        }
+    }
+}
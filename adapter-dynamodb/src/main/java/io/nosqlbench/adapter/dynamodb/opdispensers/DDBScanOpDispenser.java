@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.dynamodb.opdispensers;
+
+import com.amazonaws.services.dynamodbv2.document.DynamoDB;
+import com.amazonaws.services.dynamodbv2.document.Table;
+import com.amazonaws.services.dynamodbv2.document.spec.ScanSpec;
+import io.nosqlbench.adapter.dynamodb.DynamoDBSpace;
+import io.nosqlbench.adapter.dynamodb.optypes.DDBScanOp;
+import io.nosqlbench.adapter.dynamodb.optypes.DynamoDBOp;
+import io.nosqlbench.api.errors.OpConfigError;
+import io.nosqlbench.engine.api.activityimpl.BaseOpDispenser;
+import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+
+import java.util.Optional;
+import java.util.function.LongFunction;
+
+/**
+ * <p>Each cycle scans one segment of the table to the end. With <em>TotalSegments</em> set to N,
+ * cycle c scans segment c mod N unless a <em>Segment</em> is given, so running N cycles over
+ * N threads performs a parallel scan of the whole table.</p>
+ *
+ * <pre>{@code
+ * {
+ *    "ConsistentRead": boolean,
+ *    "FilterExpression": "string",
+ *    "Limit": number,
+ *    "ProjectionExpression": "string",
+ *    "Segment": number,
+ *    "TotalSegments": number,
+ *    "TableName": "string"
+ * }
+ * }</pre>
+ */
+public class DDBScanOpDispenser extends BaseOpDispenser<DynamoDBOp, DynamoDBSpace> {
+
+    private final DynamoDB ddb;
+    private final LongFunction<Table> tableFunc;
+    private final LongFunction<ScanSpec> scanSpecFunc;
+
+    public DDBScanOpDispenser(DriverAdapter adapter, DynamoDB ddb, ParsedOp cmd, LongFunction<?> targetFunc) {
+        super(adapter, cmd);
+        this.ddb = ddb;
+        LongFunction<String> tableNameFunc = l -> targetFunc.apply(l).toString();
+        this.tableFunc = l -> ddb.getTable(tableNameFunc.apply(l));
+        this.scanSpecFunc = resolveScanSpecFunc(cmd);
+    }
+
+    @Override
+    public DDBScanOp apply(long cycle) {
+        Table table = tableFunc.apply(cycle);
+        ScanSpec scanSpec = scanSpecFunc.apply(cycle);
+        return new DDBScanOp(ddb, table, scanSpec);
+    }
+
+    private LongFunction<ScanSpec> resolveScanSpecFunc(ParsedOp cmd) {
+
+        LongFunction<ScanSpec> func = l -> new ScanSpec();
+
+        int totalSegments = cmd.getStaticConfigOr("TotalSegments", 1);
+        if (totalSegments < 1) {
+            throw new OpConfigError("TotalSegments must be at least 1 for op '" + cmd.getName() + "'");
+        }
+        if (totalSegments > 1) {
+            LongFunction<Integer> segmentFunc = cmd.getAsOptionalFunction("Segment", Integer.class)
+                .orElse(l -> (int) (l % totalSegments));
+            LongFunction<ScanSpec> finalFunc = func;
+            func = l -> finalFunc.apply(l).withSegment(segmentFunc.apply(l)).withTotalSegments(totalSegments);
+        }
+
+        Optional<LongFunction<String>> projFunc = cmd.getAsOptionalFunction("projection", String.class);
+        if (projFunc.isPresent()) {
+            LongFunction<ScanSpec> finalFunc = func;
+            LongFunction<String> af = projFunc.get();
+            func = l -> finalFunc.apply(l).withProjectionExpression(af.apply(l));
+        }
+
+        Optional<LongFunction<String>> filterFunc = cmd.getAsOptionalFunction("FilterExpression", String.class);
+        if (filterFunc.isPresent()) {
+            LongFunction<ScanSpec> finalFunc = func;
+            LongFunction<String> ff = filterFunc.get();
+            func = l -> finalFunc.apply(l).withFilterExpression(ff.apply(l));
+        }
+
+        Optional<LongFunction<Boolean>> consistentRead = cmd.getAsOptionalFunction("ConsistentRead", boolean.class);
+        if (consistentRead.isPresent()) {
+            LongFunction<ScanSpec> finalFunc = func;
+            LongFunction<Boolean> consistentReadFunc = consistentRead.get();
+            func = l -> finalFunc.apply(l).withConsistentRead(consistentReadFunc.apply(l));
+        }
+
+        Optional<LongFunction<Integer>> limitFunc = cmd.getAsOptionalFunction("Limit", Integer.class);
+        if (limitFunc.isPresent()) {
+            LongFunction<Integer> limitf = limitFunc.get();
+            LongFunction<ScanSpec> finalFunc = func;
+            func = l -> finalFunc.apply(l).withMaxPageSize(limitf.apply(l));
+        }
+
+        return func;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.dynamodb.optypes;
+
+import com.amazonaws.services.dynamodbv2.document.BatchGetItemOutcome;
+import com.amazonaws.services.dynamodbv2.document.DynamoDB;
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.TableKeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.OpResultSize;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the items of several cycles in one BatchGetItem request. Any keys which the service
+ * leaves unprocessed are resubmitted with an increasing delay, up to the given number of retries.
+ * The result is the items which were found, in no particular order. If the batch can not be read,
+ * the error is raised on this cycle, and the other cycles of the batch are counted as discarded.
+ * @see <a href="https://docs.aws.amazon.com/amazondynamodb/latest/APIReference/API_BatchGetItem.html">BatchGetItem API</a>
+ */
+public class DDBBatchGetItemOp extends DynamoDBOp implements OpResultSize {
+
+    private final TableKeysAndAttributes[] tableKeys;
+    private final int maxRetries;
+    private final DDBStagedCycles staged;
+    private int lastRetries = 0;
+    private long resultSize = 0;
+
+    public DDBBatchGetItemOp(DynamoDB ddb, TableKeysAndAttributes[] tableKeys, int maxRetries, DDBStagedCycles staged) {
+        super(ddb);
+        this.tableKeys = tableKeys;
+        this.maxRetries = maxRetries;
+        this.staged = staged;
+    }
+
+    @Override
+    public List<Item> apply(long value) {
+        int retries = 0;
+        try {
+            List<Item> found = new ArrayList<>();
+            BatchGetItemOutcome outcome = ddb.batchGetItem(tableKeys);
+            addItems(outcome, found);
+            Map<String, KeysAndAttributes> unprocessed = outcome.getUnprocessedKeys();
+            while (!unprocessed.isEmpty()) {
+                if (retries >= maxRetries) {
+                    throw new RuntimeException("Unable to read the unprocessed keys of " + unprocessed.size() +
+                        " tables of a batch after " + retries + " retries, discarding " +
+                        staged.getCycles() + " staged cycles");
+                }
+                backoff(retries++);
+                outcome = ddb.batchGetItemUnprocessed(unprocessed);
+                addItems(outcome, found);
+                unprocessed = outcome.getUnprocessedKeys();
+            }
+            staged.sent();
+            resultSize = found.size();
+            return found;
+        } catch (RuntimeException e) {
+            staged.failed();
+            throw e;
+        } finally {
+            lastRetries = retries;
+        }
+    }
+
+    private static void addItems(BatchGetItemOutcome outcome, List<Item> found) {
+        for (List<Item> items : outcome.getTableItems().values()) {
+            found.addAll(items);
+        }
+    }
+
+    /**
+     * @return the number of times that unprocessed keys were resubmitted by the last attempt
+     */
+    public int getRetries() {
+        return lastRetries;
+    }
+
+    @Override
+    public long getResultSize() {
+        return resultSize;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.dynamodb.optypes;
+
+import com.amazonaws.services.dynamodbv2.document.BatchWriteItemOutcome;
+import com.amazonaws.services.dynamodbv2.document.DynamoDB;
+import com.amazonaws.services.dynamodbv2.document.TableWriteItems;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.OpResultSize;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the items of several cycles in one BatchWriteItem request. Any items which the
+ * service leaves unprocessed are resubmitted with an increasing delay, up to the given
+ * number of retries. If the batch can not be written, the error is raised on this cycle, and
+ * the other cycles of the batch are counted as discarded.
+ * @see <a href="https://docs.aws.amazon.com/amazondynamodb/latest/APIReference/API_BatchWriteItem.html">BatchWriteItem API</a>
+ */
+public class DDBBatchWriteItemOp extends DynamoDBOp implements OpResultSize {
+
+    private final TableWriteItems[] tableWriteItems;
+    private final int maxRetries;
+    private final DDBStagedCycles staged;
+    private int lastRetries = 0;
+    private long resultSize = 0;
+
+    public DDBBatchWriteItemOp(DynamoDB ddb, TableWriteItems[] tableWriteItems, int maxRetries, DDBStagedCycles staged) {
+        super(ddb);
+        this.tableWriteItems = tableWriteItems;
+        this.maxRetries = maxRetries;
+        this.staged = staged;
+    }
+
+    @Override
+    public BatchWriteItemOutcome apply(long value) {
+        int retries = 0;
+        try {
+            BatchWriteItemOutcome outcome = ddb.batchWriteItem(tableWriteItems);
+            Map<String, List<WriteRequest>> unprocessed = outcome.getUnprocessedItems();
+            while (!unprocessed.isEmpty()) {
+                if (retries >= maxRetries) {
+                    throw new RuntimeException("Unable to write " + countOf(unprocessed) +
+                        " unprocessed items of a batch after " + retries + " retries, discarding " +
+                        staged.getCycles() + " staged cycles");
+                }
+                backoff(retries++);
+                outcome = ddb.batchWriteItemUnprocessed(unprocessed);
+                unprocessed = outcome.getUnprocessedItems();
+            }
+            staged.sent();
+            long written = 0;
+            for (TableWriteItems writes : tableWriteItems) {
+                written += writes.getItemsToPut().size();
+            }
+            resultSize = written;
+            return outcome;
+        } catch (RuntimeException e) {
+            staged.failed();
+            throw e;
+        } finally {
+            lastRetries = retries;
+        }
+    }
+
+    private static int countOf(Map<String, List<WriteRequest>> unprocessed) {
+        return unprocessed.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * @return the number of times that unprocessed items were resubmitted by the last attempt
+     */
+    public int getRetries() {
+        return lastRetries;
+    }
+
+    @Override
+    public long getResultSize() {
+        return resultSize;
+    }
+}
@@ -17,12 +17,18 @@
 package io.nosqlbench.adapter.dynamodb.optypes;
 
 import com.amazonaws.services.dynamodbv2.document.DynamoDB;
+import com.amazonaws.services.dynamodbv2.document.Item;
 import com.amazonaws.services.dynamodbv2.document.ItemCollection;
+import com.amazonaws.services.dynamodbv2.document.Page;
 import com.amazonaws.services.dynamodbv2.document.QueryOutcome;
 import com.amazonaws.services.dynamodbv2.document.Table;
 import com.amazonaws.services.dynamodbv2.document.spec.QuerySpec;
 import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.OpResultSize;
 
+/**
+ * The query is paged through to the end within the op, so that the latency of the op
+ * includes fetching every page of the result, and the result size is the number of items in all of them.
+ */
 public class DDBQueryOp extends DynamoDBOp implements OpResultSize {
 
     private final Table table;
@@ -38,7 +44,11 @@ public class DDBQueryOp extends DynamoDBOp implements OpResultSize {
     @Override
     public ItemCollection<QueryOutcome> apply(long value) {
         ItemCollection<QueryOutcome> result = table.query(querySpec);
-        this.resultSize = result.getAccumulatedItemCount();
+        long items = 0;
+        for (Page<Item, QueryOutcome> page : result.pages()) {
+            items += page.size();
+        }
+        this.resultSize = items;
         return result;
     }
 
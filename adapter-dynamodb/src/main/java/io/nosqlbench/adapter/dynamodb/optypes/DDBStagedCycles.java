@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.dynamodb.optypes;
+
+import com.codahale.metrics.Counter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The cycles whose elements were staged into a batch, and reported as successful, before the batch
+ * was sent. If the batch can not be sent, they are counted as discarded. They are only counted once
+ * per batch, even when the op which sends it is retried, and they are uncounted again if a retry succeeds.
+ */
+public class DDBStagedCycles {
+    private final static Logger logger = LogManager.getLogger(DDBStagedCycles.class);
+
+    private final int cycles;
+    private final Counter discardedCycles;
+    private boolean discarded = false;
+
+    /**
+     * @param cycles the number of cycles which were reported as successful before the batch was sent
+     * @param discardedCycles counts the cycles whose elements were never sent because their batch failed
+     */
+    public DDBStagedCycles(int cycles, Counter discardedCycles) {
+        this.cycles = cycles;
+        this.discardedCycles = discardedCycles;
+    }
+
+    public int getCycles() {
+        return cycles;
+    }
+
+    synchronized void failed() {
+        if (!discarded && cycles > 0) {
+            discarded = true;
+            discardedCycles.inc(cycles);
+            logger.warn("Discarded the batched elements of " + cycles + " cycles, which were already reported as successful");
+        }
+    }
+
+    synchronized void sent() {
+        if (discarded) {
+            discarded = false;
+            discardedCycles.dec(cycles);
+        }
+    }
+}
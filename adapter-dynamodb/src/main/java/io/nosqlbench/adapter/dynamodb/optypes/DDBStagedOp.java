@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.dynamodb.optypes;
+
+import com.amazonaws.services.dynamodbv2.document.DynamoDB;
+
+/**
+ * A cycle whose item or key has been added to the pending batch of its thread instead of being
+ * sent on its own. It is sent to the service later, as part of the batch op of another cycle.
+ */
+public class DDBStagedOp extends DynamoDBOp {
+
+    public DDBStagedOp(DynamoDB ddb) {
+        super(ddb);
+    }
+
+    @Override
+    public Object apply(long value) {
+        return null;
+    }
+}
@@ -26,8 +26,25 @@ public abstract class DynamoDBOp implements CycleOp<Object> {
 
     protected DynamoDB ddb;
 
+    private final static long BASE_BACKOFF_MILLIS = 25;
+    private final static long MAX_BACKOFF_MILLIS = 1000;
+
     public DynamoDBOp(DynamoDB ddb) {
         this.ddb = ddb;
     }
 
+    /**
+     * Wait before resubmitting the unprocessed part of a batch, doubling the delay for each attempt.
+     * @param attempt the number of previous resubmissions of the same batch
+     */
+    protected static void backoff(int attempt) {
+        long delay = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << Math.min(attempt, 16));
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
 }
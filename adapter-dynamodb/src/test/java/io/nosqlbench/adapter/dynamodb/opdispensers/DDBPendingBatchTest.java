@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.dynamodb.opdispensers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DDBPendingBatchTest {
+
+    @Test
+    public void testBatchCompletesAtBatchSize() {
+        DDBPendingBatch<Integer> batch = new DDBPendingBatch<>(3, false);
+        assertThat(batch.add("a", 1)).isNull();
+        assertThat(batch.add("b", 2)).isNull();
+        DDBPendingBatch.Drained<Integer> full = batch.add("a", 3);
+        assertThat(full.getCycles()).isEqualTo(3);
+        assertThat(full.getTables().get("a")).isEqualTo(List.of(1, 3));
+        assertThat(full.getTables().get("b")).isEqualTo(List.of(2));
+        assertThat(batch.drain().isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testRepeatedElementsCountTheirCycles() {
+        DDBPendingBatch<Integer> batch = new DDBPendingBatch<>(2, true);
+        assertThat(batch.add("a", 1)).isNull();
+        assertThat(batch.add("a", 1)).isNull();
+        DDBPendingBatch.Drained<Integer> full = batch.add("a", 2);
+        assertThat(full.getCycles()).isEqualTo(3);
+        assertThat(full.getTables().get("a").size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testDrainTakesPartialBatch() {
+        DDBPendingBatch<Integer> batch = new DDBPendingBatch<>(10, true);
+        batch.add("a", 1);
+        batch.add("a", 1);
+        DDBPendingBatch.Drained<Integer> pending = batch.drain();
+        assertThat(pending.isEmpty()).isFalse();
+        assertThat(pending.getCycles()).isEqualTo(2);
+        assertThat(batch.drain().isEmpty()).isTrue();
+    }
+}
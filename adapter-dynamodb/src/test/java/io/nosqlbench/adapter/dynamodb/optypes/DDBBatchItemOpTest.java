@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.dynamodb.optypes;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.document.BatchGetItemOutcome;
+import com.amazonaws.services.dynamodbv2.document.BatchWriteItemOutcome;
+import com.amazonaws.services.dynamodbv2.document.DynamoDB;
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
+import com.amazonaws.services.dynamodbv2.document.TableKeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.document.TableWriteItems;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughputExceededException;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.codahale.metrics.Counter;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Exercises the unprocessed element handling of the batch ops against a scripted client, in the
+ * same way that DynamoDB Local or the service leaves part of a batch unprocessed under load.
+ */
+public class DDBBatchItemOpTest {
+
+    /**
+     * Answers each batch request with the next scripted outcome, or throws it if it is an exception.
+     */
+    private static class ScriptedDynamoDB extends DynamoDB {
+        private final Deque<Object> script = new ArrayDeque<>();
+        int requests;
+
+        ScriptedDynamoDB() {
+            super((AmazonDynamoDB) Proxy.newProxyInstance(
+                DDBBatchItemOpTest.class.getClassLoader(), new Class[]{AmazonDynamoDB.class},
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                }));
+        }
+
+        ScriptedDynamoDB then(Object outcome) {
+            script.add(outcome);
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T next() {
+            requests++;
+            Object next = script.remove();
+            if (next instanceof RuntimeException e) {
+                throw e;
+            }
+            return (T) next;
+        }
+
+        @Override
+        public BatchWriteItemOutcome batchWriteItem(TableWriteItems... tableWriteItems) {
+            return next();
+        }
+
+        @Override
+        public BatchWriteItemOutcome batchWriteItemUnprocessed(Map<String, List<WriteRequest>> unprocessedItems) {
+            return next();
+        }
+
+        @Override
+        public BatchGetItemOutcome batchGetItem(TableKeysAndAttributes... tableKeysAndAttributes) {
+            return next();
+        }
+
+        @Override
+        public BatchGetItemOutcome batchGetItemUnprocessed(Map<String, KeysAndAttributes> unprocessedKeys) {
+            return next();
+        }
+    }
+
+    private static BatchWriteItemOutcome written(int unprocessed) {
+        List<WriteRequest> requests = new ArrayList<>();
+        for (int i = 0; i < unprocessed; i++) {
+            requests.add(new WriteRequest().withPutRequest(
+                new PutRequest().withItem(Map.of("k", new AttributeValue().withN(String.valueOf(i))))));
+        }
+        Map<String, List<WriteRequest>> unprocessedItems = unprocessed > 0 ? Map.of("t", requests) : Map.of();
+        return new BatchWriteItemOutcome(new BatchWriteItemResult().withUnprocessedItems(unprocessedItems));
+    }
+
+    private static BatchGetItemOutcome read(int found, boolean unprocessed) {
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        for (int i = 0; i < found; i++) {
+            items.add(Map.of("k", new AttributeValue().withN(String.valueOf(i))));
+        }
+        Map<String, KeysAndAttributes> unprocessedKeys = unprocessed
+            ? Map.of("t", new KeysAndAttributes().withKeys(Map.of("k", new AttributeValue().withN("0"))))
+            : Map.of();
+        return new BatchGetItemOutcome(new BatchGetItemResult()
+            .withResponses(Map.of("t", items))
+            .withUnprocessedKeys(unprocessedKeys));
+    }
+
+    private static TableWriteItems[] writes(int items) {
+        List<Item> toPut = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            toPut.add(new Item().withPrimaryKey("k", i));
+        }
+        return new TableWriteItems[]{new TableWriteItems("t").withItemsToPut(toPut)};
+    }
+
+    private static TableKeysAndAttributes[] reads(int keys) {
+        PrimaryKey[] pks = new PrimaryKey[keys];
+        for (int i = 0; i < keys; i++) {
+            pks[i] = new PrimaryKey("k", i);
+        }
+        return new TableKeysAndAttributes[]{new TableKeysAndAttributes("t").withPrimaryKeys(pks)};
+    }
+
+    @Test
+    public void testWriteResubmitsUnprocessedItems() {
+        ScriptedDynamoDB ddb = new ScriptedDynamoDB().then(written(3)).then(written(1)).then(written(0));
+        Counter discarded = new Counter();
+        DDBBatchWriteItemOp op = new DDBBatchWriteItemOp(ddb, writes(5), 2, new DDBStagedCycles(4, discarded));
+        op.apply(4L);
+        assertThat(ddb.requests).isEqualTo(3);
+        assertThat(op.getRetries()).isEqualTo(2);
+        assertThat(op.getResultSize()).isEqualTo(5L);
+        assertThat(discarded.getCount()).isEqualTo(0L);
+    }
+
+    @Test
+    public void testWriteRetriesStartOverOnEachAttempt() {
+        ScriptedDynamoDB ddb = new ScriptedDynamoDB()
+            .then(written(2)).then(written(0))
+            .then(written(2)).then(written(0));
+        DDBBatchWriteItemOp op = new DDBBatchWriteItemOp(ddb, writes(5), 1, new DDBStagedCycles(4, new Counter()));
+        op.apply(4L);
+        op.apply(4L);
+        assertThat(op.getRetries()).isEqualTo(1);
+        assertThat(op.getResultSize()).isEqualTo(5L);
+    }
+
+    @Test
+    public void testWriteFailureCountsStagedCyclesOnce() {
+        ScriptedDynamoDB ddb = new ScriptedDynamoDB()
+            .then(written(2)).then(written(2))
+            .then(new ProvisionedThroughputExceededException("slow down"))
+            .then(written(0));
+        Counter discarded = new Counter();
+        DDBBatchWriteItemOp op = new DDBBatchWriteItemOp(ddb, writes(5), 1, new DDBStagedCycles(4, discarded));
+
+        assertThatExceptionOfType(RuntimeException.class).isThrownBy(() -> op.apply(4L))
+            .withMessageContaining("discarding 4 staged cycles");
+        assertThat(discarded.getCount()).isEqualTo(4L);
+
+        // a retry of the same cycle which fails again does not count the batch twice
+        assertThatExceptionOfType(ProvisionedThroughputExceededException.class).isThrownBy(() -> op.apply(4L));
+        assertThat(discarded.getCount()).isEqualTo(4L);
+
+        // and one which succeeds means that the staged items were written after all
+        op.apply(4L);
+        assertThat(discarded.getCount()).isEqualTo(0L);
+    }
+
+    @Test
+    public void testGetGathersItemsOfUnprocessedKeys() {
+        ScriptedDynamoDB ddb = new ScriptedDynamoDB().then(read(3, true)).then(read(2, false));
+        DDBBatchGetItemOp op = new DDBBatchGetItemOp(ddb, reads(5), 2, new DDBStagedCycles(4, new Counter()));
+        List<Item> items = op.apply(4L);
+        assertThat(items.size()).isEqualTo(5);
+        assertThat(op.getResultSize()).isEqualTo(5L);
+        assertThat(op.getRetries()).isEqualTo(1);
+    }
+
+    @Test
+    public void testGetFailureCountsStagedCycles() {
+        ScriptedDynamoDB ddb = new ScriptedDynamoDB().then(read(3, true)).then(read(0, true));
+        Counter discarded = new Counter();
+        DDBBatchGetItemOp op = new DDBBatchGetItemOp(ddb, reads(5), 1, new DDBStagedCycles(7, discarded));
+        assertThatExceptionOfType(RuntimeException.class).isThrownBy(() -> op.apply(4L))
+            .withMessageContaining("after 1 retries, discarding 7 staged cycles");
+        assertThat(discarded.getCount()).isEqualTo(7L);
+    }
+}
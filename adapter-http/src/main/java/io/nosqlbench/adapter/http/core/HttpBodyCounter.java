@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.http.core;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+/**
+ * A response body subscriber which only counts the bytes of the body as they are received,
+ * and then drops them. This is used in place of a body handler which decodes the whole body
+ * when nothing needs to look at its content.
+ */
+public class HttpBodyCounter implements Flow.Subscriber<List<ByteBuffer>> {
+
+    /**
+     * A body handler which yields the number of bytes in the response body
+     */
+    public final static HttpResponse.BodyHandler<Long> HANDLER =
+        info -> HttpResponse.BodySubscribers.fromSubscriber(new HttpBodyCounter(), HttpBodyCounter::getCount);
+
+    private long count;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> buffers) {
+        for (ByteBuffer buffer : buffers) {
+            count += buffer.remaining();
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+    }
+
+    @Override
+    public void onComplete() {
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
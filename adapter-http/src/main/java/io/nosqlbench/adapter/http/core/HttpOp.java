@@ -18,16 +18,26 @@ package io.nosqlbench.adapter.http.core;
 
 import io.nosqlbench.adapter.http.errors.InvalidResponseBodyException;
 import io.nosqlbench.adapter.http.errors.InvalidStatusCodeException;
-import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.RunnableOp;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.AsyncCycleOp;
 
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
-public class HttpOp implements RunnableOp {
+/**
+ * An http request which is sent with the shared client of its space. The op completes when the
+ * response has been received and verified, so with the <em>async</em> activity parameter, each
+ * thread can have many requests in flight at once. Without it, the calling thread waits for each
+ * response, as before.
+ *
+ * The response body is only decoded into a string when it is needed for <em>ok-body</em>
+ * or for diagnostics. Otherwise, it is counted and dropped as it is received.
+ */
+public class HttpOp implements AsyncCycleOp<HttpResponse<?>> {
 
     public final Pattern ok_status;
     public final Pattern ok_body;
@@ -35,6 +45,7 @@ public class HttpOp implements RunnableOp {
     private final HttpClient client;
     private final HttpSpace space;
     private final long cycle;
+    private volatile long resultSize = -1;
 
     public HttpOp(HttpClient client, HttpRequest request, Pattern ok_status, Pattern ok_body, HttpSpace space, long cycle) {
         this.client = client;
@@ -46,44 +57,62 @@ public class HttpOp implements RunnableOp {
     }
 
     @Override
-    public void run() {
-        HttpResponse.BodyHandler<String> bodyreader = HttpResponse.BodyHandlers.ofString();
-        HttpResponse<String> response = null;
-        Exception error = null;
+    public CompletionStage<HttpResponse<?>> apply(long value) {
+        boolean needsBody = ok_body != null || space.isDiagnosticMode();
+        HttpResponse.BodyHandler<?> bodyreader = needsBody ? HttpResponse.BodyHandlers.ofString() : HttpBodyCounter.HANDLER;
         long startat = System.nanoTime();
-        try {
-            CompletableFuture<HttpResponse<String>> responseFuture = client.sendAsync(request, bodyreader);
-             response = responseFuture.get(space.getTimeoutMillis(), TimeUnit.MILLISECONDS);
-             space.getHttpMetrics().statusCodeHistogram.update(response.statusCode());
 
-            if (ok_status != null) {
-                if (!ok_status.matcher(String.valueOf(response.statusCode())).matches()) {
-                    throw new InvalidStatusCodeException(ok_status, response.statusCode());
-                }
-            }
-            if (ok_body != null) {
-                if (!ok_body.matcher(response.body()).matches()) {
-                    throw new InvalidResponseBodyException(ok_body, response.body());
-                }
+        CompletionStage<HttpResponse<?>> responseStage = client.sendAsync(request, bodyreader)
+            .orTimeout(space.getTimeoutMillis(), TimeUnit.MILLISECONDS)
+            .thenApply(this::verify);
+
+        if (space.isDiagnosticMode()) {
+            responseStage = responseStage.whenComplete((response, error) -> summarize(response, error, startat));
+        }
+        return responseStage;
+    }
+
+    private HttpResponse<?> verify(HttpResponse<?> response) {
+        space.getHttpMetrics().statusCodeHistogram.update(response.statusCode());
+        if (response.body() instanceof Long bytes) {
+            resultSize = bytes;
+        } else if (response.body() instanceof String body) {
+            resultSize = body.length();
+        }
+
+        if (ok_status != null) {
+            if (!ok_status.matcher(String.valueOf(response.statusCode())).matches()) {
+                throw new InvalidStatusCodeException(ok_status, response.statusCode());
             }
-        } catch (Exception e) {
-            error = e;
-        } finally {
-            long nanos = System.nanoTime() - startat;
-            if (space.isDiagnosticMode()) {
-                space.getConsole().summarizeRequest("request", error, request, System.out, cycle, nanos);
-                if (response != null) {
-                    space.getConsole().summarizeResponseChain(error, response, System.out, cycle, nanos);
-                } else {
-                    System.out.println("---- RESPONSE was null");
-                }
-                System.out.println();
+        }
+        if (ok_body != null) {
+            String body = (String) response.body();
+            if (!ok_body.matcher(body).matches()) {
+                throw new InvalidResponseBodyException(ok_body, body);
             }
-            // propogate exception so main error handling logic can take over
-            if (error!=null) {
-                throw new RuntimeException(error);
+        }
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void summarize(HttpResponse<?> response, Throwable failure, long startat) {
+        long nanos = System.nanoTime() - startat;
+        Throwable cause = (failure instanceof CompletionException && failure.getCause() != null) ? failure.getCause() : failure;
+        Exception error = cause == null ? null : (cause instanceof Exception e ? e : new RuntimeException(cause));
+        // Responses from concurrent requests are printed whole rather than interleaved
+        synchronized (System.out) {
+            space.getConsole().summarizeRequest("request", error, request, System.out, cycle, nanos);
+            if (response != null) {
+                space.getConsole().summarizeResponseChain(error, (HttpResponse<String>) response, System.out, cycle, nanos);
+            } else {
+                System.out.println("---- RESPONSE was null");
             }
+            System.out.println();
         }
+    }
 
+    @Override
+    public long getResultSize() {
+        return resultSize;
     }
 }
@@ -42,6 +42,7 @@ public class HttpSpace implements NBLabeledElement {
     private final NBConfiguration cfg;
     private HttpConsoleFormats console;
     private HttpClient.Redirect followRedirects;
+    private HttpClient.Version version;
     private Duration timeout;
     private long timeoutMillis;
     private final HttpClient httpclient;
@@ -65,6 +66,7 @@ public class HttpSpace implements NBLabeledElement {
         HttpClient.Builder builder = HttpClient.newBuilder();
         logger.debug(() -> "follow_redirects=>" + followRedirects);
         builder = builder.followRedirects(this.followRedirects);
+        builder = builder.version(this.version);
         builder = builder.connectTimeout(this.timeout);
         return builder.build();
     }
@@ -74,6 +76,11 @@ public class HttpSpace implements NBLabeledElement {
             HttpClient.Redirect.valueOf(
                 cfg.get("follow_redirects", String.class).toUpperCase(Locale.ROOT)
             );
+        this.version = HttpClient.Version.valueOf(
+            cfg.get("client_version", String.class)
+                .replaceAll("/1.1", "_1_1")
+                .replaceAll("/2.0", "_2")
+        );
         this.timeout = Duration.ofMillis(cfg.get("timeout", long.class));
         this.timeoutMillis = cfg.get("timeout", long.class);
         this.httpMetrics = new HttpMetrics(this);
@@ -121,6 +128,11 @@ public class HttpSpace implements NBLabeledElement {
                 .setDescription("Whether to follow redirects. Normal redirects are those which do not " +
                     "redirect from HTTPS to HTTP.")
             )
+            .add(Param.defaultTo("client_version", "HTTP/2.0")
+                .setRegex("HTTP/1.1|HTTP/2.0")
+                .setDescription("The preferred HTTP version of the client. With HTTP/2.0, concurrent requests " +
+                    "to the same server are multiplexed over a shared connection when the server supports it.")
+            )
             .add(Param.optional(List.of("diag","diagnostics"), String.class)
                 .setDescription("Print extended diagnostics. This option has numerous" +
                     " possible values. See the markdown docs for details. (nb help http)")
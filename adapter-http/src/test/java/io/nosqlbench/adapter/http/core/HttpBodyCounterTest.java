@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.http.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HttpBodyCounterTest {
+
+    @Test
+    public void testCountsAllBuffers() {
+        HttpResponse.BodySubscriber<Long> subscriber =
+            HttpResponse.BodySubscribers.fromSubscriber(new HttpBodyCounter(), HttpBodyCounter::getCount);
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        subscriber.onNext(List.of(ByteBuffer.wrap(new byte[10]), ByteBuffer.wrap(new byte[5])));
+        subscriber.onNext(List.of(ByteBuffer.wrap(new byte[100])));
+        subscriber.onComplete();
+
+        assertThat(subscriber.getBody().toCompletableFuture().join()).isEqualTo(115L);
+    }
+}
@@ -18,8 +18,10 @@ package io.nosqlbench.adapter.jdbc;
 
 import io.nosqlbench.adapter.jdbc.opdispensers.JDBCExecuteOpDispenser;
 import io.nosqlbench.adapter.jdbc.opdispensers.JDBCExecuteQueryOpDispenser;
+import io.nosqlbench.adapter.jdbc.opdispensers.JDBCPreparedOpDispenser;
 import io.nosqlbench.adapter.jdbc.optypes.JDBCOp;
 import io.nosqlbench.api.config.standard.NBConfiguration;
+import io.nosqlbench.api.errors.OpConfigError;
 import io.nosqlbench.engine.api.activityimpl.OpDispenser;
 import io.nosqlbench.engine.api.activityimpl.OpMapper;
 import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
@@ -80,6 +82,13 @@ public class JDBCOpMapper implements OpMapper<JDBCOp> {
                 // https://jdbc.postgresql.org/documentation/query/#example54dropping-a-table-in-jdbc
                 case execute, update ->
                     new JDBCExecuteOpDispenser(adapter, connectionLongFunc, op, opType.targetFunction);
+
+                // Any statement with bind points, prepared once for each thread's connection
+                // https://jdbc.postgresql.org/documentation/server-prepare/
+                case prepared ->
+                    new JDBCPreparedOpDispenser(adapter, spaceFunc, op, op.getAsTemplate(opType.field).orElseThrow(
+                        () -> new OpConfigError("No statement was found in the op template:" + op)
+                    ));
             };
         }
     }
@@ -27,5 +27,6 @@ public enum JDBCOpType {
     //See https://jdbc.postgresql.org/documentation/query/
     execute, // Used for CREATE|DROP DATABASE|TABLE operation. Returns nothing.
     query, // Used for SELECT operation. Returns a ResultSet object.
-    update // Used for updating records such as INSERT|UPDATE|DELETE. Returns the number of rows affected.
+    update, // Used for updating records such as INSERT|UPDATE|DELETE. Returns the number of rows affected.
+    prepared // Used for any statement with bind points, which is prepared once per connection and optionally batched.
 }
@@ -27,7 +27,12 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class JDBCSpace implements AutoCloseable {
     private final static Logger logger = LogManager.getLogger(JDBCSpace.class);
@@ -35,6 +40,9 @@ public class JDBCSpace implements AutoCloseable {
     private HikariConfig hikariConfig;
     private HikariDataSource hikariDataSource;
     private Connection connection;
+    private final ThreadLocal<Connection> threadConnection = ThreadLocal.withInitial(this::newThreadConnection);
+    private final Queue<Connection> threadConnections = new ConcurrentLinkedQueue<>();
+    private final List<Runnable> closeHooks = new CopyOnWriteArrayList<>();
 
     public JDBCSpace(String spaceName, NBConfiguration cfg) {
         this.spaceName = spaceName;
@@ -49,6 +57,39 @@ public class JDBCSpace implements AutoCloseable {
         return this.hikariDataSource;
     }
 
+    /**
+     * Each thread which calls this gets its own connection from the pool, which it keeps until
+     * the space is closed. This allows statements to be prepared, batched and committed per thread,
+     * without sharing a connection between threads. The pool must be large enough for all of the
+     * threads which use it, as set by <em>maximumPoolSize</em>.
+     *
+     * @return the connection of the calling thread
+     */
+    public Connection getThreadConnection() {
+        return threadConnection.get();
+    }
+
+    private Connection newThreadConnection() {
+        try {
+            Connection threadConn = hikariDataSource.getConnection();
+            threadConn.setAutoCommit(false);
+            threadConnections.add(threadConn);
+            return threadConn;
+        } catch (SQLException e) {
+            throw new RuntimeException("Unable to get a connection from the pool for thread " +
+                Thread.currentThread().getName() + " in jdbc space(" + spaceName + "): " + e, e);
+        }
+    }
+
+    /**
+     * Add a hook which is run when this space is closed, before any connections are closed. This allows
+     * op dispensers to send and commit any operations which are still buffered at the end of an activity.
+     * @param hook The hook to run on close
+     */
+    public void addCloseHook(Runnable hook) {
+        closeHooks.add(hook);
+    }
+
     private HikariDataSource createClient(NBConfiguration cfg) {
         hikariConfig = new HikariConfig();
 
@@ -241,7 +282,17 @@ public class JDBCSpace implements AutoCloseable {
 
     @Override
     public void close() {
+        for (Runnable closeHook : closeHooks) {
+            try {
+                closeHook.run();
+            } catch (Exception e) {
+                logger.warn("close hook threw exception in jdbc space(" + this.spaceName + "): " + e);
+            }
+        }
         try {
+            for (Connection threadConn : threadConnections) {
+                threadConn.close();
+            }
             this.getConnection().close();
             this.getHikariDataSource().close();
         } catch (Exception e) {
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.nosqlbench.adapter.jdbc.opdispensers;
+
+import com.codahale.metrics.Counter;
+import io.nosqlbench.adapter.jdbc.JDBCSpace;
+import io.nosqlbench.adapter.jdbc.optypes.JDBCOp;
+import io.nosqlbench.adapter.jdbc.optypes.JDBCPreparedOp;
+import io.nosqlbench.api.engine.metrics.ActivityMetrics;
+import io.nosqlbench.api.errors.OpConfigError;
+import io.nosqlbench.engine.api.activityimpl.BaseOpDispenser;
+import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+import io.nosqlbench.virtdata.core.templates.ParsedTemplateString;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongFunction;
+
+/**
+ * <p>This dispenser prepares the statement once on the connection of each thread, with a positional
+ * parameter in place of each bind point, and binds the values of the bind points for each cycle.</p>
+ *
+ * <p>With <em>batch</em> set above one, each thread adds the values of successive cycles to a JDBC batch,
+ * which is executed when it is full. With <em>commit_interval</em> set above one, each thread commits after
+ * that many executions rather than after every one. Any work which is still pending when the activity
+ * ends is executed and committed when the space is closed.</p>
+ *
+ * <p>Cycles which are batched or not yet committed are reported as successful before their work is durable.
+ * When an error rolls that work back, or the work pending at close can not be executed, the cycles which
+ * were lost are counted by the <em>discarded-cycles</em> metric of the op.</p>
+ */
+public class JDBCPreparedOpDispenser extends BaseOpDispenser<JDBCOp, JDBCSpace> {
+    private static final Logger logger = LogManager.getLogger(JDBCPreparedOpDispenser.class);
+
+    private final JDBCSpace space;
+    private final String preparedSql;
+    private final LongFunction<Object[]> fieldsF;
+    private final int batchSize;
+    private final int commitInterval;
+    private final int fetchSize;
+    private final Counter discardedCycles;
+    private final ThreadLocal<JDBCPreparedOp.ThreadState> states = ThreadLocal.withInitial(this::newState);
+    private final Queue<JDBCPreparedOp.ThreadState> allStates = new ConcurrentLinkedQueue<>();
+
+    public JDBCPreparedOpDispenser(DriverAdapter<JDBCOp, JDBCSpace> adapter, LongFunction<JDBCSpace> spaceFunc, ParsedOp op, ParsedTemplateString stmtTpl) {
+        super(adapter, op);
+        if (op.isDynamic("space")) {
+            throw new OpConfigError("Prepared statements and dynamic space values are not supported." +
+                " This would churn the prepared statements of each connection, defeating the purpose of prepared statements.");
+        }
+        this.space = spaceFunc.apply(0);
+        this.preparedSql = stmtTpl.getPositionalStatement(s -> "?");
+        this.fieldsF = op.newArrayBinderFromBindPoints(stmtTpl.getBindPoints());
+        this.batchSize = op.getStaticConfigOr("batch", 1);
+        this.commitInterval = op.getStaticConfigOr("commit_interval", 1);
+        this.fetchSize = op.getStaticConfigOr("fetch_size", 0);
+        if (batchSize < 1 || commitInterval < 1 || fetchSize < 0) {
+            throw new OpConfigError("batch and commit_interval must be at least 1, and fetch_size must not be negative, for op '" + op.getName() + "'");
+        }
+        this.discardedCycles = ActivityMetrics.counter(op, "discarded-cycles");
+        logger.debug(() -> "Prepared statement for '" + op.getName() + "': " + preparedSql);
+        space.addCloseHook(this::flushPending);
+    }
+
+    private JDBCPreparedOp.ThreadState newState() {
+        Connection connection = space.getThreadConnection();
+        try {
+            PreparedStatement statement = connection.prepareStatement(preparedSql);
+            if (fetchSize > 0) {
+                statement.setFetchSize(fetchSize);
+            }
+            JDBCPreparedOp.ThreadState state = new JDBCPreparedOp.ThreadState(connection, statement, discardedCycles);
+            allStates.add(state);
+            return state;
+        } catch (SQLException e) {
+            throw new OpConfigError("Unable to prepare statement '" + preparedSql + "': " + e);
+        }
+    }
+
+    @Override
+    public JDBCPreparedOp apply(long cycle) {
+        return new JDBCPreparedOp(states.get(), fieldsF.apply(cycle), preparedSql, batchSize, commitInterval);
+    }
+
+    private void flushPending() {
+        int statements = 0;
+        for (JDBCPreparedOp.ThreadState state : allStates) {
+            try {
+                statements += state.flush();
+            } catch (SQLException e) {
+                logger.error("Unable to execute pending statements at close, " + discardedCycles.getCount() +
+                    " cycles have been discarded in total: " + e);
+            }
+        }
+        if (statements > 0) {
+            int flushed = statements;
+            logger.info(() -> "Executed " + flushed + " pending batched statements at close");
+        }
+    }
+}
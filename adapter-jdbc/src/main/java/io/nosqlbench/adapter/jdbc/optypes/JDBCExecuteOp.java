@@ -52,8 +52,9 @@ public class JDBCExecuteOp extends JDBCOp {
             LOGGER.error(exMsg, sqlException);
             throw new RuntimeException(exMsg, sqlException);
         } catch (Exception ex) {
-            LOGGER.error(LOG_GENERIC_ERROR, ex);
-            throw new RuntimeException(LOG_GENERIC_ERROR, ex);
+            String errMsg = logGenericError();
+            LOGGER.error(errMsg, ex);
+            throw new RuntimeException(errMsg, ex);
         }
     }
 }
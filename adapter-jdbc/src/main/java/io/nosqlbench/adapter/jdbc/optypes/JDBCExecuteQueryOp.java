@@ -19,10 +19,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.sql.Connection;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.Objects;
 
 public class JDBCExecuteQueryOp extends JDBCOp {
     private static final Logger LOGGER = LogManager.getLogger(JDBCExecuteQueryOp.class);
@@ -36,22 +34,9 @@ public class JDBCExecuteQueryOp extends JDBCOp {
         try {
             boolean isResultSet = statement.execute(queryString);
 
-            ResultSet rs;
             if (isResultSet) {
-                int countResults = 0;
-                rs = statement.getResultSet();
-                Objects.requireNonNull(rs);
-                countResults += rs.getRow();
-
-                while (null != rs) {
-                    while (statement.getMoreResults() && -1 > statement.getUpdateCount()) {
-                        countResults += rs.getRow();
-                    }
-                    rs = statement.getResultSet();
-                }
-
-                finalResultCount = countResults;
-                LOGGER.debug(() -> LOG_ROWS_PROCESSED);
+                finalResultCount = countResults(statement, true);
+                LOGGER.debug(() -> logRowsProcessed());
             }
             connection.commit();
             LOGGER.debug(() -> LOG_COMMIT_SUCCESS);
@@ -61,8 +46,9 @@ public class JDBCExecuteQueryOp extends JDBCOp {
             LOGGER.error(exMsg, sqlException);
             throw new RuntimeException(exMsg, sqlException);
         } catch (Exception ex) {
-            LOGGER.error(LOG_GENERIC_ERROR, ex);
-            throw new RuntimeException(LOG_GENERIC_ERROR, ex);
+            String errMsg = logGenericError();
+            LOGGER.error(errMsg, ex);
+            throw new RuntimeException(errMsg, ex);
         }
     }
 }
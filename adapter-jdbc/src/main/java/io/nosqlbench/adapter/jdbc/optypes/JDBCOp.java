@@ -21,6 +21,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
 
 /**
@@ -40,13 +42,11 @@ public abstract class JDBCOp implements RunnableOp {
     private static final Logger LOGGER = LogManager.getLogger(JDBCOp.class);
     protected static final String LOG_COMMIT_SUCCESS = "Executed the JDBC statement & committed the connection successfully";
 
-    protected final String LOG_GENERIC_ERROR;
     protected final Connection connection;
     protected final Statement statement;
     protected final String queryString;
 
     protected int finalResultCount;
-    protected String LOG_ROWS_PROCESSED = "Total number of rows processed is [" + finalResultCount + "]";
 
     /**
      * @param connection
@@ -57,7 +57,48 @@ public abstract class JDBCOp implements RunnableOp {
         this.connection = connection;
         this.statement = statement;
         this.queryString = queryString;
-        LOG_GENERIC_ERROR = String.format("Exception while attempting to run the jdbc query %s", queryString);
-        LOGGER.debug(() -> "Query to be executed: " + queryString);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Query to be executed: " + queryString);
+        }
+    }
+
+    /**
+     * These messages are only built when they are logged, since ops are created for every cycle.
+     */
+    protected String logGenericError() {
+        return "Exception while attempting to run the jdbc query " + queryString;
+    }
+
+    protected String logRowsProcessed() {
+        return "Total number of rows processed is [" + finalResultCount + "]";
+    }
+
+    /**
+     * Count the rows of every result set and the update counts of every update from an executed statement.
+     * Rows are counted as they are read, so they are never all held in memory at once unless
+     * the JDBC driver does so.
+     *
+     * @param statement   The statement which was executed
+     * @param isResultSet The value which was returned by the execute call
+     * @return the number of rows which were read or updated
+     */
+    protected static int countResults(Statement statement, boolean isResultSet) throws SQLException {
+        int count = 0;
+        while (true) {
+            if (isResultSet) {
+                try (ResultSet rs = statement.getResultSet()) {
+                    while (rs.next()) {
+                        count++;
+                    }
+                }
+            } else {
+                int updated = statement.getUpdateCount();
+                if (updated == -1) {
+                    return count;
+                }
+                count += updated;
+            }
+            isResultSet = statement.getMoreResults();
+        }
     }
 }
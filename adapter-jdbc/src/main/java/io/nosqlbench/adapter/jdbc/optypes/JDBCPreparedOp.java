@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.nosqlbench.adapter.jdbc.optypes;
+
+import com.codahale.metrics.Counter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Runs a statement which has been prepared on the connection of the calling thread, with the values
+ * of the bind points for one cycle. When the batch size is more than one, the bound values are added to
+ * the batch of the thread, and the batch is executed by every cycle which fills it. Commits are made after
+ * every <em>commitInterval</em> executions.
+ */
+public class JDBCPreparedOp extends JDBCOp {
+    private static final Logger LOGGER = LogManager.getLogger(JDBCPreparedOp.class);
+
+    private final ThreadState state;
+    private final Object[] values;
+    private final int batchSize;
+    private final int commitInterval;
+
+    public JDBCPreparedOp(ThreadState state, Object[] values, String queryString, int batchSize, int commitInterval) {
+        super(state.connection, state.statement, queryString);
+        this.state = state;
+        this.values = values;
+        this.batchSize = batchSize;
+        this.commitInterval = commitInterval;
+    }
+
+    @Override
+    public void run() {
+        PreparedStatement preparedStatement = state.statement;
+        state.pendingCycles++;
+        try {
+            for (int i = 0; i < values.length; i++) {
+                preparedStatement.setObject(i + 1, values[i]);
+            }
+            if (batchSize > 1) {
+                preparedStatement.addBatch();
+                if (++state.batched < batchSize) {
+                    return;
+                }
+                finalResultCount = state.executeBatch();
+            } else {
+                finalResultCount = countResults(preparedStatement, preparedStatement.execute());
+            }
+            LOGGER.debug(() -> logRowsProcessed());
+            if (++state.uncommitted >= commitInterval) {
+                state.commit();
+                LOGGER.debug(() -> LOG_COMMIT_SUCCESS);
+            }
+        } catch (SQLException sqlException) {
+            // The cycle which failed is reported by the error handler, but the other cycles of the rolled back
+            // transaction and batch were already reported as successful
+            int discarded = state.rollback() - 1;
+            state.discard(discarded);
+            String exMsg = String.format("ERROR: [ state => %s, cause => %s, message => %s, discarded cycles => %d ]",
+                sqlException.getSQLState(), sqlException.getCause(), sqlException.getMessage(), discarded);
+            LOGGER.error(exMsg, sqlException);
+            throw new RuntimeException(exMsg, sqlException);
+        } catch (Exception ex) {
+            String errMsg = logGenericError();
+            LOGGER.error(errMsg, ex);
+            throw new RuntimeException(errMsg, ex);
+        }
+    }
+
+    @Override
+    public long getResultSize() {
+        return finalResultCount;
+    }
+
+    /**
+     * The prepared statement of one thread, and the work which it has not yet executed or committed.
+     * This is only used by the thread which owns it, until the space is closed.
+     */
+    public static final class ThreadState {
+        private final Connection connection;
+        private final PreparedStatement statement;
+        private final Counter discardedCycles;
+        private int batched;
+        private int uncommitted;
+        private int pendingCycles;
+
+        /**
+         * @param discardedCycles counts the cycles which were reported as successful, but whose work was later
+         *                        rolled back or never executed because of an error in another cycle
+         */
+        public ThreadState(Connection connection, PreparedStatement statement, Counter discardedCycles) {
+            this.connection = connection;
+            this.statement = statement;
+            this.discardedCycles = discardedCycles;
+        }
+
+        private int executeBatch() throws SQLException {
+            try {
+                int total = 0;
+                for (int count : statement.executeBatch()) {
+                    if (count > 0) {
+                        total += count;
+                    }
+                }
+                return total;
+            } finally {
+                batched = 0;
+                statement.clearBatch();
+            }
+        }
+
+        private void commit() throws SQLException {
+            connection.commit();
+            uncommitted = 0;
+            pendingCycles = 0;
+        }
+
+        /**
+         * Roll back all uncommitted work, and drop any statements in the batch.
+         * @return the number of cycles whose work was discarded
+         */
+        private int rollback() {
+            int discarded = pendingCycles;
+            batched = 0;
+            uncommitted = 0;
+            pendingCycles = 0;
+            try {
+                statement.clearBatch();
+                connection.rollback();
+            } catch (SQLException e) {
+                LOGGER.warn("Unable to roll back after an error: " + e);
+            }
+            return discarded;
+        }
+
+        private void discard(int cycles) {
+            if (cycles > 0) {
+                discardedCycles.inc(cycles);
+                LOGGER.warn("Discarded the uncommitted work of " + cycles + " cycles, which were already reported as successful");
+            }
+        }
+
+        /**
+         * Execute any partial batch, and commit any uncommitted work. If that fails, the work is rolled back
+         * and all of its cycles are counted as discarded.
+         * @return the number of statements which were in the partial batch
+         */
+        public int flush() throws SQLException {
+            int pending = batched;
+            try {
+                if (batched > 0) {
+                    executeBatch();
+                    uncommitted++;
+                }
+                if (uncommitted > 0) {
+                    commit();
+                }
+            } catch (SQLException e) {
+                // None of these cycles failed on its own, so all of them are discarded
+                discard(rollback());
+                throw e;
+            }
+            return pending;
+        }
+
+        int getPendingCycles() {
+            return pendingCycles;
+        }
+    }
+}
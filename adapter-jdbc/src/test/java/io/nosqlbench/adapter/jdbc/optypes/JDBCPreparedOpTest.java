@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.jdbc.optypes;
+
+import com.codahale.metrics.Counter;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class JDBCPreparedOpTest {
+
+    private static final String SQL = "insert into t (k,v) values (?,?)";
+
+    /**
+     * Records what is done with a connection and its prepared statement, and fails executions on demand.
+     */
+    private static class Recorder {
+        int executes;
+        int batches;
+        int added;
+        int commits;
+        int rollbacks;
+        boolean failNext;
+        private boolean updateCountRead;
+
+        final Connection connection = (Connection) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class[]{Connection.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "commit" -> commits++;
+                    case "rollback" -> rollbacks++;
+                }
+                return null;
+            });
+
+        final PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class[]{PreparedStatement.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "addBatch":
+                        added++;
+                        return null;
+                    case "clearBatch":
+                        added = 0;
+                        return null;
+                    case "executeBatch":
+                        failIfRequested();
+                        batches++;
+                        int[] counts = new int[added];
+                        java.util.Arrays.fill(counts, 1);
+                        return counts;
+                    case "execute":
+                        failIfRequested();
+                        executes++;
+                        updateCountRead = false;
+                        return false;
+                    case "getUpdateCount":
+                        if (updateCountRead) {
+                            return -1;
+                        }
+                        updateCountRead = true;
+                        return 1;
+                    case "getMoreResults":
+                        return false;
+                    default:
+                        return null;
+                }
+            });
+
+        private void failIfRequested() throws SQLException {
+            if (failNext) {
+                failNext = false;
+                throw new SQLException("injected failure");
+            }
+        }
+    }
+
+    private final Recorder recorder = new Recorder();
+    private final Counter discarded = new Counter();
+    private final JDBCPreparedOp.ThreadState state =
+        new JDBCPreparedOp.ThreadState(recorder.connection, recorder.statement, discarded);
+
+    private void run(int cycles, int batchSize, int commitInterval) {
+        for (int i = 0; i < cycles; i++) {
+            new JDBCPreparedOp(state, new Object[]{i, "v" + i}, SQL, batchSize, commitInterval).run();
+        }
+    }
+
+    @Test
+    public void testCommitInterval() throws SQLException {
+        run(7, 1, 3);
+        assertThat(recorder.executes).isEqualTo(7);
+        assertThat(recorder.commits).isEqualTo(2);
+        assertThat(state.getPendingCycles()).isEqualTo(1);
+
+        assertThat(state.flush()).isEqualTo(0);
+        assertThat(recorder.commits).isEqualTo(3);
+        assertThat(state.getPendingCycles()).isEqualTo(0);
+    }
+
+    @Test
+    public void testBatchesAreFlushedWhenFullAndAtClose() throws SQLException {
+        run(10, 4, 1);
+        assertThat(recorder.batches).isEqualTo(2);
+        assertThat(recorder.commits).isEqualTo(2);
+        assertThat(recorder.added).isEqualTo(2);
+
+        assertThat(state.flush()).isEqualTo(2);
+        assertThat(recorder.batches).isEqualTo(3);
+        assertThat(recorder.commits).isEqualTo(3);
+        assertThat(state.flush()).isEqualTo(0);
+        assertThat(recorder.commits).isEqualTo(3);
+    }
+
+    @Test
+    public void testBatchResultCount() {
+        JDBCPreparedOp last = null;
+        for (int i = 0; i < 4; i++) {
+            last = new JDBCPreparedOp(state, new Object[]{i, "v"}, SQL, 4, 1);
+            last.run();
+        }
+        assertThat(last.getResultSize()).isEqualTo(4);
+    }
+
+    @Test
+    public void testRollbackCountsDiscardedCycles() {
+        run(3, 1, 5);
+        recorder.failNext = true;
+        assertThatExceptionOfType(RuntimeException.class)
+            .isThrownBy(() -> run(1, 1, 5))
+            .withMessageContaining("discarded cycles => 3");
+        assertThat(recorder.rollbacks).isEqualTo(1);
+        assertThat(discarded.getCount()).isEqualTo(3);
+        assertThat(state.getPendingCycles()).isEqualTo(0);
+    }
+
+    @Test
+    public void testRollbackOfBatchCountsStagedCycles() {
+        run(2, 2, 3);
+        run(3, 2, 3);
+        recorder.failNext = true;
+        // The sixth cycle fills the batch, whose execution fails
+        assertThatExceptionOfType(RuntimeException.class).isThrownBy(() -> run(1, 2, 3));
+        assertThat(discarded.getCount()).isEqualTo(5);
+        assertThat(recorder.added).isEqualTo(0);
+    }
+
+    @Test
+    public void testFailedFlushDiscardsPendingCycles() {
+        run(3, 4, 1);
+        recorder.failNext = true;
+        assertThatExceptionOfType(SQLException.class).isThrownBy(state::flush);
+        assertThat(discarded.getCount()).isEqualTo(3);
+        assertThat(recorder.rollbacks).isEqualTo(1);
+    }
+}
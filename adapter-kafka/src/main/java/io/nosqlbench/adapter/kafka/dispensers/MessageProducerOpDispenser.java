@@ -58,6 +58,7 @@ public class MessageProducerOpDispenser extends KafkaBaseOpDispenser {
     private final Map<String, String> producerClientConfMap = new HashMap<>();
 
     protected final int txnBatchNum;
+    protected final int maxInflight;
     private final LongFunction<String> msgHeaderJsonStrFunc;
     private final LongFunction<String> msgKeyStrFunc;
     private final LongFunction<String> msgValueStrFunc;
@@ -73,6 +74,10 @@ public class MessageProducerOpDispenser extends KafkaBaseOpDispenser {
         this.producerClientConfMap.put("bootstrap.servers", kafkaSpace.getBootstrapSvr());
 
         txnBatchNum = this.parsedOp.getStaticConfigOr("txn_batch_num", 0);
+        // Doc-level parameter: max_inflight (default: 0, no bound)
+        maxInflight = this.parsedOp.getStaticConfigOr(DOC_LEVEL_PARAMS.MAX_INFLIGHT.label, 0);
+        if (0 > maxInflight) throw new KafkaAdapterInvalidParamException(
+            "Invalid '" + DOC_LEVEL_PARAMS.MAX_INFLIGHT.label + "' value: " + maxInflight);
 
         msgHeaderJsonStrFunc = this.lookupOptionalStrOpValueFunc(MessageProducerOpDispenser.MSG_HEADER_OP_PARAM);
         msgKeyStrFunc = this.lookupOptionalStrOpValueFunc(MessageProducerOpDispenser.MSG_KEY_OP_PARAM);
@@ -195,6 +200,8 @@ public class MessageProducerOpDispenser extends KafkaBaseOpDispenser {
                 this.txnBatchNum,
                 this.seqTrackingFunc.apply(cycle),
                 this.msgSeqErrSimuTypeSetFunc.apply(cycle),
+                this.maxInflight,
+                this.kafkaAdapterMetrics,
                 producer);
         });
     }
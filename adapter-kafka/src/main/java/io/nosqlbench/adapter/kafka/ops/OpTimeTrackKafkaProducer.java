@@ -18,11 +18,12 @@ package io.nosqlbench.adapter.kafka.ops;
 
 import io.nosqlbench.adapter.kafka.KafkaSpace;
 import io.nosqlbench.adapter.kafka.exception.KafkaAdapterUnexpectedException;
+import io.nosqlbench.adapter.kafka.util.KafkaAdapterMetrics;
 import io.nosqlbench.adapter.kafka.util.KafkaAdapterUtil;
 import io.nosqlbench.engine.api.metrics.MessageSequenceNumberSendingHandler;
 import io.nosqlbench.engine.api.metrics.EndToEndMetricsAdapterUtil;
 import org.apache.kafka.clients.producer.Callback;
-import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.KafkaException;
@@ -38,6 +39,9 @@ import java.util.HashMap;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.kafka.common.errors.TimeoutException;
 import org.apache.kafka.common.errors.InterruptException;
 
@@ -54,6 +58,11 @@ public class OpTimeTrackKafkaProducer extends OpTimeTrackKafkaClient {
         ThreadLocal.withInitial(HashMap::new);
     private final boolean seqTracking;
     private final Set<EndToEndMetricsAdapterUtil.MSG_SEQ_ERROR_SIMU_TYPE> errSimuTypeSet;
+    private final KafkaAdapterMetrics kafkaAdapterMetrics;
+
+    // Bounds the number of unacknowledged messages of each thread when sending with async ack.
+    // The permits are taken by the sending thread and returned by the send callback.
+    private final ThreadLocal<Semaphore> inflightWindowTL;
 
     enum TxnProcResult {
         SUCCESS,
@@ -70,7 +79,7 @@ public class OpTimeTrackKafkaProducer extends OpTimeTrackKafkaClient {
     private static final ThreadLocal<TxnProcResult>
         txnProcResultTL = ThreadLocal.withInitial(() -> TxnProcResult.SUCCESS);
 
-    private final KafkaProducer<String, String> producer;
+    private final Producer<String, String> producer;
 
     public OpTimeTrackKafkaProducer(final KafkaSpace kafkaSpace,
                                     final boolean asyncMsgAck,
@@ -78,7 +87,9 @@ public class OpTimeTrackKafkaProducer extends OpTimeTrackKafkaClient {
                                     final int txnBatchNum,
                                     final boolean seqTracking,
                                     final Set<EndToEndMetricsAdapterUtil.MSG_SEQ_ERROR_SIMU_TYPE> errSimuTypeSet,
-                                    final KafkaProducer<String, String> producer) {
+                                    final int maxInflight,
+                                    final KafkaAdapterMetrics kafkaAdapterMetrics,
+                                    final Producer<String, String> producer) {
         super(kafkaSpace);
         this.asyncMsgAck = asyncMsgAck;
         this.transactEnabledConfig = transactEnabledConfig;
@@ -86,6 +97,10 @@ public class OpTimeTrackKafkaProducer extends OpTimeTrackKafkaClient {
         this.seqTracking = seqTracking;
         this.errSimuTypeSet = errSimuTypeSet;
         transactionEnabled = transactEnabledConfig && 2 < txnBatchNum;
+        this.inflightWindowTL = (asyncMsgAck && 0 < maxInflight)
+            ? ThreadLocal.withInitial(() -> new Semaphore(maxInflight))
+            : null;
+        this.kafkaAdapterMetrics = kafkaAdapterMetrics;
         this.producer = producer;
     }
 
@@ -109,7 +124,7 @@ public class OpTimeTrackKafkaProducer extends OpTimeTrackKafkaClient {
         OpTimeTrackKafkaProducer.txnProcResultTL.set(TxnProcResult.SUCCESS);
     }
 
-    private void processMsgTransaction(final long cycle, final KafkaProducer<String, String> producer) {
+    private void processMsgTransaction(final long cycle, final Producer<String, String> producer) {
         TxnProcResult result = TxnProcResult.SUCCESS;
 
         if (this.transactionEnabled) {
@@ -193,15 +208,15 @@ public class OpTimeTrackKafkaProducer extends OpTimeTrackKafkaClient {
         }
         try {
             if (TxnProcResult.SUCCESS == result) {
-                final Future<RecordMetadata> responseFuture = this.producer.send(message, new Callback() {
-                    @Override
-                    public void onCompletion(final RecordMetadata recordMetadata, final Exception e) {
-                        if (OpTimeTrackKafkaProducer.this.asyncMsgAck)
-                            if (OpTimeTrackKafkaProducer.logger.isDebugEnabled())
-                                OpTimeTrackKafkaProducer.logger.debug("Message sending with async ack. is successful ({}) - {}, {}",
-                                    cycle, OpTimeTrackKafkaProducer.this.producer, recordMetadata);
-                    }
-                });
+                final Semaphore inflightWindow = this.acquireInflightPermit();
+                final SendTracker sendTracker = new SendTracker(cycle, inflightWindow);
+                final Future<RecordMetadata> responseFuture;
+                try {
+                    responseFuture = this.producer.send(message, sendTracker);
+                } catch (final RuntimeException e) {
+                    sendTracker.abandon();
+                    throw e;
+                }
 
                 if (!this.asyncMsgAck) try {
                     final RecordMetadata recordMetadata = responseFuture.get();
@@ -253,6 +268,69 @@ public class OpTimeTrackKafkaProducer extends OpTimeTrackKafkaClient {
         }
     }
 
+    /**
+     * With async ack. and a bounded in-flight window, block until the current thread has
+     * fewer than max_inflight unacknowledged messages.
+     * @return the window of the current thread, or null if it is unbounded
+     */
+    private Semaphore acquireInflightPermit() {
+        if (null == this.inflightWindowTL) return null;
+        final Semaphore inflightWindow = this.inflightWindowTL.get();
+        try {
+            inflightWindow.acquire();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaAdapterUnexpectedException(e);
+        }
+        return inflightWindow;
+    }
+
+    /**
+     * Completion tracking of a single message send. This runs on the producer I/O thread, so
+     * it only records metrics and returns the in-flight permit; errors of sends with sync ack.
+     * are still handled by the sending thread.
+     */
+    private final class SendTracker implements Callback {
+        private final long cycle;
+        private final Semaphore inflightWindow;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean completed = new AtomicBoolean(false);
+
+        SendTracker(final long cycle, final Semaphore inflightWindow) {
+            this.cycle = cycle;
+            this.inflightWindow = inflightWindow;
+        }
+
+        @Override
+        public void onCompletion(final RecordMetadata recordMetadata, final Exception e) {
+            if (!this.completed.compareAndSet(false, true)) return;
+            if (null != this.inflightWindow) this.inflightWindow.release();
+
+            if (null == e) {
+                OpTimeTrackKafkaProducer.this.kafkaAdapterMetrics.getSendAckTimer()
+                    .update(System.nanoTime() - this.startNanos, TimeUnit.NANOSECONDS);
+                OpTimeTrackKafkaProducer.this.kafkaAdapterMetrics
+                    .getPartitionMsgMeter(recordMetadata.topic(), recordMetadata.partition()).mark();
+                if (OpTimeTrackKafkaProducer.this.asyncMsgAck && OpTimeTrackKafkaProducer.logger.isDebugEnabled())
+                    OpTimeTrackKafkaProducer.logger.debug("Message sending with async ack. is successful ({}) - {}, {}",
+                        this.cycle, OpTimeTrackKafkaProducer.this.producer, recordMetadata);
+            } else {
+                OpTimeTrackKafkaProducer.this.kafkaAdapterMetrics.getMsgErrSendCounter().inc();
+                if (OpTimeTrackKafkaProducer.this.asyncMsgAck)
+                    OpTimeTrackKafkaProducer.logger.warn("Message sending with async ack. failed ({}) - {}",
+                        this.cycle, e.toString());
+            }
+        }
+
+        /**
+         * Return the in-flight permit of a message which the producer refused before sending it.
+         */
+        void abandon() {
+            if (this.completed.compareAndSet(false, true) && null != this.inflightWindow)
+                this.inflightWindow.release();
+        }
+    }
+
     private MessageSequenceNumberSendingHandler getMessageSequenceNumberSendingHandler(final String topicName) {
         return this.MessageSequenceNumberSendingHandlersThreadLocal.get()
             .computeIfAbsent(topicName, k -> new MessageSequenceNumberSendingHandler());
@@ -18,6 +18,7 @@ package io.nosqlbench.adapter.kafka.util;
 
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.Timer;
 import io.nosqlbench.adapter.kafka.dispensers.KafkaBaseOpDispenser;
 import io.nosqlbench.api.config.NBLabeledElement;
@@ -26,6 +27,8 @@ import io.nosqlbench.api.engine.metrics.ActivityMetrics;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 public class KafkaAdapterMetrics {
 
     private static final Logger logger = LogManager.getLogger("S4JAdapterMetrics");
@@ -47,6 +50,12 @@ public class KafkaAdapterMetrics {
 
     // end-to-end latency
     private Histogram e2eMsgProcLatencyHistogram;
+    // - time from handing a message to the producer until the broker acknowledges it
+    private Timer sendAckTimer;
+    // - message send failure counter, as reported to the send callback
+    private Counter msgErrSendCounter;
+    // - acknowledged messages per topic partition
+    private final ConcurrentHashMap<String, Meter> partitionMsgMeters = new ConcurrentHashMap<>();
     private final KafkaBaseOpDispenser kafkaBaseOpDispenser;
 
     public KafkaAdapterMetrics(final KafkaBaseOpDispenser kafkaBaseOpDispenser, final NBLabeledElement labeledParent) {
@@ -72,6 +81,8 @@ public class KafkaAdapterMetrics {
         // Latency
         e2eMsgProcLatencyHistogram =
             ActivityMetrics.histogram(this.kafkaBaseOpDispenser, "e2e_msg_latency", ActivityMetrics.DEFAULT_HDRDIGITS);
+        sendAckTimer =
+            ActivityMetrics.timer(this.kafkaBaseOpDispenser, "send_ack", ActivityMetrics.DEFAULT_HDRDIGITS);
         // Error metrics
         msgErrOutOfSeqCounter =
             ActivityMetrics.counter(this.kafkaBaseOpDispenser, "err_msg_oos");
@@ -79,11 +90,30 @@ public class KafkaAdapterMetrics {
             ActivityMetrics.counter(this.kafkaBaseOpDispenser, "err_msg_loss");
         msgErrDuplicateCounter =
             ActivityMetrics.counter(this.kafkaBaseOpDispenser, "err_msg_dup");
+        msgErrSendCounter =
+            ActivityMetrics.counter(this.kafkaBaseOpDispenser, "err_msg_send");
     }
 
     public Timer getBindTimer() { return bindTimer; }
     public Timer getExecuteTimer() { return executeTimer; }
     public Histogram getMessagesizeHistogram() { return messageSizeHistogram; }
+    public Timer getSendAckTimer() { return sendAckTimer; }
+    public Counter getMsgErrSendCounter() { return msgErrSendCounter; }
+
+    /**
+     * @return the meter of acknowledged messages for the given topic partition, which is
+     * registered as <em>msgs_&lt;topic&gt;_&lt;partition&gt;</em> on first use
+     */
+    public Meter getPartitionMsgMeter(final String topic, final int partition) {
+        final String name = "msgs_" + topic + '_' + partition;
+        final Meter meter = partitionMsgMeters.get(name);
+        if (null != meter) return meter;
+        return partitionMsgMeters.computeIfAbsent(name, n -> {
+            final NBLabels partitionLabels = this.kafkaBaseOpDispenser.getLabels()
+                .and("topic", topic, "partition", String.valueOf(partition));
+            return ActivityMetrics.meter(() -> partitionLabels, n);
+        });
+    }
 
     public Counter getMsgErrOutOfSeqCounter() {
         return msgErrOutOfSeqCounter;
@@ -41,7 +41,9 @@ public class KafkaAdapterUtil {
         ASYNC_API("async_api"),
         SEQERR_SIMU("seqerr_simu"),
         E2E_STARTING_TIME_SOURCE("e2e_starting_time_source"),
-        SEQ_TRACKING("seq_tracking");
+        SEQ_TRACKING("seq_tracking"),
+        // Maximum number of unacknowledged messages per producer thread with async_api
+        MAX_INFLIGHT("max_inflight");
         public final String label;
 
         DOC_LEVEL_PARAMS(final String label) {
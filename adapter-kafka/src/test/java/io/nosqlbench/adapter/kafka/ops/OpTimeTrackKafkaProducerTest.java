@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.adapter.kafka.ops;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+import io.nosqlbench.adapter.kafka.KafkaSpace;
+import io.nosqlbench.adapter.kafka.util.KafkaAdapterMetrics;
+import io.nosqlbench.api.config.NBLabeledElement;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Sends with async ack. through a {@link MockProducer} which only completes sends when told to, so
+ * the in-flight window of the sending thread can be observed while sends are outstanding.
+ */
+public class OpTimeTrackKafkaProducerTest {
+
+    private static final int MAX_INFLIGHT = 2;
+
+    private final Counter sendErrors = new Counter();
+    private final MockProducer<String, String> mock = new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+    // The in-flight window is kept per thread, so all sends are made from this one
+    private final ExecutorService sender = Executors.newSingleThreadExecutor();
+    private OpTimeTrackKafkaProducer producer;
+
+    /**
+     * Keeps the metrics which the send callback updates, without registering them with a dispenser
+     */
+    private class TestMetrics extends KafkaAdapterMetrics {
+        TestMetrics() {
+            super(null, NBLabeledElement.forKV("name", "test"));
+        }
+
+        @Override
+        public Timer getSendAckTimer() {
+            return new Timer();
+        }
+
+        @Override
+        public Counter getMsgErrSendCounter() {
+            return sendErrors;
+        }
+
+        @Override
+        public Meter getPartitionMsgMeter(String topic, int partition) {
+            return new Meter();
+        }
+    }
+
+    @BeforeEach
+    public void setUp(@TempDir Path dir) throws IOException {
+        Path conf = Files.createFile(dir.resolve("config.properties"));
+        KafkaSpace space = new KafkaSpace("test", KafkaSpace.getConfigModel().apply(Map.of("config", conf.toString())));
+        producer = new OpTimeTrackKafkaProducer(space, true, false, 0, false, Set.of(), MAX_INFLIGHT, new TestMetrics(), mock);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        sender.shutdownNow();
+    }
+
+    private Future<?> send(long cycle) {
+        return sender.submit(() -> producer.process(cycle, new ProducerRecord<>("topic", "key" + cycle, "value" + cycle)));
+    }
+
+    @Test
+    public void testPermitsAreReleasedOnSuccessAndError() throws Exception {
+        send(0).get(5, TimeUnit.SECONDS);
+        send(1).get(5, TimeUnit.SECONDS);
+        Future<?> third = send(2);
+        assertThatExceptionOfType(TimeoutException.class).isThrownBy(() -> third.get(200, TimeUnit.MILLISECONDS));
+        assertThat(mock.history()).hasSize(MAX_INFLIGHT);
+
+        assertThat(mock.completeNext()).isTrue();
+        third.get(5, TimeUnit.SECONDS);
+        Future<?> fourth = send(3);
+        assertThatExceptionOfType(TimeoutException.class).isThrownBy(() -> fourth.get(200, TimeUnit.MILLISECONDS));
+
+        assertThat(mock.errorNext(new RuntimeException("broker unavailable"))).isTrue();
+        fourth.get(5, TimeUnit.SECONDS);
+        assertThat(mock.history()).hasSize(4);
+        assertThat(sendErrors.getCount()).isEqualTo(1);
+
+        assertThat(mock.completeNext()).isTrue();
+        assertThat(mock.errorNext(new RuntimeException("broker unavailable"))).isTrue();
+        // Both permits are free again, so neither of these waits
+        send(4).get(5, TimeUnit.SECONDS);
+        send(5).get(5, TimeUnit.SECONDS);
+        assertThat(mock.history()).hasSize(6);
+        assertThat(sendErrors.getCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testOutstandingSendsAreBounded() throws Exception {
+        int total = 50;
+        Future<?> sends = sender.submit(() -> {
+            for (int cycle = 0; cycle < total; cycle++) {
+                producer.process(cycle, new ProducerRecord<>("topic", "key" + cycle, "value" + cycle));
+            }
+        });
+
+        int completed = 0;
+        int maxOutstanding = 0;
+        long deadline = System.currentTimeMillis() + 10000;
+        while (completed < total) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            int sent = mock.history().size();
+            int outstanding = sent - completed;
+            maxOutstanding = Math.max(maxOutstanding, outstanding);
+            assertThat(outstanding).isLessThanOrEqualTo(MAX_INFLIGHT);
+            // Only complete a send once the sender has filled its window, or has nothing more to send
+            if (outstanding < MAX_INFLIGHT && sent < total) {
+                Thread.sleep(1);
+                continue;
+            }
+            // Counted before the callback returns the permit, so a send which it lets through is not overcounted
+            completed++;
+            if (completed % 3 == 0) {
+                assertThat(mock.errorNext(new RuntimeException("broker unavailable"))).isTrue();
+            } else {
+                assertThat(mock.completeNext()).isTrue();
+            }
+        }
+
+        sends.get(5, TimeUnit.SECONDS);
+        assertThat(maxOutstanding).isEqualTo(MAX_INFLIGHT);
+        assertThat(sendErrors.getCount()).isEqualTo(total / 3);
+    }
+}
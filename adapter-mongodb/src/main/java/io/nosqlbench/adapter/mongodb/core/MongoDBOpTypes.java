@@ -23,5 +23,25 @@ public enum MongoDBOpTypes {
      * @see <a href="https://docs.mongodb.com/manual/reference/method/db.runCommand/#command-response">command-response</a>
      */
     command,
+    /**
+     * Insert a single document, built from the <em>document</em> field.
+     */
+    insertOne,
+    /**
+     * Find the documents which match the <em>filter</em> field, reading the cursor to the end.
+     */
+    find,
+    /**
+     * Apply the <em>update</em> field to the first document which matches the <em>filter</em> field.
+     */
+    updateOne,
+    /**
+     * Apply the <em>update</em> field to all documents which match the <em>filter</em> field.
+     */
+    updateMany,
+    /**
+     * Gather the inserts or updates of successive cycles into one bulk write.
+     */
+    bulkWrite
 
 }
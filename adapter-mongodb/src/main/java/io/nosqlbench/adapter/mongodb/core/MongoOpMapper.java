@@ -16,7 +16,7 @@
 
 package io.nosqlbench.adapter.mongodb.core;
 
-import io.nosqlbench.adapter.mongodb.dispensers.MongoCommandOpDispenser;
+import io.nosqlbench.adapter.mongodb.dispensers.*;
 import io.nosqlbench.api.config.standard.NBConfiguration;
 import io.nosqlbench.api.errors.BasicError;
 import io.nosqlbench.engine.api.activityimpl.OpDispenser;
@@ -72,6 +72,10 @@ public class MongoOpMapper implements OpMapper<Op> {
             TypeAndTarget<MongoDBOpTypes, String> targetData = target.get();
             return switch (targetData.enumId) {
                 case command -> new MongoCommandOpDispenser(adapter, spaceF, op);
+                case insertOne -> new MongoDbInsertOneOpDispenser(adapter, op, targetData);
+                case find -> new MongoDbFindOpDispenser(adapter, op, targetData);
+                case updateOne, updateMany -> new MongoDbUpdateOpDispenser(adapter, op, targetData);
+                case bulkWrite -> new MongoDbBulkWriteOpDispenser(adapter, op, targetData);
             };
         }
         // For everything else use the command API
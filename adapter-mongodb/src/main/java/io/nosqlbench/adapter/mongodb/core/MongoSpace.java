@@ -31,6 +31,9 @@ import org.bson.UuidRepresentation;
 import org.bson.codecs.UuidCodec;
 import org.bson.codecs.configuration.CodecRegistry;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 import static org.bson.codecs.configuration.CodecRegistries.fromCodecs;
 import static org.bson.codecs.configuration.CodecRegistries.fromRegistries;
 
@@ -39,6 +42,7 @@ public class MongoSpace implements NBNamedElement, AutoCloseable {
     private final String spaceName;
     private final NBConfiguration mongoConfig;
     private MongoClient mongoClient;
+    private final List<Runnable> closeHooks = new CopyOnWriteArrayList<>();
 
     public MongoSpace(String name, NBConfiguration cfg) {
         this.spaceName = name;
@@ -60,8 +64,23 @@ public class MongoSpace implements NBNamedElement, AutoCloseable {
         return spaceName;
     }
 
+    /**
+     * Add a hook to be run when this space is closed, before the client is closed.
+     * This allows op dispensers to send any work which is still pending on their threads.
+     */
+    public void addCloseHook(Runnable hook) {
+        closeHooks.add(hook);
+    }
+
     @Override
     public void close() {
+        for (Runnable closeHook : closeHooks) {
+            try {
+                closeHook.run();
+            } catch (Exception e) {
+                logger.warn("close hook threw exception in mongodb space(" + this.spaceName + "): " + e);
+            }
+        }
         try {
             if (mongoClient != null) {
                 mongoClient.close();
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.mongodb.dispensers;
+
+import com.mongodb.client.MongoCollection;
+import io.nosqlbench.adapter.mongodb.core.MongoDBOpTypes;
+import io.nosqlbench.adapter.mongodb.core.MongoSpace;
+import io.nosqlbench.adapter.mongodb.core.MongodbDriverAdapter;
+import io.nosqlbench.api.errors.OpConfigError;
+import io.nosqlbench.engine.api.activityimpl.BaseOpDispenser;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.Op;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+import io.nosqlbench.engine.api.templating.TypeAndTarget;
+import org.bson.Document;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongFunction;
+
+/**
+ * Common wiring for the op types which act on a collection through the typed driver API,
+ * rather than sending a command document.
+ */
+public abstract class MongoDbBaseOpDispenser extends BaseOpDispenser<Op, MongoSpace> {
+
+    protected final LongFunction<MongoSpace> spaceF;
+    protected final LongFunction<MongoCollection<Document>> collectionF;
+    /**
+     * Whether the space, database and collection are the same for every cycle
+     */
+    protected final boolean staticCollection;
+
+    protected MongoDbBaseOpDispenser(MongodbDriverAdapter adapter, ParsedOp pop, TypeAndTarget<MongoDBOpTypes, String> target) {
+        super(adapter, pop);
+        this.spaceF = adapter.getSpaceFunc(pop);
+        LongFunction<String> databaseF = pop.getAsRequiredFunction("database", String.class);
+        LongFunction<String> collectionNameF = target.targetFunction;
+        this.staticCollection = pop.isStatic("database") && pop.isStatic(target.field) && !pop.isDynamic("space");
+        if (staticCollection) {
+            MongoCollection<Document> collection = spaceF.apply(0L).getClient()
+                .getDatabase(databaseF.apply(0L))
+                .getCollection(collectionNameF.apply(0L));
+            this.collectionF = l -> collection;
+        } else {
+            this.collectionF = l -> spaceF.apply(l).getClient()
+                .getDatabase(databaseF.apply(l))
+                .getCollection(collectionNameF.apply(l));
+        }
+    }
+
+    /**
+     * <p>Create a function which yields a document from the named op field for each cycle. The field
+     * may be a map, in which case the values of its bind points are put directly into the document, or
+     * a JSON string. Only a JSON string with bind points has to be parsed for every cycle. Static
+     * values are parsed once, and a copy of them is returned for each cycle, since the driver
+     * may add an <em>_id</em> to inserted documents.</p>
+     */
+    @SuppressWarnings("unchecked")
+    protected static LongFunction<Document> documentFunc(ParsedOp pop, String field) {
+        LongFunction<?> valueF = pop.getAsRequiredFunction(field, Object.class);
+        Object example = valueF.apply(0L);
+        boolean isStatic = pop.isStatic(field);
+        if (example instanceof Map<?, ?> map) {
+            if (isStatic) {
+                Document doc = new Document((Map<String, Object>) map);
+                return l -> new Document(doc);
+            }
+            return l -> new Document((Map<String, Object>) valueF.apply(l));
+        } else if (example instanceof CharSequence) {
+            if (isStatic) {
+                Document doc = Document.parse(example.toString());
+                return l -> new Document(doc);
+            }
+            return l -> Document.parse(valueF.apply(l).toString());
+        }
+        throw new OpConfigError("The '" + field + "' field of op '" + pop.getName() + "' must be a map or a JSON string.");
+    }
+
+    protected static Optional<LongFunction<Document>> optionalDocumentFunc(ParsedOp pop, String field) {
+        return pop.isDefined(field) ? Optional.of(documentFunc(pop, field)) : Optional.empty();
+    }
+}
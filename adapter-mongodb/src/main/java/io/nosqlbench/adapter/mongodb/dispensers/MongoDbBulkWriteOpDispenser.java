@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.mongodb.dispensers;
+
+import com.codahale.metrics.Counter;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import io.nosqlbench.adapter.mongodb.core.MongoDBOpTypes;
+import io.nosqlbench.adapter.mongodb.core.MongodbDriverAdapter;
+import io.nosqlbench.adapter.mongodb.ops.MongoBulkWriteOp;
+import io.nosqlbench.adapter.mongodb.ops.MongoStagedCycles;
+import io.nosqlbench.adapter.mongodb.ops.MongoStagedOp;
+import io.nosqlbench.api.engine.metrics.ActivityMetrics;
+import io.nosqlbench.api.errors.OpConfigError;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.Op;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+import io.nosqlbench.engine.api.templating.TypeAndTarget;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bson.Document;
+
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * <p>Each cycle yields one write, an insert of the <em>document</em> field, or else an update of the
+ * first document matching the <em>filter</em> field with the <em>update</em> field. With <em>batch</em>
+ * set above one, each thread gathers the writes of successive cycles into one bulk write, which is
+ * unordered unless <em>ordered</em> is set. Each cycle which does not complete a batch yields a
+ * {@link MongoStagedOp}, and the cycle which completes it yields a {@link MongoBulkWriteOp} which
+ * sends all of them. Any writes which are still pending when the activity ends are sent when the
+ * space is closed. The staged cycles whose writes are never applied, because their bulk write failed,
+ * are counted by the <em>discarded-cycles</em> metric.</p>
+ *
+ * https://www.mongodb.com/docs/drivers/java/sync/current/usage-examples/bulkWrite/
+ */
+public class MongoDbBulkWriteOpDispenser extends MongoDbBaseOpDispenser {
+    private final static Logger logger = LogManager.getLogger(MongoDbBulkWriteOpDispenser.class);
+
+    private final LongFunction<WriteModel<Document>> writeF;
+    private final BulkWriteOptions options;
+    private final int batchSize;
+    private final MongoPendingWrites<WriteModel<Document>> pending;
+    private final Counter discardedCycles;
+
+    public MongoDbBulkWriteOpDispenser(MongodbDriverAdapter adapter, ParsedOp pop, TypeAndTarget<MongoDBOpTypes, String> target) {
+        super(adapter, pop, target);
+        this.writeF = createWriteFunc(pop);
+        this.options = new BulkWriteOptions().ordered(pop.getStaticConfigOr("ordered", false));
+        this.batchSize = pop.getStaticConfigOr("batch", 1);
+        if (batchSize < 1) {
+            throw new OpConfigError("batch must be at least 1 for op '" + pop.getName() + "'");
+        }
+        this.pending = new MongoPendingWrites<>(batchSize);
+        this.discardedCycles = ActivityMetrics.counter(pop, "discarded-cycles");
+        if (batchSize > 1) {
+            if (!staticCollection) {
+                throw new OpConfigError("Batched bulk writes require a static space, database and collection for op '" + pop.getName() + "'");
+            }
+            spaceF.apply(0L).addCloseHook(this::flushPending);
+        }
+    }
+
+    private static LongFunction<WriteModel<Document>> createWriteFunc(ParsedOp pop) {
+        if (pop.isDefined("document")) {
+            LongFunction<Document> documentF = documentFunc(pop, "document");
+            return l -> new InsertOneModel<>(documentF.apply(l));
+        } else if (pop.isDefined("filter") && pop.isDefined("update")) {
+            LongFunction<Document> filterF = documentFunc(pop, "filter");
+            LongFunction<Document> updateF = documentFunc(pop, "update");
+            UpdateOptions updateOptions = new UpdateOptions().upsert(pop.getStaticConfigOr("upsert", false));
+            return l -> new UpdateOneModel<>(filterF.apply(l), updateF.apply(l), updateOptions);
+        }
+        throw new OpConfigError("bulkWrite op templates require either a 'document' field, or 'filter' and 'update' fields, for op '" + pop.getName() + "'");
+    }
+
+    @Override
+    public Op apply(long cycle) {
+        MongoCollection<Document> collection = collectionF.apply(cycle);
+        if (batchSize == 1) {
+            return bulkWriteOf(collection, List.of(writeF.apply(cycle)), 0);
+        }
+        List<WriteModel<Document>> full = pending.add(writeF.apply(cycle));
+        if (full == null) {
+            return new MongoStagedOp();
+        }
+        // The other cycles of the batch were already reported as successful
+        return bulkWriteOf(collection, full, full.size() - 1);
+    }
+
+    private MongoBulkWriteOp bulkWriteOf(MongoCollection<Document> collection, List<WriteModel<Document>> writes, int stagedCycles) {
+        return new MongoBulkWriteOp(collection, writes, options, new MongoStagedCycles(stagedCycles, discardedCycles));
+    }
+
+    private void flushPending() {
+        MongoCollection<Document> collection = collectionF.apply(0L);
+        int writes = pending.flush(drained -> bulkWriteOf(collection, drained, drained.size()).apply(0L));
+        if (writes > 0) {
+            logger.info(() -> "Sent " + writes + " pending writes in bulk at close");
+        }
+        if (discardedCycles.getCount() > 0) {
+            logger.error(discardedCycles.getCount() + " cycles have been discarded in total, since their bulk writes failed");
+        }
+    }
+}
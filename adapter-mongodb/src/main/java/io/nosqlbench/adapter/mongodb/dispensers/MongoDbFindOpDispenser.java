@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.mongodb.dispensers;
+
+import io.nosqlbench.adapter.mongodb.core.MongoDBOpTypes;
+import io.nosqlbench.adapter.mongodb.core.MongodbDriverAdapter;
+import io.nosqlbench.adapter.mongodb.ops.MongoFindOp;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.Op;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+import io.nosqlbench.engine.api.templating.TypeAndTarget;
+import org.bson.Document;
+
+import java.util.function.LongFunction;
+
+/**
+ * https://www.mongodb.com/docs/drivers/java/sync/current/usage-examples/find/
+ */
+public class MongoDbFindOpDispenser extends MongoDbBaseOpDispenser {
+
+    private final LongFunction<Document> filterF;
+    private final LongFunction<Document> projectionF;
+    private final LongFunction<Document> sortF;
+    private final int limit;
+    private final int batchSize;
+
+    public MongoDbFindOpDispenser(MongodbDriverAdapter adapter, ParsedOp pop, TypeAndTarget<MongoDBOpTypes, String> target) {
+        super(adapter, pop, target);
+        this.filterF = optionalDocumentFunc(pop, "filter").orElse(l -> new Document());
+        this.projectionF = optionalDocumentFunc(pop, "projection").orElse(l -> null);
+        this.sortF = optionalDocumentFunc(pop, "sort").orElse(l -> null);
+        this.limit = pop.getStaticConfigOr("limit", 0);
+        this.batchSize = pop.getStaticConfigOr("batchSize", 0);
+    }
+
+    @Override
+    public Op apply(long cycle) {
+        return new MongoFindOp(
+            collectionF.apply(cycle),
+            filterF.apply(cycle),
+            projectionF.apply(cycle),
+            sortF.apply(cycle),
+            limit,
+            batchSize
+        );
+    }
+}
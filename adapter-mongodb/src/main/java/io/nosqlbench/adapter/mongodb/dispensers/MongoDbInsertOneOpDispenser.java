@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.mongodb.dispensers;
+
+import io.nosqlbench.adapter.mongodb.core.MongoDBOpTypes;
+import io.nosqlbench.adapter.mongodb.core.MongodbDriverAdapter;
+import io.nosqlbench.adapter.mongodb.ops.MongoInsertOneOp;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.Op;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+import io.nosqlbench.engine.api.templating.TypeAndTarget;
+import org.bson.Document;
+
+import java.util.function.LongFunction;
+
+/**
+ * https://www.mongodb.com/docs/drivers/java/sync/current/usage-examples/insertOne/
+ */
+public class MongoDbInsertOneOpDispenser extends MongoDbBaseOpDispenser {
+
+    private final LongFunction<Document> documentF;
+
+    public MongoDbInsertOneOpDispenser(MongodbDriverAdapter adapter, ParsedOp pop, TypeAndTarget<MongoDBOpTypes, String> target) {
+        super(adapter, pop, target);
+        this.documentF = documentFunc(pop, "document");
+    }
+
+    @Override
+    public Op apply(long cycle) {
+        return new MongoInsertOneOp(collectionF.apply(cycle), documentF.apply(cycle));
+    }
+}
@@ -16,13 +16,14 @@
 
 package io.nosqlbench.adapter.mongodb.dispensers;
 
-import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoDatabase;
-import io.nosqlbench.adapter.mongodb.core.MongoSpace;
+import com.mongodb.client.model.UpdateOptions;
+import io.nosqlbench.adapter.mongodb.core.MongoDBOpTypes;
 import io.nosqlbench.adapter.mongodb.core.MongodbDriverAdapter;
-import io.nosqlbench.engine.api.activityimpl.BaseOpDispenser;
+import io.nosqlbench.adapter.mongodb.ops.MongoUpdateOp;
 import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.Op;
 import io.nosqlbench.engine.api.templating.ParsedOp;
+import io.nosqlbench.engine.api.templating.TypeAndTarget;
+import org.bson.Document;
 
 import java.util.function.LongFunction;
 
@@ -30,28 +31,23 @@ import java.util.function.LongFunction;
  * https://www.mongodb.com/docs/manual/reference/command/update/#mongodb-dbcommand-dbcmd.update
  * https://www.mongodb.com/docs/drivers/java/sync/current/usage-examples/updateOne/
  */
-public class MongoDbUpdateOpDispenser extends BaseOpDispenser<Op, MongoSpace> {
-    private final LongFunction<MongoSpace> spaceF;
-    private final LongFunction<Op> opF;
-    private LongFunction<String> collectionF;
-
-    public MongoDbUpdateOpDispenser(MongodbDriverAdapter adapter, ParsedOp pop, LongFunction<String> collectionF) {
-        super(adapter, pop);
-        this.collectionF = collectionF;
-        this.spaceF = adapter.getSpaceFunc(pop);
-        this.opF = createOpF(pop);
-    }
-
-    private LongFunction<Op> createOpF(ParsedOp pop) {
-        LongFunction<MongoClient> clientF = cycle -> spaceF.apply(cycle).getClient();
-        LongFunction<MongoDatabase> docF = l -> clientF.apply(l).getDatabase(collectionF.apply(l));
-        return l -> new Op() {};
+public class MongoDbUpdateOpDispenser extends MongoDbBaseOpDispenser {
+    private final LongFunction<Document> filterF;
+    private final LongFunction<Document> updateF;
+    private final UpdateOptions options;
+    private final boolean many;
+
+    public MongoDbUpdateOpDispenser(MongodbDriverAdapter adapter, ParsedOp pop, TypeAndTarget<MongoDBOpTypes, String> target) {
+        super(adapter, pop, target);
+        this.filterF = documentFunc(pop, "filter");
+        this.updateF = documentFunc(pop, "update");
+        this.options = new UpdateOptions().upsert(pop.getStaticConfigOr("upsert", false));
+        this.many = target.enumId == MongoDBOpTypes.updateMany;
     }
 
     @Override
     public Op apply(long value) {
-        Op op = opF.apply(value);
-        return op;
+        return new MongoUpdateOp(collectionF.apply(value), filterF.apply(value), updateF.apply(value), options, many);
     }
 
 }
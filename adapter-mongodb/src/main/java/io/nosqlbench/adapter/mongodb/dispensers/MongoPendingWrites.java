@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.adapter.mongodb.dispensers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * The pending writes of each thread, which are gathered into bulk writes of the batch size. The buffer
+ * of each thread is only shared with {@link #flush(Consumer)}, which runs after the threads are done with it.
+ * @param <T> the type of the writes
+ */
+final class MongoPendingWrites<T> {
+    private final static Logger logger = LogManager.getLogger(MongoPendingWrites.class);
+
+    private final int batchSize;
+    private final ThreadLocal<Buffer> buffers = ThreadLocal.withInitial(this::newBuffer);
+    private final Queue<Buffer> allBuffers = new ConcurrentLinkedQueue<>();
+
+    MongoPendingWrites(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    private Buffer newBuffer() {
+        Buffer buffer = new Buffer();
+        allBuffers.add(buffer);
+        return buffer;
+    }
+
+    /**
+     * Add the write of one cycle to the buffer of the calling thread.
+     * @return the pending writes of the thread, if this write completed a batch, or null otherwise
+     */
+    List<T> add(T write) {
+        return buffers.get().add(write);
+    }
+
+    /**
+     * Send the pending writes of every thread. A failure to send the writes of one thread is logged, and
+     * does not keep the writes of the other threads from being sent.
+     * @param sender sends the pending writes of one thread, and accounts for any which it could not send
+     * @return the number of writes which were sent
+     */
+    int flush(Consumer<List<T>> sender) {
+        int sent = 0;
+        for (Buffer buffer : allBuffers) {
+            List<T> drained = buffer.drain();
+            if (drained.isEmpty()) {
+                continue;
+            }
+            try {
+                sender.accept(drained);
+                sent += drained.size();
+            } catch (Exception e) {
+                logger.error("Unable to send " + drained.size() + " pending writes at close: " + e);
+            }
+        }
+        return sent;
+    }
+
+    private final class Buffer {
+        private List<T> writes = new ArrayList<>(batchSize);
+
+        synchronized List<T> add(T write) {
+            writes.add(write);
+            if (writes.size() >= batchSize) {
+                return drain();
+            }
+            return null;
+        }
+
+        synchronized List<T> drain() {
+            List<T> drained = writes;
+            writes = new ArrayList<>(batchSize);
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.adapter.mongodb.ops;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.WriteModel;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.CycleOp;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * <p>Sends the writes of one or more cycles in a single bulk write.</p>
+ *
+ * <p>The first writes of the bulk write may belong to other cycles, which only staged them and were already
+ * reported as successful. When some of the writes fail, the others are applied, so a retry of this op only
+ * sends the writes which were not applied, rather than repeating the writes which were. With an unordered
+ * bulk write, these are the writes which failed. With an ordered bulk write, they are the first write which
+ * failed and all writes after it. The staged cycles whose writes are not applied when the op gives up are
+ * counted as discarded by its {@link MongoStagedCycles}.</p>
+ */
+public class MongoBulkWriteOp implements CycleOp<BulkWriteResult> {
+
+    private final MongoCollection<Document> collection;
+    private final List<WriteModel<Document>> writes;
+    private final BulkWriteOptions options;
+    private final MongoStagedCycles staged;
+    // The indexes of the writes which have not been applied yet
+    private List<Integer> pending;
+    private BulkWriteResult lastResult;
+
+    public MongoBulkWriteOp(MongoCollection<Document> collection, List<WriteModel<Document>> writes, BulkWriteOptions options, MongoStagedCycles staged) {
+        this.collection = collection;
+        this.writes = writes;
+        this.options = options;
+        this.staged = staged;
+        this.pending = IntStream.range(0, writes.size()).boxed().toList();
+    }
+
+    @Override
+    public synchronized BulkWriteResult apply(long value) {
+        if (pending.isEmpty()) {
+            // Only a write concern error was left from the last attempt, and all writes were applied
+            staged.sent();
+            return lastResult;
+        }
+        List<WriteModel<Document>> sending = pending.stream().map(writes::get).toList();
+        try {
+            lastResult = collection.bulkWrite(sending, options);
+            pending = List.of();
+            staged.sent();
+            return lastResult;
+        } catch (MongoBulkWriteException e) {
+            lastResult = e.getWriteResult();
+            pending = unapplied(e);
+            staged.failed(countStaged(pending));
+            throw e;
+        } catch (RuntimeException e) {
+            staged.failed(countStaged(pending));
+            throw e;
+        }
+    }
+
+    /**
+     * @return the indexes of the writes which were not applied by the last attempt
+     */
+    private List<Integer> unapplied(MongoBulkWriteException e) {
+        List<BulkWriteError> errors = e.getWriteErrors();
+        if (errors.isEmpty()) {
+            return List.of();
+        }
+        if (options.isOrdered()) {
+            int first = errors.stream().mapToInt(BulkWriteError::getIndex).min().orElseThrow();
+            return pending.subList(first, pending.size());
+        }
+        List<Integer> failed = new ArrayList<>(errors.size());
+        errors.stream().mapToInt(BulkWriteError::getIndex).sorted().forEach(i -> failed.add(pending.get(i)));
+        return failed;
+    }
+
+    /**
+     * The staged writes are the first ones, followed by the write of the cycle which sends them, if any.
+     */
+    private int countStaged(List<Integer> indexes) {
+        return (int) indexes.stream().filter(i -> i < staged.getCycles()).count();
+    }
+
+    /**
+     * @return the writes which have not been applied yet
+     */
+    public synchronized List<WriteModel<Document>> getPendingWrites() {
+        return pending.stream().map(writes::get).toList();
+    }
+
+    @Override
+    public long getResultSize() {
+        return writes.size();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.mongodb.ops;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.CycleOp;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+/**
+ * Reads the cursor of a find to the end within the op, so that the latency of the op includes
+ * every getMore round trip. The result is the number of documents which were read.
+ */
+public class MongoFindOp implements CycleOp<Long> {
+
+    private final MongoCollection<Document> collection;
+    private final Bson filter;
+    private final Bson projection;
+    private final Bson sort;
+    private final int limit;
+    private final int batchSize;
+    private long resultSize;
+
+    /**
+     * @param projection the projection, or null for whole documents
+     * @param sort the sort order, or null for natural order
+     * @param limit the maximum number of documents, or 0 for no limit
+     * @param batchSize the number of documents per cursor batch, or 0 for the server default
+     */
+    public MongoFindOp(MongoCollection<Document> collection, Bson filter, Bson projection, Bson sort, int limit, int batchSize) {
+        this.collection = collection;
+        this.filter = filter;
+        this.projection = projection;
+        this.sort = sort;
+        this.limit = limit;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Long apply(long value) {
+        FindIterable<Document> found = collection.find(filter);
+        if (projection != null) {
+            found = found.projection(projection);
+        }
+        if (sort != null) {
+            found = found.sort(sort);
+        }
+        if (limit > 0) {
+            found = found.limit(limit);
+        }
+        if (batchSize > 0) {
+            found = found.batchSize(batchSize);
+        }
+        long count = 0;
+        try (MongoCursor<Document> cursor = found.iterator()) {
+            while (cursor.hasNext()) {
+                cursor.next();
+                count++;
+            }
+        }
+        this.resultSize = count;
+        return count;
+    }
+
+    @Override
+    public long getResultSize() {
+        return resultSize;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.mongodb.ops;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.result.InsertOneResult;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.CycleOp;
+import org.bson.Document;
+
+public class MongoInsertOneOp implements CycleOp<InsertOneResult> {
+
+    private final MongoCollection<Document> collection;
+    private final Document document;
+
+    public MongoInsertOneOp(MongoCollection<Document> collection, Document document) {
+        this.collection = collection;
+        this.document = document;
+    }
+
+    @Override
+    public InsertOneResult apply(long value) {
+        return collection.insertOne(document);
+    }
+
+    @Override
+    public long getResultSize() {
+        return 1;
+    }
+}
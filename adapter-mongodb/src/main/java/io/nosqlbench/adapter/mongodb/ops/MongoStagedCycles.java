@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.adapter.mongodb.ops;
+
+import com.codahale.metrics.Counter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The cycles whose writes were staged into a bulk write, and reported as successful, before the bulk
+ * write was sent. The writes of these cycles which could not be applied are counted as discarded. Each
+ * failed attempt replaces the count of the one before, so that cycles are only counted once, even when
+ * the op which sends them is retried, and they are uncounted again if a retry applies them.
+ */
+public class MongoStagedCycles {
+    private final static Logger logger = LogManager.getLogger(MongoStagedCycles.class);
+
+    private final int cycles;
+    private final Counter discardedCycles;
+    private int discarded = 0;
+
+    /**
+     * @param cycles          the number of cycles which were reported as successful before the bulk write was sent
+     * @param discardedCycles counts the cycles whose writes were never applied because their bulk write failed
+     */
+    public MongoStagedCycles(int cycles, Counter discardedCycles) {
+        this.cycles = cycles;
+        this.discardedCycles = discardedCycles;
+    }
+
+    public int getCycles() {
+        return cycles;
+    }
+
+    /**
+     * @param unapplied the number of staged cycles whose writes have not been applied after the last attempt
+     */
+    synchronized void failed(int unapplied) {
+        if (unapplied == discarded) {
+            return;
+        }
+        discardedCycles.inc(unapplied - discarded);
+        if (unapplied > discarded) {
+            logger.warn("Discarded the bulk writes of " + unapplied + " cycles, which were already reported as successful");
+        }
+        discarded = unapplied;
+    }
+
+    synchronized void sent() {
+        failed(0);
+    }
+}
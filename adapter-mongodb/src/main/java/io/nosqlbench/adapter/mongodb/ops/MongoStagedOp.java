@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.mongodb.ops;
+
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.CycleOp;
+
+/**
+ * A cycle whose write has been added to the pending bulk write of its thread instead of being
+ * sent on its own. It is sent to the server later, as part of the {@link MongoBulkWriteOp} of another cycle.
+ */
+public class MongoStagedOp implements CycleOp<Object> {
+
+    @Override
+    public Object apply(long value) {
+        return null;
+    }
+}
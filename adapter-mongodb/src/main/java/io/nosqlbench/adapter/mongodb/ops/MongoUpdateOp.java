@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.mongodb.ops;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.result.UpdateResult;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.CycleOp;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+public class MongoUpdateOp implements CycleOp<UpdateResult> {
+
+    private final MongoCollection<Document> collection;
+    private final Bson filter;
+    private final Bson update;
+    private final UpdateOptions options;
+    private final boolean many;
+    private long resultSize;
+
+    public MongoUpdateOp(MongoCollection<Document> collection, Bson filter, Bson update, UpdateOptions options, boolean many) {
+        this.collection = collection;
+        this.filter = filter;
+        this.update = update;
+        this.options = options;
+        this.many = many;
+    }
+
+    @Override
+    public UpdateResult apply(long value) {
+        UpdateResult result = many
+            ? collection.updateMany(filter, update, options)
+            : collection.updateOne(filter, update, options);
+        this.resultSize = result.getModifiedCount() + (result.getUpsertedId() != null ? 1 : 0);
+        return result;
+    }
+
+    @Override
+    public long getResultSize() {
+        return resultSize;
+    }
+}
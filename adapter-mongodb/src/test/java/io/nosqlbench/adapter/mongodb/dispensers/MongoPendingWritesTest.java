@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.adapter.mongodb.dispensers;
+
+import io.nosqlbench.adapter.mongodb.core.MongoSpace;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MongoPendingWritesTest {
+
+    @Test
+    public void testBatchIsReturnedWhenFull() {
+        MongoPendingWrites<String> pending = new MongoPendingWrites<>(3);
+        assertThat(pending.add("a")).isNull();
+        assertThat(pending.add("b")).isNull();
+        assertThat(pending.add("c")).containsExactly("a", "b", "c");
+        assertThat(pending.add("d")).isNull();
+
+        List<List<String>> sent = new ArrayList<>();
+        assertThat(pending.flush(sent::add)).isEqualTo(1);
+        assertThat(sent).containsExactly(List.of("d"));
+    }
+
+    @Test
+    public void testWritesAreGroupedByThread() throws InterruptedException {
+        MongoPendingWrites<String> pending = new MongoPendingWrites<>(3);
+        CountDownLatch added = new CountDownLatch(2);
+        List<Thread> threads = new ArrayList<>();
+        for (String name : List.of("t1", "t2")) {
+            Thread thread = new Thread(() -> {
+                pending.add(name + "-0");
+                added.countDown();
+                try {
+                    added.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                pending.add(name + "-1");
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<List<String>> sent = Collections.synchronizedList(new ArrayList<>());
+        assertThat(pending.flush(sent::add)).isEqualTo(4);
+        assertThat(sent).containsExactlyInAnyOrder(List.of("t1-0", "t1-1"), List.of("t2-0", "t2-1"));
+    }
+
+    @Test
+    public void testFlushContinuesAfterFailure() throws InterruptedException {
+        MongoPendingWrites<String> pending = new MongoPendingWrites<>(3);
+        pending.add("main");
+        Thread other = new Thread(() -> pending.add("other"));
+        other.start();
+        other.join();
+
+        List<List<String>> attempted = new ArrayList<>();
+        int sent = pending.flush(writes -> {
+            attempted.add(writes);
+            if (attempted.size() == 1) {
+                throw new IllegalStateException("write timeout");
+            }
+        });
+
+        assertThat(attempted).hasSize(2);
+        assertThat(sent).isEqualTo(1);
+        assertThat(pending.flush(attempted::add)).isEqualTo(0);
+    }
+
+    @Test
+    public void testPendingWritesAreSentOnClose() {
+        MongoPendingWrites<String> pending = new MongoPendingWrites<>(3);
+        pending.add("a");
+        pending.add("b");
+        List<List<String>> sent = new ArrayList<>();
+        MongoSpace space = new MongoSpace("test", null);
+        space.addCloseHook(() -> pending.flush(sent::add));
+
+        space.close();
+
+        assertThat(sent).containsExactly(List.of("a", "b"));
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.adapter.mongodb.ops;
+
+import com.codahale.metrics.Counter;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.WriteConcernError;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Exercises the partial failure handling of bulk writes against a scripted collection, in the same
+ * way that a server rejects some of the writes of a bulk write, such as duplicate keys.
+ */
+public class MongoBulkWriteOpTest {
+
+    /**
+     * Answers each bulk write with the next scripted outcome, or throws it if it is an exception,
+     * and keeps the ids of the documents which were sent in each bulk write.
+     */
+    private static class ScriptedCollection {
+        private final Deque<Object> script = new ArrayDeque<>();
+        private final List<List<Integer>> sent = new ArrayList<>();
+
+        ScriptedCollection then(Object outcome) {
+            script.add(outcome);
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        MongoCollection<Document> collection() {
+            return (MongoCollection<Document>) Proxy.newProxyInstance(
+                MongoBulkWriteOpTest.class.getClassLoader(), new Class[]{MongoCollection.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("bulkWrite")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    List<WriteModel<Document>> writes = (List<WriteModel<Document>>) args[0];
+                    sent.add(writes.stream().map(w -> ((InsertOneModel<Document>) w).getDocument().getInteger("_id")).toList());
+                    Object next = script.remove();
+                    if (next instanceof RuntimeException e) {
+                        throw e;
+                    }
+                    return next;
+                });
+        }
+    }
+
+    private static List<WriteModel<Document>> writes(int count) {
+        return IntStream.range(0, count).<WriteModel<Document>>mapToObj(i -> new InsertOneModel<>(new Document("_id", i))).toList();
+    }
+
+    private static MongoBulkWriteException failedAt(int... indexes) {
+        List<BulkWriteError> errors = Arrays.stream(indexes)
+            .mapToObj(i -> new BulkWriteError(11000, "duplicate key", new BsonDocument(), i))
+            .toList();
+        return new MongoBulkWriteException(BulkWriteResult.unacknowledged(), errors, null, new ServerAddress(), Set.of());
+    }
+
+    private static BulkWriteOptions unordered() {
+        return new BulkWriteOptions().ordered(false);
+    }
+
+    @Test
+    public void testUnorderedRetrySendsOnlyFailedWrites() {
+        ScriptedCollection scripted = new ScriptedCollection()
+            .then(failedAt(1, 3))
+            .then(failedAt(0))
+            .then(BulkWriteResult.unacknowledged());
+        Counter discarded = new Counter();
+        MongoBulkWriteOp op = new MongoBulkWriteOp(scripted.collection(), writes(4), unordered(), new MongoStagedCycles(3, discarded));
+
+        assertThatExceptionOfType(MongoBulkWriteException.class).isThrownBy(() -> op.apply(1L));
+        assertThat(discarded.getCount()).isEqualTo(1);
+        assertThatExceptionOfType(MongoBulkWriteException.class).isThrownBy(() -> op.apply(1L));
+        assertThat(discarded.getCount()).isEqualTo(1);
+        op.apply(1L);
+
+        assertThat(scripted.sent).containsExactly(List.of(0, 1, 2, 3), List.of(1, 3), List.of(1));
+        assertThat(discarded.getCount()).isEqualTo(0);
+        assertThat(op.getPendingWrites()).isEmpty();
+    }
+
+    @Test
+    public void testOrderedRetrySendsFromFirstFailedWrite() {
+        ScriptedCollection scripted = new ScriptedCollection()
+            .then(failedAt(1))
+            .then(BulkWriteResult.unacknowledged());
+        Counter discarded = new Counter();
+        MongoBulkWriteOp op = new MongoBulkWriteOp(scripted.collection(), writes(4), new BulkWriteOptions().ordered(true), new MongoStagedCycles(3, discarded));
+
+        assertThatExceptionOfType(MongoBulkWriteException.class).isThrownBy(() -> op.apply(1L));
+        assertThat(discarded.getCount()).isEqualTo(2);
+        op.apply(1L);
+
+        assertThat(scripted.sent).containsExactly(List.of(0, 1, 2, 3), List.of(1, 2, 3));
+        assertThat(discarded.getCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testFailedBulkWriteCountsStagedCyclesOnce() {
+        ScriptedCollection scripted = new ScriptedCollection()
+            .then(new IllegalStateException("timeout"))
+            .then(new IllegalStateException("timeout"));
+        Counter discarded = new Counter();
+        MongoBulkWriteOp op = new MongoBulkWriteOp(scripted.collection(), writes(4), unordered(), new MongoStagedCycles(3, discarded));
+
+        assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> op.apply(1L));
+        assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> op.apply(1L));
+
+        assertThat(scripted.sent).containsExactly(List.of(0, 1, 2, 3), List.of(0, 1, 2, 3));
+        assertThat(discarded.getCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void testFailedFlushCountsAllCycles() {
+        ScriptedCollection scripted = new ScriptedCollection().then(failedAt(0, 2));
+        Counter discarded = new Counter();
+        MongoBulkWriteOp op = new MongoBulkWriteOp(scripted.collection(), writes(3), unordered(), new MongoStagedCycles(3, discarded));
+
+        assertThatExceptionOfType(MongoBulkWriteException.class).isThrownBy(() -> op.apply(0L));
+
+        assertThat(discarded.getCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testWriteConcernErrorIsNotResent() {
+        BulkWriteResult result = BulkWriteResult.unacknowledged();
+        ScriptedCollection scripted = new ScriptedCollection().then(new MongoBulkWriteException(result, List.of(),
+            new WriteConcernError(64, "WriteConcernFailed", "waiting for replication timed out", new BsonDocument()),
+            new ServerAddress(), Set.of()));
+        Counter discarded = new Counter();
+        MongoBulkWriteOp op = new MongoBulkWriteOp(scripted.collection(), writes(2), unordered(), new MongoStagedCycles(1, discarded));
+
+        assertThatExceptionOfType(MongoBulkWriteException.class).isThrownBy(() -> op.apply(1L));
+        assertThat(op.apply(1L)).isSameAs(result);
+
+        assertThat(scripted.sent).containsExactly(List.of(0, 1));
+        assertThat(discarded.getCount()).isEqualTo(0);
+    }
+}
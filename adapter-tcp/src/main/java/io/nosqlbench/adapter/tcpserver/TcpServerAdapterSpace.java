@@ -16,6 +16,8 @@
 
 package io.nosqlbench.adapter.tcpserver;
 
+import io.nosqlbench.api.config.NBLabeledElement;
+import io.nosqlbench.api.config.NBLabels;
 import io.nosqlbench.api.config.standard.ConfigModel;
 import io.nosqlbench.api.config.standard.NBConfigModel;
 import io.nosqlbench.api.config.standard.NBConfiguration;
@@ -40,20 +42,44 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
-public class TcpServerAdapterSpace implements AutoCloseable {
+public class TcpServerAdapterSpace implements AutoCloseable, NBLabeledElement {
 
 
     private final static Logger logger = LogManager.getLogger(TcpServerAdapterSpace.class);
+    private final String name;
     private final NBConfiguration config;
     Writer writer;
+    private TcpServerNio nioServer;
     private LinkedBlockingQueue<String> queue;
     private ServerSocket listenerSocket;
     private final List<Shutdown> managedShutdown = new ArrayList<>();
     private int capacity=10;
 
-    public TcpServerAdapterSpace(NBConfiguration config) {
+    public TcpServerAdapterSpace(String name, NBConfiguration config) {
+        this.name = name;
         this.config = config;
-        this.writer = createPrintWriter();
+        if (config.getOptional("mode").orElse("blocking").equals("nio")) {
+            this.nioServer = createNioServer();
+        } else {
+            this.writer = createPrintWriter();
+        }
+    }
+
+    private TcpServerNio createNioServer() {
+        if (config.getOptional(Boolean.class, "ssl").orElse(false)) {
+            throw new RuntimeException("ssl is not supported with mode=nio for the tcpserver driver");
+        }
+        String host = config.getOptional("host").orElse("localhost");
+        int port = config.getOptional(int.class, "port").orElse(12345);
+        this.capacity = config.getOptional(int.class, "capacity").orElse(10);
+        int batchBytes = config.getOptional(int.class, "batch_bytes").orElse(65536);
+        TcpServerNio.FullPolicy policy = TcpServerNio.FullPolicy.valueOf(config.getOptional("full_policy").orElse("block"));
+        return new TcpServerNio(this, host, port, capacity, batchBytes, policy);
+    }
+
+    @Override
+    public NBLabels getLabels() {
+        return NBLabels.forKV("driver", "tcpserver", "space", name);
     }
 
     private Writer createPrintWriter() {
@@ -98,6 +124,10 @@ public class TcpServerAdapterSpace implements AutoCloseable {
 
     @Override
     public void close() throws Exception {
+        if (nioServer != null) {
+            nioServer.close();
+            return;
+        }
         logger.info("TcpServerAdapterSpace is waiting for message queue to empty");
         while(this.queue != null && !this.queue.isEmpty())
         {
@@ -113,6 +143,10 @@ public class TcpServerAdapterSpace implements AutoCloseable {
     }
 
     public void writeflush(String text) {
+        if (nioServer != null) {
+            nioServer.publish(text);
+            return;
+        }
         try {
             if(this.writer == null)
             {
@@ -129,7 +163,23 @@ public class TcpServerAdapterSpace implements AutoCloseable {
             .add(SSLKsFactory.get().getConfigModel())
             .add(
                 Param.defaultTo("capacity",10)
-                    .setDescription("the capacity of the queue")
+                    .setDescription("the capacity of the queue, or of the queue for each client with mode=nio")
+            )
+            .add(
+                Param.defaultTo("mode","blocking")
+                    .setRegex("blocking|nio")
+                    .setDescription("""
+                        With 'blocking', each message is sent to one of the connected clients by a thread for each client.
+                        With 'nio', every message is sent to all connected clients by a single selector thread.""")
+            )
+            .add(
+                Param.defaultTo("full_policy","block")
+                    .setRegex("block|drop")
+                    .setDescription("With mode=nio, whether to wait or to drop messages for a client whose queue is full")
+            )
+            .add(
+                Param.defaultTo("batch_bytes",65536)
+                    .setDescription("With mode=nio, the most bytes to send to a client in a single write")
             )
             .add(
                 Param.defaultTo("host","localhost")
@@ -46,7 +46,7 @@ public class TcpServerDriverAdapter extends BaseDriverAdapter<TcpServerOp, TcpSe
 
     @Override
     public Function<String, ? extends TcpServerAdapterSpace> getSpaceInitializer(NBConfiguration cfg) {
-        return (s) -> new TcpServerAdapterSpace(cfg);
+        return (s) -> new TcpServerAdapterSpace(s, cfg);
     }
 
     @Override
@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.tcpserver;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import io.nosqlbench.api.config.NBLabeledElement;
+import io.nosqlbench.api.engine.metrics.ActivityMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>A non-blocking TCP server which sends every frame to every connected client. All of the
+ * client connections are served by one selector thread.</p>
+ *
+ * <p>Each client has its own bounded ring of pending frames. When the ring of a client is full,
+ * the {@link FullPolicy} decides whether the publishing thread waits for space or the frame is
+ * dropped for that client. The selector thread gathers as many pending frames as fit into a
+ * direct buffer for each client, and writes them with a single call, so frames are not flushed
+ * one at a time.</p>
+ */
+public class TcpServerNio implements AutoCloseable {
+    private final static Logger logger = LogManager.getLogger(TcpServerNio.class);
+
+    public enum FullPolicy {
+        /**
+         * Wait for the client to take more data, which slows the publishers to the rate of the slowest client
+         */
+        block,
+        /**
+         * Drop frames for any client which is not keeping up
+         */
+        drop
+    }
+
+    private final int capacity;
+    private final int batchBytes;
+    private final FullPolicy policy;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+    private final Thread selectorThread;
+    private volatile boolean running = true;
+
+    private final Meter bytesMeter;
+    private final Counter droppedCounter;
+
+    public TcpServerNio(NBLabeledElement parent, String host, int port, int capacity, int batchBytes, FullPolicy policy) {
+        this.capacity = capacity;
+        this.batchBytes = batchBytes;
+        this.policy = policy;
+        try {
+            this.selector = Selector.open();
+            this.serverChannel = ServerSocketChannel.open();
+            serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            serverChannel.bind(new InetSocketAddress(InetAddress.getByName(host), port));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new RuntimeException("Error listening on " + host + ":" + port + ": " + e, e);
+        }
+
+        this.bytesMeter = ActivityMetrics.meter(parent, "bytes");
+        this.droppedCounter = ActivityMetrics.counter(parent, "dropped_frames");
+        ActivityMetrics.gauge(parent, "queue_depth", (Gauge<Integer>) this::getQueueDepth);
+        ActivityMetrics.gauge(parent, "clients", (Gauge<Integer>) this::getClientCount);
+
+        this.selectorThread = new Thread(this::runSelector);
+        selectorThread.setDaemon(true);
+        selectorThread.setName("TcpServerNio/" + host + ":" + port);
+        selectorThread.start();
+        logger.info("Listening with a selector on " + host + ":" + port + " with capacity " + capacity
+            + " per client and full policy '" + policy + "'");
+    }
+
+    /**
+     * Queue a frame for every connected client. If there are no clients yet, then this waits for one
+     * to connect, unless the full policy is {@link FullPolicy#drop}.
+     *
+     * @param text The content of the frame
+     */
+    public void publish(String text) {
+        byte[] frame = text.getBytes(StandardCharsets.UTF_8);
+        while (clients.isEmpty()) {
+            if (policy == FullPolicy.drop || !running) {
+                droppedCounter.inc();
+                return;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        for (Client client : clients) {
+            client.offer(frame);
+        }
+    }
+
+    /**
+     * @return the number of frames which are waiting to be sent, over all clients
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Client client : clients) {
+            depth += client.ring.size();
+        }
+        return depth;
+    }
+
+    /**
+     * @return the number of connected clients
+     */
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    /**
+     * @return the number of frames which were dropped, over all clients
+     */
+    public long getDroppedFrames() {
+        return droppedCounter.getCount();
+    }
+
+    private void runSelector() {
+        while (running) {
+            try {
+                selector.select(100);
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else if (key.isReadable()) {
+                        ((Client) key.attachment()).read();
+                    }
+                }
+                selector.selectedKeys().clear();
+                for (Client client : clients) {
+                    client.flush();
+                }
+            } catch (IOException e) {
+                logger.warn("Error in selector loop: " + e, e);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Client client = new Client(channel);
+            client.key = channel.register(selector, SelectionKey.OP_READ, client);
+            clients.add(client);
+            logger.info("Accepted client connection " + channel.getRemoteAddress());
+        }
+    }
+
+    @Override
+    public void close() {
+        logger.info("TcpServerNio is waiting for client queues to empty");
+        while (running && clients.stream().anyMatch(Client::hasPending)) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join(1000);
+        } catch (InterruptedException ignored) {
+        }
+        for (Client client : clients) {
+            client.close();
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            logger.warn("Error while closing server channel: " + e);
+        }
+        logger.info("TcpServerNio is closed");
+    }
+
+    private final class Client {
+        private final SocketChannel channel;
+        private final ArrayBlockingQueue<byte[]> ring = new ArrayBlockingQueue<>(capacity);
+        private final ByteBuffer outbox = ByteBuffer.allocateDirect(batchBytes);
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(1024);
+        private SelectionKey key;
+        private byte[] current;
+        private int currentOffset;
+        private volatile boolean open = true;
+        private volatile boolean flushRequested;
+
+        Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void offer(byte[] frame) {
+            if (policy == FullPolicy.drop) {
+                if (!ring.offer(frame)) {
+                    droppedCounter.inc();
+                    return;
+                }
+            } else {
+                try {
+                    while (!ring.offer(frame, 100, TimeUnit.MILLISECONDS)) {
+                        if (!open || !running) {
+                            droppedCounter.inc();
+                            return;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            // Only wake the selector when it may not already know about pending frames
+            if (!flushRequested) {
+                flushRequested = true;
+                selector.wakeup();
+            }
+        }
+
+        boolean hasPending() {
+            return open && (!ring.isEmpty() || current != null || outbox.position() > 0);
+        }
+
+        /**
+         * Called only by the selector thread. Batches pending frames into the outbox and writes
+         * them until either nothing is pending or the socket will not take more.
+         */
+        void flush() {
+            if (!open) {
+                return;
+            }
+            flushRequested = false;
+            try {
+                while (true) {
+                    fill();
+                    if (outbox.position() == 0) {
+                        key.interestOps(SelectionKey.OP_READ);
+                        return;
+                    }
+                    outbox.flip();
+                    int written = channel.write(outbox);
+                    outbox.compact();
+                    if (written > 0) {
+                        bytesMeter.mark(written);
+                    } else {
+                        // The socket is full, so wait until it is writable again
+                        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                logger.info("Closing client connection after write error: " + e);
+                close();
+            }
+        }
+
+        private void fill() {
+            while (outbox.hasRemaining()) {
+                if (current == null) {
+                    current = ring.poll();
+                    currentOffset = 0;
+                    if (current == null) {
+                        return;
+                    }
+                }
+                int length = Math.min(outbox.remaining(), current.length - currentOffset);
+                outbox.put(current, currentOffset, length);
+                currentOffset += length;
+                if (currentOffset == current.length) {
+                    current = null;
+                }
+            }
+        }
+
+        void read() {
+            try {
+                readBuffer.clear();
+                if (channel.read(readBuffer) < 0) {
+                    logger.info("Client connection closed by peer");
+                    close();
+                }
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        void close() {
+            open = false;
+            clients.remove(this);
+            if (key != null) {
+                key.cancel();
+            }
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            droppedCounter.inc(ring.size());
+            ring.clear();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.adapter.tcpserver;
+
+import io.nosqlbench.api.config.NBLabeledElement;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Connects clients to the server over loopback. The slow client does not read until it is told to,
+ * so once the socket buffers between it and the server are full, its ring of pending frames fills.
+ */
+public class TcpServerNioTest {
+
+    private static final int FRAME_BYTES = 64 * 1024;
+    // Enough frames to overrun the socket buffers of a client which does not read
+    private static final int FRAMES = 512;
+    private static final String FRAME = "x".repeat(FRAME_BYTES - 1) + "\n";
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static TcpServerNio server(String name, int port, TcpServerNio.FullPolicy policy) {
+        return new TcpServerNio(NBLabeledElement.forKV("alias", name), "127.0.0.1", port, 4, FRAME_BYTES, policy);
+    }
+
+    private static Socket connect(int port) throws IOException {
+        Socket socket = new Socket();
+        socket.setReceiveBufferSize(4096);
+        socket.connect(new InetSocketAddress("127.0.0.1", port), 1000);
+        return socket;
+    }
+
+    private static void awaitClients(TcpServerNio server, int clients) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (server.getClientCount() < clients) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Read from the socket until the given number of bytes have been read or the peer closes it
+     * @return the number of bytes read
+     */
+    private static CompletableFuture<Long> readAll(Socket socket, long bytes) {
+        return CompletableFuture.supplyAsync(() -> {
+            long read = 0;
+            byte[] buffer = new byte[FRAME_BYTES];
+            try (InputStream in = socket.getInputStream()) {
+                int count;
+                while (read < bytes && (count = in.read(buffer)) >= 0) {
+                    read += count;
+                }
+            } catch (IOException ignored) {
+            }
+            return read;
+        });
+    }
+
+    private static CompletableFuture<Void> publishAll(TcpServerNio server) {
+        return CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < FRAMES; i++) {
+                server.publish(FRAME);
+            }
+        });
+    }
+
+    @Test
+    public void testFramesAreSentToEveryClient() throws Exception {
+        int port = freePort();
+        TcpServerNio server = server("fanout", port, TcpServerNio.FullPolicy.block);
+        try (Socket first = connect(port); Socket second = connect(port)) {
+            awaitClients(server, 2);
+            long bytes = 100L * 6;
+            CompletableFuture<Long> firstRead = readAll(first, bytes);
+            CompletableFuture<Long> secondRead = readAll(second, bytes);
+            for (int i = 0; i < 100; i++) {
+                server.publish("frame\n");
+            }
+            assertThat(firstRead.get(10, TimeUnit.SECONDS)).isEqualTo(bytes);
+            assertThat(secondRead.get(10, TimeUnit.SECONDS)).isEqualTo(bytes);
+            assertThat(server.getDroppedFrames()).isEqualTo(0L);
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test
+    public void testSlowClientBlocksPublisher() throws Exception {
+        int port = freePort();
+        TcpServerNio server = server("block", port, TcpServerNio.FullPolicy.block);
+        try (Socket fast = connect(port); Socket slow = connect(port)) {
+            awaitClients(server, 2);
+            long bytes = (long) FRAMES * FRAME_BYTES;
+            CompletableFuture<Long> fastRead = readAll(fast, bytes);
+            CompletableFuture<Void> publisher = publishAll(server);
+
+            assertThatExceptionOfType(TimeoutException.class).isThrownBy(() -> publisher.get(1, TimeUnit.SECONDS));
+            assertThat(server.getQueueDepth()).isGreaterThanOrEqualTo(4);
+
+            CompletableFuture<Long> slowRead = readAll(slow, bytes);
+            publisher.get(30, TimeUnit.SECONDS);
+            assertThat(fastRead.get(30, TimeUnit.SECONDS)).isEqualTo(bytes);
+            assertThat(slowRead.get(30, TimeUnit.SECONDS)).isEqualTo(bytes);
+            assertThat(server.getDroppedFrames()).isEqualTo(0L);
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test
+    public void testSlowClientDropsFrames() throws Exception {
+        int port = freePort();
+        TcpServerNio server = server("drop", port, TcpServerNio.FullPolicy.drop);
+        try (Socket fast = connect(port); Socket slow = connect(port)) {
+            awaitClients(server, 2);
+            CompletableFuture<Long> fastRead = readAll(fast, (long) FRAMES * FRAME_BYTES);
+
+            // Publishing does not wait for the slow client
+            publishAll(server).get(10, TimeUnit.SECONDS);
+
+            assertThat(server.getDroppedFrames()).isGreaterThan(0L);
+            assertThat(server.getQueueDepth()).isLessThanOrEqualTo(2 * 4);
+            slow.close();
+            fast.close();
+            assertThat(fastRead.get(10, TimeUnit.SECONDS)).isGreaterThan(0L);
+        } finally {
+            server.close();
+        }
+    }
+}
@@ -20,6 +20,7 @@ import io.nosqlbench.api.content.Content;
 import io.nosqlbench.api.content.NBIO;
 import io.nosqlbench.api.errors.BasicError;
 import io.nosqlbench.api.errors.OpConfigError;
+import io.nosqlbench.api.system.WarmStartCache;
 import io.nosqlbench.engine.api.templating.StrInterpolator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -79,9 +80,14 @@ public class RawOpsLoader {
     }
 
     public RawOpsDocList parseYaml(String data) {
-        LoadSettings loadSettings = LoadSettings.builder().build();
-        Load yaml = new Load(loadSettings);
-        Iterable<Object> objects = yaml.loadAllFromString(data);
+        // The parsed documents are read back from the warm start cache when the same yaml was seen before
+        List<Object> objects = WarmStartCache.get("yaml", data, () -> {
+            LoadSettings loadSettings = LoadSettings.builder().build();
+            Load yaml = new Load(loadSettings);
+            ArrayList<Object> loaded = new ArrayList<>();
+            yaml.loadAllFromString(data).forEach(loaded::add);
+            return loaded;
+        });
         List<RawOpsDoc> newDocList = new ArrayList<>();
 
         for (Object object : objects) {
@@ -30,6 +30,7 @@ import org.mvel2.MVEL;
 
 import java.io.Serializable;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 /**
  *
@@ -49,6 +50,7 @@ public abstract class BaseOpDispenser<T extends Op, S> implements OpDispenser<T>
     private boolean instrument;
     private Histogram resultSizeHistogram;
     private Timer successTimer;
+    private Timer successResponseTimer;
     private Timer errorTimer;
     private final String[] timerStarts;
     private final String[] timerStops;
@@ -105,11 +107,24 @@ public abstract class BaseOpDispenser<T extends Op, S> implements OpDispenser<T>
         if (this.instrument) {
             final int hdrDigits = pop.getStaticConfigOr("hdr_digits", 4).intValue();
             successTimer = ActivityMetrics.timer(pop, "success",hdrDigits);
+            if (isIntendedSchedule(pop)) {
+                successResponseTimer = ActivityMetrics.timer(pop, "success.responsetime", hdrDigits);
+            }
             errorTimer = ActivityMetrics.timer(pop, "error", hdrDigits);
             resultSizeHistogram = ActivityMetrics.histogram(pop, "resultset-size", hdrDigits);
         }
     }
 
+    /**
+     * Response times are only measured from the intended start of each op when the cycles are rate limited,
+     * as otherwise there is no schedule to measure from.
+     */
+    private static boolean isIntendedSchedule(final ParsedOp pop) {
+        if (!"intended".equals(pop.getStaticConfigOr("schedule", "none"))) return false;
+        return Stream.of("cyclerate", "targetrate", "rate")
+            .anyMatch(name -> pop.getOptionalStaticConfig(name, Object.class).isPresent());
+    }
+
     @Override
     public void onStart(final long cycleValue) {
         if (null != timerStarts) ThreadLocalNamedTimers.TL_INSTANCE.get().start(this.timerStarts);
@@ -124,6 +139,12 @@ public abstract class BaseOpDispenser<T extends Op, S> implements OpDispenser<T>
         if (null != timerStops) ThreadLocalNamedTimers.TL_INSTANCE.get().stop(this.timerStops);
     }
 
+    @Override
+    public void onSuccess(final long cycleValue, final long nanoTime, final long resultSize, final long responseNanos) {
+        onSuccess(cycleValue, nanoTime, resultSize);
+        if (null != successResponseTimer) this.successResponseTimer.update(responseNanos, TimeUnit.NANOSECONDS);
+    }
+
     @Override
     public void onError(final long cycleValue, final long resultNanos, final Throwable t) {
 
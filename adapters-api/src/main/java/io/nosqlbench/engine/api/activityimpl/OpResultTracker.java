@@ -19,5 +19,13 @@ package io.nosqlbench.engine.api.activityimpl;
 public interface OpResultTracker {
     void onStart(long cycleValue);
     void onSuccess(long cycleValue, long nanoTime, long resultsize);
+
+    /**
+     * Called instead of {@link #onSuccess(long, long, long)} when the op was scheduled to start at a specific time,
+     * with the response time measured from that intended start time in addition to the service time.
+     */
+    default void onSuccess(long cycleValue, long nanoTime, long resultsize, long responseNanos) {
+        onSuccess(cycleValue, nanoTime, resultsize);
+    }
     void onError(long cycleValue, long resultNanos, Throwable t);
 }
@@ -159,17 +159,22 @@ public abstract class BaseDriverAdapter<R extends Op, S> implements DriverAdapte
                 .add(Param.optional("tags", String.class, "tags to be used to filter operations"))
                 .add(Param.defaultTo("errors", "stop", "error handler configuration"))
                 .add(Param.optional("threads").setRegex("\\d+|\\d+x|auto").setDescription("number of concurrent operations, controlled by threadpool"))
+                .add(Param.defaultTo("threadmode", "platform").setRegex("platform|virtual").setDescription("whether to run motors on platform or virtual threads"))
                 .add(Param.optional("stride").setRegex("\\d+"))
+                .add(Param.optional("async").setRegex("\\d+").setDescription("number of ops in flight, split across all threads"))
                 .add(Param.optional("striderate", String.class, "rate limit for strides per second"))
                 .add(Param.optional("cycles").setRegex("\\d+[KMBGTPE]?|\\d+[KMBGTPE]?\\.\\.\\d+[KMBGTPE]?").setDescription("cycle interval to use"))
                 .add(Param.optional("recycles").setDescription("allow cycles to be re-used this many times"))
                 .add(Param.optional(List.of("cyclerate", "targetrate", "rate"), String.class, "rate limit for cycles per second"))
+                .add(Param.optional("ratelimiter").setRegex("hybrid|lockfree").setDescription("rate limiter implementation, hybrid by default or lockfree with schedule=intended"))
+                .add(Param.defaultTo("schedule", "none").setRegex("none|intended").setDescription("measure response times from the intended start of each cycle"))
                 .add(Param.optional("seq", String.class, "sequencing algorithm"))
                 .add(Param.optional("instrument", Boolean.class))
                 .add(Param.optional(List.of("workload", "yaml"), String.class, "location of workload yaml file"))
                 .add(Param.optional("driver", String.class))
                 .add(Param.defaultTo("dryrun", "none").setRegex("(op|jsonnet|none)"))
                 .add(Param.optional("maxtries", Integer.class))
+                .add(Param.optional("initthreads", Integer.class, "number of threads used to initialize op templates"))
                 .asReadOnly();
     }
 
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl.uniform.flowtypes;
+
+import java.util.concurrent.CompletionStage;
+import java.util.function.LongFunction;
+
+/**
+ * <H2>AsyncCycleOp: f(cycle) -> CompletionStage&lt;T&gt;</H2>
+ * <p>An AsyncCycleOp of T is an operation which takes a long input value
+ * and starts an operation which will eventually produce a value of type T.
+ * The operation is considered in flight from the time {@link #apply(long)}
+ * is called until the returned {@link CompletionStage} is completed.</p>
+ *
+ * <p>This variant of {@link Op} is only given its async treatment when the
+ * activity is run with the <em>async</em> activity parameter. Otherwise, it is
+ * run synchronously, blocking the calling thread until the stage is complete.
+ * Retries, error handling and timing are all applied when the stage completes,
+ * not when it is returned.</p>
+ *
+ * <h2>Designer Notes</h2>
+ * <p>
+ * Implementations should not block in {@link #apply(long)}. The completion of the
+ * returned stage is likely to happen on a driver-owned thread, so any work done
+ * in dependent stages should be brief.
+ * </p>
+ *
+ * @param <T> The type of the result which is eventually produced
+ */
+public interface AsyncCycleOp<T> extends Op, LongFunction<CompletionStage<T>> {
+    /**
+     * <p>Start an action for the given cycle.</p>
+     *
+     * @param value The cycle value for which an operation is run
+     * @return A stage which is completed with the result of the operation, or exceptionally
+     * with the error that caused it to fail
+     */
+    @Override
+    CompletionStage<T> apply(long value);
+}
@@ -29,6 +29,8 @@ package io.nosqlbench.engine.api.activityimpl.uniform.flowtypes;
  *  to be more optimized.</li>
  *  <li>{@link ChainingOp}</li>
  *  <li>{@link RunnableOp}</li>
+ *  <li>{@link AsyncCycleOp}</li> - An interface for operations which complete asynchronously,
+ *  allowing many operations to be in flight per thread when the activity is run in async mode.</li>
  * </ul>
  * </p>
  */
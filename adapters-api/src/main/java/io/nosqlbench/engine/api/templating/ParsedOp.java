@@ -25,6 +25,7 @@ import io.nosqlbench.api.config.standard.NBConfiguration;
 import io.nosqlbench.api.errors.OpConfigError;
 import io.nosqlbench.engine.api.activityconfig.yaml.OpTemplate;
 import io.nosqlbench.engine.api.templating.binders.ArrayBinder;
+import io.nosqlbench.engine.api.templating.binders.FieldSlotBinder;
 import io.nosqlbench.engine.api.templating.binders.ListBinder;
 import io.nosqlbench.engine.api.templating.binders.OrderedMapBinder;
 import io.nosqlbench.virtdata.core.templates.BindPoint;
@@ -682,6 +683,14 @@ public class ParsedOp implements LongFunction<Map<String, ?>>, NBLabeledElement,
         return tmap.newArrayBinderFromBindPoints(bindPoints);
     }
 
+    /**
+     * @return a new {@link FieldSlotBinder} which can produce a flat array of all op field values from a long input,
+     * for adapters which want to avoid building a new op field map for every cycle.
+     */
+    public FieldSlotBinder newFieldSlotBinder() {
+        return tmap.newFieldSlotBinder();
+    }
+
     /**
      * Get the {@link LongFunction} which is used to resolve a dynamic field value.
      *
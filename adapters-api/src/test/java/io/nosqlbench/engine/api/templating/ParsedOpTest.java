@@ -25,6 +25,7 @@ import io.nosqlbench.engine.api.activityconfig.yaml.OpsDocList;
 import io.nosqlbench.api.config.standard.ConfigModel;
 import io.nosqlbench.api.config.standard.NBConfiguration;
 import io.nosqlbench.api.config.standard.Param;
+import io.nosqlbench.engine.api.templating.binders.FieldSlotBinder;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -159,6 +160,51 @@ public class ParsedOpTest {
         assertThat(objects).isEqualTo(new Object[]{"three", "three", 3L, 3L});
     }
 
+    @Test
+    public void testNewFieldSlotBinder() {
+        final FieldSlotBinder fsb = this.pc.newFieldSlotBinder();
+        final int stmt = fsb.getSlot("stmt");
+        final int dyna1 = fsb.getSlot("dyna1");
+        final int identity = fsb.getSlot("identity");
+        assertThat(fsb.getSlot("missing")).isEqualTo(-1);
+
+        final Object[] slots = fsb.apply(4);
+        assertThat(slots[stmt]).isEqualTo("test");
+        assertThat(slots[dyna1]).isEqualTo("four");
+        assertThat(slots[identity]).isEqualTo(4L);
+
+        assertThat(fsb.apply(5)).isSameAs(slots);
+        assertThat(slots[dyna1]).isEqualTo("five");
+
+        final Object[] owned = fsb.applyInto(6, fsb.newSlots());
+        assertThat(owned).isNotSameAs(slots);
+        assertThat(owned[stmt]).isEqualTo("test");
+        assertThat(owned[identity]).isEqualTo(6L);
+    }
+
+    @Test
+    public void testApplyAfterTakeStaticValue() {
+        final ParsedOp parsedOp = new ParsedOp(
+            new OpData().applyFields(Map.of(
+                "op", Map.of(
+                    "first", "static-one",
+                    "second", "{{Identity()}}",
+                    "third", "pre-{{NumberNameToString()}}-post",
+                    "fourth", "static-four"
+                ))
+            ),
+            ConfigModel.of(ParsedOpTest.class).asReadOnly().apply(Map.of()),
+            List.of(),
+            NBLabeledElement.forMap(Map.of())
+        );
+        assertThat(parsedOp.apply(1L)).containsOnlyKeys("first", "second", "third", "fourth");
+        assertThat(parsedOp.takeOptionalStaticValue("fourth", String.class)).contains("static-four");
+        final Map<String, Object> rendered = parsedOp.apply(2L);
+        assertThat(rendered).containsOnlyKeys("first", "second", "third");
+        assertThat(rendered).containsEntry("second", 2L);
+        assertThat(rendered).containsEntry("third", "pre-two-post");
+    }
+
     @Test
     public void testLayeredListBinder() {
         ParsedOp pc = new ParsedOp(
@@ -119,6 +119,22 @@ public interface ActivityInstrumentation {
      */
     Timer getOrCreateResultSuccessTimer();
 
+    /**
+     * The result response timer is the response time counterpart of the result timer ({@link #getOrCreateResultTimer()}).
+     * It measures each attempt at an operation from the time the operation was intended to start, as scheduled by the
+     * cycle rate limiter, rather than from when it was actually started. This is only defined when <em>schedule=intended</em>
+     * is set and there is a cycle rate limiter, so this method should return null otherwise.
+     * @return a new or existing {@link Timer} if appropriate, else null
+     */
+    Timer getResultResponseTimerOrNull();
+
+    /**
+     * The result-success response timer is the response time counterpart of the result-success timer
+     * ({@link #getOrCreateResultSuccessTimer()}), measured in the same way as {@link #getResultResponseTimerOrNull()}.
+     * @return a new or existing {@link Timer} if appropriate, else null
+     */
+    Timer getResultSuccessResponseTimerOrNull();
+
     /**
      * The tries histogram tracks how many tries it takes to complete an operation successfully, or not. This histogram
      * does not encode whether operations were successful or not. Ideally, if every attempt to complete an operation succeeds
@@ -131,4 +147,13 @@ public interface ActivityInstrumentation {
      * @return a new or existing {@link Histogram}
      */
     Histogram getOrCreateTriesHistogram();
+
+    /**
+     * The pinned timer tracks how long motor threads were pinned to their carrier threads, when they are
+     * run as virtual threads. Each pinning event is recorded once, so the count of this timer is the number of
+     * times a motor thread was pinned. Virtual threads which are pinned often, or for long, do not scale as
+     * well as they would otherwise.
+     * @return a new or existing {@link Timer}
+     */
+    Timer getOrCreatePinnedThreadTimer();
 }
@@ -26,6 +26,8 @@ import io.nosqlbench.api.engine.metrics.ActivityMetrics;
 public class CoreActivityInstrumentation implements ActivityInstrumentation {
 
     private static final String STRICTMETRICNAMES = "strictmetricnames";
+    private static final String SCHEDULE = "schedule";
+    private static final String INTENDED = "intended";
 
     private static final String WAIT_TIME = ".waittime";
     private static final String SERVICE_TIME = ".servicetime";
@@ -109,8 +111,30 @@ public class CoreActivityInstrumentation implements ActivityInstrumentation {
         return ActivityMetrics.timer(this.activity,"result-success", this.activity.getHdrDigits());
     }
 
+    @Override
+    public synchronized Timer getResultResponseTimerOrNull() {
+        if (!isIntendedSchedule()) return null;
+        return ActivityMetrics.timer(this.activity,"result" + CoreActivityInstrumentation.RESPONSE_TIME, this.activity.getHdrDigits());
+    }
+
+    @Override
+    public synchronized Timer getResultSuccessResponseTimerOrNull() {
+        if (!isIntendedSchedule()) return null;
+        return ActivityMetrics.timer(this.activity,"result-success" + CoreActivityInstrumentation.RESPONSE_TIME, this.activity.getHdrDigits());
+    }
+
+    private boolean isIntendedSchedule() {
+        return null != activity.getCycleLimiter()
+            && CoreActivityInstrumentation.INTENDED.equals(this.params.getOptionalString(CoreActivityInstrumentation.SCHEDULE).orElse(""));
+    }
+
     @Override
     public synchronized Histogram getOrCreateTriesHistogram() {
         return ActivityMetrics.histogram(this.activity,"tries", this.activity.getHdrDigits());
     }
+
+    @Override
+    public synchronized Timer getOrCreatePinnedThreadTimer() {
+        return ActivityMetrics.timer(this.activity,"pinned", this.activity.getHdrDigits());
+    }
 }
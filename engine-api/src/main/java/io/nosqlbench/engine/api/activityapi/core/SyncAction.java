@@ -30,4 +30,18 @@ public interface SyncAction extends Action {
         return (int) cycle % 100;
     }
 
+    /**
+     * <p>Apply a work function to an input value, as with {@link #runCycle(long)}, for a cycle which
+     * was scheduled by a rate limiter to start at a specific time. Actions which measure response
+     * times should measure them from the intended start time. This is only called when
+     * intended start scheduling is enabled with <em>schedule=intended</em>.</p>
+     *
+     * @param cycle a long input
+     * @param intendedStartNanos the nanotime at which this cycle was scheduled to start
+     * @return an int status
+     */
+    default int runCycle(long cycle, long intendedStartNanos) {
+        return runCycle(cycle);
+    }
+
 }
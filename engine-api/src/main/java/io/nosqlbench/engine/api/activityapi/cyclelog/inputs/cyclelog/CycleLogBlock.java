@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog;
+
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.ResultReadable;
+
+import java.nio.ByteBuffer;
+import java.util.function.Predicate;
+
+/**
+ * The description of one compressed block of RLE spans in a v2 cycle log. This is written
+ * before the block data, and again in the index at the end of the file, along with the
+ * offset of the block.
+ *
+ * <p>The cycle range of a block is the closed-open interval from the lowest cycle to the highest
+ * cycle + 1 of all of its spans. Since each block is written by one thread, the ranges of blocks
+ * from different threads can overlap. The result codes of a block are kept as a bit set over
+ * all 256 byte values.</p>
+ */
+public final class CycleLogBlock implements Comparable<CycleLogBlock> {
+
+    public final static int HEADER_BYTES = Integer.BYTES * 3 + Long.BYTES * 2 + Long.BYTES * 4;
+    public final static int INDEX_BYTES = Long.BYTES + HEADER_BYTES;
+
+    private final long offset;
+    private final int spanCount;
+    private final int rawLength;
+    private final int compressedLength;
+    private final long minCycle;
+    private final long maxCycle;
+    private final long[] results;
+
+    public CycleLogBlock(long offset, int spanCount, int rawLength, int compressedLength, long minCycle, long maxCycle, long[] results) {
+        this.offset = offset;
+        this.spanCount = spanCount;
+        this.rawLength = rawLength;
+        this.compressedLength = compressedLength;
+        this.minCycle = minCycle;
+        this.maxCycle = maxCycle;
+        this.results = results;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public int getSpanCount() {
+        return spanCount;
+    }
+
+    public int getRawLength() {
+        return rawLength;
+    }
+
+    public int getCompressedLength() {
+        return compressedLength;
+    }
+
+    /**
+     * @return the lowest cycle in this block
+     */
+    public long getMinCycle() {
+        return minCycle;
+    }
+
+    /**
+     * @return the highest cycle in this block, plus one
+     */
+    public long getMaxCycle() {
+        return maxCycle;
+    }
+
+    /**
+     * @return the offset just after the data of this block
+     */
+    public long getEndOffset() {
+        return offset + HEADER_BYTES + compressedLength;
+    }
+
+    public boolean overlaps(long min, long max) {
+        return minCycle < max && maxCycle > min;
+    }
+
+    public boolean hasResult(int result) {
+        int code = result & 0xFF;
+        return (results[code >>> 6] & (1L << (code & 63))) != 0L;
+    }
+
+    /**
+     * @param filter a filter on result values, or null
+     * @return true if any of the result codes in this block are accepted by the filter
+     */
+    public boolean hasResultMatching(Predicate<ResultReadable> filter) {
+        if (filter == null) {
+            return true;
+        }
+        for (int code = 0; code < 256; code++) {
+            if (hasResult(code)) {
+                // Results are stored as signed bytes
+                int result = (byte) code;
+                if (filter.test(() -> result)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public static void addResult(long[] results, int result) {
+        int code = result & 0xFF;
+        results[code >>> 6] |= 1L << (code & 63);
+    }
+
+    public void writeHeader(ByteBuffer buf) {
+        buf.putInt(spanCount).putInt(rawLength).putInt(compressedLength)
+            .putLong(minCycle).putLong(maxCycle);
+        for (long result : results) {
+            buf.putLong(result);
+        }
+    }
+
+    public void writeIndexEntry(ByteBuffer buf) {
+        buf.putLong(offset);
+        writeHeader(buf);
+    }
+
+    public static CycleLogBlock readHeader(long offset, ByteBuffer buf) {
+        int spanCount = buf.getInt();
+        int rawLength = buf.getInt();
+        int compressedLength = buf.getInt();
+        long minCycle = buf.getLong();
+        long maxCycle = buf.getLong();
+        long[] results = new long[4];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = buf.getLong();
+        }
+        return new CycleLogBlock(offset, spanCount, rawLength, compressedLength, minCycle, maxCycle, results);
+    }
+
+    public static CycleLogBlock readIndexEntry(ByteBuffer buf) {
+        long offset = buf.getLong();
+        return readHeader(offset, buf);
+    }
+
+    @Override
+    public int compareTo(CycleLogBlock o) {
+        int byCycle = Long.compare(minCycle, o.minCycle);
+        return byCycle != 0 ? byCycle : Long.compare(offset, o.offset);
+    }
+
+    @Override
+    public String toString() {
+        return "block[" + minCycle + "," + maxCycle + ") spans=" + spanCount
+            + " bytes=" + compressedLength + "/" + rawLength + " @" + offset;
+    }
+}
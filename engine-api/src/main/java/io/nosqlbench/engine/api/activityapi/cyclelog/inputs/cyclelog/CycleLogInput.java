@@ -13,7 +13,6 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog;
 
 import io.nosqlbench.engine.api.activityapi.core.Activity;
@@ -33,25 +32,61 @@ import java.io.File;
 import java.io.RandomAccessFile;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
+/**
+ * <p>An {@link Input} which replays the cycles of a cycle log file. Both the original format
+ * written by {@link io.nosqlbench.engine.api.activityapi.cyclelog.outputs.cyclelog.CycleLogOutput}
+ * and the v2 format described in {@link CycleLogV2File} are supported, and the format is detected
+ * from the file.</p>
+ *
+ * <p>Only the cycles from <em>mincycle</em> up to (but not including) <em>maxcycle</em> are read,
+ * if either is given. With a v2 file, any blocks outside of this range or without any results which
+ * pass the filter are skipped without being read, and the remaining blocks are handed out to
+ * calling threads one at a time, so that each thread reads its own block without locking. This means
+ * that cycles are not replayed in order across threads with a v2 file.</p>
+ */
 public class CycleLogInput implements Input, AutoCloseable, Iterable<CycleResultsSegment>, CanFilterResultValue {
     private final static Logger logger = LogManager.getLogger(CycleLogInput.class);
-    private final Iterator<CycleResultsSegment> cycleResultSegmentIterator;
+    private final long minCycle;
+    private final long maxCycle;
+    private Predicate<ResultReadable> filter;
+
+    // v1 files
+    private Iterator<CycleResultsSegment> cycleResultSegmentIterator;
     private RandomAccessFile raf;
     private MappedByteBuffer mbb;
     private Iterator<CycleResult> segmentIter;
-    private Predicate<ResultReadable> filter;
+
+    // v2 files
+    private CycleLogV2File v2File;
+    private volatile List<CycleLogBlock> v2Blocks;
+    private final AtomicInteger nextBlock = new AtomicInteger();
+    private final ThreadLocal<BlockCursor> cursors = ThreadLocal.withInitial(BlockCursor::new);
 
     public CycleLogInput(Activity activity) {
         SimpleConfig conf = new SimpleConfig(activity, "input");
-        mbb = initMappedBuffer(conf.getString("file").orElse(activity.getAlias()) + ".cyclelog");
-        cycleResultSegmentIterator = iterator();
-        segmentIter = cycleResultSegmentIterator.next().iterator();
+        this.minCycle = conf.getLong("mincycle").orElse(0L);
+        this.maxCycle = conf.getLong("maxcycle").orElse(Long.MAX_VALUE);
+        init(new File(conf.getString("file").orElse(activity.getAlias()) + ".cyclelog"));
     }
 
     public CycleLogInput(String filename) {
+        this(filename, 0L, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param filename The name of the cycle log file, with or without the .cyclelog extension
+     * @param minCycle The lowest cycle to read
+     * @param maxCycle The highest cycle to read, plus one
+     */
+    public CycleLogInput(String filename, long minCycle, long maxCycle) {
+        this.minCycle = minCycle;
+        this.maxCycle = maxCycle;
         File cycleFile = null;
         try {
             cycleFile = new File(filename);
@@ -64,18 +99,52 @@ public class CycleLogInput implements Input, AutoCloseable, Iterable<CycleResult
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
-        mbb = initMappedBuffer(cycleFile.getPath());
-        cycleResultSegmentIterator = new CycleResultsRLEBufferReadable(mbb).iterator();
-        segmentIter = cycleResultSegmentIterator.next().iterator();
+        init(cycleFile);
+    }
+
+    private void init(File cycleFile) {
+        if (!cycleFile.exists()) {
+            throw new RuntimeException("file path '" + cycleFile + "' does not exist!");
+        }
+        if (CycleLogV2File.isV2(cycleFile)) {
+            v2File = new CycleLogV2File(cycleFile);
+            selectBlocks();
+            logger.debug(() -> "reading " + v2Blocks.size() + " of " + v2File.getBlocks().size() + " blocks from " + v2File);
+        } else {
+            mbb = initMappedBuffer(cycleFile.getPath());
+            cycleResultSegmentIterator = new CycleResultsRLEBufferReadable(mbb).iterator();
+            segmentIter = cycleResultSegmentIterator.hasNext() ? cycleResultSegmentIterator.next().iterator() : Collections.emptyIterator();
+        }
+    }
+
+    private void selectBlocks() {
+        v2Blocks = v2File.getBlocks(minCycle, maxCycle, filter);
     }
 
     @Override
     public void setFilter(Predicate<ResultReadable> filter) {
         this.filter = filter;
+        if (v2File != null) {
+            selectBlocks();
+        }
+    }
+
+    /**
+     * @return true if this input is reading a v2 cycle log
+     */
+    public boolean isIndexed() {
+        return v2File != null;
     }
 
     @Override
-    public synchronized CycleSegment getInputSegment(int segmentLength) {
+    public CycleSegment getInputSegment(int segmentLength) {
+        if (v2File != null) {
+            return getBlockInputSegment(segmentLength);
+        }
+        return getSequentialInputSegment(segmentLength);
+    }
+
+    private synchronized CycleSegment getSequentialInputSegment(int segmentLength) {
 
         CycleSegmentBuffer csb = new CycleSegmentBuffer(segmentLength);
 
@@ -86,7 +155,7 @@ public class CycleLogInput implements Input, AutoCloseable, Iterable<CycleResult
             }
             if (segmentIter.hasNext()) {
                 CycleResult cycleResult = segmentIter.next();
-                if (filter==null || filter.test(cycleResult)) {
+                if (accepts(cycleResult)) {
                     csb.append(cycleResult.getCycle());
                 }
             } else {
@@ -100,6 +169,58 @@ public class CycleLogInput implements Input, AutoCloseable, Iterable<CycleResult
         return csb.toReadable();
     }
 
+    private CycleSegment getBlockInputSegment(int segmentLength) {
+        BlockCursor cursor = cursors.get();
+        CycleSegmentBuffer csb = new CycleSegmentBuffer(segmentLength);
+
+        while (csb.remaining() > 0) {
+            CycleResult cycleResult = cursor.next();
+            if (cycleResult == null) {
+                break;
+            }
+            if (accepts(cycleResult)) {
+                csb.append(cycleResult.getCycle());
+            }
+        }
+        return csb.remaining() == segmentLength ? null : csb.toReadable();
+    }
+
+    private boolean accepts(CycleResult cycleResult) {
+        long cycle = cycleResult.getCycle();
+        return cycle >= minCycle && cycle < maxCycle && (filter == null || filter.test(cycleResult));
+    }
+
+    private boolean overlaps(CycleResultsSegment span) {
+        return span.getMinCycle() < maxCycle && span.getMinCycle() + span.getCount() > minCycle;
+    }
+
+    /**
+     * The position of one thread within the v2 blocks. When the block of a thread is used up,
+     * it takes the next block which no other thread has taken.
+     */
+    private final class BlockCursor {
+        private Iterator<CycleResultsSegment> spans = Collections.emptyIterator();
+        private Iterator<CycleResult> cycles = Collections.emptyIterator();
+
+        CycleResult next() {
+            while (!cycles.hasNext()) {
+                while (!spans.hasNext()) {
+                    List<CycleLogBlock> blocks = v2Blocks;
+                    int index = nextBlock.getAndIncrement();
+                    if (index >= blocks.size()) {
+                        return null;
+                    }
+                    spans = v2File.read(blocks.get(index)).iterator(filter);
+                }
+                CycleResultsSegment span = spans.next();
+                if (overlaps(span)) {
+                    cycles = span.iterator();
+                }
+            }
+            return cycles.next();
+        }
+    }
+
 //            // acquire a buffered interval result
 //            if (currentBuffer == null) {
 //                currentBuffer = CycleResultsRLEBufferReadable.forOneRleSpan(mbb);
@@ -140,11 +261,20 @@ public class CycleLogInput implements Input, AutoCloseable, Iterable<CycleResult
             raf.close();
             mbb = null;
         }
+        if (v2File != null) {
+            v2File.close();
+        }
     }
 
 
+    /**
+     * With a v2 file, this iterates over the spans of the selected blocks, in block order.
+     */
     @Override
     public Iterator<CycleResultsSegment> iterator() {
+        if (v2File != null) {
+            return new BlockSpanIterator(v2Blocks);
+        }
         CycleResultsRLEBufferReadable cycleResultsSegments = new CycleResultsRLEBufferReadable(mbb.duplicate());
         if (cycleResultsSegments instanceof CanFilterResultValue) {
             ((CanFilterResultValue)cycleResultsSegments).setFilter(filter);
@@ -152,4 +282,29 @@ public class CycleLogInput implements Input, AutoCloseable, Iterable<CycleResult
         return cycleResultsSegments.iterator();
     }
 
+    private final class BlockSpanIterator implements Iterator<CycleResultsSegment> {
+        private final Iterator<CycleLogBlock> blocks;
+        private Iterator<CycleResultsSegment> spans = Collections.emptyIterator();
+
+        BlockSpanIterator(List<CycleLogBlock> blocks) {
+            this.blocks = blocks.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!spans.hasNext() && blocks.hasNext()) {
+                spans = v2File.read(blocks.next()).iterator(filter);
+            }
+            return spans.hasNext();
+        }
+
+        @Override
+        public CycleResultsSegment next() {
+            if (!hasNext()) {
+                throw new RuntimeException("Call to next() but there were no remaining spans.");
+            }
+            return spans.next();
+        }
+    }
+
 }
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog;
+
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.ResultReadable;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results_rle.CycleResultsRLEBufferReadable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * <p>Reads the v2 cycle log format. The layout of a v2 file is:</p>
+ * <ol>
+ *     <li>a header with {@link #MAGIC} and the version</li>
+ *     <li>any number of blocks, each of which is a {@link CycleLogBlock} header followed by
+ *     the deflated bytes of the RLE spans in the same (long,long,byte) form as the v1 format</li>
+ *     <li>an index of all the blocks, as {@link CycleLogBlock} index entries</li>
+ *     <li>a trailer with the offset of the index, the number of blocks, and {@link #INDEX_MAGIC}</li>
+ * </ol>
+ *
+ * <p>Blocks are only read when they are asked for, so any cycle range or set of result codes
+ * can be read without scanning the whole file, and the blocks can be split up between threads.
+ * If the file has no index, as when the writer did not close it, the block headers are scanned
+ * instead.</p>
+ */
+public class CycleLogV2File implements AutoCloseable {
+    private final static Logger logger = LogManager.getLogger(CycleLogV2File.class);
+
+    public final static long MAGIC = 0x4E4243594C4F4732L; // NBCYLOG2
+    public final static long INDEX_MAGIC = 0x4E424359494E4458L; // NBCYINDX
+    public final static int VERSION = 2;
+    public final static int HEADER_BYTES = Long.BYTES + Integer.BYTES;
+    public final static int TRAILER_BYTES = Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    private final File file;
+    private final FileChannel channel;
+    private final List<CycleLogBlock> blocks;
+
+    public CycleLogV2File(File file) {
+        this.file = file;
+        try {
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            ByteBuffer header = readAt(0, HEADER_BYTES);
+            if (header.getLong() != MAGIC) {
+                throw new RuntimeException("File '" + file + "' is not a v2 cycle log");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new RuntimeException("Unsupported cycle log version " + version + " in '" + file + "'");
+            }
+            this.blocks = readIndex();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return true if the file exists and starts with the v2 header
+     */
+    public static boolean isV2(File file) {
+        if (!file.exists() || file.length() < HEADER_BYTES) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Long.BYTES);
+            channel.read(magic, 0);
+            magic.flip();
+            return magic.getLong() == MAGIC;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private List<CycleLogBlock> readIndex() throws IOException {
+        long size = channel.size();
+        if (size >= HEADER_BYTES + TRAILER_BYTES) {
+            ByteBuffer trailer = readAt(size - TRAILER_BYTES, TRAILER_BYTES);
+            long indexOffset = trailer.getLong();
+            int blockCount = trailer.getInt();
+            if (trailer.getLong() == INDEX_MAGIC) {
+                ByteBuffer index = readAt(indexOffset, blockCount * CycleLogBlock.INDEX_BYTES);
+                List<CycleLogBlock> indexed = new ArrayList<>(blockCount);
+                for (int i = 0; i < blockCount; i++) {
+                    indexed.add(CycleLogBlock.readIndexEntry(index));
+                }
+                Collections.sort(indexed);
+                return indexed;
+            }
+        }
+        logger.warn("cycle log '" + file + "' has no index, so the blocks will be scanned. It may not have been closed.");
+        return scanBlocks(size);
+    }
+
+    private List<CycleLogBlock> scanBlocks(long size) throws IOException {
+        List<CycleLogBlock> scanned = new ArrayList<>();
+        long offset = HEADER_BYTES;
+        while (offset + CycleLogBlock.HEADER_BYTES <= size) {
+            CycleLogBlock block = CycleLogBlock.readHeader(offset, readAt(offset, CycleLogBlock.HEADER_BYTES));
+            if (block.getSpanCount() <= 0 || block.getEndOffset() > size) {
+                break;
+            }
+            scanned.add(block);
+            offset = block.getEndOffset();
+        }
+        Collections.sort(scanned);
+        return scanned;
+    }
+
+    private ByteBuffer readAt(long offset, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, offset + buf.position()) < 0) {
+                throw new RuntimeException("Unexpected end of cycle log '" + file + "' at " + (offset + buf.position()));
+            }
+        }
+        buf.flip();
+        return buf;
+    }
+
+    /**
+     * @return all blocks, in order of their lowest cycle
+     */
+    public List<CycleLogBlock> getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * @param minCycle the lowest cycle of interest
+     * @param maxCycle the highest cycle of interest, plus one
+     * @param filter   a result filter, or null for all results
+     * @return the blocks which may contain the selected cycles and results, in order of their lowest cycle
+     */
+    public List<CycleLogBlock> getBlocks(long minCycle, long maxCycle, Predicate<ResultReadable> filter) {
+        List<CycleLogBlock> selected = new ArrayList<>();
+        for (CycleLogBlock block : blocks) {
+            if (block.overlaps(minCycle, maxCycle) && block.hasResultMatching(filter)) {
+                selected.add(block);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Split the blocks into up to the given number of parts, with about the same number of spans
+     * in each, and with each part covering contiguous blocks in cycle order.
+     *
+     * @param blocks the blocks to split
+     * @param parts  the number of parts
+     * @return the parts
+     */
+    public static List<List<CycleLogBlock>> split(List<CycleLogBlock> blocks, int parts) {
+        long totalSpans = 0L;
+        for (CycleLogBlock block : blocks) {
+            totalSpans += block.getSpanCount();
+        }
+        long perPart = Math.max(1L, (totalSpans + parts - 1) / Math.max(1, parts));
+        List<List<CycleLogBlock>> split = new ArrayList<>();
+        List<CycleLogBlock> part = new ArrayList<>();
+        long partSpans = 0L;
+        for (CycleLogBlock block : blocks) {
+            part.add(block);
+            partSpans += block.getSpanCount();
+            if (partSpans >= perPart) {
+                split.add(part);
+                part = new ArrayList<>();
+                partSpans = 0L;
+            }
+        }
+        if (!part.isEmpty()) {
+            split.add(part);
+        }
+        return split;
+    }
+
+    /**
+     * Read and decompress the spans of a block.
+     *
+     * @param block a block of this file
+     * @return the RLE spans of the block
+     */
+    public CycleResultsRLEBufferReadable read(CycleLogBlock block) {
+        try {
+            ByteBuffer compressed = readAt(block.getOffset() + CycleLogBlock.HEADER_BYTES, block.getCompressedLength());
+            byte[] raw = new byte[block.getRawLength()];
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed.array(), 0, block.getCompressedLength());
+                int inflated = 0;
+                while (inflated < raw.length && !inflater.finished()) {
+                    int count = inflater.inflate(raw, inflated, raw.length - inflated);
+                    if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    inflated += count;
+                }
+                if (inflated != raw.length) {
+                    throw new RuntimeException("Expected " + raw.length + " bytes but inflated " + inflated + " for " + block);
+                }
+            } finally {
+                inflater.end();
+            }
+            return new CycleResultsRLEBufferReadable(ByteBuffer.wrap(raw));
+        } catch (IOException | DataFormatException e) {
+            throw new RuntimeException("Error while reading " + block + " of '" + file + "': " + e, e);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "CycleLogV2File{" + file + ", blocks=" + blocks.size() + '}';
+    }
+}
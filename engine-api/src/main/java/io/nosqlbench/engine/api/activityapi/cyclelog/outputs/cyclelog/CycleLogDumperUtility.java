@@ -19,6 +19,8 @@ package io.nosqlbench.engine.api.activityapi.cyclelog.outputs.cyclelog;
 import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResult;
 import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResultsSegment;
 import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results_rle.CycleResultsRLEBufferReadable;
+import io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog.CycleLogBlock;
+import io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog.CycleLogV2File;
 
 import java.io.File;
 import java.io.RandomAccessFile;
@@ -29,7 +31,7 @@ public class CycleLogDumperUtility {
 
     public static void main(String[] args) {
         if (args.length == 0) {
-            System.out.println("USAGE: CyclesCLI <filename>");
+            System.out.println("USAGE: CyclesCLI <filename> [cycles|spans|blocks]");
         }
         String filename = args[0];
 
@@ -51,6 +53,13 @@ public class CycleLogDumperUtility {
                 }
             }
         }
+        if (CycleLogV2File.isV2(filepath)) {
+            dumpV2Data(filepath, displayType);
+            return;
+        }
+        if (displayType == DisplayType.blocks) {
+            throw new RuntimeException("Only v2 cycle logs have blocks, but '" + filepath + "' is not a v2 cycle log.");
+        }
         try {
             RandomAccessFile raf = new RandomAccessFile(filepath, "rw");
             mbb = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
@@ -65,28 +74,47 @@ public class CycleLogDumperUtility {
             while (mbb.remaining() > 0) {
                 readable = new CycleResultsRLEBufferReadable(readsize, mbb);
 
-                for (CycleResultsSegment segment : readable) {
-                    switch (displayType) {
-                        case cycles:
-                            for (CycleResult cycleResult : segment) {
-                                System.out.println(cycleResult);
-                            }
-                            break;
-                        case spans:
-                            System.out.println(segment.toString());
-                            break;
+                dumpSegments(readable, displayType);
+            }
 
-                    }
+        }
+
+    }
 
+    private void dumpV2Data(File filepath, DisplayType displayType) {
+        try (CycleLogV2File v2File = new CycleLogV2File(filepath)) {
+            for (CycleLogBlock block : v2File.getBlocks()) {
+                if (displayType == DisplayType.blocks) {
+                    System.out.println(block);
+                } else {
+                    dumpSegments(v2File.read(block), displayType);
                 }
             }
-
+        } catch (Exception e) {
+            throw new RuntimeException(e);
         }
+    }
+
+    private void dumpSegments(Iterable<CycleResultsSegment> segments, DisplayType displayType) {
+        for (CycleResultsSegment segment : segments) {
+            switch (displayType) {
+                case cycles:
+                    for (CycleResult cycleResult : segment) {
+                        System.out.println(cycleResult);
+                    }
+                    break;
+                case spans:
+                    System.out.println(segment.toString());
+                    break;
+
+            }
 
+        }
     }
 
     enum DisplayType {
         cycles,
-        spans
+        spans,
+        blocks
     }
 }
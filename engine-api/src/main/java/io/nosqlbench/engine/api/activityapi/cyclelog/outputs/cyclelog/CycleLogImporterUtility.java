@@ -17,6 +17,7 @@
 package io.nosqlbench.engine.api.activityapi.cyclelog.outputs.cyclelog;
 
 import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results_rle.CycleSpanResults;
+import io.nosqlbench.engine.api.activityapi.output.Output;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -30,19 +31,24 @@ public class CycleLogImporterUtility {
 
     public static void main(String[] args) {
         if (args.length == 0) {
-            System.out.println("USAGE: CyclesCLI <input-textfile>, <output-cyclelog>");
+            System.out.println("USAGE: CyclesCLI <input-textfile>, <output-cyclelog> [v1|v2]");
         }
         String infile = args[0];
         String outfile = args[1];
+        String format = args.length >= 3 ? args[2] : "v1";
         try {
-            new CycleLogImporterUtility().convert(infile, outfile);
+            new CycleLogImporterUtility().convert(infile, outfile, format);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
-    private void convert(String infile, String outfile) throws Exception {
-        CycleLogOutput output = new CycleLogOutput(new File(outfile), 1024);
+    private void convert(String infile, String outfile, String format) throws Exception {
+        Output output = switch (format) {
+            case "v1" -> new CycleLogOutput(new File(outfile), 1024);
+            case "v2" -> new CycleLogV2Output(new File(outfile), 1024);
+            default -> throw new RuntimeException("Unknown cycle log format '" + format + "', expected v1 or v2");
+        };
         BufferedReader reader = new BufferedReader(new FileReader(infile));
         String line = reader.readLine();
         while (line != null) {
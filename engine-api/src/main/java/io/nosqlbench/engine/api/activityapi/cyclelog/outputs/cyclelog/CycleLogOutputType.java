@@ -22,6 +22,7 @@ import io.nosqlbench.engine.api.activityapi.input.Input;
 import io.nosqlbench.engine.api.activityapi.output.Output;
 import io.nosqlbench.engine.api.activityapi.output.OutputDispenser;
 import io.nosqlbench.engine.api.activityapi.output.OutputType;
+import io.nosqlbench.engine.api.util.SimpleConfig;
 import io.nosqlbench.nb.annotations.Service;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -43,6 +44,16 @@ public class CycleLogOutputType implements OutputType {
         public Dispenser(Activity activity) {
             this.activity = activity;
             Input input = activity.getInputDispenserDelegate().getInput(0);
+            String format = new SimpleConfig(activity, "output").getString("format").orElse("v1");
+            if (format.equals("v2")) {
+                // Each thread keeps its own runs, so there is no need to reorder results first
+                logger.debug("writing output extents per thread in the v2 cycle log format");
+                this.output = new CycleLogV2Output(activity);
+                activity.registerAutoCloseable(output);
+                return;
+            } else if (!format.equals("v1")) {
+                throw new RuntimeException("Unknown cycle log format '" + format + "', expected v1 or v2");
+            }
             CycleLogOutput rleFileWriter = new CycleLogOutput(activity);
 
             // TODO: Rework this so that the contiguous marking chunker can onAfterOpStop filtering
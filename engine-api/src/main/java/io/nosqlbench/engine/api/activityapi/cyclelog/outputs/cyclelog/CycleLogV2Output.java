@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.cyclelog.outputs.cyclelog;
+
+import io.nosqlbench.engine.api.activityapi.core.Activity;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResult;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResultsSegment;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.ResultReadable;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results_rle.CycleResultsRLEBufferTarget;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results_rle.CycleSpanResults;
+import io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog.CanFilterResultValue;
+import io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog.CycleLogBlock;
+import io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog.CycleLogV2File;
+import io.nosqlbench.engine.api.activityapi.output.Output;
+import io.nosqlbench.engine.api.util.SimpleConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.zip.Deflater;
+
+/**
+ * <p>An {@link Output} that writes cycles and results to the v2 cycle log format, as
+ * described in {@link CycleLogV2File}.</p>
+ *
+ * <p>Each thread which reports results has its own extent writer, which run-length encodes
+ * the results it sees into (long,long,byte) spans. When an extent is full, it is compressed and
+ * written by that thread at a file position which is reserved for it, so threads do not wait on
+ * each other or on a shared buffer. Since each thread keeps its own runs, results do not need to
+ * be reordered before they are written, although a file written by many threads will have blocks
+ * with overlapping cycle ranges.</p>
+ *
+ * <p>The file is only synced to disk when it is closed, which is also when the index is written.</p>
+ */
+public class CycleLogV2Output implements Output, CanFilterResultValue {
+    private final static Logger logger = LogManager.getLogger(CycleLogV2Output.class);
+
+    private final File outputFile;
+    private final int extentSizeInSpans;
+    private final int level;
+    private final FileChannel channel;
+    private final AtomicLong position = new AtomicLong(CycleLogV2File.HEADER_BYTES);
+    private final Queue<ExtentWriter> writers = new ConcurrentLinkedQueue<>();
+    private final Queue<CycleLogBlock> blocks = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<ExtentWriter> threadWriter = ThreadLocal.withInitial(this::newWriter);
+    private Predicate<ResultReadable> filter;
+    private volatile boolean closed = false;
+
+    public CycleLogV2Output(Activity activity) {
+        this(new SimpleConfig(activity, "output"), activity.getAlias());
+    }
+
+    private CycleLogV2Output(SimpleConfig conf, String alias) {
+        this(
+            new File(conf.getString("file").orElse(alias) + ".cyclelog"),
+            conf.getInteger("extentSize").orElse(1000),
+            conf.getInteger("level").orElse(Deflater.BEST_SPEED)
+        );
+    }
+
+    public CycleLogV2Output(File outputFile, int extentSizeInSpans) {
+        this(outputFile, extentSizeInSpans, Deflater.BEST_SPEED);
+    }
+
+    /**
+     * @param outputFile        The file to write
+     * @param extentSizeInSpans The number of RLE spans in each compressed block
+     * @param level             The deflate compression level, from 0 to 9
+     */
+    public CycleLogV2Output(File outputFile, int extentSizeInSpans, int level) {
+        this.outputFile = outputFile;
+        this.extentSizeInSpans = extentSizeInSpans;
+        this.level = level;
+        try {
+            if (Files.deleteIfExists(outputFile.toPath())) {
+                logger.warn("removed extant file '" + outputFile + "'");
+            }
+            this.channel = FileChannel.open(outputFile.toPath(),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.READ);
+            ByteBuffer header = ByteBuffer.allocate(CycleLogV2File.HEADER_BYTES);
+            header.putLong(CycleLogV2File.MAGIC).putInt(CycleLogV2File.VERSION).flip();
+            writeFully(header, 0);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private ExtentWriter newWriter() {
+        ExtentWriter writer = new ExtentWriter();
+        writers.add(writer);
+        return writer;
+    }
+
+    @Override
+    public boolean onCycleResult(long completedCycle, int result) {
+        if (filter == null || filter.test(() -> result)) {
+            threadWriter.get().add(completedCycle, completedCycle + 1, result);
+        }
+        return true;
+    }
+
+    @Override
+    public void onCycleResultSegment(CycleResultsSegment segment) {
+        ExtentWriter writer = threadWriter.get();
+        if (segment instanceof CycleSpanResults span) {
+            if (filter == null || filter.test(span)) {
+                writer.add(span.getMinCycle(), span.getMinCycle() + span.getCount(), span.getResult());
+            }
+            return;
+        }
+        for (CycleResult cycleResult : segment) {
+            if (filter == null || filter.test(cycleResult)) {
+                writer.add(cycleResult.getCycle(), cycleResult.getCycle() + 1, cycleResult.getResult());
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer buf, long offset) throws IOException {
+        long at = offset;
+        while (buf.hasRemaining()) {
+            at += channel.write(buf, at);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws Exception {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            for (ExtentWriter writer : writers) {
+                writer.close();
+            }
+            List<CycleLogBlock> index = new ArrayList<>(blocks);
+            Collections.sort(index);
+            long indexOffset = position.get();
+            ByteBuffer footer = ByteBuffer.allocate(index.size() * CycleLogBlock.INDEX_BYTES + CycleLogV2File.TRAILER_BYTES);
+            for (CycleLogBlock block : index) {
+                block.writeIndexEntry(footer);
+            }
+            footer.putLong(indexOffset).putInt(index.size()).putLong(CycleLogV2File.INDEX_MAGIC).flip();
+            writeFully(footer, indexOffset);
+            channel.force(true);
+            channel.close();
+            logger.debug(() -> "wrote " + index.size() + " blocks to cycle log '" + outputFile + "'");
+        } catch (Throwable t) {
+            logger.error("Error while closing CycleLogV2Output: " + t, t);
+            throw t;
+        }
+    }
+
+    @Override
+    public void setFilter(Predicate<ResultReadable> filter) {
+        this.filter = filter;
+    }
+
+    @Override
+    public String toString() {
+        return "CycleLogV2Output{" +
+            "file=" + outputFile +
+            ", blocks=" + blocks.size() +
+            ", position=" + position.get() +
+            '}';
+    }
+
+    /**
+     * The RLE spans and compression state of one thread. It is only used by that thread,
+     * except when the output is closed.
+     */
+    private final class ExtentWriter {
+        private final ByteBuffer spans = ByteBuffer.allocate(extentSizeInSpans * CycleResultsRLEBufferTarget.BYTES);
+        private final Deflater deflater = new Deflater(level);
+        private byte[] compressed = new byte[spans.capacity() / 2 + 64];
+        private long[] results = new long[4];
+        private long minCycle = Long.MAX_VALUE;
+        private long maxCycle = Long.MIN_VALUE;
+
+        private long runStart = -1L;
+        private long runEnd = -1L;
+        private int runResult;
+
+        synchronized void add(long start, long end, int result) {
+            if (closed) {
+                throw new RuntimeException("Unable to record cycle " + start + " since the cycle log '" + outputFile + "' is closed.");
+            }
+            if (start == runEnd && result == runResult) {
+                runEnd = end;
+                return;
+            }
+            checkpoint();
+            if (start < 0) {
+                throw new RuntimeException("Unable to encode cycle values less than 0");
+            }
+            if (result > Byte.MAX_VALUE) {
+                throw new RuntimeException("Unable to encode result values greater than Byte.MAX_VALUE.");
+            }
+            runStart = start;
+            runEnd = end;
+            runResult = result;
+        }
+
+        private void checkpoint() {
+            if (runStart < 0) {
+                return;
+            }
+            if (!spans.hasRemaining()) {
+                writeBlock();
+            }
+            spans.putLong(runStart).putLong(runEnd).put((byte) runResult);
+            minCycle = Math.min(minCycle, runStart);
+            maxCycle = Math.max(maxCycle, runEnd);
+            CycleLogBlock.addResult(results, runResult);
+            runStart = -1L;
+            runEnd = -1L;
+        }
+
+        private void writeBlock() {
+            int rawLength = spans.position();
+            deflater.reset();
+            deflater.setInput(spans.array(), 0, rawLength);
+            deflater.finish();
+            int compressedLength = 0;
+            while (!deflater.finished()) {
+                if (compressedLength == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+            }
+
+            long offset = position.getAndAdd(CycleLogBlock.HEADER_BYTES + compressedLength);
+            CycleLogBlock block = new CycleLogBlock(
+                offset, rawLength / CycleResultsRLEBufferTarget.BYTES, rawLength, compressedLength,
+                minCycle, maxCycle, results
+            );
+            ByteBuffer out = ByteBuffer.allocate(CycleLogBlock.HEADER_BYTES + compressedLength);
+            block.writeHeader(out);
+            out.put(compressed, 0, compressedLength).flip();
+            try {
+                writeFully(out, offset);
+            } catch (IOException e) {
+                throw new RuntimeException("Error while writing " + block + " to '" + outputFile + "': " + e, e);
+            }
+            blocks.add(block);
+            logger.trace(() -> "wrote " + block);
+
+            spans.clear();
+            results = new long[4];
+            minCycle = Long.MAX_VALUE;
+            maxCycle = Long.MIN_VALUE;
+        }
+
+        synchronized void close() {
+            checkpoint();
+            if (spans.position() > 0) {
+                writeBlock();
+            }
+            deflater.end();
+        }
+    }
+}
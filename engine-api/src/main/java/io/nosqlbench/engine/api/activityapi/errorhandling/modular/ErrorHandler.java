@@ -28,4 +28,16 @@ public interface ErrorHandler {
      * @return true if the operation should be retried, assuming retries available
      */
     ErrorDetail handleError(String name, Throwable t, long cycle, long durationInNanos, ErrorDetail detail);
+
+    /**
+     * Return a handler which will only be used for errors with the given name. This is called
+     * once for each distinct error name, so handlers which keep state per error name, such as
+     * named metrics, can resolve it here instead of looking it up for every error.
+     *
+     * @param name The name of the errors which the returned handler will see
+     * @return a handler for errors with the given name, or this handler if it does not keep any named state
+     */
+    default ErrorHandler bindTo(String name) {
+        return this;
+    }
 }
@@ -16,8 +16,9 @@
 
 package io.nosqlbench.engine.api.activityapi.errorhandling.modular;
 
+import io.nosqlbench.api.spi.SimpleServiceLoader;
 import io.nosqlbench.engine.api.activityapi.errorhandling.ErrorMetrics;
-import io.nosqlbench.nb.annotations.Service;
+import io.nosqlbench.nb.annotations.Maturity;
 import io.nosqlbench.api.config.standard.NBMapConfigurable;
 import io.nosqlbench.api.config.params.Element;
 import io.nosqlbench.api.config.params.NBParams;
@@ -30,18 +31,35 @@ import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * <p>Applies the configured chain of {@link ErrorHandler}s to errors, according to the
+ * error name patterns of the error handler spec.</p>
+ *
+ * <p>The handler chain for an error name is resolved once, the first time an error with that name
+ * is seen. Each handler in the chain is {@link ErrorHandler#bindTo(String) bound} to the error name
+ * at that time, so that per-name state like metrics is not looked up for every error. When errors
+ * are named by their class, as they are by default, the resolved chain is cached by the class of
+ * the error, so that an error can be dispatched without computing its name first.</p>
+ */
 public class NBErrorHandler {
 
     private final Supplier<ErrorMetrics> errorMetricsSupplier;
     private final Supplier<String> configSpecSupplier;
     private final Function<Throwable, String> namer;
-    private final Map<String, List<ErrorHandler>> handlerCache = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ErrorDispatch> classCache = new ConcurrentHashMap<>();
+    private final Map<String, ErrorDispatch> handlerCache = new ConcurrentHashMap<>();
     private final List<HandlerMapping> configs = new ArrayList<>();
 
     public NBErrorHandler(Supplier<String> configSpecSupplier, Supplier<ErrorMetrics> metricsSupplier) {
-        this(configSpecSupplier, metricsSupplier, throwable -> throwable.getClass().getSimpleName());
+        this(configSpecSupplier, metricsSupplier, null);
     }
 
+    /**
+     * @param configSpecSupplier The error handler spec
+     * @param metricsSupplier    The error metrics for handlers which need them
+     * @param namer              A function to name each error, or null to name them by the simple
+     *                           name of their class
+     */
     public NBErrorHandler(Supplier<String> configSpecSupplier, Supplier<ErrorMetrics> metricsSupplier, Function<Throwable,String> namer) {
         this.errorMetricsSupplier = metricsSupplier;
         this.configSpecSupplier = configSpecSupplier;
@@ -53,21 +71,32 @@ public class NBErrorHandler {
     }
 
     public ErrorDetail handleError(Throwable throwable, long cycle, long nanosIntoOp) {
-        String errorName = namer.apply(throwable);
-//        String errorName = t.getClass().getSimpleName();
-        List<ErrorHandler> handlers = handlerCache.get(errorName);
-        ErrorDetail detail = ErrorDetail.ERROR_NONRETRYABLE;
-
-        if (handlers == null) {
-            handlers = lookup(errorName);
-            handlerCache.put(errorName, handlers);
+        ErrorDispatch dispatch;
+        if (namer == null) {
+            dispatch = classCache.get(throwable.getClass());
+            if (dispatch == null) {
+                dispatch = classCache.computeIfAbsent(
+                    throwable.getClass(),
+                    c -> handlerCache.computeIfAbsent(c.getSimpleName(), this::dispatchFor)
+                );
+            }
+        } else {
+            String errorName = namer.apply(throwable);
+            dispatch = handlerCache.get(errorName);
+            if (dispatch == null) {
+                dispatch = handlerCache.computeIfAbsent(errorName, this::dispatchFor);
+            }
         }
+        return dispatch.handleError(throwable, cycle, nanosIntoOp);
+    }
 
-        boolean retry = false;
-        for (ErrorHandler handler : handlers) {
-            detail = handler.handleError(errorName, throwable, cycle, nanosIntoOp, detail);
+    private ErrorDispatch dispatchFor(String errorName) {
+        List<ErrorHandler> handlers = lookup(errorName);
+        ErrorHandler[] bound = new ErrorHandler[handlers.size()];
+        for (int i = 0; i < bound.length; i++) {
+            bound[i] = handlers.get(i).bindTo(errorName);
         }
-        return detail;
+        return new ErrorDispatch(errorName, bound);
     }
 
     private synchronized List<ErrorHandler> lookup(String errorName) {
@@ -89,10 +118,31 @@ public class NBErrorHandler {
         throw new RuntimeException("Unable to find a configured error handler for error '" + errorName + "'");
     }
 
+    /**
+     * The handlers for one error name, already bound to that name.
+     */
+    private final static class ErrorDispatch {
+        private final String errorName;
+        private final ErrorHandler[] handlers;
+
+        private ErrorDispatch(String errorName, ErrorHandler[] handlers) {
+            this.errorName = errorName;
+            this.handlers = handlers;
+        }
+
+        ErrorDetail handleError(Throwable throwable, long cycle, long nanosIntoOp) {
+            ErrorDetail detail = ErrorDetail.ERROR_NONRETRYABLE;
+            for (ErrorHandler handler : handlers) {
+                detail = handler.handleError(errorName, throwable, cycle, nanosIntoOp, detail);
+            }
+            return detail;
+        }
+    }
+
     private ErrorHandler getHandler(Element cfg) {
         String name = cfg.get("handler", String.class).orElseThrow();
-        LinkedHashMap<String, ServiceLoader.Provider<ErrorHandler>> providers = getProviders();
-        Provider<ErrorHandler> provider = providers.get(name);
+        LinkedHashMap<String, Provider<? extends ErrorHandler>> providers = getProviders();
+        Provider<? extends ErrorHandler> provider = providers.get(name);
         if (provider == null) {
             throw new RuntimeException("ErrorHandler named '" + name + "' could not be found in " + providers.keySet());
         }
@@ -106,26 +156,18 @@ public class NBErrorHandler {
         return handler;
     }
 
-    private synchronized static LinkedHashMap<String, ServiceLoader.Provider<ErrorHandler>> getProviders() {
-        ServiceLoader<ErrorHandler> loader = ServiceLoader.load(ErrorHandler.class);
+    private synchronized static LinkedHashMap<String, Provider<? extends ErrorHandler>> getProviders() {
+        SimpleServiceLoader<ErrorHandler> loader = new SimpleServiceLoader<>(ErrorHandler.class, Maturity.Any);
 
-        LinkedHashMap<String, ServiceLoader.Provider<ErrorHandler>> providers;
+        LinkedHashMap<String, Provider<? extends ErrorHandler>> providers;
         providers = new LinkedHashMap<>();
 
-        loader.stream().forEach(provider -> {
-            Class<? extends ErrorHandler> type = provider.type();
-            if (!type.isAnnotationPresent(Service.class)) {
-                throw new RuntimeException(
-                    "Annotator services must be annotated with distinct selectors\n" +
-                        "such as @Service(Annotator.class,selector=\"myimpl42\")"
-                );
-            }
-            Service service = type.getAnnotation(Service.class);
-            if (service.selector().isBlank()) {
+        for (SimpleServiceLoader.Component<? extends ErrorHandler> component : loader.getNamedProviders()) {
+            if (component.selector.isBlank()) {
                 throw new RuntimeException("Services of type ErrorHandler must include the selector property in the Service annotation.");
             }
-            providers.put(service.selector(), provider);
-        });
+            providers.put(component.selector, component.provider);
+        }
 
         return providers;
     }
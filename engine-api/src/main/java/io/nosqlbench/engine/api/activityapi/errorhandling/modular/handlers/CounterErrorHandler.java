@@ -16,6 +16,7 @@
 
 package io.nosqlbench.engine.api.activityapi.errorhandling.modular.handlers;
 
+import com.codahale.metrics.Counter;
 import io.nosqlbench.engine.api.activityapi.errorhandling.ErrorMetrics;
 import io.nosqlbench.engine.api.activityapi.errorhandling.modular.ErrorDetail;
 import io.nosqlbench.engine.api.activityapi.errorhandling.modular.ErrorHandler;
@@ -35,6 +36,15 @@ public class CounterErrorHandler implements ErrorHandler, ErrorMetrics.Aware {
         return detail;
     }
 
+    @Override
+    public ErrorHandler bindTo(String name) {
+        Counter counter = exceptionCountMetrics.getCounter(name);
+        return (n, t, cycle, durationInNanos, detail) -> {
+            exceptionCountMetrics.count(counter);
+            return detail;
+        };
+    }
+
     @Override
     public void setErrorMetricsSupplier(Supplier<ErrorMetrics> supplier) {
         this.exceptionCountMetrics = supplier.get().getExceptionCountMetrics();
@@ -16,6 +16,7 @@
 
 package io.nosqlbench.engine.api.activityapi.errorhandling.modular.handlers;
 
+import com.codahale.metrics.Timer;
 import io.nosqlbench.engine.api.activityapi.errorhandling.ErrorMetrics;
 import io.nosqlbench.engine.api.activityapi.errorhandling.modular.ErrorDetail;
 import io.nosqlbench.engine.api.activityapi.errorhandling.modular.ErrorHandler;
@@ -36,6 +37,15 @@ public class TimerErrorHandler implements ErrorHandler, ErrorMetrics.Aware {
         return detail;
     }
 
+    @Override
+    public ErrorHandler bindTo(String name) {
+        Timer timer = exceptionTimerMetrics.getTimer(name);
+        return (n, t, cycle, durationInNanos, detail) -> {
+            exceptionTimerMetrics.update(timer, durationInNanos);
+            return detail;
+        };
+    }
+
     @Override
     public void setErrorMetricsSupplier(Supplier<ErrorMetrics> supplier) {
         this.exceptionTimerMetrics = supplier.get().getExceptionTimerMetrics();
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.ratelimits;
+
+import com.codahale.metrics.Gauge;
+import io.nosqlbench.api.config.NBLabeledElement;
+import io.nosqlbench.api.engine.metrics.ActivityMetrics;
+import io.nosqlbench.engine.api.activityapi.ratelimits.RateLimiters.BurstRateGauge;
+import io.nosqlbench.engine.api.activityapi.ratelimits.RateLimiters.RateGauge;
+import io.nosqlbench.engine.api.activityapi.ratelimits.RateLimiters.WaitTimeGauge;
+import io.nosqlbench.nb.annotations.Service;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <H2>Synopsis</H2>
+ * <p>This rate limiter schedules ops without taking any monitors or locks in the
+ * acquire path, and without a filler thread. Like the {@link HybridRateLimiter},
+ * it keeps the scheduling state as nanoseconds granted to callers, but each caller
+ * claims its own schedule slot with a single atomic add, rather than taking tokens
+ * from a synchronized pool. Callers which are ahead of schedule park until their
+ * slot comes up.</p>
+ *
+ * <H2>Burst Ratio</H2>
+ * <p>The burst ratio has the same meaning as it does for the {@link HybridRateLimiter}.
+ * When callers fall behind schedule, they are released no faster than
+ * (op rate * burst ratio), by way of a second atomic which holds the last release time.
+ * This allows time lost to slower operations to be recovered at a controlled rate.
+ * When the burst ratio is 1.0, lost time is never recovered, and the wait time
+ * stays at whatever level it reached.</p>
+ *
+ * <p>The wait time returned for each op is the time between its own schedule slot
+ * and when it was released, rather than the total time that the rate limiter is behind
+ * schedule. The schedule slot itself is available as the intended start time of each
+ * op with {@link #waitForIntendedStart()}.</p>
+ */
+@Service(value = RateLimiter.class, selector = "lockfree")
+public class LockFreeRateLimiter implements RateLimiter {
+
+    private static final Logger logger = LogManager.getLogger(LockFreeRateLimiter.class);
+
+    // The nanos of schedule which have been granted to callers since start
+    private final AtomicLong ticks = new AtomicLong(0L);
+    // The nanotime at which the last op was released, used to limit the bursting rate
+    private final AtomicLong lastReleaseAt = new AtomicLong(0L);
+    private final AtomicLong cumulativeWaitTimeNanos = new AtomicLong(0L);
+
+    private volatile long startTime;
+    private volatile long nanosPerOp;
+    private volatile long burstNanosPerOp;
+
+    private String label;
+    private RateSpec rateSpec;
+    private State state = State.Idle;
+
+    // metrics
+    private Gauge<Long> delayGauge;
+    private Gauge<Double> avgRateGauge;
+    private Gauge<Double> burstRateGauge;
+
+    protected LockFreeRateLimiter() {
+    }
+
+    public LockFreeRateLimiter(final NBLabeledElement named, final String label, final RateSpec rateSpec) {
+        this.label = label;
+        this.init(named);
+        applyRateSpec(rateSpec);
+    }
+
+    protected void init(final NBLabeledElement named) {
+        delayGauge = ActivityMetrics.gauge(named, this.label + ".waittime", new WaitTimeGauge(this));
+        avgRateGauge = ActivityMetrics.gauge(named, this.label + ".config.cyclerate", new RateGauge(this));
+        burstRateGauge = ActivityMetrics.gauge(named, this.label + ".config.burstrate", new BurstRateGauge(this));
+    }
+
+    @Override
+    public long maybeWaitForOp() {
+        final long scheduledAt = waitForIntendedStart();
+        return Math.max(0L, getNanoClockTime() - scheduledAt);
+    }
+
+    @Override
+    public long waitForIntendedStart() {
+        final long scheduledAt = startTime + ticks.getAndAdd(nanosPerOp);
+        long now = getNanoClockTime();
+        final long releaseAt = reserveReleaseTime(scheduledAt, now);
+
+        while (now < releaseAt) {
+            park(releaseAt - now);
+            now = getNanoClockTime();
+        }
+        return scheduledAt;
+    }
+
+    /**
+     * Callers which are on or ahead of schedule are released at their scheduled time.
+     * Callers which are behind schedule are released now, but no sooner than one
+     * burst interval after the previous release.
+     */
+    private long reserveReleaseTime(final long scheduledAt, final long now) {
+        if (scheduledAt >= now) {
+            lastReleaseAt.accumulateAndGet(scheduledAt, Math::max);
+            return scheduledAt;
+        }
+        final long burstNanos = burstNanosPerOp;
+        while (true) {
+            final long last = lastReleaseAt.get();
+            final long releaseAt = Math.max(last + burstNanos, now);
+            if (lastReleaseAt.compareAndSet(last, releaseAt)) return releaseAt;
+        }
+    }
+
+    @Override
+    public long getTotalWaitTime() {
+        return cumulativeWaitTimeNanos.get() + getWaitTime();
+    }
+
+    @Override
+    public long getWaitTime() {
+        if (State.Idle == this.state) return 0L;
+        return Math.max(0L, getNanoClockTime() - (startTime + ticks.get()));
+    }
+
+    @Override
+    public RateSpec getRateSpec() {
+        return rateSpec;
+    }
+
+    @Override
+    public synchronized void applyRateSpec(final RateSpec updatingRateSpec) {
+        if (null == updatingRateSpec) throw new RuntimeException("RateSpec must be defined");
+
+        if (updatingRateSpec.equals(rateSpec) && !updatingRateSpec.isRestart()) return;
+
+        rateSpec = updatingRateSpec;
+        nanosPerOp = updatingRateSpec.getNanosPerOp();
+        burstNanosPerOp = (long) (nanosPerOp / updatingRateSpec.getBurstRatio());
+
+        if ((State.Idle == this.state) && updatingRateSpec.isAutoStart()) start();
+        else if (updatingRateSpec.isRestart()) restart();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (State.Idle == this.state) {
+            final long nanos = getNanoClockTime();
+            ticks.set(0L);
+            lastReleaseAt.set(nanos);
+            startTime = nanos;
+            state = State.Started;
+        }
+    }
+
+    public synchronized long restart() {
+        switch (this.state) {
+            case Idle:
+                start();
+                return 0L;
+            case Started:
+                final long accumulatedWait = this.cumulativeWaitTimeNanos.getAndSet(0L) + getWaitTime();
+                final long nanos = getNanoClockTime();
+                ticks.set(0L);
+                lastReleaseAt.set(nanos);
+                startTime = nanos;
+                return accumulatedWait;
+            default:
+                return 0L;
+        }
+    }
+
+    @Override
+    public long getStartTime() {
+        return startTime;
+    }
+
+    protected long getNanoClockTime() {
+        return System.nanoTime();
+    }
+
+    protected void park(final long nanos) {
+        LockSupport.parkNanos(nanos);
+    }
+
+    protected void setLabel(final String label) {
+        this.label = label;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(LockFreeRateLimiter.class.getSimpleName());
+        sb.append("{\n");
+        if (null != this.getRateSpec()) sb.append("      spec:").append(rateSpec.toString());
+        sb.append(",\n  waittime:").append(getWaitTime()).append("ns");
+        if (null != this.state) sb.append(",\n     state:'").append(state).append('\'');
+        sb.append("\n}");
+        return sb.toString();
+    }
+
+    private enum State {
+        Idle,
+        Started
+    }
+}
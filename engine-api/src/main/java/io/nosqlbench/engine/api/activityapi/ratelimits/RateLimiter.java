@@ -34,6 +34,21 @@ public interface RateLimiter extends Startable {
      */
     long maybeWaitForOp();
 
+    /**
+     * Block until it is time for the next operation, just as {@link #maybeWaitForOp()}, but
+     * return the nanotime (as in {@link System#nanoTime()}) at which this operation was intended
+     * to start according to the rate limiter's schedule. This allows response times to be measured
+     * from the intended start of each operation, which is what corrects for coordinated omission.
+     *
+     * Rate limiters which do not track a schedule slot per operation may derive it from
+     * the wait time, which is what the default implementation does.
+     * @return the intended start time of this op in nanos, which is not later than the current time
+     */
+    default long waitForIntendedStart() {
+        final long waittime = maybeWaitForOp();
+        return System.nanoTime() - waittime;
+    }
+
     /**
      * Return the total number of nanoseconds behind schedule
      * that this rate limiter is, including the full history across all
@@ -25,10 +25,26 @@ public enum RateLimiters {
     ;
     private static final Logger logger = LogManager.getLogger(RateLimiters.class);
 
+    public static final String DEFAULT_SELECTOR = "hybrid";
+
     public static synchronized RateLimiter createOrUpdate(final NBLabeledElement def, final String label, final RateLimiter extant, final RateSpec spec) {
+        return RateLimiters.createOrUpdate(def, label, extant, spec, RateLimiters.DEFAULT_SELECTOR);
+    }
+
+    /**
+     * Create a new rate limiter, or update an existing one with a new rate spec.
+     * The selector is only used when a new rate limiter is created, and names the implementation
+     * by its service selector, either <em>hybrid</em> for {@link HybridRateLimiter} or
+     * <em>lockfree</em> for {@link LockFreeRateLimiter}.
+     */
+    public static synchronized RateLimiter createOrUpdate(final NBLabeledElement def, final String label, final RateLimiter extant, final RateSpec spec, final String selector) {
 
         if (null == extant) {
-            final RateLimiter rateLimiter= new HybridRateLimiter(def, label, spec);
+            final RateLimiter rateLimiter = switch (selector) {
+                case "hybrid" -> new HybridRateLimiter(def, label, spec);
+                case "lockfree" -> new LockFreeRateLimiter(def, label, spec);
+                default -> throw new RuntimeException("Unknown rate limiter '" + selector + "', valid values are hybrid and lockfree");
+            };
 
             RateLimiters.logger.info(() -> "Using rate limiter: " + rateLimiter);
             return rateLimiter;
@@ -51,6 +51,7 @@ import io.nosqlbench.engine.api.activityimpl.uniform.decorators.SyntheticOpTempl
 import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.Op;
 import io.nosqlbench.engine.api.templating.CommandTemplate;
 import io.nosqlbench.engine.api.templating.ParsedOp;
+import io.nosqlbench.virtdata.core.bindings.SharedBindingPrefixes;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -59,6 +60,11 @@ import java.io.PrintWriter;
 import java.lang.reflect.AnnotatedType;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -323,13 +329,22 @@ public class SimpleActivity implements Activity {
 
     public synchronized void initOrUpdateRateLimiters(ActivityDef activityDef) {
 
+        // Only the lockfree rate limiter tracks the schedule slot of each op, so it is required for intended scheduling
+        boolean intended = activityDef.getParams().getOptionalString("schedule").map("intended"::equals).orElse(false);
+        String selector = activityDef.getParams().getOptionalString("ratelimiter")
+            .orElse(intended ? "lockfree" : RateLimiters.DEFAULT_SELECTOR);
+        if (intended && !"lockfree".equals(selector)) {
+            throw new BasicError("schedule=intended requires ratelimiter=lockfree, since the " + selector +
+                " rate limiter can only approximate the intended start of each op from its aggregate wait time");
+        }
+
         activityDef.getParams().getOptionalNamedParameter("striderate")
             .map(RateSpec::new)
-            .ifPresent(spec -> strideLimiter = RateLimiters.createOrUpdate(this, "strides", strideLimiter, spec));
+            .ifPresent(spec -> strideLimiter = RateLimiters.createOrUpdate(this, "strides", strideLimiter, spec, selector));
 
         activityDef.getParams().getOptionalNamedParameter("cyclerate", "targetrate", "rate")
             .map(RateSpec::new).ifPresent(
-                spec -> cycleLimiter = RateLimiters.createOrUpdate(this, "cycles", cycleLimiter, spec));
+                spec -> cycleLimiter = RateLimiters.createOrUpdate(this, "cycles", cycleLimiter, spec, selector));
 
     }
 
@@ -471,30 +486,40 @@ public class SimpleActivity implements Activity {
                 .orElse(SequencerType.bucket);
             SequencePlanner<OpDispenser<? extends O>> planner = new SequencePlanner<>(sequencerType);
 
-            int dryrunCount = 0;
+            List<Integer> mapped = new ArrayList<>(pops.size());
+            boolean[] dryruns = new boolean[pops.size()];
             for (int i = 0; i < pops.size(); i++) {
-                long ratio = ratios.get(i);
                 ParsedOp pop = pops.get(i);
-                if (0 == ratio) {
+                if (0 == ratios.get(i)) {
                     logger.info(() -> "skipped mapping op '" + pop.getName() + '\'');
                     continue;
                 }
                 String dryrunSpec = pop.takeStaticConfigOr("dryrun", "none");
-                boolean dryrun = "op".equalsIgnoreCase(dryrunSpec);
+                mapped.add(i);
+                dryruns[i] = "op".equalsIgnoreCase(dryrunSpec);
+            }
 
+            List<OpDispenser<? extends Op>> dispensers = initInOrder("op dispensers", mapped, i -> {
+                ParsedOp pop = pops.get(i);
                 DriverAdapter adapter = adapters.get(i);
                 OpMapper opMapper = adapter.getOpMapper();
                 OpDispenser<? extends Op> dispenser = opMapper.apply(pop);
-
-                if (dryrun) {
+                if (dryruns[i]) {
                     dispenser = new DryRunOpDispenserWrapper(adapter, pop, dispenser);
-                    dryrunCount++;
                 }
+                return dispenser;
+            });
 
+            int dryrunCount = 0;
+            for (int m = 0; m < mapped.size(); m++) {
+                int i = mapped.get(m);
+                if (dryruns[i]) {
+                    dryrunCount++;
+                }
 //                if (strict) {
 //                    optemplate.assertConsumed();
 //                }
-                planner.addOp((OpDispenser<? extends O>) dispenser, ratio);
+                planner.addOp((OpDispenser<? extends O>) dispensers.get(m), ratios.get(i));
             }
             if (0 < dryrunCount) {
                 logger.warn("initialized {} op templates for dry run only. These ops will be synthesized for each cycle, but will not be executed.", dryrunCount);
@@ -629,15 +654,16 @@ public class SimpleActivity implements Activity {
             .orElse(SequencerType.bucket);
         SequencePlanner<OpDispenser<? extends O>> planner = new SequencePlanner<>(sequencerType);
 
-        try {
-            for (int i = 0; i < stmts.size(); i++) {
-                long ratio = ratios.get(i);
-                OpTemplate optemplate = stmts.get(i);
+        try (SharedBindingPrefixes sharedBindings = SharedBindingPrefixes.open(List.of())) {
+            List<OpDispenser<? extends O>> dispensers = initInOrder("op dispensers", stmts, optemplate -> {
                 OpDispenser<? extends O> driverSpecificReadyOp = opinit.apply(optemplate);
                 if (strict) {
                     optemplate.assertConsumed();
                 }
-                planner.addOp(driverSpecificReadyOp, ratio);
+                return driverSpecificReadyOp;
+            });
+            for (int i = 0; i < stmts.size(); i++) {
+                planner.addOp(dispensers.get(i), ratios.get(i));
             }
         } catch (Exception e) {
             throw new OpConfigError(e.getMessage(), workloadSource, e);
@@ -646,6 +672,80 @@ public class SimpleActivity implements Activity {
         return planner.resolve();
     }
 
+    /**
+     * @return the number of threads which are used to initialize op templates, as set by the
+     * {@code initthreads} activity parameter. This is 1 by default, since only some op mappers are safe
+     * to call from several threads at once.
+     */
+    protected int getInitThreads() {
+        return getParams().getOptionalInteger("initthreads").orElse(1);
+    }
+
+    /**
+     * Apply the initializer to each of the items on a bounded pool of {@link #getInitThreads()} threads,
+     * and return the results in the same order as the items. When any items fail, the error of the first
+     * of them in order is thrown, regardless of which failed first in time, and the remaining items are
+     * cancelled. Work done on the pool takes part in the {@link SharedBindingPrefixes} scope of the caller.
+     *
+     * @param description what is being initialized, for diagnostics
+     * @param items       the items to initialize
+     * @param initializer the function which initializes each item
+     * @return the results of the initializer, in the order of the items
+     */
+    protected <T, R> List<R> initInOrder(String description, List<T> items, Function<T, R> initializer) {
+        int threads = Math.min(items.size(), getInitThreads());
+        if (threads <= 1) {
+            List<R> results = new ArrayList<>(items.size());
+            for (T item : items) {
+                results.add(initializer.apply(item));
+            }
+            return results;
+        }
+
+        logger.debug(() -> "initializing " + items.size() + " " + description + " on " + threads + " threads");
+        Optional<SharedBindingPrefixes> sharedBindings = SharedBindingPrefixes.current();
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, getAlias() + "-init:" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<R>> futures = new ArrayList<>(items.size());
+            for (T item : items) {
+                futures.add(pool.submit(() -> {
+                    if (sharedBindings.isEmpty()) {
+                        return initializer.apply(item);
+                    }
+                    try (SharedBindingPrefixes scope = sharedBindings.get().enter()) {
+                        return initializer.apply(item);
+                    }
+                }));
+            }
+            List<R> results = new ArrayList<>(items.size());
+            for (Future<R> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException runtimeException) {
+                        throw runtimeException;
+                    }
+                    if (cause instanceof Error error) {
+                        throw error;
+                    }
+                    throw new RuntimeException(cause);
+                }
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while initializing " + description, e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
     protected OpsDocList loadStmtsDocList() {
 
         try {
@@ -64,6 +64,7 @@ public class CoreMotor<D> implements ActivityDefObserver, Motor<D>, Stoppable {
     private RateLimiter cycleRateLimiter;
     private Timer cycleServiceTimer;
     private Timer cycleResponseTimer;
+    private boolean intendedSchedule;
 
     private Input input;
     private Action action;
@@ -281,9 +282,14 @@ public class CoreMotor<D> implements ActivityDefObserver, Motor<D>, Stoppable {
                             continue;
                         }
 
+                        long intendedStart = 0L;
                         if (cycleRateLimiter != null) {
                             // Block for cycle rate limiter
-                            cycleDelay = cycleRateLimiter.maybeWaitForOp();
+                            if (intendedSchedule) {
+                                intendedStart = cycleRateLimiter.waitForIntendedStart();
+                            } else {
+                                cycleDelay = cycleRateLimiter.maybeWaitForOp();
+                            }
                         }
 
                         try {
@@ -301,6 +307,10 @@ public class CoreMotor<D> implements ActivityDefObserver, Motor<D>, Stoppable {
                                 }
                             }
 
+                            if (intendedSchedule && cycleRateLimiter != null) {
+                                // include any time blocked on the op tracker in the response time
+                                op.setWaitTime(System.nanoTime() - intendedStart);
+                            }
                             async.enqueue(op);
 
                         } catch (Exception t) {
@@ -329,6 +339,8 @@ public class CoreMotor<D> implements ActivityDefObserver, Motor<D>, Stoppable {
             } else if (action instanceof SyncAction sync) {
 
                 cycleServiceTimer = activity.getInstrumentation().getOrCreateCyclesServiceTimer();
+                // only intended scheduling measures cycle response times, so the timer is not registered otherwise
+                cycleResponseTimer = intendedSchedule ? activity.getInstrumentation().getCyclesResponseTimerOrNull() : null;
                 strideServiceTimer = activity.getInstrumentation().getOrCreateStridesServiceTimer();
 
                 if (activity.getActivityDef().getParams().containsKey("async")) {
@@ -376,21 +388,34 @@ public class CoreMotor<D> implements ActivityDefObserver, Motor<D>, Stoppable {
                             }
                             int result = -1;
 
+                            boolean scheduled = intendedSchedule && cycleRateLimiter != null;
+                            long intendedStart = 0L;
                             if (cycleRateLimiter != null) {
                                 // Block for cycle rate limiter
-                                cycleDelay = cycleRateLimiter.maybeWaitForOp();
+                                if (scheduled) {
+                                    intendedStart = cycleRateLimiter.waitForIntendedStart();
+                                } else {
+                                    cycleDelay = cycleRateLimiter.maybeWaitForOp();
+                                }
                             }
 
                             long cycleStart = System.nanoTime();
                             try {
                                 logger.trace(()->"cycle " + cyclenum);
-                                result = sync.runCycle(cyclenum);
+                                result = scheduled ? sync.runCycle(cyclenum, intendedStart) : sync.runCycle(cyclenum);
                             } catch (Exception e) {
                                 motorState.enterState(Errored);
                                 throw e;
                             } finally {
                                 long cycleEnd = System.nanoTime();
-                                cycleServiceTimer.update((cycleEnd - cycleStart) + cycleDelay, TimeUnit.NANOSECONDS);
+                                if (scheduled) {
+                                    cycleServiceTimer.update(cycleEnd - cycleStart, TimeUnit.NANOSECONDS);
+                                    if (cycleResponseTimer != null) {
+                                        cycleResponseTimer.update(cycleEnd - intendedStart, TimeUnit.NANOSECONDS);
+                                    }
+                                } else {
+                                    cycleServiceTimer.update((cycleEnd - cycleStart) + cycleDelay, TimeUnit.NANOSECONDS);
+                                }
                             }
                             segBuffer.append(cyclenum, result);
                         }
@@ -446,6 +471,7 @@ public class CoreMotor<D> implements ActivityDefObserver, Motor<D>, Stoppable {
         }
 
         this.stride = activityDef.getParams().getOptionalInteger("stride").orElse(1);
+        this.intendedSchedule = activityDef.getParams().getOptionalString("schedule").map("intended"::equals).orElse(false);
         strideRateLimiter = activity.getStrideLimiter();
         cycleRateLimiter = activity.getCycleLimiter();
 
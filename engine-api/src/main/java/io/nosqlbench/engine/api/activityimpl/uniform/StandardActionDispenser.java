@@ -16,9 +16,11 @@
 
 package io.nosqlbench.engine.api.activityimpl.uniform;
 
+import io.nosqlbench.engine.api.activityapi.core.Action;
 import io.nosqlbench.engine.api.activityapi.core.ActionDispenser;
 import io.nosqlbench.engine.api.activityapi.core.Activity;
 import io.nosqlbench.engine.api.activityimpl.uniform.actions.StandardAction;
+import io.nosqlbench.engine.api.activityimpl.uniform.actions.StandardAsyncAction;
 
 public class StandardActionDispenser implements ActionDispenser {
     private final StandardActivity<?,?> activity;
@@ -28,7 +30,10 @@ public class StandardActionDispenser implements ActionDispenser {
     }
 
     @Override
-    public StandardAction<?,?> getAction(int slot) {
+    public Action getAction(int slot) {
+        if (activity.getActivityDef().getParams().containsKey("async")) {
+            return new StandardAsyncAction<>(activity,slot);
+        }
         return new StandardAction<>(activity,slot);
     }
 }
@@ -22,6 +22,7 @@ import io.nosqlbench.api.config.standard.*;
 import io.nosqlbench.api.engine.activityimpl.ActivityDef;
 import io.nosqlbench.api.errors.BasicError;
 import io.nosqlbench.api.errors.OpConfigError;
+import io.nosqlbench.api.spi.SimpleServiceLoader;
 import io.nosqlbench.engine.api.activityapi.planning.OpSequence;
 import io.nosqlbench.engine.api.activityconfig.OpsLoader;
 import io.nosqlbench.engine.api.activityconfig.yaml.OpTemplate;
@@ -32,12 +33,14 @@ import io.nosqlbench.engine.api.activityimpl.SimpleActivity;
 import io.nosqlbench.engine.api.activityimpl.uniform.decorators.SyntheticOpTemplateProvider;
 import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.Op;
 import io.nosqlbench.engine.api.templating.ParsedOp;
-import io.nosqlbench.nb.annotations.ServiceSelector;
+import io.nosqlbench.nb.annotations.Maturity;
+import io.nosqlbench.virtdata.core.bindings.SharedBindingPrefixes;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
 
 /**
  * This is a typed activity which is expected to become the standard
@@ -68,10 +71,10 @@ public class StandardActivity<R extends Op, S> extends SimpleActivity implements
             yamlmodel = ConfigModel.of(StandardActivity.class).asReadOnly();
         }
 
-        ServiceLoader<DriverAdapter> adapterLoader = ServiceLoader.load(DriverAdapter.class);
+        SimpleServiceLoader<DriverAdapter> adapterLoader = new SimpleServiceLoader<>(DriverAdapter.class, Maturity.Any);
         Optional<String> defaultDriverName = activityDef.getParams().getOptionalString("driver");
         Optional<DriverAdapter> defaultAdapter = defaultDriverName
-            .flatMap(s -> ServiceSelector.of(s, adapterLoader).get());
+            .flatMap(adapterLoader::get);
 
         if (defaultDriverName.isPresent() && defaultAdapter.isEmpty()) {
             throw new BasicError("Unable to load default driver adapter '" + defaultDriverName.get() + '\'');
@@ -81,66 +84,75 @@ public class StandardActivity<R extends Op, S> extends SimpleActivity implements
         List<OpTemplate> opTemplates = loadOpTemplates(defaultAdapter);
 
 
-        List<ParsedOp> pops = new ArrayList<>();
-        List<DriverAdapter> adapterlist = new ArrayList<>();
-        NBConfigModel supersetConfig = ConfigModel.of(StandardActivity.class).add(yamlmodel);
+        // Op templates which use the same bindings share their functions, when enabled
+        try (SharedBindingPrefixes sharedBindings = SharedBindingPrefixes.open(List.of())) {
+            List<ParsedOp> pops = new ArrayList<>();
+            List<DriverAdapter> adapterlist = new ArrayList<>();
+            NBConfigModel supersetConfig = ConfigModel.of(StandardActivity.class).add(yamlmodel);
 
-        Optional<String> defaultDriverOption = activityDef.getParams().getOptionalString("driver");
-        for (OpTemplate ot : opTemplates) {
-            ParsedOp incompleteOpDef = new ParsedOp(ot, NBConfiguration.empty(), List.of(), this);
-            String driverName = incompleteOpDef.takeOptionalStaticValue("driver", String.class)
-                .or(() -> incompleteOpDef.takeOptionalStaticValue("type",String.class))
-                .or(() -> defaultDriverOption)
-                .orElseThrow(() -> new OpConfigError("Unable to identify driver name for op template:\n" + ot));
+            Optional<String> defaultDriverOption = activityDef.getParams().getOptionalString("driver");
+            List<String> driverNames = initInOrder("op templates", opTemplates, ot -> {
+                ParsedOp incompleteOpDef = new ParsedOp(ot, NBConfiguration.empty(), List.of(), this);
+                return incompleteOpDef.takeOptionalStaticValue("driver", String.class)
+                    .or(() -> incompleteOpDef.takeOptionalStaticValue("type",String.class))
+                    .or(() -> defaultDriverOption)
+                    .orElseThrow(() -> new OpConfigError("Unable to identify driver name for op template:\n" + ot));
+            });
 
 //            String driverName = ot.getOptionalStringParam("driver")
 //                .or(() -> activityDef.getParams().getOptionalString("driver"))
 //                .orElseThrow(() -> new OpConfigError("Unable to identify driver name for op template:\n" + ot));
 
-            if (!adapters.containsKey(driverName)) {
-                DriverAdapter adapter = ServiceSelector.of(driverName, adapterLoader).get().orElseThrow(
-                    () -> new OpConfigError("Unable to load driver adapter for name '" + driverName + '\'')
-                );
+            for (String driverName : driverNames) {
+                if (!adapters.containsKey(driverName)) {
+                    DriverAdapter adapter = adapterLoader.get(driverName).orElseThrow(
+                        () -> new OpConfigError("Unable to load driver adapter for name '" + driverName + '\'')
+                    );
 
-                NBConfigModel combinedModel = yamlmodel;
-                NBConfiguration combinedConfig = combinedModel.matchConfig(activityDef.getParams());
+                    NBConfigModel combinedModel = yamlmodel;
+                    NBConfiguration combinedConfig = combinedModel.matchConfig(activityDef.getParams());
 
-                if (adapter instanceof NBConfigurable configurable) {
-                    NBConfigModel adapterModel = configurable.getConfigModel();
-                    supersetConfig.add(adapterModel);
+                    if (adapter instanceof NBConfigurable configurable) {
+                        NBConfigModel adapterModel = configurable.getConfigModel();
+                        supersetConfig.add(adapterModel);
 
-                    combinedModel = adapterModel.add(yamlmodel);
-                    combinedConfig = combinedModel.matchConfig(activityDef.getParams());
-                    configurable.applyConfig(combinedConfig);
+                        combinedModel = adapterModel.add(yamlmodel);
+                        combinedConfig = combinedModel.matchConfig(activityDef.getParams());
+                        configurable.applyConfig(combinedConfig);
+                    }
+                    adapters.put(driverName, adapter);
+                    mappers.put(driverName, adapter.getOpMapper());
                 }
-                adapters.put(driverName, adapter);
-                mappers.put(driverName, adapter.getOpMapper());
-            }
 
-            supersetConfig.assertValidConfig(activityDef.getParams().getStringStringMap());
+                supersetConfig.assertValidConfig(activityDef.getParams().getStringStringMap());
 
-            DriverAdapter adapter = adapters.get(driverName);
-            adapterlist.add(adapter);
-            ParsedOp pop = new ParsedOp(ot, adapter.getConfiguration(), List.of(adapter.getPreprocessor()), this);
-            Optional<String> discard = pop.takeOptionalStaticValue("driver", String.class);
-            pops.add(pop);
-        }
+                adapterlist.add(adapters.get(driverName));
+            }
 
-        if (defaultDriverOption.isPresent()) {
-            long matchingDefault = mappers.keySet().stream().filter(n -> n.equals(defaultDriverOption.get())).count();
-            if (0 == matchingDefault) {
-                logger.warn("All op templates used a different driver than the default '{}'", defaultDriverOption.get());
+            List<Integer> templateIndexes = IntStream.range(0, opTemplates.size()).boxed().toList();
+            pops.addAll(initInOrder("parsed ops", templateIndexes, i -> {
+                DriverAdapter adapter = adapterlist.get(i);
+                ParsedOp pop = new ParsedOp(opTemplates.get(i), adapter.getConfiguration(), List.of(adapter.getPreprocessor()), this);
+                Optional<String> discard = pop.takeOptionalStaticValue("driver", String.class);
+                return pop;
+            }));
+
+            if (defaultDriverOption.isPresent()) {
+                long matchingDefault = mappers.keySet().stream().filter(n -> n.equals(defaultDriverOption.get())).count();
+                if (0 == matchingDefault) {
+                    logger.warn("All op templates used a different driver than the default '{}'", defaultDriverOption.get());
+                }
             }
-        }
 
-        try {
-            boolean strict = activityDef.getParams().getOptionalBoolean("strict").orElse(false);
-            sequence = createOpSourceFromParsedOps(adapters, mappers, adapterlist, pops);
-        } catch (Exception e) {
-            if (e instanceof OpConfigError) {
-                throw e;
+            try {
+                boolean strict = activityDef.getParams().getOptionalBoolean("strict").orElse(false);
+                sequence = createOpSourceFromParsedOps(adapters, mappers, adapterlist, pops);
+            } catch (Exception e) {
+                if (e instanceof OpConfigError) {
+                    throw e;
+                }
+                throw new OpConfigError("Error mapping workload template to operations: " + e.getMessage(), null, e);
             }
-            throw new OpConfigError("Error mapping workload template to operations: " + e.getMessage(), null, e);
         }
     }
 
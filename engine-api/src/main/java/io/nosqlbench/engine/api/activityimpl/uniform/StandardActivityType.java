@@ -55,9 +55,6 @@ public class StandardActivityType<A extends StandardActivity<?,?>> extends Simpl
 
     @Override
     public A getActivity(final ActivityDef activityDef, final NBLabeledElement parentLabels) {
-        if (activityDef.getParams().getOptionalString("async").isPresent())
-            throw new RuntimeException("This driver does not support async mode yet.");
-
         return (A) new StandardActivity(activityDef, parentLabels);
     }
 
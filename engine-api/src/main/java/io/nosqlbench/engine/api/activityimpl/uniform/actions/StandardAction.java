@@ -33,6 +33,8 @@ import org.apache.logging.log4j.Logger;
 import org.mvel2.MVEL;
 
 import java.io.Serializable;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -54,6 +56,8 @@ public class StandardAction<A extends StandardActivity<R, ?>, R extends Op> impl
     private final Histogram triesHistogram;
     private final Timer resultSuccessTimer;
     private final Timer resultTimer;
+    private final Timer resultResponseTimer;
+    private final Timer resultSuccessResponseTimer;
     private final Timer bindTimer;
     private final NBErrorHandler errorHandler;
     private final OpSequence<OpDispenser<? extends Op>> opsequence;
@@ -69,11 +73,23 @@ public class StandardAction<A extends StandardActivity<R, ?>, R extends Op> impl
         triesHistogram = activity.getInstrumentation().getOrCreateTriesHistogram();
         resultTimer = activity.getInstrumentation().getOrCreateResultTimer();
         resultSuccessTimer = activity.getInstrumentation().getOrCreateResultSuccessTimer();
+        resultResponseTimer = activity.getInstrumentation().getResultResponseTimerOrNull();
+        resultSuccessResponseTimer = activity.getInstrumentation().getResultSuccessResponseTimerOrNull();
         errorHandler = activity.getErrorHandler();
     }
 
     @Override
     public int runCycle(long cycle) {
+        return runCycle(cycle, 0L);
+    }
+
+    /**
+     * When the cycle was scheduled with an intended start time, the response timers
+     * measure each try from that time, in addition to the result timers which measure
+     * each try from when it was actually started.
+     */
+    @Override
+    public int runCycle(long cycle, long intendedStartNanos) {
 
         OpDispenser<? extends Op> dispenser;
         Op op = null;
@@ -103,9 +119,11 @@ public class StandardAction<A extends StandardActivity<R, ?>, R extends Op> impl
                         result = ((CycleOp) op).apply(cycle);
                     } else if (op instanceof ChainingOp) {
                         result = ((ChainingOp) op).apply(result);
+                    } else if (op instanceof AsyncCycleOp<?> asyncOp) {
+                        result = awaitResult(asyncOp.apply(cycle));
                     } else {
                         throw new RuntimeException("The op implementation did not implement any active logic. Implement " +
-                            "one of [RunnableOp, CycleOp, or ChainingOp]");
+                            "one of [RunnableOp, CycleOp, ChainingOp, or AsyncCycleOp]");
                     }
                     var expectedResultExpression = dispenser.getExpectedResultExpression();
                     if (shouldVerifyExpectedResultFor(op, expectedResultExpression)) {
@@ -117,11 +135,21 @@ public class StandardAction<A extends StandardActivity<R, ?>, R extends Op> impl
                 } catch (Exception e) {
                     error = e;
                 } finally {
-                    long nanos = System.nanoTime() - startedAt;
+                    long endedAt = System.nanoTime();
+                    long nanos = endedAt - startedAt;
                     resultTimer.update(nanos, TimeUnit.NANOSECONDS);
+                    if (resultResponseTimer != null) {
+                        resultResponseTimer.update(endedAt - intendedStartNanos, TimeUnit.NANOSECONDS);
+                    }
                     if (error == null) {
                         resultSuccessTimer.update(nanos, TimeUnit.NANOSECONDS);
-                        dispenser.onSuccess(cycle, nanos, op.getResultSize());
+                        if (resultSuccessResponseTimer != null) {
+                            long responseNanos = endedAt - intendedStartNanos;
+                            resultSuccessResponseTimer.update(responseNanos, TimeUnit.NANOSECONDS);
+                            dispenser.onSuccess(cycle, nanos, op.getResultSize(), responseNanos);
+                        } else {
+                            dispenser.onSuccess(cycle, nanos, op.getResultSize());
+                        }
                         break;
                     } else {
                         ErrorDetail detail = errorHandler.handleError(error, cycle, nanos);
@@ -150,6 +178,22 @@ public class StandardAction<A extends StandardActivity<R, ?>, R extends Op> impl
     public void onActivityDefUpdate(ActivityDef activityDef) {
     }
 
+    /**
+     * Block on an async op when this action is used in sync mode. The error which
+     * caused the op to fail is rethrown directly, so that error handlers see the same
+     * error types in sync and async mode.
+     */
+    private Object awaitResult(CompletionStage<?> stage) throws Exception {
+        try {
+            return stage.toCompletableFuture().get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     private boolean shouldVerifyExpectedResultFor(Op op, Serializable expectedResultExpression) {
         return !(op instanceof RunnableOp) && expectedResultExpression != null;
     }
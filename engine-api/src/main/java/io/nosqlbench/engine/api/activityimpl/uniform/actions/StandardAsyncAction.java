@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl.uniform.actions;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
+import io.nosqlbench.api.errors.ExpectedResultVerificationError;
+import io.nosqlbench.engine.api.activityapi.core.BaseAsyncAction;
+import io.nosqlbench.engine.api.activityapi.core.ops.fluent.opfacets.StartedOp;
+import io.nosqlbench.engine.api.activityapi.core.ops.fluent.opfacets.TrackedOp;
+import io.nosqlbench.engine.api.activityapi.errorhandling.modular.ErrorDetail;
+import io.nosqlbench.engine.api.activityapi.errorhandling.modular.NBErrorHandler;
+import io.nosqlbench.engine.api.activityapi.planning.OpSequence;
+import io.nosqlbench.engine.api.activityimpl.OpDispenser;
+import io.nosqlbench.engine.api.activityimpl.uniform.StandardActivity;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.mvel2.MVEL;
+
+import java.io.Serializable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+/**
+ * This is the async counterpart of {@link StandardAction}. It is selected instead of
+ * {@link StandardAction} when the <em>async</em> activity parameter is provided, and
+ * is driven by the async branch of the core motor, which limits the number of ops in
+ * flight per thread with an {@link io.nosqlbench.engine.api.activityapi.core.ops.fluent.OpTracker}.
+ *
+ * Ops which implement {@link AsyncCycleOp} are started and then left in flight. All
+ * of the per-op handling which {@link StandardAction} does inline is done when the
+ * returned stage completes instead, including retries, error handling, result verification,
+ * the result timers, and the {@link OpDispenser} success and error callbacks. Other
+ * op types are still supported, but they are run to completion on the calling thread.
+ *
+ * @param <A> The type of activity
+ * @param <R> The type of operation
+ */
+public class StandardAsyncAction<A extends StandardActivity<R, ?>, R extends Op>
+    extends BaseAsyncAction<StandardAsyncAction.CycleOpState, A> {
+    private final static Logger logger = LogManager.getLogger("ASYNCACTION");
+
+    private final Timer executeTimer;
+    private final Histogram triesHistogram;
+    private final Timer resultSuccessTimer;
+    private final Timer resultTimer;
+    private final Timer resultResponseTimer;
+    private final Timer resultSuccessResponseTimer;
+    private final Timer bindTimer;
+    private final NBErrorHandler errorHandler;
+    private final OpSequence<OpDispenser<? extends Op>> opsequence;
+    private final int maxTries;
+
+    public StandardAsyncAction(A activity, int slot) {
+        super(activity, slot);
+        this.opsequence = activity.getOpSequence();
+        this.maxTries = activity.getMaxTries();
+        bindTimer = activity.getInstrumentation().getOrCreateBindTimer();
+        executeTimer = activity.getInstrumentation().getOrCreateExecuteTimer();
+        triesHistogram = activity.getInstrumentation().getOrCreateTriesHistogram();
+        resultTimer = activity.getInstrumentation().getOrCreateResultTimer();
+        resultSuccessTimer = activity.getInstrumentation().getOrCreateResultSuccessTimer();
+        resultResponseTimer = activity.getInstrumentation().getResultResponseTimerOrNull();
+        resultSuccessResponseTimer = activity.getInstrumentation().getResultSuccessResponseTimerOrNull();
+        errorHandler = activity.getErrorHandler();
+    }
+
+    @Override
+    public LongFunction<CycleOpState> getOpInitFunction() {
+        return this::bind;
+    }
+
+    private CycleOpState bind(long cycle) {
+        try (Timer.Context ct = bindTimer.time()) {
+            OpDispenser<? extends Op> dispenser = opsequence.apply(cycle);
+            Op op = dispenser.apply(cycle);
+            return new CycleOpState(cycle, dispenser, op);
+        } catch (Exception e) {
+            throw new RuntimeException("while binding request in cycle " + cycle + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void startOpCycle(TrackedOp<CycleOpState> opc) {
+        StartedOp<CycleOpState> started = opc.start();
+        attempt(started, started.getOpData());
+    }
+
+    private void attempt(StartedOp<CycleOpState> started, CycleOpState state) {
+        state.tries++;
+        state.startedAt = System.nanoTime();
+        state.dispenser.onStart(state.cycle);
+
+        CompletionStage<?> stage;
+        try {
+            stage = invoke(state);
+        } catch (Exception e) {
+            stage = CompletableFuture.failedFuture(e);
+        }
+        stage.whenComplete((result, error) -> onAttemptComplete(started, state, result, error));
+    }
+
+    private CompletionStage<?> invoke(CycleOpState state) {
+        Op op = state.op;
+        if (op instanceof AsyncCycleOp<?> asyncOp) {
+            return asyncOp.apply(state.cycle);
+        } else if (op instanceof RunnableOp runnableOp) {
+            runnableOp.run();
+            return CompletableFuture.completedFuture(null);
+        } else if (op instanceof CycleOp<?> cycleOp) {
+            return CompletableFuture.completedFuture(cycleOp.apply(state.cycle));
+        } else if (op instanceof ChainingOp chainingOp) {
+            return CompletableFuture.completedFuture(chainingOp.apply(state.result));
+        } else {
+            throw new RuntimeException("The op implementation did not implement any active logic. Implement " +
+                "one of [RunnableOp, CycleOp, ChainingOp, or AsyncCycleOp]");
+        }
+    }
+
+    private void onAttemptComplete(StartedOp<CycleOpState> started, CycleOpState state, Object result, Throwable failure) {
+        long nanos = System.nanoTime() - state.startedAt;
+        Throwable error = unwrap(failure);
+
+        if (error == null) {
+            try {
+                verifyExpectedResult(state, result);
+            } catch (Exception e) {
+                error = e;
+            }
+        }
+
+        // The tracked op includes the wait time from the intended start, when there is one
+        long responseNanos = started.getCurrentResponseTimeNanos();
+
+        executeTimer.update(nanos, TimeUnit.NANOSECONDS);
+        resultTimer.update(nanos, TimeUnit.NANOSECONDS);
+        if (resultResponseTimer != null) {
+            resultResponseTimer.update(responseNanos, TimeUnit.NANOSECONDS);
+        }
+        if (error == null) {
+            resultSuccessTimer.update(nanos, TimeUnit.NANOSECONDS);
+            if (resultSuccessResponseTimer != null) {
+                resultSuccessResponseTimer.update(responseNanos, TimeUnit.NANOSECONDS);
+                state.dispenser.onSuccess(state.cycle, nanos, state.op.getResultSize(), responseNanos);
+            } else {
+                state.dispenser.onSuccess(state.cycle, nanos, state.op.getResultSize());
+            }
+            state.result = result;
+            state.code = 0;
+            nextOpOrComplete(started, state);
+        } else {
+            ErrorDetail detail = errorHandler.handleError(error, state.cycle, nanos);
+            state.dispenser.onError(state.cycle, nanos, error);
+            state.code = detail.resultCode;
+            // The tracked op is not reset for retries, so that the cycle service time covers all tries,
+            // just as it does for the sync action.
+            if (detail.isRetryable() && state.tries < maxTries) {
+                attempt(started, state);
+            } else {
+                nextOpOrComplete(started, state);
+            }
+        }
+    }
+
+    private void nextOpOrComplete(StartedOp<CycleOpState> started, CycleOpState state) {
+        triesHistogram.update(state.tries);
+
+        if (state.op instanceof OpGenerator generator) {
+            Op nextOp = generator.getNextOp();
+            if (nextOp != null) {
+                logger.trace(() -> "GEN OP for cycle(" + state.cycle + ")");
+                state.op = nextOp;
+                state.tries = 0;
+                attempt(started, state);
+                return;
+            }
+        }
+
+        if (state.code == 0) {
+            started.succeed(0);
+        } else {
+            started.fail(state.code);
+        }
+    }
+
+    private void verifyExpectedResult(CycleOpState state, Object result) {
+        Serializable expectedResultExpression = state.dispenser.getExpectedResultExpression();
+        if (!(state.op instanceof RunnableOp) && expectedResultExpression != null) {
+            boolean verified = MVEL.executeExpression(expectedResultExpression, result, boolean.class);
+            if (!verified) {
+                throw new ExpectedResultVerificationError(maxTries - state.tries, expectedResultExpression);
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        if (failure instanceof CompletionException && failure.getCause() != null) {
+            return failure.getCause();
+        }
+        return failure;
+    }
+
+    /**
+     * The per-cycle state which is carried through all tries and generated ops of a cycle.
+     */
+    public final static class CycleOpState {
+        private final long cycle;
+        private final OpDispenser<? extends Op> dispenser;
+        private Op op;
+        private Object result;
+        private int tries;
+        private int code;
+        private long startedAt;
+
+        CycleOpState(long cycle, OpDispenser<? extends Op> dispenser, Op op) {
+            this.cycle = cycle;
+            this.dispenser = dispenser;
+            this.op = op;
+        }
+
+        @Override
+        public String toString() {
+            return "CycleOpState{cycle=" + cycle + ", op=" + op + ", tries=" + tries + ", code=" + code + '}';
+        }
+    }
+}
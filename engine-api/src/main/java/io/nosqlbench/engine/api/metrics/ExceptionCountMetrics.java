@@ -38,6 +38,18 @@ public class ExceptionCountMetrics {
     }
 
     public void count(final String name) {
+        this.count(this.getCounter(name));
+    }
+
+    /**
+     * Count an error with a counter which was previously returned by {@link #getCounter(String)}
+     */
+    public void count(final Counter counter) {
+        counter.inc();
+        this.allerrors.inc();
+    }
+
+    public Counter getCounter(final String name) {
         Counter c = this.counters.get(name);
         if (null == c) synchronized (this.counters) {
             c = this.counters.computeIfAbsent(
@@ -45,8 +57,7 @@ public class ExceptionCountMetrics {
                 k -> ActivityMetrics.counter(this.parentLabels, "errorcounts." + name)
             );
         }
-        c.inc();
-        this.allerrors.inc();
+        return c;
     }
 
     public List<Counter> getCounters() {
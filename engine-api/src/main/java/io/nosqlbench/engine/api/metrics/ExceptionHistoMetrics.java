@@ -43,6 +43,18 @@ public class ExceptionHistoMetrics {
     }
 
     public void update(final String name, final long magnitude) {
+        this.update(this.getHistogram(name), magnitude);
+    }
+
+    /**
+     * Update a histogram which was previously returned by {@link #getHistogram(String)}
+     */
+    public void update(final Histogram histogram, final long magnitude) {
+        histogram.update(magnitude);
+        this.allerrors.update(magnitude);
+    }
+
+    public Histogram getHistogram(final String name) {
         Histogram h = this.histos.get(name);
         if (null == h) synchronized (this.histos) {
             h = this.histos.computeIfAbsent(
@@ -50,8 +62,7 @@ public class ExceptionHistoMetrics {
                 k -> ActivityMetrics.histogram(this.parentLabels, "errorhistos." + name, this.activityDef.getParams().getOptionalInteger("hdr_digits").orElse(4))
             );
         }
-        h.update(magnitude);
-        this.allerrors.update(magnitude);
+        return h;
     }
 
 
@@ -38,6 +38,18 @@ public class ExceptionMeterMetrics {
     }
 
     public void mark(final String name) {
+        this.mark(this.getMeter(name));
+    }
+
+    /**
+     * Mark an error with a meter which was previously returned by {@link #getMeter(String)}
+     */
+    public void mark(final Meter meter) {
+        meter.mark();
+        this.allerrors.mark();
+    }
+
+    public Meter getMeter(final String name) {
         Meter c = this.meters.get(name);
         if (null == c) synchronized (this.meters) {
             c = this.meters.computeIfAbsent(
@@ -45,8 +57,7 @@ public class ExceptionMeterMetrics {
                 k -> ActivityMetrics.meter(this.parentLabels, "errormeters." + name)
             );
         }
-        c.mark();
-        this.allerrors.mark();
+        return c;
     }
 
     public List<Meter> getMeters() {
@@ -47,6 +47,18 @@ public class ExceptionTimerMetrics {
     }
 
     public void update(final String name, final long nanosDuration) {
+        this.update(this.getTimer(name), nanosDuration);
+    }
+
+    /**
+     * Update a timer which was previously returned by {@link #getTimer(String)}
+     */
+    public void update(final Timer timer, final long nanosDuration) {
+        timer.update(nanosDuration, TimeUnit.NANOSECONDS);
+        this.allerrors.update(nanosDuration, TimeUnit.NANOSECONDS);
+    }
+
+    public Timer getTimer(final String name) {
         Timer timer = this.timers.get(name);
         if (null == timer) synchronized (this.timers) {
             timer = this.timers.computeIfAbsent(
@@ -54,8 +66,7 @@ public class ExceptionTimerMetrics {
                 k -> ActivityMetrics.timer(this.parentLabels, "errortimers." + name, this.activityDef.getParams().getOptionalInteger("hdr_digits").orElse(4))
             );
         }
-        timer.update(nanosDuration, TimeUnit.NANOSECONDS);
-        this.allerrors.update(nanosDuration, TimeUnit.NANOSECONDS);
+        return timer;
     }
 
     public List<Timer> getTimers() {
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.nosqlbench.engine.api.activityapi.cyclelog.outputs.cyclelog;
+
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleSegment;
+import io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog.CycleLogBlock;
+import io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog.CycleLogInput;
+import io.nosqlbench.engine.api.activityapi.cyclelog.inputs.cyclelog.CycleLogV2File;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CycleLogV2OutputTest {
+
+    private static File tempFile() throws Exception {
+        File file = File.createTempFile("cycle-log-v2-test", ".cyclelog");
+        file.deleteOnExit();
+        return file;
+    }
+
+    private static List<Long> readAll(CycleLogInput input) {
+        List<Long> cycles = new ArrayList<>();
+        CycleSegment segment;
+        while ((segment = input.getInputSegment(7)) != null) {
+            while (!segment.isExhausted()) {
+                cycles.add(segment.nextCycle());
+            }
+        }
+        return cycles;
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        File file = tempFile();
+        CycleLogV2Output out = new CycleLogV2Output(file, 10);
+        for (long cycle = 0; cycle < 1000; cycle++) {
+            out.onCycleResult(cycle, (int) (cycle % 3 == 0 ? 1 : 0));
+        }
+        out.close();
+
+        assertThat(CycleLogV2File.isV2(file)).isTrue();
+        CycleLogInput input = new CycleLogInput(file.getPath());
+        assertThat(input.isIndexed()).isTrue();
+        assertThat(readAll(input)).containsExactlyElementsOf(LongStream.range(0, 1000).boxed().toList());
+        input.close();
+    }
+
+    @Test
+    public void testConcurrentWriters() throws Exception {
+        File file = tempFile();
+        CycleLogV2Output out = new CycleLogV2Output(file, 5);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                for (long cycle = 0; cycle < 4000; cycle++) {
+                    if ((cycle / 100) % 4 == thread) {
+                        out.onCycleResult(cycle, (int) (cycle % 7));
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        out.close();
+
+        CycleLogInput input = new CycleLogInput(file.getPath());
+        List<Long> cycles = readAll(input);
+        input.close();
+        assertThat(cycles).containsExactlyInAnyOrderElementsOf(LongStream.range(0, 4000).boxed().toList());
+    }
+
+    @Test
+    public void testSeekByCycleRange() throws Exception {
+        File file = tempFile();
+        CycleLogV2Output out = new CycleLogV2Output(file, 4);
+        for (long cycle = 0; cycle < 1000; cycle++) {
+            out.onCycleResult(cycle, (int) (cycle % 2));
+        }
+        out.close();
+
+        try (CycleLogV2File v2File = new CycleLogV2File(file)) {
+            List<CycleLogBlock> selected = v2File.getBlocks(250, 260, null);
+            assertThat(selected).isNotEmpty();
+            assertThat(selected.size()).isLessThan(v2File.getBlocks().size());
+        }
+
+        CycleLogInput input = new CycleLogInput(file.getPath(), 250, 260);
+        assertThat(readAll(input)).containsExactlyElementsOf(LongStream.range(250, 260).boxed().toList());
+        input.close();
+    }
+
+    @Test
+    public void testSeekByResult() throws Exception {
+        File file = tempFile();
+        CycleLogV2Output out = new CycleLogV2Output(file, 4);
+        for (long cycle = 0; cycle < 1000; cycle++) {
+            out.onCycleResult(cycle, (int) (cycle % 10));
+        }
+        for (long cycle = 1000; cycle < 1010; cycle++) {
+            out.onCycleResult(cycle, 100);
+        }
+        out.close();
+
+        try (CycleLogV2File v2File = new CycleLogV2File(file)) {
+            List<CycleLogBlock> selected = v2File.getBlocks(0, Long.MAX_VALUE, r -> r.getResult() == 100);
+            assertThat(selected).hasSize(1);
+            assertThat(selected.get(0).getMinCycle()).isGreaterThanOrEqualTo(992L);
+        }
+
+        CycleLogInput input = new CycleLogInput(file.getPath());
+        input.setFilter(r -> r.getResult() == 100);
+        assertThat(readAll(input)).containsExactlyElementsOf(LongStream.range(1000, 1010).boxed().toList());
+        input.close();
+    }
+
+    @Test
+    public void testSplitAndUnindexed() throws Exception {
+        File file = tempFile();
+        CycleLogV2Output out = new CycleLogV2Output(file, 3);
+        for (long cycle = 0; cycle < 300; cycle++) {
+            out.onCycleResult(cycle, (int) (cycle % 2));
+        }
+        out.close();
+
+        List<CycleLogBlock> indexed;
+        try (CycleLogV2File v2File = new CycleLogV2File(file)) {
+            indexed = v2File.getBlocks();
+            List<List<CycleLogBlock>> parts = CycleLogV2File.split(indexed, 4);
+            assertThat(parts).hasSize(4);
+            assertThat(parts.stream().mapToInt(List::size).sum()).isEqualTo(indexed.size());
+        }
+
+        // Without the index, as when a writer is not closed, the blocks are found by scanning
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(indexed.get(indexed.size() - 1).getEndOffset());
+        }
+        try (CycleLogV2File v2File = new CycleLogV2File(file)) {
+            assertThat(v2File.getBlocks()).hasSameSizeAs(indexed);
+        }
+        CycleLogInput input = new CycleLogInput(file.getPath());
+        assertThat(readAll(input)).containsExactlyElementsOf(LongStream.range(0, 300).boxed().toList());
+        input.close();
+    }
+
+}
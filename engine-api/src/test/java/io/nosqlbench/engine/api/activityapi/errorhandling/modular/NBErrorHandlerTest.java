@@ -150,6 +150,19 @@ class NBErrorHandlerTest {
         assertThat(histograms).hasSize(1);
     }
 
+    @Test
+    void testDispatchByErrorClass() {
+        final ErrorMetrics errorMetrics = new ErrorMetrics(NBLabeledElement.forKV("activity","testalias_dispatch"));
+        final NBErrorHandler eh = new NBErrorHandler(() -> "IllegalStateException:counter,retry;counter", () -> errorMetrics);
+        for (int i = 0; i < 3; i++) {
+            assertThat(eh.handleError(new IllegalStateException("retried"), i, 2).isRetryable()).isTrue();
+            assertThat(eh.handleError(this.runtimeException, i, 2).isRetryable()).isFalse();
+        }
+        final List<Counter> counters = errorMetrics.getExceptionCountMetrics().getCounters();
+        assertThat(counters).hasSize(2);
+        assertThat(counters).allSatisfy(counter -> assertThat(counter.getCount()).isEqualTo(3L));
+    }
+
     @Test
     void testCodeShorthand() {
         final ErrorMetrics errorMetrics = new ErrorMetrics(NBLabeledElement.forKV("activity","testalias_meters"));
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.ratelimits;
+
+import io.nosqlbench.api.config.NBLabeledElement;
+import io.nosqlbench.api.engine.activityimpl.ActivityDef;
+import io.nosqlbench.api.engine.activityimpl.ParameterMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LockFreeRateLimiterTest {
+
+    private final static AtomicLong clock = new AtomicLong(0L);
+
+    ActivityDef adef = new ActivityDef(ParameterMap.parseOrException("alias=testing"));
+    NBLabeledElement def = NBLabeledElement.forMap(this.adef.getParams().getStringStringMap());
+
+    /**
+     * The clock only moves when it is advanced by the test or by parking.
+     */
+    private static class TestableLockFreeRateLimiter extends LockFreeRateLimiter {
+        public TestableLockFreeRateLimiter(NBLabeledElement def, RateSpec rateSpec) {
+            super(def, "test", rateSpec);
+        }
+
+        @Override
+        protected long getNanoClockTime() {
+            return clock.get();
+        }
+
+        @Override
+        protected void park(long nanos) {
+            clock.addAndGet(nanos);
+        }
+    }
+
+    @Test
+    public void testOnScheduleReleasesAtRate() {
+        clock.set(0L);
+        LockFreeRateLimiter rl = new TestableLockFreeRateLimiter(def, new RateSpec(1000, 1.1));
+        for (int i = 0; i < 10; i++) {
+            assertThat(rl.maybeWaitForOp()).isEqualTo(0L);
+            assertThat(clock.get()).isEqualTo(i * 1_000_000L);
+        }
+        assertThat(rl.getWaitTime()).isEqualTo(0L);
+    }
+
+    @Test
+    public void testBurstRecoversLostTime() {
+        clock.set(0L);
+        LockFreeRateLimiter rl = new TestableLockFreeRateLimiter(def, new RateSpec(1000, 1.1));
+        clock.set(10_000_000L);
+        assertThat(rl.getWaitTime()).isEqualTo(10_000_000L);
+
+        assertThat(rl.maybeWaitForOp()).isEqualTo(10_000_000L);
+        long releasedAt = clock.get();
+        assertThat(rl.maybeWaitForOp()).isLessThan(10_000_000L);
+        assertThat(clock.get() - releasedAt).isEqualTo(909_090L);
+
+        for (int i = 0; i < 200; i++) {
+            rl.maybeWaitForOp();
+        }
+        assertThat(rl.maybeWaitForOp()).isEqualTo(0L);
+        releasedAt = clock.get();
+        rl.maybeWaitForOp();
+        assertThat(clock.get() - releasedAt).isEqualTo(1_000_000L);
+    }
+
+    @Test
+    public void testStrictRateDoesNotRecoverLostTime() {
+        clock.set(0L);
+        LockFreeRateLimiter rl = new TestableLockFreeRateLimiter(def, new RateSpec(1000, 1.0));
+        clock.set(10_000_000L);
+        for (int i = 0; i < 200; i++) {
+            assertThat(rl.maybeWaitForOp()).isEqualTo(10_000_000L);
+        }
+    }
+
+    @Test
+    public void testIntendedStartIsScheduleSlot() {
+        clock.set(0L);
+        LockFreeRateLimiter rl = new TestableLockFreeRateLimiter(def, new RateSpec(1000, 1.1));
+        clock.set(10_000_000L);
+        assertThat(rl.waitForIntendedStart()).isEqualTo(0L);
+        assertThat(rl.waitForIntendedStart()).isEqualTo(1_000_000L);
+        assertThat(clock.get()).isEqualTo(10_909_090L);
+    }
+
+    @Test
+    public void testRestartReturnsAccumulatedWait() {
+        clock.set(0L);
+        LockFreeRateLimiter rl = new TestableLockFreeRateLimiter(def, new RateSpec(1000, 1.1));
+        clock.set(5_000_000L);
+        assertThat(rl.restart()).isEqualTo(5_000_000L);
+        assertThat(rl.getWaitTime()).isEqualTo(0L);
+        assertThat(rl.maybeWaitForOp()).isEqualTo(0L);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.ratelimits;
+
+import io.nosqlbench.api.config.NBLabeledElement;
+import io.nosqlbench.api.engine.activityimpl.ActivityDef;
+import io.nosqlbench.api.engine.activityimpl.ParameterMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the acquire path of the rate limiters and token pools under thread contention.
+ * The rate is set well above what any of them can achieve, so that the cost of acquiring
+ * an op, rather than the schedule, is what is measured.
+ *
+ * Run {@link #main(String[])} to measure each implementation with 1 to 128 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 3, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class RateLimiterContentionBenchmark {
+
+    private final static RateSpec spec = new RateSpec(1.0E9, 1.1);
+
+    @Param({"hybrid", "inline", "lockfree"})
+    public String impl;
+
+    private RateLimiter rateLimiter;
+    private InlineTokenPool inlinePool;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        NBLabeledElement labels = NBLabeledElement.forKV("benchmark", impl);
+        switch (impl) {
+            case "hybrid" -> rateLimiter = RateLimiters.createOrUpdate(labels, "bench", null, spec, "hybrid");
+            case "lockfree" -> rateLimiter = RateLimiters.createOrUpdate(labels, "bench", null, spec, "lockfree");
+            case "inline" -> inlinePool = new InlineTokenPool(spec, new ActivityDef(ParameterMap.parseOrException("alias=bench")), labels);
+            default -> throw new RuntimeException("unknown impl " + impl);
+        }
+    }
+
+    @Benchmark
+    public long acquire() {
+        if (inlinePool != null) {
+            return inlinePool.blockAndTake();
+        }
+        return rateLimiter.maybeWaitForOp();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 2, 4, 8, 16, 32, 64, 128}) {
+            Options options = new OptionsBuilder()
+                .include(RateLimiterContentionBenchmark.class.getSimpleName())
+                .threads(threads)
+                .resultFormat(ResultFormatType.JSON)
+                .result("ratelimiter-contention-" + threads + "t.json")
+                .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl;
+
+import io.nosqlbench.api.config.NBLabeledElement;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class SimpleActivityInitTest {
+
+    private final List<Integer> items = IntStream.range(0, 100).boxed().toList();
+
+    @Test
+    public void testResultsAreInOrder() {
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        List<String> results = new TestActivity("initthreads=4").initInOrder("test items", items, i -> {
+            threadNames.add(Thread.currentThread().getName());
+            if (i % 7 == 0) {
+                sleep(2);
+            }
+            return "item" + i;
+        });
+        assertThat(results).containsExactlyElementsOf(items.stream().map(i -> "item" + i).toList());
+        assertThat(threadNames).allMatch(n -> n.startsWith("inittest-init:"));
+    }
+
+    @Test
+    public void testFirstErrorInOrderIsReported() {
+        assertThatExceptionOfType(IllegalStateException.class)
+            .isThrownBy(() -> new TestActivity("initthreads=4").initInOrder("test items", items, i -> {
+                if (i == 10) {
+                    sleep(50);
+                    throw new IllegalStateException("item " + i);
+                }
+                if (i == 90) {
+                    throw new IllegalStateException("item " + i);
+                }
+                return i;
+            }))
+            .withMessage("item 10");
+    }
+
+    @Test
+    public void testSingleThreadRunsOnCaller() {
+        String caller = Thread.currentThread().getName();
+        List<String> results = new TestActivity("initthreads=1")
+            .initInOrder("test items", items, i -> Thread.currentThread().getName());
+        assertThat(results).hasSize(items.size()).containsOnly(caller);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static class TestActivity extends SimpleActivity {
+        TestActivity(String params) {
+            super("alias=inittest;" + params, NBLabeledElement.EMPTY);
+        }
+    }
+}
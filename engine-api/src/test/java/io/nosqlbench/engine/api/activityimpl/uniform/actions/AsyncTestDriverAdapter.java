@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.engine.api.activityimpl.uniform.actions;
+
+import io.nosqlbench.api.config.params.NBParams;
+import io.nosqlbench.api.errors.OpConfigError;
+import io.nosqlbench.engine.api.activityimpl.BaseOpDispenser;
+import io.nosqlbench.engine.api.activityimpl.OpMapper;
+import io.nosqlbench.engine.api.activityimpl.uniform.BaseDriverAdapter;
+import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.AsyncCycleOp;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.Op;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.OpGenerator;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+import io.nosqlbench.nb.annotations.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A driver adapter for testing {@link StandardAsyncAction}. Its ops complete on another thread,
+ * after failing a given number of tries first. The op template fields are:
+ * <ul>
+ *     <li>failures - the number of tries which fail before an op succeeds</li>
+ *     <li>fail_with - the simple name of the exception to fail with, IllegalStateException by default</li>
+ *     <li>generate - the number of ops which are generated after the first one, with {@link OpGenerator}</li>
+ * </ul>
+ */
+@Service(value = DriverAdapter.class, selector = "async_test")
+public class AsyncTestDriverAdapter extends BaseDriverAdapter<AsyncTestDriverAdapter.AsyncTestOp, Object> {
+
+    @Override
+    public OpMapper<AsyncTestOp> getOpMapper() {
+        return pop -> new AsyncTestOpDispenser(this, pop);
+    }
+
+    @Override
+    public List<Function<String, Optional<Map<String, Object>>>> getOpStmtRemappers() {
+        return List.of(stmt -> Optional.of(NBParams.one(stmt).getMap()));
+    }
+
+    public static class AsyncTestOpDispenser extends BaseOpDispenser<AsyncTestOp, Object> {
+        private final int failures;
+        private final int generate;
+        private final Supplier<RuntimeException> errorSupplier;
+        private final AtomicInteger tries = new AtomicInteger();
+        private final AtomicInteger successes = new AtomicInteger();
+        private final AtomicInteger errors = new AtomicInteger();
+
+        public AsyncTestOpDispenser(DriverAdapter<AsyncTestOp, Object> adapter, ParsedOp pop) {
+            super(adapter, pop);
+            this.failures = pop.takeStaticConfigOr("failures", 0);
+            this.generate = pop.takeStaticConfigOr("generate", 0);
+            String failWith = pop.takeStaticConfigOr("fail_with", "IllegalStateException");
+            this.errorSupplier = switch (failWith) {
+                case "IllegalStateException" -> () -> new IllegalStateException("failed try");
+                case "IllegalArgumentException" -> () -> new IllegalArgumentException("failed try");
+                default -> throw new OpConfigError("Unknown fail_with exception '" + failWith + "'");
+            };
+        }
+
+        @Override
+        public AsyncTestOp apply(long cycle) {
+            return new AsyncTestOp(this, failures, generate);
+        }
+
+        @Override
+        public void onSuccess(long cycleValue, long nanoTime, long resultSize) {
+            successes.incrementAndGet();
+            super.onSuccess(cycleValue, nanoTime, resultSize);
+        }
+
+        @Override
+        public void onError(long cycleValue, long resultNanos, Throwable t) {
+            errors.incrementAndGet();
+            super.onError(cycleValue, resultNanos, t);
+        }
+
+        /**
+         * @return the number of tries of all ops from this dispenser, including generated ops
+         */
+        public int getTries() {
+            return tries.get();
+        }
+
+        public int getSuccesses() {
+            return successes.get();
+        }
+
+        public int getErrors() {
+            return errors.get();
+        }
+    }
+
+    public static class AsyncTestOp implements AsyncCycleOp<Long>, OpGenerator {
+        private final AsyncTestOpDispenser dispenser;
+        private final int failures;
+        private final int generate;
+        private final AtomicInteger tries = new AtomicInteger();
+
+        public AsyncTestOp(AsyncTestOpDispenser dispenser, int failures, int generate) {
+            this.dispenser = dispenser;
+            this.failures = failures;
+            this.generate = generate;
+        }
+
+        @Override
+        public CompletionStage<Long> apply(long cycle) {
+            dispenser.tries.incrementAndGet();
+            int tryIndex = tries.getAndIncrement();
+            return CompletableFuture.supplyAsync(() -> {
+                if (tryIndex < failures) {
+                    throw dispenser.errorSupplier.get();
+                }
+                return cycle;
+            });
+        }
+
+        @Override
+        public Op getNextOp() {
+            return generate > 0 ? new AsyncTestOp(dispenser, failures, generate - 1) : null;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.engine.api.activityimpl.uniform.actions;
+
+import io.nosqlbench.api.config.NBLabeledElement;
+import io.nosqlbench.api.engine.activityimpl.ActivityDef;
+import io.nosqlbench.api.engine.activityimpl.ParameterMap;
+import io.nosqlbench.engine.api.activityapi.core.ops.fluent.OpTrackerImpl;
+import io.nosqlbench.engine.api.activityapi.core.ops.fluent.opfacets.*;
+import io.nosqlbench.engine.api.activityimpl.uniform.StandardActivity;
+import io.nosqlbench.engine.api.activityimpl.uniform.actions.AsyncTestDriverAdapter.AsyncTestOp;
+import io.nosqlbench.engine.api.activityimpl.uniform.actions.AsyncTestDriverAdapter.AsyncTestOpDispenser;
+import io.nosqlbench.engine.api.activityimpl.uniform.actions.StandardAsyncAction.CycleOpState;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StandardAsyncActionTest {
+
+    @Test
+    public void testSuccessUpdatesResultTimers() throws Exception {
+        StandardActivity<AsyncTestOp, Object> activity = activity("async-success", "failures=0", Map.of());
+
+        CompletedOp<CycleOpState> completed = runCycle(activity, 3L);
+
+        assertThat(completed).isInstanceOf(SucceededOp.class);
+        assertThat(completed.getResult()).isEqualTo(0);
+        assertThat(dispenser(activity).getTries()).isEqualTo(1);
+        assertThat(dispenser(activity).getSuccesses()).isEqualTo(1);
+        assertThat(dispenser(activity).getErrors()).isEqualTo(0);
+        assertThat(activity.getInstrumentation().getOrCreateResultTimer().getCount()).isEqualTo(1);
+        assertThat(activity.getInstrumentation().getOrCreateResultSuccessTimer().getCount()).isEqualTo(1);
+        assertThat(activity.getInstrumentation().getOrCreateExecuteTimer().getCount()).isEqualTo(1);
+        assertThat(activity.getInstrumentation().getOrCreateTriesHistogram().getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRetriesUntilSuccess() throws Exception {
+        StandardActivity<AsyncTestOp, Object> activity = activity("async-retry-success", "failures=2",
+            Map.of("errors", "retry", "maxtries", "5"));
+
+        CompletedOp<CycleOpState> completed = runCycle(activity, 3L);
+
+        assertThat(completed).isInstanceOf(SucceededOp.class);
+        assertThat(dispenser(activity).getTries()).isEqualTo(3);
+        assertThat(dispenser(activity).getErrors()).isEqualTo(2);
+        assertThat(dispenser(activity).getSuccesses()).isEqualTo(1);
+        assertThat(activity.getInstrumentation().getOrCreateResultTimer().getCount()).isEqualTo(3);
+        assertThat(activity.getInstrumentation().getOrCreateResultSuccessTimer().getCount()).isEqualTo(1);
+        assertThat(activity.getInstrumentation().getOrCreateTriesHistogram().getSnapshot().getMax()).isEqualTo(3);
+    }
+
+    @Test
+    public void testRetriesUpToMaxTries() throws Exception {
+        StandardActivity<AsyncTestOp, Object> activity = activity("async-retry-maxtries", "failures=10",
+            Map.of("errors", "retry,33", "maxtries", "3"));
+
+        CompletedOp<CycleOpState> completed = runCycle(activity, 3L);
+
+        assertThat(completed).isInstanceOf(FailedOp.class);
+        assertThat(completed.getResult()).isEqualTo(33);
+        assertThat(dispenser(activity).getTries()).isEqualTo(3);
+        assertThat(dispenser(activity).getErrors()).isEqualTo(3);
+        assertThat(dispenser(activity).getSuccesses()).isEqualTo(0);
+        assertThat(activity.getInstrumentation().getOrCreateResultTimer().getCount()).isEqualTo(3);
+        assertThat(activity.getInstrumentation().getOrCreateResultSuccessTimer().getCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testErrorsAreRoutedByErrorHandler() throws Exception {
+        Map<String, String> params = Map.of(
+            "errors", "IllegalStateException:retry,33;IllegalArgumentException:44",
+            "maxtries", "5"
+        );
+
+        StandardActivity<AsyncTestOp, Object> retried = activity("async-route-retried",
+            "failures=1 fail_with=IllegalStateException", params);
+        CompletedOp<CycleOpState> retriedOp = runCycle(retried, 3L);
+        assertThat(retriedOp).isInstanceOf(SucceededOp.class);
+        assertThat(dispenser(retried).getTries()).isEqualTo(2);
+
+        StandardActivity<AsyncTestOp, Object> notRetried = activity("async-route-not-retried",
+            "failures=1 fail_with=IllegalArgumentException", params);
+        CompletedOp<CycleOpState> notRetriedOp = runCycle(notRetried, 3L);
+        assertThat(notRetriedOp).isInstanceOf(FailedOp.class);
+        assertThat(notRetriedOp.getResult()).isEqualTo(44);
+        assertThat(dispenser(notRetried).getTries()).isEqualTo(1);
+    }
+
+    @Test
+    public void testOpGeneratorChaining() throws Exception {
+        StandardActivity<AsyncTestOp, Object> activity = activity("async-generator", "generate=2", Map.of());
+
+        CompletedOp<CycleOpState> completed = runCycle(activity, 3L);
+
+        assertThat(completed).isInstanceOf(SucceededOp.class);
+        assertThat(dispenser(activity).getTries()).isEqualTo(3);
+        assertThat(dispenser(activity).getSuccesses()).isEqualTo(3);
+        assertThat(activity.getInstrumentation().getOrCreateResultSuccessTimer().getCount()).isEqualTo(3);
+        assertThat(activity.getInstrumentation().getOrCreateTriesHistogram().getCount()).isEqualTo(3);
+    }
+
+    private static StandardActivity<AsyncTestOp, Object> activity(String alias, String op, Map<String, String> params) {
+        Map<String, String> activityParams = new LinkedHashMap<>(params);
+        activityParams.put("driver", "async_test");
+        activityParams.put("alias", alias);
+        activityParams.put("async", "1");
+        activityParams.put("op", op);
+        ActivityDef activityDef = new ActivityDef(new ParameterMap(activityParams));
+        return new StandardActivity<>(activityDef, NBLabeledElement.EMPTY);
+    }
+
+    private static AsyncTestOpDispenser dispenser(StandardActivity<AsyncTestOp, Object> activity) {
+        return (AsyncTestOpDispenser) activity.getOpSequence().getOps().get(0);
+    }
+
+    private static CompletedOp<CycleOpState> runCycle(StandardActivity<AsyncTestOp, Object> activity, long cycle) throws Exception {
+        StandardAsyncAction<StandardActivity<AsyncTestOp, Object>, AsyncTestOp> action = new StandardAsyncAction<>(activity, 0);
+        OpTrackerImpl<CycleOpState> tracker = new OpTrackerImpl<>(activity, 0);
+        tracker.setCycleOpFunction(action.getOpInitFunction());
+
+        CompletableFuture<CompletedOp<CycleOpState>> completion = new CompletableFuture<>();
+        TrackedOp<CycleOpState> trackedOp = tracker.newOp(cycle, new OpEvents<>() {
+            @Override
+            public void onOpStarted(StartedOp<CycleOpState> op) {
+            }
+
+            @Override
+            public void onOpSuccess(SucceededOp<CycleOpState> op) {
+                completion.complete(op);
+            }
+
+            @Override
+            public void onOpSkipped(SkippedOp<CycleOpState> op) {
+                completion.completeExceptionally(new AssertionError("op was skipped"));
+            }
+
+            @Override
+            public void onOpFailure(FailedOp<CycleOpState> op) {
+                completion.complete(op);
+            }
+        });
+        action.enqueue(trackedOp);
+        return completion.get(10, TimeUnit.SECONDS);
+    }
+}
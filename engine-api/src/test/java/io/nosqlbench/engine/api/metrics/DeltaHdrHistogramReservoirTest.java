@@ -17,10 +17,71 @@
 package io.nosqlbench.engine.api.metrics;
 
 import com.codahale.metrics.Snapshot;
+import io.nosqlbench.api.config.NBLabels;
 import io.nosqlbench.api.engine.metrics.DeltaHdrHistogramReservoir;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 public class DeltaHdrHistogramReservoirTest {
 
+    @Test
+    public void testEachConsumerSeesAllData() {
+        DeltaHdrHistogramReservoir dhhr = new DeltaHdrHistogramReservoir(NBLabels.forKV("name", "consumers"), 3);
+        DeltaHdrHistogramReservoir.IntervalConsumer c1 = dhhr.newIntervalConsumer();
+        DeltaHdrHistogramReservoir.IntervalConsumer c2 = dhhr.newIntervalConsumer();
+
+        for (long i = 1; i <= 100; i++) {
+            dhhr.update(i);
+        }
+        Snapshot snapshot = dhhr.getSnapshot();
+        Histogram h1 = c1.getNextHdrDeltaHistogram();
+        for (long i = 101; i <= 200; i++) {
+            dhhr.update(i);
+        }
+        Histogram h2 = c2.getNextHdrDeltaHistogram();
+        Histogram h1next = c1.getNextHdrDeltaHistogram();
+
+        assertThat(snapshot.size()).isEqualTo(100);
+        assertThat(h1.getTotalCount()).isEqualTo(100);
+        assertThat(h2.getTotalCount()).isEqualTo(200);
+        assertThat(h1next.getTotalCount()).isEqualTo(100);
+        assertThat(h1next.getMinValue()).isEqualTo(101);
+        assertThat(dhhr.getSnapshot().size()).isEqualTo(100);
+    }
+
+    @Test
+    public void testRollupIsLossless() {
+        DeltaHdrHistogramReservoir dhhr = new DeltaHdrHistogramReservoir(NBLabels.forKV("name", "rollup"), 3);
+        DeltaHdrHistogramReservoir.IntervalConsumer fine = dhhr.newIntervalConsumer();
+        DeltaHdrHistogramReservoir.IntervalConsumer coarse = dhhr.newIntervalConsumer();
+
+        Histogram summed = new Histogram(3);
+        for (int interval = 0; interval < 10; interval++) {
+            for (long i = 1; i <= 1000; i++) {
+                dhhr.update(i * (interval + 1));
+            }
+            summed.add(fine.getNextHdrDeltaHistogram());
+        }
+        Histogram rolledUp = coarse.getNextHdrDeltaHistogram();
+
+        assertThat(rolledUp.getTotalCount()).isEqualTo(10000);
+        assertThat(rolledUp.getMaxValue()).isEqualTo(summed.getMaxValue());
+        assertThat(rolledUp.getMean()).isEqualTo(summed.getMean());
+        assertThat(rolledUp.getValueAtPercentile(99.0)).isEqualTo(summed.getValueAtPercentile(99.0));
+    }
+
+    @Test
+    public void testClosedConsumerIsNotUpdated() {
+        DeltaHdrHistogramReservoir dhhr = new DeltaHdrHistogramReservoir(NBLabels.forKV("name", "closed"), 3);
+        DeltaHdrHistogramReservoir.IntervalConsumer consumer = dhhr.newIntervalConsumer();
+        consumer.close();
+        dhhr.update(42L);
+        assertThat(dhhr.getSnapshot().size()).isEqualTo(1);
+        assertThat(consumer.getNextHdrDeltaHistogram().getTotalCount()).isEqualTo(0);
+    }
+
 //    @Test
 //    public void testStartAndEndTimes() throws IOException {
 ////        File tempFile = new File("/tmp/test.hdr");
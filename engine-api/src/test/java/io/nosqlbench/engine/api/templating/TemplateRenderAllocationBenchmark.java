@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.templating;
+
+import io.nosqlbench.api.config.NBLabeledElement;
+import io.nosqlbench.api.config.standard.ConfigModel;
+import io.nosqlbench.engine.api.activityconfig.yaml.OpData;
+import io.nosqlbench.engine.api.templating.binders.FieldSlotBinder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+/**
+ * Measures the per-cycle rendering cost of op templates shaped like those of the stdout
+ * and http adapters. The interesting number is the normalized allocation rate, which is
+ * reported as <em>gc.alloc.rate.norm</em> in bytes per op when run with the GC profiler,
+ * as {@link #main(String[])} does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 3, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class TemplateRenderAllocationBenchmark {
+
+    private final static Map<String, String> bindings = Map.of(
+        "id", "Identity()",
+        "name", "NumberNameToString()",
+        "value", "HashRange(0,1000000)"
+    );
+
+    private LongFunction<?> stdoutStmt;
+    private ParsedOp httpOp;
+    private FieldSlotBinder httpSlots;
+    private long cycle;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ParsedOp stdoutOp = parse(Map.of(
+            "stmt", "insert into baselines.keyvalue (key, value) values ({id},'{name}:{value}');\n"
+        ));
+        stdoutStmt = stdoutOp.getAsRequiredFunction("stmt", String.class);
+
+        httpOp = parse(Map.of(
+            "method", "POST",
+            "uri", "http://localhost:8080/kv/{id}?name={name}",
+            "version", "HTTP/1.1",
+            "Content-Type", "application/x-www-form-urlencoded",
+            "body", "key={id}&name={name}&value={value}"
+        ));
+        httpSlots = httpOp.newFieldSlotBinder();
+    }
+
+    private static ParsedOp parse(Map<String, Object> op) {
+        return new ParsedOp(
+            new OpData().applyFields(Map.of("op", op, "bindings", bindings)),
+            ConfigModel.of(TemplateRenderAllocationBenchmark.class).asReadOnly().apply(Map.of()),
+            List.of(),
+            NBLabeledElement.forMap(Map.of())
+        );
+    }
+
+    @Benchmark
+    public Object stdoutStmt() {
+        return stdoutStmt.apply(cycle++);
+    }
+
+    @Benchmark
+    public Map<String, Object> httpFieldMap() {
+        return httpOp.apply(cycle++);
+    }
+
+    @Benchmark
+    public void httpFieldSlots(Blackhole bh) {
+        Object[] slots = httpSlots.apply(cycle++);
+        for (Object slot : slots) {
+            bh.consume(slot);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(TemplateRenderAllocationBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result("template-render-allocation.json")
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.benchmarks;
+
+import io.nosqlbench.api.engine.activityimpl.ActivityDef;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleSegment;
+import io.nosqlbench.engine.api.activityimpl.input.AtomicInput;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how quickly threads can claim cycle segments from the shared input, with the
+ * default stride of one and with a stride which is typical of an op sequence.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 3, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class AtomicInputBenchmark {
+
+    @Param({"1", "100"})
+    public int stride;
+
+    private AtomicInput input;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        input = new AtomicInput(ActivityDef.parseActivityDef("alias=bench_input;cycles=" + Long.MAX_VALUE / 2 + ";"));
+    }
+
+    @Benchmark
+    public CycleSegment getInputSegment() {
+        return input.getInputSegment(stride);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public CycleSegment getInputSegmentContended() {
+        return input.getInputSegment(stride);
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.benchmarks;
+
+import io.nosqlbench.api.config.NBLabeledElement;
+import io.nosqlbench.api.engine.activityimpl.ActivityDef;
+import io.nosqlbench.engine.api.activityimpl.uniform.StandardActivity;
+
+/**
+ * Builds the activities which are used by the benchmarks, from the block of the
+ * <em>benchmarks/engine-hotpath.yaml</em> workload with the same name as the driver.
+ */
+public class BenchmarkActivities {
+
+    public static StandardActivity<?, ?> forDriver(String driver) {
+        ActivityDef activityDef = ActivityDef.parseActivityDef(
+            "driver=" + driver + ";" +
+                "alias=bench_" + driver + ";" +
+                "yaml=benchmarks/engine-hotpath.yaml;" +
+                "tags=block:" + driver + ";" +
+                "cycles=" + Long.MAX_VALUE / 2 + ";"
+        );
+        StandardActivity<?, ?> activity = new StandardActivity<>(activityDef, NBLabeledElement.EMPTY);
+        activity.initActivity();
+        return activity;
+    }
+}
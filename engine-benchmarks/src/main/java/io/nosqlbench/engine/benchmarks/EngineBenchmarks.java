@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <p>Runs the engine benchmarks and writes the results in the JMH JSON format, so that the
+ * results of two releases can be compared directly. The throughput of each benchmark is
+ * reported in ops/s, and the GC profiler adds the allocation rate per op as
+ * <em>gc.alloc.rate.norm</em>.</p>
+ *
+ * <p>Arguments, both optional:</p>
+ * <ol>
+ *     <li>the result file, <em>engine-benchmarks.json</em> by default</li>
+ *     <li>a regex to select benchmarks, all of the benchmarks in this package by default</li>
+ * </ol>
+ */
+public class EngineBenchmarks {
+
+    public static void main(String[] args) throws RunnerException {
+        String resultFile = args.length > 0 ? args[0] : "engine-benchmarks.json";
+        String include = args.length > 1 ? args[1] : EngineBenchmarks.class.getPackageName() + ".*Benchmark";
+        Options options = new OptionsBuilder()
+            .include(include)
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(resultFile)
+            .build();
+        new Runner(options).run();
+    }
+}
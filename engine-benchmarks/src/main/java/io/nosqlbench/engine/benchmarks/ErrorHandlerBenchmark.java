@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.benchmarks;
+
+import io.nosqlbench.api.config.NBLabeledElement;
+import io.nosqlbench.engine.api.activityapi.errorhandling.ErrorMetrics;
+import io.nosqlbench.engine.api.activityapi.errorhandling.modular.ErrorDetail;
+import io.nosqlbench.engine.api.activityapi.errorhandling.modular.NBErrorHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the handling of an error by the modular error handler, for error configurations
+ * which are typical of runs where errors are expected and counted rather than fatal.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 3, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class ErrorHandlerBenchmark {
+
+    @Param({"count", "counter,histogram", "retry,timer"})
+    public String errors;
+
+    private final RuntimeException error = new RuntimeException("benchmark error");
+    private NBErrorHandler handler;
+    private long cycle;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ErrorMetrics errorMetrics = new ErrorMetrics(NBLabeledElement.forKV("activity", "bench_errors"));
+        handler = new NBErrorHandler(() -> errors, () -> errorMetrics);
+    }
+
+    @Benchmark
+    public ErrorDetail handleError() {
+        return handler.handleError(error, cycle++, 1000L);
+    }
+}
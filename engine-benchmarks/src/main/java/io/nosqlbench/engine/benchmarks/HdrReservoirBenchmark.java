@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.benchmarks;
+
+import io.nosqlbench.api.config.NBLabels;
+import io.nosqlbench.api.engine.metrics.DeltaHdrHistogramReservoir;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures recording into the HDR reservoir which backs the timers of every activity, by one
+ * thread and by several threads at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 3, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class HdrReservoirBenchmark {
+
+    private DeltaHdrHistogramReservoir reservoir;
+
+    @State(Scope.Thread)
+    public static class Values {
+        private long value = 1_000L;
+
+        long next() {
+            // Spread the values over a realistic range of nanosecond latencies
+            value = (value * 31 + 7) % 100_000_000L;
+            return value + 1_000L;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        reservoir = new DeltaHdrHistogramReservoir(NBLabels.forKV("name", "bench_hdr"), 4);
+    }
+
+    @Benchmark
+    public void update(Values values) {
+        reservoir.update(values.next());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void updateContended(Values values) {
+        reservoir.update(values.next());
+    }
+}
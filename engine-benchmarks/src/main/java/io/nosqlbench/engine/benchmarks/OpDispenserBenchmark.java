@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.benchmarks;
+
+import io.nosqlbench.engine.api.activityapi.planning.OpSequence;
+import io.nosqlbench.engine.api.activityimpl.OpDispenser;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.Op;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the synthesis of the op for each cycle by the op dispensers of the stdout and diag
+ * adapters, including the binding functions of the op template. The ops are not executed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 3, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class OpDispenserBenchmark {
+
+    @Param({"stdout", "diag"})
+    public String driver;
+
+    private OpSequence<OpDispenser<? extends Op>> sequence;
+    private long cycle;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        sequence = BenchmarkActivities.forDriver(driver).getOpSequence();
+    }
+
+    @Benchmark
+    public Op apply() {
+        long value = cycle++;
+        return sequence.apply(value).apply(value);
+    }
+}
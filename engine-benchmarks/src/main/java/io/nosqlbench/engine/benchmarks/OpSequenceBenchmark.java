@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.benchmarks;
+
+import io.nosqlbench.engine.api.activityapi.planning.OpSequence;
+import io.nosqlbench.engine.api.activityapi.planning.SequencePlanner;
+import io.nosqlbench.engine.api.activityapi.planning.SequencerType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookup of the op for each cycle from a planned op sequence with mixed ratios.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 3, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class OpSequenceBenchmark {
+
+    @Param({"bucket", "interval", "concat"})
+    public SequencerType sequencer;
+
+    private OpSequence<String> sequence;
+    private long cycle;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SequencePlanner<String> planner = new SequencePlanner<>(sequencer);
+        planner.addOp("read", 5);
+        planner.addOp("write", 3);
+        planner.addOp("scan", 1);
+        sequence = planner.resolve();
+    }
+
+    @Benchmark
+    public String apply() {
+        return sequence.apply(cycle++);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.benchmarks;
+
+import io.nosqlbench.api.config.NBLabeledElement;
+import io.nosqlbench.engine.api.activityapi.ratelimits.HybridRateLimiter;
+import io.nosqlbench.engine.api.activityapi.ratelimits.LockFreeRateLimiter;
+import io.nosqlbench.engine.api.activityapi.ratelimits.RateLimiter;
+import io.nosqlbench.engine.api.activityapi.ratelimits.RateSpec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of the rate limiters, with a rate which is far above what the
+ * benchmark can reach, so that the accounting is measured rather than the waiting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 3, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"hybrid", "lockfree"})
+    public String ratelimiter;
+
+    private RateLimiter limiter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        RateSpec spec = new RateSpec(1.0E10, 1.1, RateSpec.Verb.start);
+        NBLabeledElement labels = NBLabeledElement.forKV("alias", "bench_" + ratelimiter);
+        limiter = switch (ratelimiter) {
+            case "hybrid" -> new HybridRateLimiter(labels, "cycles", spec);
+            case "lockfree" -> new LockFreeRateLimiter(labels, "cycles", spec);
+            default -> throw new RuntimeException("Unknown rate limiter type '" + ratelimiter + "'");
+        };
+    }
+
+    @Benchmark
+    public long maybeWaitForOp() {
+        return limiter.maybeWaitForOp();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long maybeWaitForOpContended() {
+        return limiter.maybeWaitForOp();
+    }
+}
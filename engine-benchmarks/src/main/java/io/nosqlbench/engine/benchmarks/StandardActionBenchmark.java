@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.benchmarks;
+
+import io.nosqlbench.engine.api.activityimpl.uniform.actions.StandardAction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a whole cycle of a diag noop op through the standard action, which includes
+ * the op sequence, the op dispenser, the op itself, the timers and the op metrics.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 3, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class StandardActionBenchmark {
+
+    private StandardAction<?, ?> action;
+    private long cycle;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void setup() {
+        action = new StandardAction(BenchmarkActivities.forDriver("diag"), 0);
+    }
+
+    @Benchmark
+    public int runCycle() {
+        return action.runCycle(cycle++);
+    }
+}
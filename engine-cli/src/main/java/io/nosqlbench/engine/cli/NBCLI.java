@@ -27,6 +27,7 @@ import io.nosqlbench.api.errors.BasicError;
 import io.nosqlbench.api.logging.NBLogLevel;
 import io.nosqlbench.api.metadata.SessionNamer;
 import io.nosqlbench.api.metadata.SystemId;
+import io.nosqlbench.api.spi.SimpleServiceLoader;
 import io.nosqlbench.api.apps.BundledApp;
 import io.nosqlbench.engine.api.activityapi.cyclelog.outputs.cyclelog.CycleLogDumperUtility;
 import io.nosqlbench.engine.api.activityapi.cyclelog.outputs.cyclelog.CycleLogImporterUtility;
@@ -50,7 +51,6 @@ import io.nosqlbench.engine.core.lifecycle.scenario.script.ScriptParams;
 import io.nosqlbench.engine.docker.DockerMetricsManager;
 import io.nosqlbench.nb.annotations.Maturity;
 import io.nosqlbench.nb.annotations.Service;
-import io.nosqlbench.nb.annotations.ServiceSelector;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.config.ConfigurationFactory;
@@ -191,8 +191,8 @@ public class NBCLI implements Function<String[], Integer>, NBLabeledElement {
         // Invoke any bundled app which matches the name of the first non-option argument, if it exists.
         // If it does not, continue with no fanfare. Let it drop through to other command resolution methods.
         if ((0 < args.length) && args[0].matches("\\w[\\w\\d-_.]+")) {
-            final ServiceSelector<BundledApp> apploader = ServiceSelector.of(args[0], ServiceLoader.load(BundledApp.class));
-            final BundledApp app = apploader.get().orElse(null);
+            final SimpleServiceLoader<BundledApp> apploader = new SimpleServiceLoader<>(BundledApp.class, Maturity.Any);
+            final BundledApp app = apploader.get(args[0]).orElse(null);
             if (null != app) {
                 final String[] appargs = Arrays.copyOfRange(args, 1, args.length);
                 NBCLI.logger.info(() -> "invoking bundled app '" + args[0] + "' (" + app.getClass().getSimpleName() + ").");
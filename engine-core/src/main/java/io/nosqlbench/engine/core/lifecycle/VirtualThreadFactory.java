@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle;
+
+import io.nosqlbench.api.metadata.ThreadIndex;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A named and indexed thread factory which creates virtual threads, following the
+ * same naming scheme as {@link IndexedThreadFactory}.
+ *
+ * Since the build targets a JVM release which does not have virtual threads as a
+ * standard feature, the virtual thread builder is found reflectively. Use
+ * {@link #isSupported()} to check whether the current JVM can provide virtual threads
+ * before using this factory.
+ *
+ * Virtual threads can not implement {@link io.nosqlbench.api.metadata.Indexed}, so
+ * each thread sets its index in {@link ThreadIndex} before it runs its task instead.
+ */
+public class VirtualThreadFactory implements ThreadFactory {
+
+    private final static ThreadFactory virtualThreadFactory = findVirtualThreadFactory();
+
+    private final Thread.UncaughtExceptionHandler uncaughtExceptionHandler;
+    private final String name;
+    private final AtomicInteger threadIndexer = new AtomicInteger(0);
+
+    public VirtualThreadFactory(String name, Thread.UncaughtExceptionHandler exceptionHandler) {
+        if (!isSupported()) {
+            throw new RuntimeException("Virtual threads are not supported by this JVM (" + Runtime.version() + ")");
+        }
+        this.name = name;
+        this.uncaughtExceptionHandler = exceptionHandler;
+    }
+
+    /**
+     * @return true if virtual threads can be created in the current JVM
+     */
+    public static boolean isSupported() {
+        return virtualThreadFactory != null;
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+        int threadIndex = threadIndexer.incrementAndGet();
+
+        Runnable indexed = () -> {
+            ThreadIndex.set(threadIndex);
+            r.run();
+        };
+        Thread thread = virtualThreadFactory.newThread(indexed);
+        thread.setName(name + String.format(":%03d", threadIndex));
+        if (uncaughtExceptionHandler != null) {
+            thread.setUncaughtExceptionHandler(uncaughtExceptionHandler);
+        }
+        return thread;
+    }
+
+    private static ThreadFactory findVirtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (Exception | LinkageError e) {
+            // Not present, or present only as a preview feature which was not enabled
+            return null;
+        }
+    }
+}
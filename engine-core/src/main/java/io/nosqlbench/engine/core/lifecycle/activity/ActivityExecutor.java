@@ -27,6 +27,7 @@ import io.nosqlbench.engine.api.activityimpl.motor.RunStateTally;
 import io.nosqlbench.engine.core.annotation.Annotators;
 import io.nosqlbench.engine.core.lifecycle.ExecutionResult;
 import io.nosqlbench.engine.core.lifecycle.IndexedThreadFactory;
+import io.nosqlbench.engine.core.lifecycle.VirtualThreadFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -482,12 +483,35 @@ public class ActivityExecutor implements ActivityController, ParameterMap.Listen
         }
     }
 
+    /**
+     * Motors are run on platform threads by default. With <em>threadmode=virtual</em>, they are run on
+     * virtual threads instead, if the JVM supports them. The executor is otherwise the same, so that motor
+     * state handling and exception handling are the same for both.
+     */
     private void startMotorExecutorService() {
+        String threadMode = activityDef.getParams().getOptionalString("threadmode").orElse("platform");
+        ThreadFactory threadFactory = switch (threadMode) {
+            case "platform" -> new IndexedThreadFactory(activity.getAlias(), new ActivityExceptionHandler(this));
+            case "virtual" -> {
+                if (!VirtualThreadFactory.isSupported()) {
+                    throw new RuntimeException("threadmode=virtual was requested for activity '" + activity.getAlias()
+                        + "', but virtual threads are not supported by this JVM (" + Runtime.version() + ")");
+                }
+                VirtualThreadPinningMonitor pinningMonitor = new VirtualThreadPinningMonitor(
+                    activity.getAlias() + ":", activity.getInstrumentation().getOrCreatePinnedThreadTimer()
+                );
+                pinningMonitor.start();
+                activity.registerAutoCloseable(pinningMonitor);
+                yield new VirtualThreadFactory(activity.getAlias(), new ActivityExceptionHandler(this));
+            }
+            default -> throw new RuntimeException("Unknown threadmode '" + threadMode + "', valid values are platform and virtual");
+        };
+
         this.executorService = new ThreadPoolExecutor(
             0, Integer.MAX_VALUE,
             0L, TimeUnit.SECONDS,
             new SynchronousQueue<>(),
-            new IndexedThreadFactory(activity.getAlias(), new ActivityExceptionHandler(this))
+            threadFactory
         );
     }
 
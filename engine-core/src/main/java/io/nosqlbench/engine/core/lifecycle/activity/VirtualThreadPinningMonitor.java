@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle.activity;
+
+import com.codahale.metrics.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Virtual threads only scale when they can unmount from their carrier threads while blocked.
+ * When a virtual thread blocks while holding a monitor, as with a <em>synchronized</em> block, or while in
+ * native code, it stays <em>pinned</em> to its carrier thread, and the carrier thread can do no other work.</p>
+ *
+ * <p>This monitor listens for the JFR <em>jdk.VirtualThreadPinned</em> event for the motor threads
+ * of one activity, and records the duration of each pinning in the provided timer. The count of the timer
+ * is the number of pinning events. Only pinnings which last at least {@link #PINNED_THRESHOLD} are recorded,
+ * as with the JDK default for this event, since recording every short pinning costs more than it tells.
+ * Stack traces are captured only when trace logging is enabled for this class.</p>
+ */
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+    private final static Logger logger = LogManager.getLogger(VirtualThreadPinningMonitor.class);
+    private final static String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    public final static Duration PINNED_THRESHOLD = Duration.ofMillis(20);
+
+    private final String threadNamePrefix;
+    private final Timer pinnedTimer;
+    private RecordingStream stream;
+
+    /**
+     * @param threadNamePrefix The prefix of the thread names which are monitored, as set by the motor thread factory
+     * @param pinnedTimer      The timer to record pinning durations into
+     */
+    public VirtualThreadPinningMonitor(String threadNamePrefix, Timer pinnedTimer) {
+        this.threadNamePrefix = threadNamePrefix;
+        this.pinnedTimer = pinnedTimer;
+    }
+
+    public synchronized void start() {
+        if (stream != null) {
+            return;
+        }
+        try {
+            stream = new RecordingStream();
+            if (logger.isTraceEnabled()) {
+                stream.enable(PINNED_EVENT).withThreshold(PINNED_THRESHOLD).withStackTrace();
+            } else {
+                stream.enable(PINNED_EVENT).withThreshold(PINNED_THRESHOLD).withoutStackTrace();
+            }
+            stream.onEvent(PINNED_EVENT, this::onPinned);
+            stream.startAsync();
+        } catch (Exception e) {
+            logger.warn("Unable to monitor virtual thread pinning for '" + threadNamePrefix + "': " + e);
+            stream = null;
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        if (thread == null || thread.getJavaName() == null || !thread.getJavaName().startsWith(threadNamePrefix)) {
+            return;
+        }
+        pinnedTimer.update(event.getDuration().toNanos(), TimeUnit.NANOSECONDS);
+        if (logger.isTraceEnabled()) {
+            logger.trace("virtual thread " + thread.getJavaName() + " pinned for " + event.getDuration() + ":\n" + event.getStackTrace());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle.capacity;
+
+import java.util.OptionalDouble;
+
+/**
+ * Grow the rate geometrically until it fails, and then bisect the range between the highest passing and the
+ * lowest failing rate until it is narrower than the precision. If the first rate fails, the rate is lowered
+ * geometrically until one passes.
+ */
+public class BinarySearchStrategy implements CapacityStrategy {
+
+    private final CapacitySearchConfig config;
+    private double highestPassed = 0.0D;
+    private double lowestFailed = Double.POSITIVE_INFINITY;
+
+    public BinarySearchStrategy(CapacitySearchConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public String getName() {
+        return "binary";
+    }
+
+    @Override
+    public double getInitialRate() {
+        return config.getRateStart();
+    }
+
+    @Override
+    public OptionalDouble next(CapacityStep step) {
+        double rate = step.getTargetRate();
+        if (step.isPassed()) {
+            highestPassed = Math.max(highestPassed, rate);
+        } else {
+            lowestFailed = Math.min(lowestFailed, rate);
+        }
+
+        if (Double.isInfinite(lowestFailed)) {
+            if (rate >= config.getRateMax()) {
+                return OptionalDouble.empty();
+            }
+            return OptionalDouble.of(Math.min(rate * config.getRateGrowth(), config.getRateMax()));
+        }
+        if (highestPassed == 0.0D) {
+            double lower = lowestFailed / config.getRateGrowth();
+            if (lower < config.getRateStart() * config.getPrecision()) {
+                return OptionalDouble.empty();
+            }
+            return OptionalDouble.of(lower);
+        }
+        if ((lowestFailed - highestPassed) <= lowestFailed * config.getPrecision()) {
+            return OptionalDouble.empty();
+        }
+        return OptionalDouble.of((highestPassed + lowestFailed) / 2.0D);
+    }
+}
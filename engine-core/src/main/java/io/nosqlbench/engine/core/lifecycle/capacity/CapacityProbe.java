@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle.capacity;
+
+import com.codahale.metrics.Timer;
+import io.nosqlbench.api.engine.metrics.HdrDeltaHistogramAttachment;
+import io.nosqlbench.api.engine.metrics.HdrDeltaHistogramProvider;
+import io.nosqlbench.api.errors.BasicError;
+import io.nosqlbench.engine.api.activityapi.core.Activity;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Reads the interval histograms of the result and result-success timers of an activity. Each probe has its own
+ * interval consumers on the reservoirs of the timers, so it does not take any data away from the histogram
+ * logger or other readers.
+ */
+class CapacityProbe implements AutoCloseable {
+
+    private final HdrDeltaHistogramProvider results;
+    private final HdrDeltaHistogramProvider successes;
+    private long lastNanos;
+
+    CapacityProbe(Activity activity) {
+        this.results = attach(activity, activity.getInstrumentation().getOrCreateResultTimer());
+        this.successes = attach(activity, activity.getInstrumentation().getOrCreateResultSuccessTimer());
+        this.lastNanos = System.nanoTime();
+    }
+
+    private static HdrDeltaHistogramProvider attach(Activity activity, Timer timer) {
+        if (timer instanceof HdrDeltaHistogramAttachment attachment) {
+            return attachment.attachHdrDeltaHistogram();
+        }
+        throw new BasicError("The timers of activity '" + activity.getAlias() + "' do not provide interval histograms, so its capacity can not be measured.");
+    }
+
+    /**
+     * Drop everything which has been recorded since the last read, such as the operations of a previous rate.
+     */
+    void discard() {
+        results.getNextHdrDeltaHistogram();
+        successes.getNextHdrDeltaHistogram();
+        lastNanos = System.nanoTime();
+    }
+
+    /**
+     * @return everything which has been recorded since the last read
+     */
+    Interval next() {
+        Histogram resultHistogram = results.getNextHdrDeltaHistogram();
+        long successCount = successes.getNextHdrDeltaHistogram().getTotalCount();
+        long now = System.nanoTime();
+        double seconds = (now - lastNanos) / 1_000_000_000.0D;
+        lastNanos = now;
+        return new Interval(resultHistogram, successCount, seconds);
+    }
+
+    @Override
+    public void close() {
+        detach(results);
+        detach(successes);
+    }
+
+    private static void detach(HdrDeltaHistogramProvider provider) {
+        if (provider instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    static class Interval {
+        private final Histogram results;
+        private final long successes;
+        private final double seconds;
+
+        Interval(Histogram results, long successes, double seconds) {
+            this.results = results;
+            this.successes = successes;
+            this.seconds = seconds;
+        }
+
+        Histogram getResults() {
+            return results;
+        }
+
+        long getSuccesses() {
+            return successes;
+        }
+
+        double getSeconds() {
+            return seconds;
+        }
+    }
+}
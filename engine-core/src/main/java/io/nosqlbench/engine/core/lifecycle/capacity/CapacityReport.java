@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle.capacity;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The outcome of a {@link CapacitySearch}. Every step is a point on the latency-vs-throughput curve of the
+ * activity, and the result is the step with the highest sustainable rate. This is written as JSON, so that it can
+ * be compared between runs or plotted without parsing the log.
+ */
+public class CapacityReport {
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    private final String alias;
+    private final String strategy;
+    private final Map<String, String> params;
+    private final List<CapacityStep> steps;
+    private final CapacityStep result;
+    private final String stopReason;
+    private final double seconds;
+
+    public CapacityReport(
+        String alias,
+        String strategy,
+        Map<String, String> params,
+        List<CapacityStep> steps,
+        CapacityStep result,
+        String stopReason,
+        double seconds
+    ) {
+        this.alias = alias;
+        this.strategy = strategy;
+        this.params = params;
+        this.steps = steps;
+        this.result = result;
+        this.stopReason = stopReason;
+        this.seconds = seconds;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public Map<String, String> getParams() {
+        return params;
+    }
+
+    public List<CapacityStep> getSteps() {
+        return steps;
+    }
+
+    public Optional<CapacityStep> getResult() {
+        return Optional.ofNullable(result);
+    }
+
+    /**
+     * @return the highest sustainable rate in ops/s, or 0.0 if no rate met the constraints
+     */
+    public double getResultRate() {
+        return result != null ? result.getTargetRate() : 0.0D;
+    }
+
+    public String getStopReason() {
+        return stopReason;
+    }
+
+    public double getSeconds() {
+        return seconds;
+    }
+
+    public String toJson() {
+        return gson.toJson(this);
+    }
+
+    public void writeTo(Path path) {
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.writeString(path, toJson());
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to write capacity report to " + path + ": " + e, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (result == null) {
+            return "capacity of '" + alias + "' (" + strategy + "): no rate met the constraints after "
+                + steps.size() + " steps, stopped by " + stopReason;
+        }
+        return String.format("capacity of '%s' (%s): %.0f ops/s with latency %.2fms after %d steps, stopped by %s",
+            alias, strategy, result.getTargetRate(), result.getLatencyMillis(), steps.size(), stopReason);
+    }
+}
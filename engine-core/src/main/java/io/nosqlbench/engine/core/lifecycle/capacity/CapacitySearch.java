@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle.capacity;
+
+import io.nosqlbench.api.errors.BasicError;
+import io.nosqlbench.engine.api.activityapi.core.Activity;
+import io.nosqlbench.engine.api.activityapi.core.RunState;
+import io.nosqlbench.engine.api.activityapi.ratelimits.RateLimiter;
+import io.nosqlbench.engine.api.activityapi.ratelimits.RateSpec;
+import org.HdrHistogram.Histogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+/**
+ * <p>Find the highest rate which a running activity can sustain within a latency SLO and an error rate.
+ * The cycle rate limiter of the activity is set to each target rate in turn, as chosen by the
+ * {@link CapacityStrategy}, and the latency, error and throughput of each rate are measured from the interval
+ * histograms of the result timers. No activity parameters are changed, and the threads of the activity keep
+ * running throughout.</p>
+ *
+ * <p>Each rate is given time to settle, and is then sampled interval by interval until its measurements stop
+ * changing, or it clearly fails. When the search is done, the rate limiter is left at the highest sustainable
+ * rate, or at its original rate if there was none.</p>
+ */
+public class CapacitySearch {
+    private final static Logger logger = LogManager.getLogger(CapacitySearch.class);
+
+    private final Activity activity;
+    private final CapacitySearchConfig config;
+    private final CapacityStrategy strategy;
+
+    public CapacitySearch(Activity activity, CapacitySearchConfig config) {
+        this.activity = activity;
+        this.config = config;
+        this.strategy = CapacityStrategy.of(config);
+    }
+
+    public CapacityReport run() {
+        RateLimiter limiter = activity.getCycleLimiter();
+        if (limiter == null) {
+            throw new BasicError("Activity '" + activity.getAlias() + "' has no cycle rate limiter, so its capacity " +
+                "can not be searched. Start it with a cyclerate, like cyclerate=" + config.getRateStart());
+        }
+        RateSpec original = limiter.getRateSpec();
+        List<CapacityStep> steps = new ArrayList<>();
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + (long) (config.getMaxMinutes() * 60_000_000_000.0D);
+        String stopReason;
+
+        logger.info(() -> "Searching capacity of '" + activity.getAlias() + "' with " + config);
+        try (CapacityProbe probe = new CapacityProbe(activity)) {
+            double rate = strategy.getInitialRate();
+            while (true) {
+                if (steps.size() >= config.getMaxSteps()) {
+                    stopReason = "max_steps";
+                    break;
+                }
+                if (System.nanoTime() >= deadline) {
+                    stopReason = "max_minutes";
+                    break;
+                }
+                if (!isActive()) {
+                    stopReason = "activity " + activity.getRunState();
+                    break;
+                }
+                applyRate(limiter, original, rate);
+                CapacityStep step = strategy.isSampledToStability()
+                    ? sampleToStability(probe, steps.size() + 1, rate)
+                    : sampleInterval(probe, steps.size() + 1, rate, steps.isEmpty());
+                steps.add(step);
+                logger.info(() -> "capacity of '" + activity.getAlias() + "': " + step);
+
+                OptionalDouble next = strategy.next(step);
+                if (next.isEmpty()) {
+                    stopReason = "done";
+                    break;
+                }
+                rate = next.getAsDouble();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopReason = "interrupted";
+        }
+
+        Optional<CapacityStep> result = strategy.result(steps);
+        if (isActive()) {
+            if (result.isPresent()) {
+                applyRate(limiter, original, result.get().getTargetRate());
+            } else {
+                limiter.applyRateSpec(original.withVerb(RateSpec.Verb.restart));
+            }
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0D;
+        CapacityReport report = new CapacityReport(
+            activity.getAlias(), strategy.getName(), config.getParams(), steps, result.orElse(null), stopReason, seconds
+        );
+        logger.info(() -> report.toString());
+        config.getReport().ifPresent(path -> {
+            report.writeTo(Path.of(path));
+            logger.info(() -> "Wrote capacity report to " + path);
+        });
+        return report;
+    }
+
+    private void applyRate(RateLimiter limiter, RateSpec original, double rate) {
+        limiter.applyRateSpec(original.withOpsPerSecond(rate).withVerb(RateSpec.Verb.restart));
+    }
+
+    private CapacityStep sampleToStability(CapacityProbe probe, int iteration, double rate) throws InterruptedException {
+        sleepSeconds(config.getSettleSeconds());
+        probe.discard();
+
+        Histogram merged = null;
+        long successes = 0L;
+        double seconds = 0.0D;
+        CapacityStep previous = null;
+        CapacityStep step = null;
+        for (int i = 1; i <= config.getMaxIntervals(); i++) {
+            sleepSeconds(config.getIntervalSeconds());
+            CapacityProbe.Interval interval = probe.next();
+            if (merged == null) {
+                merged = new Histogram(interval.getResults().getNumberOfSignificantValueDigits());
+            }
+            merged.add(interval.getResults());
+            successes += interval.getSuccesses();
+            seconds += interval.getSeconds();
+            step = CapacityStep.measured(iteration, rate, seconds, merged, successes, config);
+
+            if (i >= config.getMinIntervals() && (isClearlyFailed(step) || isStable(previous, step))) {
+                break;
+            }
+            if (!isActive()) {
+                break;
+            }
+            previous = step;
+        }
+        return step;
+    }
+
+    private CapacityStep sampleInterval(CapacityProbe probe, int iteration, double rate, boolean first) throws InterruptedException {
+        if (first) {
+            sleepSeconds(config.getSettleSeconds());
+            probe.discard();
+        }
+        sleepSeconds(config.getIntervalSeconds());
+        CapacityProbe.Interval interval = probe.next();
+        return CapacityStep.measured(iteration, rate, interval.getSeconds(), interval.getResults(), interval.getSuccesses(), config);
+    }
+
+    /**
+     * A rate which misses a constraint by a wide margin does not need to be sampled until it is stable.
+     */
+    private boolean isClearlyFailed(CapacityStep step) {
+        return step.getCount() == 0L
+            || step.getLatencyMillis() > config.getLatencySloMillis() * 2.0D
+            || (step.getErrors() > 0L && step.getErrorRatio() > config.getMaxErrorRatio() * 2.0D)
+            || step.getAchievedRate() < step.getTargetRate() * config.getMinAchievedRatio() / 2.0D;
+    }
+
+    private boolean isStable(CapacityStep previous, CapacityStep step) {
+        return previous != null
+            && change(previous.getAchievedRate(), step.getAchievedRate()) <= config.getStability()
+            && change(previous.getLatencyMillis(), step.getLatencyMillis()) <= config.getStability();
+    }
+
+    private static double change(double from, double to) {
+        double scale = Math.max(Math.abs(from), Math.abs(to));
+        return scale == 0.0D ? 0.0D : Math.abs(to - from) / scale;
+    }
+
+    private boolean isActive() {
+        RunState state = activity.getRunState();
+        return state == RunState.Starting || state == RunState.Running;
+    }
+
+    private static void sleepSeconds(double seconds) throws InterruptedException {
+        if (seconds > 0.0D) {
+            Thread.sleep((long) (seconds * 1000.0D));
+        }
+    }
+}
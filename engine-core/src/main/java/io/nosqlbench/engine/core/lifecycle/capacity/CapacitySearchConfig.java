@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle.capacity;
+
+import io.nosqlbench.api.errors.BasicError;
+
+import java.util.*;
+
+/**
+ * <p>The settings of a {@link CapacitySearch}. These are given as named parameters, like the
+ * parameters of an activity. Every setting has a default, so only the ones which differ need to be given.</p>
+ *
+ * <H2>Rates</H2>
+ * <UL>
+ * <LI><em>strategy</em> - <em>binary</em>, <em>stepup</em> or <em>pid</em>. (default binary)</LI>
+ * <LI><em>rate_start</em> - The first target rate, in ops/s. (default 100)</LI>
+ * <LI><em>rate_step</em> - The increase of the target rate for each step of <em>stepup</em>. (default rate_start)</LI>
+ * <LI><em>rate_max</em> - The highest target rate to try, or 0 for no limit. (default 0)</LI>
+ * <LI><em>rate_growth</em> - The factor which the target rate grows by until <em>binary</em> finds an upper
+ * bound. (default 2.0)</LI>
+ * <LI><em>precision</em> - The relative width of the range between the highest passing and lowest failing rate at
+ * which <em>binary</em> stops, and the relative rate change below which <em>pid</em> is settled. (default 0.05)</LI>
+ * </UL>
+ *
+ * <H2>Constraints</H2>
+ * <UL>
+ * <LI><em>latency_pctile</em> - The percentile of the latency constraint, as a fraction or a percent. (default 0.99)</LI>
+ * <LI><em>latency_slo_ms</em> - The highest acceptable latency at that percentile, in milliseconds. (default 50)</LI>
+ * <LI><em>max_error_ratio</em> - The highest acceptable fraction of failed operations. (default 0.01)</LI>
+ * <LI><em>min_achieved_ratio</em> - The lowest acceptable achieved rate, as a fraction of the target. (default 0.9)</LI>
+ * </UL>
+ *
+ * <H2>Sampling</H2>
+ * <UL>
+ * <LI><em>settle_seconds</em> - How long to run at a new rate before sampling it. (default 2)</LI>
+ * <LI><em>interval_seconds</em> - How long each sampling interval is. (default 1)</LI>
+ * <LI><em>min_intervals</em> - The fewest intervals to sample each rate for. (default 3)</LI>
+ * <LI><em>max_intervals</em> - The most intervals to sample each rate for. (default 30)</LI>
+ * <LI><em>stability</em> - The relative change in the measured rate and latency from the last interval, under
+ * which sampling a rate stops. (default 0.05)</LI>
+ * </UL>
+ *
+ * <H2>PID control</H2>
+ * <UL>
+ * <LI><em>pid_setpoint</em> - The latency to hold, as a fraction of the latency SLO. (default 0.8)</LI>
+ * <LI><em>pid_kp</em>, <em>pid_ki</em>, <em>pid_kd</em> - The gains of the controller. (default 0.5, 0.1, 0.05)</LI>
+ * <LI><em>pid_max_change</em> - The largest relative change of the rate for one interval. (default 0.25)</LI>
+ * <LI><em>pid_settled</em> - How many intervals in a row must change the rate by less than the precision. (default 5)</LI>
+ * </UL>
+ *
+ * <H2>Limits and output</H2>
+ * <UL>
+ * <LI><em>max_steps</em> - The most rates to try. (default 100)</LI>
+ * <LI><em>max_minutes</em> - The longest time to search for. (default 30)</LI>
+ * <LI><em>report</em> - A file to write the JSON report to. (default none)</LI>
+ * </UL>
+ */
+public class CapacitySearchConfig {
+
+    private final static Map<String, String> DEFAULTS = new LinkedHashMap<>() {{
+        put("strategy", "binary");
+        put("rate_start", "100");
+        put("rate_max", "0");
+        put("rate_growth", "2.0");
+        put("precision", "0.05");
+        put("latency_pctile", "0.99");
+        put("latency_slo_ms", "50");
+        put("max_error_ratio", "0.01");
+        put("min_achieved_ratio", "0.9");
+        put("settle_seconds", "2");
+        put("interval_seconds", "1");
+        put("min_intervals", "3");
+        put("max_intervals", "30");
+        put("stability", "0.05");
+        put("pid_setpoint", "0.8");
+        put("pid_kp", "0.5");
+        put("pid_ki", "0.1");
+        put("pid_kd", "0.05");
+        put("pid_max_change", "0.25");
+        put("pid_settled", "5");
+        put("max_steps", "100");
+        put("max_minutes", "30");
+    }};
+    private final static Set<String> OPTIONAL = Set.of("rate_step", "report");
+
+    private final Map<String, String> params = new LinkedHashMap<>();
+
+    /**
+     * @param params the settings which differ from their defaults
+     * @throws BasicError if any of the names is not a setting of the search, or a value is invalid
+     */
+    public CapacitySearchConfig(Map<String, ?> params) {
+        this.params.putAll(DEFAULTS);
+        List<String> unknown = new ArrayList<>();
+        for (Map.Entry<String, ?> entry : params.entrySet()) {
+            if (DEFAULTS.containsKey(entry.getKey()) || OPTIONAL.contains(entry.getKey())) {
+                this.params.put(entry.getKey(), String.valueOf(entry.getValue()));
+            } else {
+                unknown.add(entry.getKey());
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new BasicError("Unknown capacity search settings " + unknown + ", possible setting names are " + getParamNames() + ".");
+        }
+        validate();
+    }
+
+    /**
+     * @return the names of all settings, so that they can be separated from activity parameters
+     */
+    public static Set<String> getParamNames() {
+        Set<String> names = new LinkedHashSet<>(DEFAULTS.keySet());
+        names.addAll(OPTIONAL);
+        return names;
+    }
+
+    private void validate() {
+        if (getRateStart() <= 0.0D) {
+            throw new BasicError("rate_start must be positive, but was " + getRateStart());
+        }
+        if (getRateMax() != 0.0D && getRateMax() < getRateStart()) {
+            throw new BasicError("rate_max must be 0 or at least rate_start, but was " + getRateMax());
+        }
+        if (getRateStep() <= 0.0D) {
+            throw new BasicError("rate_step must be positive, but was " + getRateStep());
+        }
+        if (getRateGrowth() <= 1.0D) {
+            throw new BasicError("rate_growth must be more than 1.0, but was " + getRateGrowth());
+        }
+        if (getPrecision() <= 0.0D || getPrecision() >= 1.0D) {
+            throw new BasicError("precision must be between 0.0 and 1.0, but was " + getPrecision());
+        }
+        if (getLatencyPctile() <= 0.0D || getLatencyPctile() > 1.0D) {
+            throw new BasicError("latency_pctile must be a fraction or a percent, but was " + params.get("latency_pctile"));
+        }
+        if (getMinIntervals() < 1 || getMaxIntervals() < getMinIntervals()) {
+            throw new BasicError("min_intervals must be at least 1 and at most max_intervals");
+        }
+        if (getIntervalSeconds() <= 0.0D) {
+            throw new BasicError("interval_seconds must be positive, but was " + getIntervalSeconds());
+        }
+    }
+
+    public Map<String, String> getParams() {
+        return Collections.unmodifiableMap(params);
+    }
+
+    public String getStrategy() {
+        return params.get("strategy");
+    }
+
+    public double getRateStart() {
+        return getDouble("rate_start");
+    }
+
+    public double getRateStep() {
+        return params.containsKey("rate_step") ? getDouble("rate_step") : getRateStart();
+    }
+
+    /**
+     * @return the highest rate to try, or {@link Double#POSITIVE_INFINITY} if there is no limit
+     */
+    public double getRateMax() {
+        double max = getDouble("rate_max");
+        return max == 0.0D ? Double.POSITIVE_INFINITY : max;
+    }
+
+    public double getRateGrowth() {
+        return getDouble("rate_growth");
+    }
+
+    public double getPrecision() {
+        return getDouble("precision");
+    }
+
+    /**
+     * @return the latency percentile as a fraction, even if it was given as a percent
+     */
+    public double getLatencyPctile() {
+        double pctile = getDouble("latency_pctile");
+        return pctile > 1.0D ? pctile / 100.0D : pctile;
+    }
+
+    public double getLatencySloMillis() {
+        return getDouble("latency_slo_ms");
+    }
+
+    public double getMaxErrorRatio() {
+        return getDouble("max_error_ratio");
+    }
+
+    public double getMinAchievedRatio() {
+        return getDouble("min_achieved_ratio");
+    }
+
+    public double getSettleSeconds() {
+        return getDouble("settle_seconds");
+    }
+
+    public double getIntervalSeconds() {
+        return getDouble("interval_seconds");
+    }
+
+    public int getMinIntervals() {
+        return (int) getDouble("min_intervals");
+    }
+
+    public int getMaxIntervals() {
+        return (int) getDouble("max_intervals");
+    }
+
+    public double getStability() {
+        return getDouble("stability");
+    }
+
+    public double getPidSetpoint() {
+        return getDouble("pid_setpoint");
+    }
+
+    public double getPidKp() {
+        return getDouble("pid_kp");
+    }
+
+    public double getPidKi() {
+        return getDouble("pid_ki");
+    }
+
+    public double getPidKd() {
+        return getDouble("pid_kd");
+    }
+
+    public double getPidMaxChange() {
+        return getDouble("pid_max_change");
+    }
+
+    public int getPidSettled() {
+        return (int) getDouble("pid_settled");
+    }
+
+    public int getMaxSteps() {
+        return (int) getDouble("max_steps");
+    }
+
+    public double getMaxMinutes() {
+        return getDouble("max_minutes");
+    }
+
+    public Optional<String> getReport() {
+        return Optional.ofNullable(params.get("report")).filter(s -> !s.isBlank());
+    }
+
+    /**
+     * Check a measured step against the constraints.
+     *
+     * @return a description of each constraint which the step does not meet
+     */
+    public List<String> violations(double targetRate, double achievedRate, double errorRatio, double latencyMillis) {
+        List<String> violations = new ArrayList<>();
+        if (latencyMillis > getLatencySloMillis()) {
+            violations.add(String.format("latency p%s %.2fms > %.2fms", pctileName(), latencyMillis, getLatencySloMillis()));
+        }
+        if (errorRatio > getMaxErrorRatio()) {
+            violations.add(String.format("errors %.2f%% > %.2f%%", errorRatio * 100.0D, getMaxErrorRatio() * 100.0D));
+        }
+        if (achievedRate < targetRate * getMinAchievedRatio()) {
+            violations.add(String.format("achieved %.0f ops/s < %.0f%% of %.0f ops/s", achievedRate, getMinAchievedRatio() * 100.0D, targetRate));
+        }
+        return violations;
+    }
+
+    /**
+     * @return the latency percentile as a name, like 99 or 99.9
+     */
+    public String pctileName() {
+        String name = String.format(Locale.ROOT, "%.4f", getLatencyPctile() * 100.0D).replaceAll("0+$", "");
+        return name.endsWith(".") ? name.substring(0, name.length() - 1) : name;
+    }
+
+    private double getDouble(String name) {
+        String value = params.get(name);
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new BasicError("Unable to parse capacity search parameter " + name + "='" + value + "' as a number");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return params.toString();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle.capacity;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The measurements of one target rate during a {@link CapacitySearch}, and whether they meet the constraints.
+ * This is one point on the latency-vs-throughput curve of the report.
+ */
+public class CapacityStep {
+
+    private final static double[] REPORTED_PCTILES = {50.0D, 90.0D, 99.0D, 99.9D};
+    private final static String[] REPORTED_NAMES = {"p50", "p90", "p99", "p999"};
+
+    private final int iteration;
+    private final double targetRate;
+    private final double seconds;
+    private final long count;
+    private final long errors;
+    private final double achievedRate;
+    private final double errorRatio;
+    private final double latencyMillis;
+    private final Map<String, Double> latenciesMillis;
+    private final boolean passed;
+    private final List<String> violations;
+
+    public CapacityStep(
+        int iteration,
+        double targetRate,
+        double seconds,
+        long count,
+        long errors,
+        double latencyMillis,
+        Map<String, Double> latenciesMillis,
+        CapacitySearchConfig config
+    ) {
+        this.iteration = iteration;
+        this.targetRate = targetRate;
+        this.seconds = seconds;
+        this.count = count;
+        this.errors = errors;
+        this.achievedRate = seconds > 0.0D ? count / seconds : 0.0D;
+        this.errorRatio = count > 0L ? (double) errors / count : 0.0D;
+        this.latencyMillis = latencyMillis;
+        this.latenciesMillis = latenciesMillis;
+        this.violations = count > 0L
+            ? config.violations(targetRate, achievedRate, errorRatio, latencyMillis)
+            : List.of("no operations completed");
+        this.passed = violations.isEmpty();
+    }
+
+    /**
+     * Measure a step from the latencies of all operations and the number of them which succeeded.
+     */
+    public static CapacityStep measured(
+        int iteration,
+        double targetRate,
+        double seconds,
+        Histogram results,
+        long successes,
+        CapacitySearchConfig config
+    ) {
+        long count = results.getTotalCount();
+        Map<String, Double> latencies = new LinkedHashMap<>();
+        for (int i = 0; i < REPORTED_PCTILES.length; i++) {
+            latencies.put(REPORTED_NAMES[i], millis(results.getValueAtPercentile(REPORTED_PCTILES[i])));
+        }
+        latencies.put("max", millis(results.getMaxValue()));
+        double latency = millis(results.getValueAtPercentile(config.getLatencyPctile() * 100.0D));
+        return new CapacityStep(iteration, targetRate, seconds, count, Math.max(0L, count - successes), latency, latencies, config);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0D;
+    }
+
+    public int getIteration() {
+        return iteration;
+    }
+
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public double getSeconds() {
+        return seconds;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public double getAchievedRate() {
+        return achievedRate;
+    }
+
+    public double getErrorRatio() {
+        return errorRatio;
+    }
+
+    /**
+     * @return the latency at the percentile of the latency constraint
+     */
+    public double getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    public Map<String, Double> getLatenciesMillis() {
+        return latenciesMillis;
+    }
+
+    public boolean isPassed() {
+        return passed;
+    }
+
+    public List<String> getViolations() {
+        return violations;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "step %d: target %.0f ops/s, achieved %.0f ops/s, latency %.2fms, errors %.2f%% over %.1fs: %s",
+            iteration, targetRate, achievedRate, latencyMillis, errorRatio * 100.0D, seconds,
+            passed ? "PASS" : "FAIL (" + String.join(", ", violations) + ")"
+        );
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle.capacity;
+
+import io.nosqlbench.api.errors.BasicError;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+/**
+ * A way of choosing the next target rate of a {@link CapacitySearch} from the measurements of the last one.
+ */
+public interface CapacityStrategy {
+
+    /**
+     * @param config The search settings
+     * @return the strategy which is named by the <em>strategy</em> setting
+     */
+    static CapacityStrategy of(CapacitySearchConfig config) {
+        return switch (config.getStrategy()) {
+            case "binary" -> new BinarySearchStrategy(config);
+            case "stepup" -> new StepUpStrategy(config);
+            case "pid" -> new PidStrategy(config);
+            default -> throw new BasicError("Unknown capacity search strategy '" + config.getStrategy() + "', valid values are binary, stepup and pid");
+        };
+    }
+
+    String getName();
+
+    double getInitialRate();
+
+    /**
+     * @return true if each rate is settled and then sampled until its measurements are stable, or false
+     * if each rate is only sampled for a single interval, as with continuous control
+     */
+    default boolean isSampledToStability() {
+        return true;
+    }
+
+    /**
+     * @param step The measurements of the last target rate
+     * @return the next target rate, or empty if the search is done
+     */
+    OptionalDouble next(CapacityStep step);
+
+    /**
+     * @param steps All the steps of the search
+     * @return the step which has the highest sustainable rate, if any passed
+     */
+    default Optional<CapacityStep> result(List<CapacityStep> steps) {
+        return steps.stream()
+            .filter(CapacityStep::isPassed)
+            .max(Comparator.comparingDouble(CapacityStep::getTargetRate));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle.capacity;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+/**
+ * <p>Adjust the rate after every interval to hold the latency at a setpoint below the latency SLO.
+ * The control error is the difference between the setpoint and the measured latency, relative to the larger
+ * of the two, so that it stays within -1 and 1 even when the latency grows without bound at saturation.
+ * It is lowered to the headroom of the error rate or the shortfall of the achieved rate when either of those
+ * is worse, so that the rate backs off from errors and saturation as well as from latency.</p>
+ *
+ * <p>The controller output is the relative change of the rate, limited to <em>pid_max_change</em> per interval.
+ * Latency rises very steeply near saturation, which makes any fixed gain too high there, so the limit is halved
+ * each time the error changes its sign, and grows back while the error keeps its sign. The integral term is
+ * limited to the same range, so that it does not wind up while the output is limited. The search is done when
+ * the rate has changed by less than the precision for <em>pid_settled</em> intervals in a row.</p>
+ */
+public class PidStrategy implements CapacityStrategy {
+
+    private final static double MIN_RATE = 1.0D;
+
+    private final CapacitySearchConfig config;
+    private double integral;
+    private double previousError;
+    private boolean hasPrevious;
+    private double limit;
+    private int settled;
+
+    public PidStrategy(CapacitySearchConfig config) {
+        this.config = config;
+        this.limit = config.getPidMaxChange();
+    }
+
+    @Override
+    public String getName() {
+        return "pid";
+    }
+
+    @Override
+    public double getInitialRate() {
+        return config.getRateStart();
+    }
+
+    @Override
+    public boolean isSampledToStability() {
+        return false;
+    }
+
+    @Override
+    public OptionalDouble next(CapacityStep step) {
+        double rate = step.getTargetRate();
+        double error = errorOf(step);
+        double dt = step.getSeconds() > 0.0D ? step.getSeconds() : config.getIntervalSeconds();
+
+        if (hasPrevious) {
+            limit = (error > 0.0D) != (previousError > 0.0D)
+                ? limit / 2.0D
+                : Math.min(config.getPidMaxChange(), limit * 1.5D);
+        }
+        if (config.getPidKi() > 0.0D) {
+            double windup = limit / config.getPidKi();
+            integral = Math.max(-windup, Math.min(windup, integral + error * dt));
+        }
+        double derivative = hasPrevious ? (error - previousError) / dt : 0.0D;
+        previousError = error;
+        hasPrevious = true;
+
+        double output = config.getPidKp() * error + config.getPidKi() * integral + config.getPidKd() * derivative;
+        output = Math.max(-limit, Math.min(limit, output));
+        double next = Math.max(MIN_RATE, Math.min(config.getRateMax(), rate * (1.0D + output)));
+
+        settled = Math.abs(next - rate) < rate * config.getPrecision() ? settled + 1 : 0;
+        if (settled >= config.getPidSettled()) {
+            return OptionalDouble.empty();
+        }
+        return OptionalDouble.of(next);
+    }
+
+    /**
+     * The rate which the controller settled at is the result, since higher rates which passed on their own
+     * interval did not hold the setpoint.
+     */
+    @Override
+    public Optional<CapacityStep> result(List<CapacityStep> steps) {
+        if (!steps.isEmpty() && steps.get(steps.size() - 1).isPassed()) {
+            return Optional.of(steps.get(steps.size() - 1));
+        }
+        return CapacityStrategy.super.result(steps);
+    }
+
+    double errorOf(CapacityStep step) {
+        if (step.getCount() == 0L) {
+            return -1.0D;
+        }
+        double setpoint = config.getLatencySloMillis() * config.getPidSetpoint();
+        double error = (setpoint - step.getLatencyMillis()) / Math.max(setpoint, step.getLatencyMillis());
+        if (config.getMaxErrorRatio() > 0.0D) {
+            error = Math.min(error, (config.getMaxErrorRatio() - step.getErrorRatio()) / config.getMaxErrorRatio());
+        } else if (step.getErrors() > 0L) {
+            error = Math.min(error, -1.0D);
+        }
+        double achieved = step.getAchievedRate() / step.getTargetRate();
+        if (achieved < config.getMinAchievedRatio()) {
+            error = Math.min(error, achieved - 1.0D);
+        }
+        return error;
+    }
+}
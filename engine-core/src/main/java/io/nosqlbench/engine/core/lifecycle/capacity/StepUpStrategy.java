@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle.capacity;
+
+import java.util.OptionalDouble;
+
+/**
+ * Raise the rate by a fixed step until it fails or reaches the highest rate, which traces the
+ * latency-vs-throughput curve at evenly spaced rates.
+ */
+public class StepUpStrategy implements CapacityStrategy {
+
+    private final CapacitySearchConfig config;
+
+    public StepUpStrategy(CapacitySearchConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public String getName() {
+        return "stepup";
+    }
+
+    @Override
+    public double getInitialRate() {
+        return config.getRateStart();
+    }
+
+    @Override
+    public OptionalDouble next(CapacityStep step) {
+        if (!step.isPassed() || step.getTargetRate() >= config.getRateMax()) {
+            return OptionalDouble.empty();
+        }
+        return OptionalDouble.of(Math.min(step.getTargetRate() + config.getRateStep(), config.getRateMax()));
+    }
+}
@@ -34,6 +34,7 @@ import io.nosqlbench.engine.core.lifecycle.scenario.script.SandboxExtensionFinde
 import io.nosqlbench.engine.core.lifecycle.scenario.script.ScenarioContext;
 import io.nosqlbench.engine.core.lifecycle.scenario.script.ScriptParams;
 import io.nosqlbench.engine.core.lifecycle.scenario.script.bindings.ActivityBindings;
+import io.nosqlbench.engine.core.lifecycle.scenario.script.bindings.CapacityBindings;
 import io.nosqlbench.engine.core.lifecycle.scenario.script.bindings.PolyglotMetricRegistryBindings;
 import io.nosqlbench.engine.core.lifecycle.scenario.script.bindings.PolyglotScenarioController;
 import io.nosqlbench.nb.annotations.Maturity;
@@ -225,6 +226,7 @@ public class Scenario implements Callable<ExecutionMetricsResult>, NBLabeledElem
         this.scriptEngine.put("scenario", new PolyglotScenarioController(scenarioController));
         this.scriptEngine.put("metrics", new PolyglotMetricRegistryBindings(metricRegistry));
         this.scriptEngine.put("activities", new ActivityBindings(scenarioController));
+        this.scriptEngine.put("capacity", new CapacityBindings(scenarioController));
 
         for (final ScriptingPluginInfo<?> extensionDescriptor : SandboxExtensionFinder.findAll()) {
             if (!extensionDescriptor.isAutoLoading()) {
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle.scenario.script.bindings;
+
+import io.nosqlbench.api.errors.BasicError;
+import io.nosqlbench.engine.core.lifecycle.activity.ActivityRuntimeInfo;
+import io.nosqlbench.engine.core.lifecycle.capacity.CapacityReport;
+import io.nosqlbench.engine.core.lifecycle.capacity.CapacitySearch;
+import io.nosqlbench.engine.core.lifecycle.capacity.CapacitySearchConfig;
+import io.nosqlbench.engine.core.lifecycle.scenario.ScenarioController;
+import org.graalvm.polyglot.Value;
+
+import java.util.Map;
+
+/**
+ * Provide capacity searches of running activities to scenario scripts, like
+ * <pre>{@code capacity.search("main", {strategy: "binary", latency_slo_ms: 20})}</pre>
+ */
+public class CapacityBindings {
+
+    private final ScenarioController controller;
+
+    public CapacityBindings(ScenarioController controller) {
+        this.controller = controller;
+    }
+
+    public CapacityReport search(String alias) {
+        return search(alias, Map.of());
+    }
+
+    public CapacityReport search(String alias, Object params) {
+        ActivityRuntimeInfo runtimeInfo = controller.getActivityExecutorMap().get(alias);
+        if (runtimeInfo == null) {
+            throw new BasicError("Unable to search capacity of activity '" + alias + "', since it is not running.");
+        }
+        CapacitySearchConfig config = new CapacitySearchConfig(toMap(params));
+        return new CapacitySearch(runtimeInfo.getActivity(), config).run();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, ?> toMap(Object params) {
+        if (params instanceof Value value) {
+            if (value.isNull()) {
+                return Map.of();
+            }
+            if (value.hasMembers()) {
+                return value.as(Map.class);
+            }
+        } else if (params instanceof Map<?, ?> map) {
+            return (Map<String, ?>) map;
+        } else if (params == null) {
+            return Map.of();
+        }
+        throw new BasicError("Capacity search params must be an object of named settings, but were: " + params);
+    }
+}
@@ -18,6 +18,7 @@ package io.nosqlbench.engine.core;
 
 import io.nosqlbench.api.config.NBLabeledElement;
 import io.nosqlbench.api.engine.activityimpl.ActivityDef;
+import io.nosqlbench.api.metadata.ThreadIndex;
 import io.nosqlbench.engine.api.activityapi.core.*;
 import io.nosqlbench.engine.api.activityapi.input.Input;
 import io.nosqlbench.engine.api.activityapi.input.InputDispenser;
@@ -30,6 +31,7 @@ import io.nosqlbench.engine.api.activityimpl.input.CoreInputDispenser;
 import io.nosqlbench.engine.api.activityimpl.motor.CoreMotor;
 import io.nosqlbench.engine.api.activityimpl.motor.CoreMotorDispenser;
 import io.nosqlbench.engine.core.lifecycle.ExecutionResult;
+import io.nosqlbench.engine.core.lifecycle.VirtualThreadFactory;
 import io.nosqlbench.engine.core.lifecycle.activity.ActivityExecutor;
 import io.nosqlbench.engine.core.lifecycle.activity.ActivityTypeLoader;
 import org.apache.logging.log4j.LogManager;
@@ -37,12 +39,16 @@ import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.Test;
 
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class ActivityExecutorTest {
     private static final Logger logger = LogManager.getLogger(ActivityExecutorTest.class);
@@ -169,6 +175,72 @@ class ActivityExecutorTest {
         }
     }
 
+    @Test
+    synchronized void testVirtualThreadModeIndexesMotorThreads() {
+        assumeTrue(VirtualThreadFactory.isSupported(), "virtual threads are not supported by this JVM");
+
+        ActivityDef activityDef = ActivityDef.parseActivityDef("driver=diag;alias=test-virtual-threads;cycles=100;threads=4;threadmode=virtual;");
+        new ActivityTypeLoader().load(activityDef, NBLabeledElement.EMPTY);
+
+        Set<Integer> threadIndices = ConcurrentHashMap.newKeySet();
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        SyncAction indexRecorder = new SyncAction() {
+            @Override
+            public int runCycle(long cycle) {
+                threadIndices.add(ThreadIndex.current().orElse(-1));
+                threadNames.add(Thread.currentThread().getName());
+                return 0;
+            }
+        };
+
+        Activity activity = new SimpleActivity(activityDef, NBLabeledElement.EMPTY);
+        ActivityExecutor activityExecutor = getActivityExecutor(activity, slot -> indexRecorder, "test-virtual-threads");
+
+        ExecutionResult result = null;
+        try {
+            result = activityExecutor.call();
+        } catch (final Exception e) {
+            fail("Unexpected exception", e);
+        }
+
+        assertThat(result.getException()).isNull();
+        assertThat(threadIndices).isNotEmpty().doesNotContain(-1);
+        assertThat(threadIndices).allMatch(index -> index >= 1 && index <= 4);
+        assertThat(threadNames).allMatch(name -> name.startsWith("test-virtual-threads:"));
+    }
+
+    @Test
+    synchronized void testVirtualThreadModeFailsWithoutVirtualThreads() {
+        assumeFalse(VirtualThreadFactory.isSupported(), "virtual threads are supported by this JVM");
+
+        ActivityDef activityDef = ActivityDef.parseActivityDef("driver=diag;alias=test-no-virtual-threads;cycles=10;threadmode=virtual;");
+        new ActivityTypeLoader().load(activityDef, NBLabeledElement.EMPTY);
+
+        Activity activity = new SimpleActivity(activityDef, NBLabeledElement.EMPTY);
+        ActivityExecutor activityExecutor = getActivityExecutor(activity, slot -> motorActionDelay(0), "test-no-virtual-threads");
+
+        ExecutionResult result = null;
+        try {
+            result = activityExecutor.call();
+        } catch (final Exception e) {
+            fail("Unexpected exception", e);
+        }
+
+        assertThat(result.getException()).hasMessageContaining("virtual threads are not supported");
+    }
+
+    private ActivityExecutor getActivityExecutor(Activity activity, ActionDispenser actionDispenser, String sessionId) {
+        final InputDispenser inputDispenser = new CoreInputDispenser(activity);
+        final OutputDispenser outputDispenser = CoreServices.getOutputDispenser(activity).orElse(null);
+        MotorDispenser<?> motorDispenser = new CoreMotorDispenser<>(activity, inputDispenser, actionDispenser, outputDispenser);
+
+        activity.setActionDispenserDelegate(actionDispenser);
+        activity.setOutputDispenserDelegate(outputDispenser);
+        activity.setInputDispenserDelegate(inputDispenser);
+        activity.setMotorDispenserDelegate(motorDispenser);
+        return new ActivityExecutor(activity, sessionId);
+    }
+
     private MotorDispenser<?> getActivityMotorFactory(final Action lc, Input ls) {
         return new MotorDispenser<>() {
             @Override
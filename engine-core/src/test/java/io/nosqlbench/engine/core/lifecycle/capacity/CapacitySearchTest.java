@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.engine.core.lifecycle.capacity;
+
+import io.nosqlbench.api.config.NBLabels;
+import io.nosqlbench.api.engine.metrics.DeltaHdrHistogramReservoir;
+import io.nosqlbench.api.engine.metrics.instruments.NBMetricTimer;
+import io.nosqlbench.engine.api.activityapi.core.Activity;
+import io.nosqlbench.engine.api.activityapi.core.ActivityInstrumentation;
+import io.nosqlbench.engine.api.activityapi.core.RunState;
+import io.nosqlbench.engine.api.activityapi.ratelimits.RateLimiter;
+import io.nosqlbench.engine.api.activityapi.ratelimits.RateSpec;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs a search against a stub activity, whose operations are recorded into real result timers by a
+ * simulated system, which answers at the rate of the cycle rate limiter with a latency that rises with it.
+ */
+public class CapacitySearchTest {
+
+    // With a 2ms latency when idle and a 50ms SLO, the highest sustainable rate is 384 ops/s
+    private final static double CAPACITY = 400.0D;
+
+    private final DeltaHdrHistogramReservoir resultReservoir = new DeltaHdrHistogramReservoir(NBLabels.forKV("name", "result"), 3);
+    private final DeltaHdrHistogramReservoir successReservoir = new DeltaHdrHistogramReservoir(NBLabels.forKV("name", "result-success"), 3);
+    private final NBMetricTimer resultTimer = new NBMetricTimer(NBLabels.forKV("name", "result"), resultReservoir);
+    private final NBMetricTimer successTimer = new NBMetricTimer(NBLabels.forKV("name", "result-success"), successReservoir);
+    private volatile RateSpec rateSpec = new RateSpec(50.0D, 1.1D);
+    private final AtomicInteger mostConsumers = new AtomicInteger();
+
+    private <T> T stub(Class<T> type, Map<String, Object> answers) {
+        return type.cast(Proxy.newProxyInstance(CapacitySearchTest.class.getClassLoader(), new Class[]{type},
+            (proxy, method, args) -> {
+                if (answers.containsKey(method.getName())) {
+                    return answers.get(method.getName());
+                }
+                if (method.getName().equals("applyRateSpec")) {
+                    rateSpec = (RateSpec) args[0];
+                    return null;
+                }
+                if (method.getName().equals("getRateSpec")) {
+                    return rateSpec;
+                }
+                if (method.getName().equals("toString")) {
+                    return type.getSimpleName();
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }));
+    }
+
+    private Activity activity() {
+        ActivityInstrumentation instrumentation = stub(ActivityInstrumentation.class, Map.of(
+            "getOrCreateResultTimer", resultTimer,
+            "getOrCreateResultSuccessTimer", successTimer
+        ));
+        return stub(Activity.class, Map.of(
+            "getAlias", "simulated",
+            "getRunState", RunState.Running,
+            "getCycleLimiter", stub(RateLimiter.class, Map.of()),
+            "getInstrumentation", instrumentation
+        ));
+    }
+
+    /**
+     * Record the operations of the current rate every 10ms, until interrupted
+     */
+    private void simulate() {
+        double owed = 0.0D;
+        long last = System.nanoTime();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long now = System.nanoTime();
+            double rate = rateSpec.getRate();
+            owed += rate * (now - last) / 1_000_000_000.0D;
+            last = now;
+            long latencyNanos = (long) (2_000_000.0D / (1.0D - Math.min(rate / CAPACITY, 0.999D)));
+            for (; owed >= 1.0D; owed -= 1.0D) {
+                resultTimer.update(latencyNanos, TimeUnit.NANOSECONDS);
+                successTimer.update(latencyNanos, TimeUnit.NANOSECONDS);
+            }
+            mostConsumers.accumulateAndGet(resultReservoir.getConsumerCount() + successReservoir.getConsumerCount(), Math::max);
+        }
+    }
+
+    @Test
+    public void testSearchDetachesAndLeavesResultRate() throws InterruptedException {
+        int consumers = resultReservoir.getConsumerCount() + successReservoir.getConsumerCount();
+        CapacitySearchConfig config = new CapacitySearchConfig(Map.of(
+            "strategy", "stepup",
+            "rate_start", 100,
+            "rate_max", 1000,
+            "settle_seconds", 0,
+            "interval_seconds", 0.3,
+            "min_intervals", 1,
+            "max_intervals", 3,
+            "stability", 0.5
+        ));
+        Thread system = new Thread(this::simulate);
+        system.setDaemon(true);
+        system.start();
+
+        CapacityReport report;
+        try {
+            report = new CapacitySearch(activity(), config).run();
+        } finally {
+            system.interrupt();
+            system.join();
+        }
+
+        assertThat(report.getStopReason()).isEqualTo("done");
+        assertThat(report.getResult()).isPresent();
+        assertThat(report.getResultRate()).isEqualTo(300.0D);
+        assertThat(rateSpec.getRate()).isEqualTo(report.getResultRate());
+        assertThat(mostConsumers.get()).isEqualTo(consumers + 2);
+        assertThat(resultReservoir.getConsumerCount() + successReservoir.getConsumerCount()).isEqualTo(consumers);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle.capacity;
+
+import io.nosqlbench.api.errors.BasicError;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CapacityStrategyTest {
+
+    // A simulated system which saturates at 10000 ops/s, with a p99 latency of 2ms when idle.
+    // With a 50ms SLO, the highest sustainable rate is 9600 ops/s.
+    private final static double CAPACITY = 10000.0D;
+
+    private static CapacityStep measure(int iteration, double rate, CapacitySearchConfig config) {
+        double utilization = Math.min(rate / CAPACITY, 0.999D);
+        double latency = 2.0D / (1.0D - utilization);
+        long count = (long) Math.min(rate, CAPACITY);
+        return new CapacityStep(iteration, rate, 1.0D, count, 0L, latency, Map.of(), config);
+    }
+
+    private static List<CapacityStep> simulate(CapacityStrategy strategy, CapacitySearchConfig config) {
+        List<CapacityStep> steps = new ArrayList<>();
+        double rate = strategy.getInitialRate();
+        while (steps.size() < config.getMaxSteps()) {
+            CapacityStep step = measure(steps.size() + 1, rate, config);
+            steps.add(step);
+            OptionalDouble next = strategy.next(step);
+            if (next.isEmpty()) {
+                break;
+            }
+            rate = next.getAsDouble();
+        }
+        return steps;
+    }
+
+    private static CapacitySearchConfig config(Object... kvs) {
+        Map<String, Object> params = new HashMap<>();
+        for (int i = 0; i < kvs.length; i += 2) {
+            params.put(kvs[i].toString(), kvs[i + 1]);
+        }
+        return new CapacitySearchConfig(params);
+    }
+
+    @Test
+    public void testBinarySearchConverges() {
+        CapacitySearchConfig config = config("strategy", "binary");
+        CapacityStrategy strategy = CapacityStrategy.of(config);
+        List<CapacityStep> steps = simulate(strategy, config);
+        Optional<CapacityStep> result = strategy.result(steps);
+
+        assertThat(result).isPresent();
+        assertThat(result.get().getTargetRate()).isBetween(9600.0D * 0.95D, 9600.0D);
+        assertThat(steps.size()).isLessThan(20);
+    }
+
+    @Test
+    public void testBinarySearchLowersFailingStart() {
+        CapacitySearchConfig config = config("strategy", "binary", "rate_start", 40000);
+        CapacityStrategy strategy = CapacityStrategy.of(config);
+        List<CapacityStep> steps = simulate(strategy, config);
+
+        assertThat(steps.get(0).isPassed()).isFalse();
+        assertThat(strategy.result(steps).get().getTargetRate()).isBetween(9600.0D * 0.95D, 9600.0D);
+    }
+
+    @Test
+    public void testBinarySearchStopsAtMax() {
+        CapacitySearchConfig config = config("strategy", "binary", "rate_max", 1000);
+        CapacityStrategy strategy = CapacityStrategy.of(config);
+        List<CapacityStep> steps = simulate(strategy, config);
+
+        assertThat(steps.get(steps.size() - 1).getTargetRate()).isEqualTo(1000.0D);
+        assertThat(strategy.result(steps).get().getTargetRate()).isEqualTo(1000.0D);
+    }
+
+    @Test
+    public void testStepUpStopsAtFirstFailure() {
+        CapacitySearchConfig config = config("strategy", "stepup", "rate_start", 1000, "rate_step", 1000);
+        CapacityStrategy strategy = CapacityStrategy.of(config);
+        List<CapacityStep> steps = simulate(strategy, config);
+
+        assertThat(steps).hasSize(10);
+        assertThat(steps.get(steps.size() - 1).isPassed()).isFalse();
+        assertThat(strategy.result(steps).get().getTargetRate()).isEqualTo(9000.0D);
+    }
+
+    @Test
+    public void testPidSettlesBelowSlo() {
+        CapacitySearchConfig config = config("strategy", "pid", "max_steps", 200);
+        CapacityStrategy strategy = CapacityStrategy.of(config);
+        List<CapacityStep> steps = simulate(strategy, config);
+        CapacityStep last = steps.get(steps.size() - 1);
+
+        assertThat(steps.size()).isLessThan(200);
+        assertThat(last.isPassed()).isTrue();
+        // The setpoint of 40ms is held at 9500 ops/s
+        assertThat(last.getTargetRate()).isBetween(9500.0D * 0.95D, 9500.0D * 1.01D);
+    }
+
+    @Test
+    public void testConstraints() {
+        CapacitySearchConfig config = config("latency_pctile", 99.9, "latency_slo_ms", 10, "max_error_ratio", 0.0);
+        assertThat(config.pctileName()).isEqualTo("99.9");
+        assertThat(new CapacityStep(1, 100.0D, 1.0D, 100L, 0L, 5.0D, Map.of(), config).isPassed()).isTrue();
+        assertThat(new CapacityStep(1, 100.0D, 1.0D, 100L, 1L, 5.0D, Map.of(), config).getViolations()).hasSize(1);
+        assertThat(new CapacityStep(1, 100.0D, 1.0D, 50L, 0L, 20.0D, Map.of(), config).getViolations()).hasSize(2);
+        assertThat(new CapacityStep(1, 100.0D, 1.0D, 0L, 0L, 0.0D, Map.of(), config).isPassed()).isFalse();
+    }
+
+    @Test
+    public void testInvalidConfig() {
+        assertThatThrownBy(() -> CapacityStrategy.of(config("strategy", "random"))).isInstanceOf(BasicError.class);
+        assertThatThrownBy(() -> config("rate_growth", 1.0)).isInstanceOf(BasicError.class);
+        assertThatThrownBy(() -> config("latency_cutoff", 50))
+            .isInstanceOf(BasicError.class)
+            .hasMessageContaining("latency_cutoff");
+    }
+}
@@ -26,12 +26,22 @@ import org.HdrHistogram.Recorder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /**
  * A custom wrapping of snapshotting logic on the HdrHistogram. This histogram will always report the last histogram
  * since it was most recently asked for with the getDeltaSnapshot(...) method.
  * This provides local snapshot timing, but with a consistent view for reporting channels about what those snapshots
  * most recently looked like.
  *
+ * <p>Values are recorded once, into a single {@link Recorder}. Each time any reader asks for new data, the
+ * interval histogram of the recorder is rolled over and added to every registered {@link IntervalConsumer}.
+ * Each consumer then sees all the data since it was last read, no matter how many other consumers are
+ * reading the same reservoir, or how often. This also means that a consumer which is read less often than
+ * another gets a lossless roll-up of the same data, such as 10 second or 60 second intervals alongside
+ * 1 second intervals. The {@link #getSnapshot()} method uses its own consumer.</p>
+ *
  * <p>This implementation also supports attaching a single log writer. If a log writer is attached, each
  * time an interval is snapshotted internally, the data will also be written to an hdr log via the writer.</p>
  */
@@ -39,11 +49,13 @@ public final class DeltaHdrHistogramReservoir implements Reservoir, NBLabeledEle
     private static final Logger logger = LogManager.getLogger(DeltaHdrHistogramReservoir.class);
 
     private final Recorder recorder;
-    private Histogram lastHistogram;
+    private volatile Histogram lastHistogram;
 
     private Histogram intervalHistogram;
     private long intervalHistogramEndTime = System.currentTimeMillis();
     private final NBLabels labels;
+    private final List<IntervalConsumer> consumers = new CopyOnWriteArrayList<>();
+    private final IntervalConsumer snapshotConsumer;
     private HistogramLogWriter writer;
 
     /**
@@ -65,12 +77,13 @@ public final class DeltaHdrHistogramReservoir implements Reservoir, NBLabeledEle
          */
         intervalHistogram = recorder.getIntervalHistogram();
         lastHistogram = new Histogram(intervalHistogram.getNumberOfSignificantValueDigits());
+        snapshotConsumer = newIntervalConsumer();
     }
 
     @Override
     public int size() {
         // This appears to be infrequently called, so not keeping a separate counter just for this.
-        return getSnapshot().size();
+        return (int) lastHistogram.getTotalCount();
     }
 
     @Override
@@ -83,12 +96,20 @@ public final class DeltaHdrHistogramReservoir implements Reservoir, NBLabeledEle
      */
     @Override
     public Snapshot getSnapshot() {
-        lastHistogram = getNextHdrHistogram();
-        return new DeltaHistogramSnapshot(lastHistogram);
+        return new DeltaHistogramSnapshot(getNextHdrHistogram());
     }
 
+    /**
+     * @return the data accumulated since the reservoir was created, or since the last call to this method
+     * or to {@link #getSnapshot()}
+     */
     public Histogram getNextHdrHistogram() {
-        return getDataSinceLastSnapshotAndUpdate();
+        Histogram next = snapshotConsumer.getNextHdrDeltaHistogram();
+        lastHistogram = next;
+        if (null != this.writer) {
+            writer.outputIntervalHistogram(next);
+        }
+        return next;
     }
 
 
@@ -100,24 +121,36 @@ public final class DeltaHdrHistogramReservoir implements Reservoir, NBLabeledEle
     }
 
     /**
-     * @return a copy of the accumulated state since the reservoir last had a snapshot
+     * Register a new consumer of this reservoir. The consumer will see all data which is recorded from
+     * now on, regardless of any other consumers.
+     *
+     * @return a new interval consumer
      */
-    private synchronized Histogram getDataSinceLastSnapshotAndUpdate() {
-        intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
-        long intervalHistogramStartTime = intervalHistogramEndTime;
-        intervalHistogramEndTime = System.currentTimeMillis();
-
-        intervalHistogram.setTag(this.labels.linearizeValues("name"));
-        intervalHistogram.setStartTimeStamp(intervalHistogramStartTime);
-        intervalHistogram.setEndTimeStamp(intervalHistogramEndTime);
+    public IntervalConsumer newIntervalConsumer() {
+        IntervalConsumer consumer = new IntervalConsumer(intervalHistogram.getNumberOfSignificantValueDigits());
+        consumers.add(consumer);
+        return consumer;
+    }
 
-        lastHistogram = intervalHistogram.copy();
-        lastHistogram.setTag(this.labels.linearizeValues("name"));
+    /**
+     * @return the number of interval consumers which are currently registered, including the one used for snapshots
+     */
+    public int getConsumerCount() {
+        return consumers.size();
+    }
 
-        if (null != this.writer) {
-            writer.outputIntervalHistogram(lastHistogram);
+    /**
+     * Move the data recorded since the last roll-over into each of the consumers.
+     * The caller must hold the lock on this reservoir.
+     */
+    private void rollover() {
+        intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+        intervalHistogramEndTime = System.currentTimeMillis();
+        if (0 < intervalHistogram.getTotalCount()) {
+            for (IntervalConsumer consumer : consumers) {
+                consumer.pending.add(intervalHistogram);
+            }
         }
-        return lastHistogram;
     }
 
     /**
@@ -145,4 +178,42 @@ public final class DeltaHdrHistogramReservoir implements Reservoir, NBLabeledEle
     public NBLabels getLabels() {
         return this.labels;
     }
+
+    /**
+     * A reader of the data of this reservoir, which keeps the data of all roll-overs since it was last read.
+     */
+    public final class IntervalConsumer implements HdrDeltaHistogramProvider, AutoCloseable {
+        private final Histogram pending;
+        private long startTime;
+
+        private IntervalConsumer(int significantDigits) {
+            this.pending = new Histogram(significantDigits);
+            this.startTime = System.currentTimeMillis();
+        }
+
+        /**
+         * @return all the data since this consumer was last read, or since it was created
+         */
+        @Override
+        public Histogram getNextHdrDeltaHistogram() {
+            synchronized (DeltaHdrHistogramReservoir.this) {
+                rollover();
+                Histogram next = pending.copy();
+                next.setTag(labels.linearizeValues("name"));
+                next.setStartTimeStamp(startTime);
+                next.setEndTimeStamp(intervalHistogramEndTime);
+                pending.reset();
+                startTime = intervalHistogramEndTime;
+                return next;
+            }
+        }
+
+        /**
+         * Stop adding data to this consumer.
+         */
+        @Override
+        public void close() {
+            consumers.remove(this);
+        }
+    }
 }
@@ -39,6 +39,10 @@ package io.nosqlbench.api.engine.metrics;
  *
  * <p>Implementations should ensure that any naming fields are marked differently so that
  * the attached metric does not have the exact same name as the attaching metric.</p>
+ *
+ * <p>When the attaching metric is backed by a {@link DeltaHdrHistogramReservoir}, the attached
+ * provider can be an {@link DeltaHdrHistogramReservoir.IntervalConsumer} of the same reservoir
+ * instead. It sees the same data without recording each value again.</p>
  */
 public interface HdrDeltaHistogramAttachment extends HdrDeltaHistogramProvider {
     /**
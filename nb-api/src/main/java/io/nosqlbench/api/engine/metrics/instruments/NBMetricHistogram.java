@@ -72,14 +72,8 @@ public class NBMetricHistogram extends Histogram implements DeltaSnapshotter, Hd
     }
 
     @Override
-    public synchronized NBMetricHistogram attachHdrDeltaHistogram() {
-        if (null == this.mirrors) {
-            mirrors = new CopyOnWriteArrayList<>();
-        }
-        DeltaHdrHistogramReservoir mirrorReservoir = this.hdrDeltaReservoir.copySettings();
-        NBMetricHistogram mirror = new NBMetricHistogram("mirror-" + this.labels.linearizeValues("name"), mirrorReservoir);
-        mirrors.add(mirror);
-        return mirror;
+    public HdrDeltaHistogramProvider attachHdrDeltaHistogram() {
+        return hdrDeltaReservoir.newIntervalConsumer();
     }
 
     @Override
@@ -57,12 +57,8 @@ public class NBMetricTimer extends Timer implements DeltaSnapshotter, HdrDeltaHi
     }
 
     @Override
-    public synchronized NBMetricTimer attachHdrDeltaHistogram() {
-        if (null == mirrors) this.mirrors = new CopyOnWriteArrayList<>();
-        final DeltaHdrHistogramReservoir sameConfigReservoir = deltaHdrHistogramReservoir.copySettings();
-        final NBMetricTimer mirror = new NBMetricTimer(labels, sameConfigReservoir);
-        this.mirrors.add(mirror);
-        return mirror;
+    public HdrDeltaHistogramProvider attachHdrDeltaHistogram() {
+        return deltaHdrHistogramReservoir.newIntervalConsumer();
     }
     @Override
     public Timer attachTimer(final Timer timer) {
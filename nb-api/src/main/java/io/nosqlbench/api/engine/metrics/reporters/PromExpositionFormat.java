@@ -25,6 +25,7 @@ import java.io.Writer;
 import java.time.Clock;
 import java.time.Instant;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Format NBMetrics according to the prometheus exposition format.
@@ -50,6 +51,27 @@ public enum PromExpositionFormat {
      * @return A string representation of the metrics in prometheus exposition format
      */
     public static StringBuilder format(final Clock clock, final StringBuilder builder, final Object... metrics) {
+        return PromExpositionFormat.format(clock, builder, Sampling::getSnapshot, metrics);
+    }
+
+    /**
+     * @param clock
+     *     The clock to use for assigning an observation time to each metric value.
+     * @param builder
+     *     A string builder to append to
+     * @param snapshots
+     *     The function which provides the snapshot of each sampling metric, so that a reporter can read
+     *     its own view of the data
+     * @param metrics
+     *     zero or more metric which need to be formatted
+     * @return A string representation of the metrics in prometheus exposition format
+     */
+    public static StringBuilder format(
+        final Clock clock,
+        final StringBuilder builder,
+        final Function<Sampling, Snapshot> snapshots,
+        final Object... metrics
+    ) {
         final StringBuilder buffer = (null != builder) ? builder : new StringBuilder();
         final Instant instant = clock.instant();
 
@@ -78,7 +100,7 @@ public enum PromExpositionFormat {
             if (metric instanceof final Sampling sampling) {
                 // Use the summary form
                 buffer.append("# TYPE ").append(labels.only("name")).append(" summary\n");
-                final Snapshot snapshot = sampling.getSnapshot();
+                final Snapshot snapshot = snapshots.apply(sampling);
                 for (final double quantile : new double[]{0.5, 0.75, 0.90, 0.95, 0.98, 0.99, 0.999}) {
                     final double value = snapshot.getValue(quantile);
                     buffer
@@ -17,6 +17,10 @@
 package io.nosqlbench.api.engine.metrics.reporters;
 
 import com.codahale.metrics.*;
+import io.nosqlbench.api.engine.metrics.DeltaHdrHistogramReservoir;
+import io.nosqlbench.api.engine.metrics.DeltaHistogramSnapshot;
+import io.nosqlbench.api.engine.metrics.HdrDeltaHistogramAttachment;
+import io.nosqlbench.api.engine.metrics.HdrDeltaHistogramProvider;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -33,7 +37,11 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.concurrent.TimeUnit;
 
@@ -41,6 +49,11 @@ public class PromPushReporter extends ScheduledReporter {
     private static final Logger logger = LogManager.getLogger(PromPushReporter.class);
     private HttpClient client;
     private final URI uri;
+    /**
+     * The interval histograms which this reporter reads, so that it sees all of the data of each
+     * histogram or timer, even when other reporters also read them.
+     */
+    private final Map<Object, HdrDeltaHistogramProvider> intervals = new HashMap<>();
 
     public PromPushReporter(
         final String targetUriSpec,
@@ -67,11 +80,14 @@ public class PromPushReporter extends ScheduledReporter {
         StringBuilder sb = new StringBuilder(1024*1024); // 1M pre-allocated to reduce heap churn
 
         int total=0;
+        final Set<Object> reported = new HashSet<>();
         for(final SortedMap smap : new SortedMap[]{gauges,counters,histograms,meters,timers})
             for (final Object metric : smap.values()) {
-                sb = PromExpositionFormat.format(nowclock, sb, metric);
+                sb = PromExpositionFormat.format(nowclock, sb, this::intervalSnapshot, metric);
+                reported.add(metric);
                 total++;
             }
+        releaseIntervals(reported);
         PromPushReporter.logger.debug("formatted {} metrics in prom expo format", total);
         final String exposition = sb.toString();
         logger.trace(() -> "prom exposition format:\n" + exposition);
@@ -116,6 +132,24 @@ public class PromPushReporter extends ScheduledReporter {
         }
     }
 
+    private Snapshot intervalSnapshot(final Sampling sampling) {
+        if (sampling instanceof final HdrDeltaHistogramAttachment attachment) {
+            final HdrDeltaHistogramProvider provider =
+                intervals.computeIfAbsent(sampling, s -> attachment.attachHdrDeltaHistogram());
+            return new DeltaHistogramSnapshot(provider.getNextHdrDeltaHistogram());
+        }
+        return sampling.getSnapshot();
+    }
+
+    private void releaseIntervals(final Set<Object> reported) {
+        intervals.entrySet().removeIf(entry -> {
+            if (reported.contains(entry.getKey())) return false;
+            if (entry.getValue() instanceof final DeltaHdrHistogramReservoir.IntervalConsumer consumer)
+                consumer.close();
+            return true;
+        });
+    }
+
     private synchronized HttpClient getCachedClient() {
         if (null == client) this.client = this.getNewClient();
         return this.client;
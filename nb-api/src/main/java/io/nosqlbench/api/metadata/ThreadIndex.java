@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.api.metadata;
+
+import java.util.OptionalInt;
+
+/**
+ * The index of the current thread, for threads which are not {@link Indexed} themselves.
+ * Virtual threads can not be subclassed, so the thread factories which create them set the
+ * index here from within the thread instead. {@link #current()} covers both cases.
+ */
+public final class ThreadIndex {
+
+    private final static ThreadLocal<Integer> threadIndex = new ThreadLocal<>();
+
+    private ThreadIndex() {
+    }
+
+    /**
+     * Set the index of the current thread. This should be called only from the thread itself,
+     * before any other work is done on it.
+     * @param index The index of the current thread
+     */
+    public static void set(int index) {
+        threadIndex.set(index);
+    }
+
+    /**
+     * @return the index of the current thread, if it is {@link Indexed} or if an index was set for it
+     */
+    public static OptionalInt current() {
+        if (Thread.currentThread() instanceof Indexed indexed) {
+            return OptionalInt.of(indexed.getIndex());
+        }
+        Integer index = threadIndex.get();
+        return index != null ? OptionalInt.of(index) : OptionalInt.empty();
+    }
+}
@@ -16,11 +16,13 @@
 
 package io.nosqlbench.api.spi;
 
+import io.nosqlbench.api.system.WarmStartCache;
 import io.nosqlbench.nb.annotations.Maturity;
 import io.nosqlbench.nb.annotations.Service;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -72,40 +74,108 @@ public class SimpleServiceLoader<T> {
     /**
      * Load the service providers which are annotated with {@link Service} and selector names.
      *
+     * <p>When the {@link WarmStartCache} is enabled, the selectors of all providers are kept in it, keyed by
+     * the service provider files they are listed in. When they are found there, only the classes of the
+     * included providers are loaded, instead of every provider of the service.</p>
+     *
      * @param includes If provided, a list of patterns which are used to include
      *                 named services based on the selector name from the
      *                 {@link Service} annotation.
      * @return A map of providers of T
      */
     public synchronized List<Component<? extends T>> getNamedProviders(String... includes) {
-        ServiceLoader<? extends T> loader = ServiceLoader.load(serviceType);
         List<String> defaultedPatterns = (includes != null && includes.length > 0) ? Arrays.asList(includes) : List.of(".*");
         List<Pattern> qualifiedPatterns = defaultedPatterns.stream()
             .map(Pattern::compile).collect(Collectors.toList());
 
         List<Component<? extends T>> components = new ArrayList<>();
 
-        loader.stream().forEach(provider -> {
-            logger.trace("loading provider: " + provider.type());
-            Class<? extends T> type = provider.type();
-            if (!type.isAnnotationPresent(Service.class)) {
-                throw new RuntimeException(
-                    "Annotator services must be annotated with distinct selectors\n" +
-                        "such as @Service(Annotator.class,selector=\"myimpl42\")"
-                );
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = ClassLoader.getSystemClassLoader();
+        }
+        // The provider files are only read and digested when there is a cache to look them up in
+        WarmStartCache.Index<ArrayList<String[]>> index = null;
+        ArrayList<String[]> selectors = null;
+        if (WarmStartCache.isEnabled()) {
+            String servicesContent = WarmStartCache.resourceContent(classLoader, "META-INF/services/" + serviceType.getName());
+            index = WarmStartCache.index("services", servicesContent);
+            selectors = index.get(serviceType.getName());
+        }
+
+        if (selectors == null) {
+            ArrayList<String[]> found = new ArrayList<>();
+            ServiceLoader<? extends T> loader = ServiceLoader.load(serviceType);
+            loader.stream().forEach(provider -> {
+                logger.trace("loading provider: " + provider.type());
+                Class<? extends T> type = provider.type();
+                if (!type.isAnnotationPresent(Service.class)) {
+                    throw new RuntimeException(
+                        "Annotator services must be annotated with distinct selectors\n" +
+                            "such as @Service(Annotator.class,selector=\"myimpl42\")"
+                    );
+                }
+                Service service = type.getAnnotation(Service.class);
+                found.add(new String[]{type.getName(), service.selector(), service.maturity().name()});
+                for (Pattern pattern : qualifiedPatterns) {
+                    if (pattern.matcher(service.selector()).matches()) {
+                        components.add(new Component(service.selector(), provider, service.maturity()));
+                        break;
+                    }
+                }
+            });
+            if (index != null) {
+                index.put(serviceType.getName(), found);
             }
-            Service service = type.getAnnotation(Service.class);
+            return components;
+        }
+
+        for (String[] entry : selectors) {
             for (Pattern pattern : qualifiedPatterns) {
-                if (pattern.matcher(service.selector()).matches()) {
-                    components.add(new Component(service.selector(), provider, service.maturity()));
+                if (pattern.matcher(entry[1]).matches()) {
+                    components.add(new Component(entry[1], new IndexedProvider<>(serviceType, entry[0], classLoader), Maturity.valueOf(entry[2])));
                     break;
                 }
             }
-        });
-
+        }
         return components;
     }
 
+    /**
+     * A provider which was found in the service index, so that its class is only loaded when it is used.
+     */
+    private final static class IndexedProvider<T> implements ServiceLoader.Provider<T> {
+        private final Class<? extends T> serviceType;
+        private final String className;
+        private final ClassLoader classLoader;
+
+        private IndexedProvider(Class<? extends T> serviceType, String className, ClassLoader classLoader) {
+            this.serviceType = serviceType;
+            this.className = className;
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        public Class<? extends T> type() {
+            try {
+                return Class.forName(className, false, classLoader).asSubclass(serviceType);
+            } catch (ClassNotFoundException | ClassCastException e) {
+                throw new ServiceConfigurationError(serviceType.getName() + ": Provider " + className + " not found", e);
+            }
+        }
+
+        @Override
+        public T get() {
+            try {
+                return type().getConstructor().newInstance();
+            } catch (InvocationTargetException e) {
+                throw new ServiceConfigurationError(serviceType.getName() + ": Provider " + className + " could not be instantiated", e.getCause());
+            } catch (ReflectiveOperationException e) {
+                throw new ServiceConfigurationError(serviceType.getName() + ": Provider " + className + " could not be instantiated", e);
+            }
+        }
+    }
+
 
     public final static class Component<T> {
 
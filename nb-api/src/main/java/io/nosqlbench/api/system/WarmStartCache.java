@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.api.system;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * <p>An on-disk cache for the work which every nb5 process does the same way at startup, like parsing
+ * workload yaml and indexing service providers. Entries are keyed by a digest of the content they
+ * were computed from, so a changed input simply misses the cache. The build of NoSQLBench is part of
+ * every key, so entries are never shared across versions.</p>
+ *
+ * <p>The cache is only used when the {@value #CACHEDIR_PROPERTY} system property is set to a directory.
+ * Values are kept with Java serialization, and are restricted to the JDK value and collection types
+ * when they are read back. Any entry which can not be read is computed again and replaced.</p>
+ *
+ * <p>There are two forms of entries:
+ * <UL>
+ * <LI>{@link #get(String, String, Supplier)} keeps one value for each distinct content.</LI>
+ * <LI>{@link #index(String, String)} keeps a map of values which is filled in during a run, and
+ * saved when the process exits.</LI>
+ * </UL>
+ * </p>
+ */
+public final class WarmStartCache {
+    private final static Logger logger = LogManager.getLogger(WarmStartCache.class);
+
+    public final static String CACHEDIR_PROPERTY = "nb.warmcache";
+
+    private final static String FORMAT = "nbwarm1";
+    private final static ObjectInputFilter FILTER =
+        ObjectInputFilter.Config.createFilter("maxdepth=64;java.lang.*;java.math.*;java.util.*;!*");
+
+    private final static Map<String, Index<?>> indexes = new ConcurrentHashMap<>();
+    private static volatile Path cacheDir;
+    private static volatile boolean cacheDirResolved;
+    private static volatile String buildFingerprint;
+    private static volatile boolean saveHookAdded;
+
+    private WarmStartCache() {
+    }
+
+    /**
+     * @return true if a cache directory is configured and usable
+     */
+    public static boolean isEnabled() {
+        return getCacheDir() != null;
+    }
+
+    /**
+     * Get the value which was computed for the same content before, or compute it and keep it.
+     * The builder is called directly when the cache is not enabled. Values which can not be serialized
+     * are returned without being kept.
+     *
+     * @param region  A name for the kind of value, which is also the subdirectory it is kept in
+     * @param content The input which the value is computed from, in full
+     * @param builder A function which computes the value from the content
+     * @return the value, which is a private copy when it was read from the cache
+     */
+    public static <V extends Serializable> V get(String region, String content, Supplier<V> builder) {
+        Path dir = regionDir(region);
+        if (dir == null) {
+            return builder.get();
+        }
+        Path file = dir.resolve(digest(getBuildFingerprint(), region, content) + ".ser");
+        V cached = read(file);
+        if (cached != null) {
+            logger.trace(() -> "loaded " + region + " entry from " + file);
+            return cached;
+        }
+        V value = builder.get();
+        write(file, value);
+        return value;
+    }
+
+    /**
+     * Get the index of values for the given content. The same index is returned for the same region
+     * and content within a process. When the cache is enabled, it starts with the entries which were
+     * kept by earlier runs, and any new entries are saved when the process exits.
+     *
+     * @param region  A name for the kind of value, which is also the subdirectory it is kept in
+     * @param content The input which all values in the index depend on
+     * @return an index, which is only kept in memory when the cache is not enabled
+     */
+    @SuppressWarnings("unchecked")
+    public static <V extends Serializable> Index<V> index(String region, String content) {
+        String key = digest(getBuildFingerprint(), region, content);
+        return (Index<V>) indexes.computeIfAbsent(key, k -> {
+            Path dir = regionDir(region);
+            if (dir == null) {
+                return new Index<V>(null, new HashMap<>());
+            }
+            Path file = dir.resolve(k + ".idx");
+            HashMap<String, V> entries = read(file);
+            addSaveHook();
+            return new Index<>(file, entries != null ? entries : new HashMap<>());
+        });
+    }
+
+    /**
+     * Save any indexes which have new entries. This is done when the process exits.
+     */
+    public static void saveIndexes() {
+        for (Index<?> index : indexes.values()) {
+            index.save();
+        }
+    }
+
+    /**
+     * Read the content of every resource by the given name, like the service provider files
+     * under <em>META-INF/services</em>. The location and modification time of each resource is
+     * included, so the result changes when any of them are rebuilt.
+     *
+     * @param loader The class loader which would load the resources
+     * @param name   The resource name
+     * @return the combined content of the resources, or an empty string if there are none
+     */
+    public static String resourceContent(ClassLoader loader, String name) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            Enumeration<URL> urls = loader.getResources(name);
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                sb.append(url).append('@').append(modifiedTime(url)).append('\n');
+                try (InputStream in = url.openStream()) {
+                    sb.append(new String(in.readAllBytes(), StandardCharsets.UTF_8)).append('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read resources for '" + name + "': " + e, e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param parts Any strings
+     * @return the hex form of the SHA-256 digest of the strings
+     */
+    public static String digest(String... parts) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                md.update(part.getBytes(StandardCharsets.UTF_8));
+                md.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(md.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static long modifiedTime(URL url) {
+        try {
+            URL fileUrl = url;
+            if (fileUrl.getProtocol().equals("jar")) {
+                fileUrl = ((JarURLConnection) fileUrl.openConnection()).getJarFileURL();
+            }
+            if (fileUrl.getProtocol().equals("file")) {
+                return Files.getLastModifiedTime(Path.of(fileUrl.toURI())).toMillis();
+            }
+        } catch (Exception e) {
+            logger.debug(() -> "unable to get the modification time of " + url + ": " + e);
+        }
+        return 0L;
+    }
+
+    private static String getBuildFingerprint() {
+        if (buildFingerprint == null) {
+            StringBuilder sb = new StringBuilder(FORMAT);
+            CodeSource codeSource = WarmStartCache.class.getProtectionDomain().getCodeSource();
+            if (codeSource != null && codeSource.getLocation() != null) {
+                URL location = codeSource.getLocation();
+                sb.append(':').append(location).append('@').append(modifiedTime(location));
+            }
+            Package pkg = WarmStartCache.class.getPackage();
+            if (pkg != null && pkg.getImplementationVersion() != null) {
+                sb.append(':').append(pkg.getImplementationVersion());
+            }
+            buildFingerprint = sb.toString();
+        }
+        return buildFingerprint;
+    }
+
+    private static Path getCacheDir() {
+        if (!cacheDirResolved) {
+            synchronized (WarmStartCache.class) {
+                if (!cacheDirResolved) {
+                    String dirname = NBEnvironment.INSTANCE.getOr(CACHEDIR_PROPERTY, "");
+                    if (!dirname.isBlank()) {
+                        try {
+                            cacheDir = Files.createDirectories(Path.of(dirname));
+                            logger.info(() -> "using warm start cache in " + cacheDir);
+                        } catch (IOException e) {
+                            logger.warn("Unable to use '" + dirname + "' as a warm start cache: " + e);
+                        }
+                    }
+                    cacheDirResolved = true;
+                }
+            }
+        }
+        return cacheDir;
+    }
+
+    private static Path regionDir(String region) {
+        Path dir = getCacheDir();
+        if (dir == null) {
+            return null;
+        }
+        try {
+            return Files.createDirectories(dir.resolve(region));
+        } catch (IOException e) {
+            logger.warn("Unable to use '" + dir.resolve(region) + "' as a warm start cache: " + e);
+            return null;
+        }
+    }
+
+    private static synchronized void addSaveHook() {
+        if (!saveHookAdded) {
+            Runtime.getRuntime().addShutdownHook(new Thread(WarmStartCache::saveIndexes, "warmcache-save"));
+            saveHookAdded = true;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> V read(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            in.setObjectInputFilter(FILTER);
+            if (!FORMAT.equals(in.readUTF())) {
+                return null;
+            }
+            return (V) in.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            logger.warn("Unable to read warm start cache file " + file + ", so it will be replaced: " + e);
+            return null;
+        }
+    }
+
+    static void write(Path file, Object value) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeUTF(FORMAT);
+                out.writeObject(value);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NotSerializableException e) {
+            logger.debug(() -> "not caching a value for " + file + ", since it contains a " + e.getMessage());
+        } catch (IOException e) {
+            logger.warn("Unable to write warm start cache file " + file + ": " + e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * A map of values which all depend on the same content, like the resolved constructors for
+     * the functions of one function library.
+     *
+     * @param <V> The value type
+     */
+    public final static class Index<V extends Serializable> {
+        private final Path file;
+        private final Map<String, V> entries;
+        private volatile boolean dirty;
+
+        private Index(Path file, Map<String, V> entries) {
+            this.file = file;
+            this.entries = new ConcurrentHashMap<>(entries);
+        }
+
+        public V get(String key) {
+            return entries.get(key);
+        }
+
+        public void put(String key, V value) {
+            entries.put(key, value);
+            dirty = true;
+        }
+
+        public int size() {
+            return entries.size();
+        }
+
+        synchronized void save() {
+            if (file == null || !dirty) {
+                return;
+            }
+            dirty = false;
+            write(file, new HashMap<>(entries));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.api.metadata;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.OptionalInt;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ThreadIndexTest {
+
+    @Test
+    public void testUnindexedThread() throws InterruptedException {
+        assertThat(currentIndexIn(Thread::new, () -> {})).isEmpty();
+    }
+
+    @Test
+    public void testIndexSetByThread() throws InterruptedException {
+        assertThat(currentIndexIn(Thread::new, () -> ThreadIndex.set(7))).hasValue(7);
+    }
+
+    @Test
+    public void testIndexedThread() throws InterruptedException {
+        assertThat(currentIndexIn(r -> new IndexedTestThread(3, r), () -> {})).hasValue(3);
+    }
+
+    private static OptionalInt currentIndexIn(ThreadFactory factory, Runnable setup) throws InterruptedException {
+        AtomicReference<OptionalInt> index = new AtomicReference<>();
+        Thread thread = factory.newThread(() -> {
+            setup.run();
+            index.set(ThreadIndex.current());
+        });
+        thread.start();
+        thread.join();
+        return index.get();
+    }
+
+    private static class IndexedTestThread extends Thread implements Indexed {
+        private final int index;
+
+        public IndexedTestThread(int index, Runnable r) {
+            super(r);
+            this.index = index;
+        }
+
+        @Override
+        public int getIndex() {
+            return index;
+        }
+    }
+}
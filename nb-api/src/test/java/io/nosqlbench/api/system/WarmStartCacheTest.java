@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.api.system;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WarmStartCacheTest {
+
+    @Test
+    public void testRoundTrip(@TempDir Path dir) {
+        LinkedHashMap<String, Object> doc = new LinkedHashMap<>();
+        doc.put("bindings", new LinkedHashMap<>(Map.of("key", "Mod(10)")));
+        doc.put("ops", new ArrayList<>(List.of("select * from t", 42L, 3.5d)));
+
+        Path file = dir.resolve("doc.ser");
+        WarmStartCache.write(file, doc);
+        Object read = WarmStartCache.read(file);
+        assertThat(read).isEqualTo(doc);
+        assertThat(read).isNotSameAs(doc);
+    }
+
+    @Test
+    public void testRejectsOtherTypes(@TempDir Path dir) {
+        Path file = dir.resolve("other.ser");
+        WarmStartCache.write(file, new ArrayList<>(List.of(new Unexpected())));
+        assertThat(file).exists();
+        Object read = WarmStartCache.read(file);
+        assertThat(read).isNull();
+    }
+
+    @Test
+    public void testNotSerializableIsNotWritten(@TempDir Path dir) {
+        Path file = dir.resolve("thread.ser");
+        WarmStartCache.write(file, new ArrayList<>(List.of(new Object())));
+        assertThat(file).doesNotExist();
+        assertThat(dir.toFile().list()).isEmpty();
+    }
+
+    @Test
+    public void testIndexIsSharedForSameContent() {
+        WarmStartCache.Index<String> index = WarmStartCache.index("test", "content-a");
+        index.put("key", "value");
+        WarmStartCache.Index<String> same = WarmStartCache.index("test", "content-a");
+        assertThat(same).isSameAs(index);
+        assertThat(same.get("key")).isEqualTo("value");
+        WarmStartCache.Index<String> other = WarmStartCache.index("test", "content-b");
+        assertThat(other.get("key")).isNull();
+    }
+
+    @Test
+    public void testDigestSeparatesParts() {
+        assertThat(WarmStartCache.digest("ab", "c")).isNotEqualTo(WarmStartCache.digest("a", "bc"));
+        assertThat(WarmStartCache.digest("a", "b")).hasSize(64);
+    }
+
+    private static class Unexpected implements Serializable {
+    }
+}
@@ -14,9 +14,16 @@
  * limitations under the License.
  */
 
+
 // params:
-// sample_seconds
-// alias
+// workload, driver
+// rate_step, max_rate
+// sample_seconds (optional, samples each rate for exactly this long)
+//
+// Raises the rate of an activity by rate_step until it misses its latency SLO or
+// error rate, or reaches max_rate, and writes each rate with its latencies to
+// stepup_metrics/stepup.json. Any other setting of the capacity search
+// controller may be given as a param too, like latency_slo_ms=20.
 //
 // Naming Ideas:
 // SLAPlotter, SLACharter, SLAMapper
@@ -32,25 +39,6 @@ function printf(args) {
     java.lang.System.out.printf(arguments[0], values);
 }
 
-const SCRIPT_PARAMS = ["sample_seconds", "max_rate", "rate_step"];
-
-function filterScriptParams(activitydef) {
-    var def = {};
-    for (var p in activitydef) {
-        var isScriptParam = false;
-        for (i in SCRIPT_PARAMS) {
-            if (p == SCRIPT_PARAMS[i]) {
-                isScriptParam = true;
-                break;
-            }
-        }
-        if (!isScriptParam) {
-            def[p] = activitydef[p]
-        }
-    }
-    return def;
-}
-
 var workload = "TEMPLATE(workload,UNSPECIFIED)";
 if (workload=="UNSPECIFIED") {
  print("workload was unspecified. Please set workload and try again.");
@@ -58,70 +46,59 @@ if (workload=="UNSPECIFIED") {
 }
 printf("workload=%s\n", workload);
 
-var sample_seconds = 600;
-sample_seconds = 0 + TEMPLATE(sample_seconds,sample_seconds);
-printf("sample_seconds=%d\n", sample_seconds);
+var CapacitySearchConfig = Java.type('io.nosqlbench.engine.core.lifecycle.capacity.CapacitySearchConfig');
+var SEARCH_PARAMS = CapacitySearchConfig.getParamNames();
+const SCRIPT_PARAMS = ["sample_seconds", "max_rate"];
 
-var max_rate = 10000;
-max_rate = 0 + TEMPLATE(max_rate,max_rate);
-print("typeof(max_rate)=" + typeof (max_rate));
-printf("max_rate=%d\n", max_rate);
-
-var rate_step = 10000;
-rate_step = 0 + TEMPLATE(rate_step,rate_step);
-printf("rate_step=%d\n", rate_step);
+var rate_step = 0 + TEMPLATE(rate_step,10000);
+var max_rate = 0 + TEMPLATE(max_rate,10000);
+printf("rate_step=%d max_rate=%d\n", rate_step, max_rate);
 
 var driver = "TEMPLATE(driver,diag)"
 printf("driver=%s\n",driver);
 
-
-print("starting activity for stepup analysis");
-var activitydef = filterScriptParams(params.withDefaults({
+var activitydef = {};
+var searchparams = {
+    strategy: "stepup",
+    rate_start: rate_step,
+    rate_step: rate_step,
+    rate_max: max_rate,
+    report: "stepup_metrics/stepup.json"
+};
+if (params.sample_seconds) {
+    searchparams.settle_seconds = 5;
+    searchparams.min_intervals = params.sample_seconds;
+    searchparams.max_intervals = params.sample_seconds;
+}
+var allparams = params.withDefaults({
     'alias': 'stepup',
     'driver': driver,
     'tags':'any(block:main.*,block:main)',
     'workload' : 'TEMPLATE(workload)',
-    'cycles': '1t',
-    'stride': '1000',
-    'striderate': '1:1.05:restart'
-}));
-
-var csvlogger = csvoutput.open('stepup_metrics/stepup_rates.csv', 'time', 'workload', 'rate', 'ops')
-var csvhistologger=csvmetrics.log("stepup_metrics");
-csvlogger.write({'time': java.lang.System.currentTimeMillis()/1000});
-
-scenario.start(activitydef);
-
-printf("waiting 5 seconds for metrics warm-up...\n");
-scenario.waitMillis(5000);
-
-for (var rate = rate_step; rate < max_rate + rate_step; rate += rate_step) {
-    if (rate > max_rate) {
-        rate = max_rate;
+    'cycles': '1t'
+});
+for (var p in allparams) {
+    if (SEARCH_PARAMS.contains(p)) {
+        searchparams[p] = allparams[p];
+    } else if (SCRIPT_PARAMS.indexOf(p) < 0) {
+        activitydef[p] = allparams[p];
     }
-
-    print("rate=" + rate);
-
-    activities.stepup.striderate = "" + (rate / 1000.0)+":1.05:restart";
-    print("sampling performance for (sample_seconds=" + params.sample_seconds + ")...");
-
-    var precount = metrics.stepup.cycles.servicetime.count
-    var waitmillis = sample_seconds * 1000;
-    print("waitmillis=" + waitmillis);
-    scenario.waitMillis("" + waitmillis);
-    var postcount = metrics.stepup.cycles.servicetime.count
-    var count = postcount - precount;
-    var ops_per_second = count / params.sample_seconds;
-    printf("ops_per_second = %f (%f / %f)\n", ops_per_second, count, sample_seconds);
-    csvlogger.write({
-        'time': java.lang.System.currentTimeMillis()/1000,
-        'workload': activitydef.workload,
-        'rate': rate,
-        'ops': ops_per_second
-    });
-    csvhistologger.report();
 }
+activitydef.cyclerate = "" + searchparams.rate_start + ":1.05";
 
-print("stopping activity after stepup analysis\n");
-scenario.stop("stepup")
+print("starting activity for stepup analysis");
+scenario.start(activitydef);
+var report = capacity.search(activitydef.alias, searchparams);
+
+report.getSteps().forEach(function (step) {
+    printf("rate=%s ops_per_second=%s latency=%sms %s\n",
+        step.getTargetRate().toFixed(0),
+        step.getAchievedRate().toFixed(2),
+        step.getLatencyMillis().toFixed(2),
+        step.isPassed() ? "PASS" : "FAIL"
+    );
+});
+printf("%s\n", report.toString());
 
+print("stopping activity after stepup analysis\n");
+scenario.stop(activitydef.alias)
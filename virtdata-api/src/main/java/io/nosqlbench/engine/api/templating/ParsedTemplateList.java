@@ -60,7 +60,7 @@ public class ParsedTemplateList implements LongFunction<List<?>> {
                     dindexes.add(i);
                 }
             } else if (item instanceof Map submap) {
-                ParsedTemplateMap mapTemplate = new ParsedTemplateMap("anonymous", submap, bindings, cfgsources);
+                ParsedTemplateMap mapTemplate = new ParsedTemplateMap("anonymous", submap, bindings, cfgsources, false);
                 if (mapTemplate.isStatic()) {
                     protolist[i]=submap;
                 } else {
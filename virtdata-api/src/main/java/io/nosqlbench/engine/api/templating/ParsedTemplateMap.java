@@ -17,6 +17,7 @@
 package io.nosqlbench.engine.api.templating;
 
 import io.nosqlbench.engine.api.templating.binders.ArrayBinder;
+import io.nosqlbench.engine.api.templating.binders.FieldSlotBinder;
 import io.nosqlbench.engine.api.templating.binders.ListBinder;
 import io.nosqlbench.engine.api.templating.binders.OrderedMapBinder;
 import io.nosqlbench.api.config.fieldreaders.DynamicFieldReader;
@@ -27,6 +28,7 @@ import io.nosqlbench.api.config.standard.NBTypeConverter;
 import io.nosqlbench.api.errors.BasicError;
 import io.nosqlbench.api.errors.OpConfigError;
 import io.nosqlbench.virtdata.core.bindings.DataMapper;
+import io.nosqlbench.virtdata.core.bindings.SharedBindingPrefixes;
 import io.nosqlbench.virtdata.core.bindings.VirtData;
 import io.nosqlbench.virtdata.core.templates.BindPoint;
 import io.nosqlbench.virtdata.core.templates.CapturePoint;
@@ -84,18 +86,56 @@ public class ParsedTemplateMap implements LongFunction<Map<String, ?>>, StaticFi
      * when rendering the full map with dynamic values.
      */
     private final LinkedHashMap<String, Object> protomap = new LinkedHashMap<>();
+    /**
+     * A flat form of the protomap which is used to render the full map for each cycle. It is built
+     * on first use, and discarded when any fields are taken out of the template.
+     */
+    private volatile FieldSlotBinder protoslots;
     private final List<Map<String, Object>> cfgsources;
     private Map<String, Object> specmap;
     private Map<String, String> bindings;
     private final String name;
 
     public ParsedTemplateMap(String name, Map<String, Object> map, Map<String, String> bindings, List<Map<String, Object>> cfgsources) {
+        this(name, map, bindings, cfgsources, true);
+    }
+
+    /**
+     * @param root true if this is the top level of the template, in which case the bindings of all of its
+     *             fields are resolved in one {@link SharedBindingPrefixes} scope
+     */
+    ParsedTemplateMap(String name, Map<String, Object> map, Map<String, String> bindings, List<Map<String, Object>> cfgsources, boolean root) {
         this.name = name;
         this.cfgsources = cfgsources;
-        applyTemplateFields(map, bindings);
+        if (root) {
+            List<String> bindspecs = new ArrayList<>();
+            addBindspecs(map, bindings, bindspecs);
+            try (SharedBindingPrefixes scope = SharedBindingPrefixes.open(bindspecs)) {
+                applyTemplateFields(map, bindings);
+            }
+        } else {
+            applyTemplateFields(map, bindings);
+        }
         mapsize = statics.size() + dynamics.size();
     }
 
+    /**
+     * Add the binding recipes of every bind point in the template value to the list, once for
+     * each string template which uses them.
+     */
+    private static void addBindspecs(Object value, Map<String, String> bindings, List<String> bindspecs) {
+        if (value instanceof CharSequence charvalue) {
+            ParsedTemplateString.of(charvalue.toString(), bindings).getBindPoints().stream()
+                .map(BindPoint::getBindspec)
+                .distinct()
+                .forEach(bindspecs::add);
+        } else if (value instanceof Map<?, ?> mapvalue) {
+            mapvalue.values().forEach(v -> addBindspecs(v, bindings, bindspecs));
+        } else if (value instanceof List<?> listvalue) {
+            listvalue.forEach(v -> addBindspecs(v, bindings, bindspecs));
+        }
+    }
+
     // For now, we only allow bind points to reference bindings, not other op template
     // fields. This seems like the saner and less confusing approach, so implementing
     // op field references should be left until it is requested if at all
@@ -133,7 +173,7 @@ public class ParsedTemplateMap implements LongFunction<Map<String, ?>>, StaticFi
                     }
                 });
                 Map<String, Object> submap = (Map<String, Object>) v;
-                ParsedTemplateMap subtpl = new ParsedTemplateMap(getName(),submap, bindings, cfgsources);
+                ParsedTemplateMap subtpl = new ParsedTemplateMap(getName(),submap, bindings, cfgsources, false);
                 this.captures.addAll(subtpl.getCaptures());
                 if (subtpl.isStatic()) {
                     statics.put(k, submap);
@@ -219,9 +259,22 @@ public class ParsedTemplateMap implements LongFunction<Map<String, ?>>, StaticFi
      */
     @Override
     public Map<String, Object> apply(long value) {
-        LinkedHashMap<String, Object> map = new LinkedHashMap<>(protomap);
-        dynamics.forEach((k, v) -> map.put(k, v.apply(value)));
-        return map;
+        FieldSlotBinder slots = this.protoslots;
+        if (slots == null) {
+            slots = newFieldSlotBinder();
+            this.protoslots = slots;
+        }
+        return slots.applyMap(value);
+    }
+
+    /**
+     * Create a flat, slot-addressed binder for all op fields, which adapters can use in place of
+     * {@link #apply(long)} to avoid building a new map for every cycle. The field slots are in
+     * the same order as the fields of the op template.
+     * @return a new {@link FieldSlotBinder} for all op fields
+     */
+    public FieldSlotBinder newFieldSlotBinder() {
+        return new FieldSlotBinder(this, new ArrayList<>(protomap.keySet()));
     }
 
     public Map<String, Object> applyFull(long value) {
@@ -299,6 +352,7 @@ public class ParsedTemplateMap implements LongFunction<Map<String, ?>>, StaticFi
     public <T> T takeStaticValue(String field, Class<T> classOfT) {
         if (statics.containsKey(field)) {
             protomap.remove(field);
+            protoslots = null;
             T value = (T) statics.remove(field);
             return value;
         } else if (isConfig(field)) {
@@ -394,6 +448,7 @@ public class ParsedTemplateMap implements LongFunction<Map<String, ?>>, StaticFi
         if (statics.containsKey(name)) {
             Object value = statics.remove(name);
             protomap.remove(name);
+            protoslots = null;
             return NBTypeConverter.convertOr(value, defaultValue);
         }
         for (Map<String, Object> cfgsource : cfgsources) {
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.templating.binders;
+
+import io.nosqlbench.api.errors.OpConfigError;
+import io.nosqlbench.engine.api.templating.ParsedTemplateMap;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * <p>A flat, slot-addressed form of the op field map. Each op field is assigned a fixed slot
+ * when the binder is created, so that adapters can resolve field names to slot indexes once
+ * with {@link #getSlot(String)}, and then read field values by index on each cycle, instead of
+ * looking them up in a new {@link Map} which is built for every cycle.</p>
+ *
+ * <p>Static field values are set in each slot array once when it is created. Only the dynamic
+ * slots are written on each cycle.</p>
+ *
+ * <p>The array returned by {@link #apply(long)} is owned by the calling thread and is reused
+ * for the next call on the same thread. It must not be retained nor shared with other threads.
+ * Use {@link #applyInto(long, Object[])} with an array from {@link #newSlots()} when the values
+ * need to outlive the current cycle.</p>
+ */
+public class FieldSlotBinder implements LongFunction<Object[]> {
+
+    private final String[] names;
+    private final Object[] protoary;
+    private final LongFunction<?>[] mapperary;
+    private final int[] dindexes;
+    private final ThreadLocal<Object[]> tlslots = ThreadLocal.withInitial(this::newSlots);
+
+    public FieldSlotBinder(ParsedTemplateMap cmd, String[] fields) {
+        this.names = Arrays.copyOf(fields, fields.length);
+        this.protoary = new Object[fields.length];
+        this.mapperary = new LongFunction<?>[fields.length];
+        int[] indexes = new int[fields.length];
+        int nextIndex = 0;
+
+        for (int i = 0; i < fields.length; i++) {
+            String field = fields[i];
+            if (cmd.isStatic(field)) {
+                protoary[i] = cmd.getStaticValue(field);
+            } else if (cmd.isDynamic(field)) {
+                mapperary[i] = cmd.getMapper(field);
+                indexes[nextIndex++] = i;
+            } else {
+                throw new OpConfigError("There was no field named '" + field + "' while building a FieldSlotBinder.");
+            }
+        }
+        this.dindexes = Arrays.copyOf(indexes, nextIndex);
+    }
+
+    public FieldSlotBinder(ParsedTemplateMap cmd, List<String> fields) {
+        this(cmd, fields.toArray(new String[0]));
+    }
+
+    /**
+     * @param field The op field name
+     * @return The slot index of the named field, or -1 if there is no such field
+     */
+    public int getSlot(String field) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(field)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The op field names, in slot order
+     */
+    public String[] getFieldNames() {
+        return Arrays.copyOf(names, names.length);
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @return a new slot array with the static field values already set
+     */
+    public Object[] newSlots() {
+        return Arrays.copyOf(protoary, protoary.length);
+    }
+
+    /**
+     * Write the dynamic field values for the given input into a slot array which was created
+     * with {@link #newSlots()}.
+     * @param value The input value to the binding functions
+     * @param slots The slot array to fill
+     * @return the provided slot array
+     */
+    public Object[] applyInto(long value, Object[] slots) {
+        for (int dindex : this.dindexes) {
+            slots[dindex] = this.mapperary[dindex].apply(value);
+        }
+        return slots;
+    }
+
+    /**
+     * @param value The input value to the binding functions
+     * @return the slot array of the calling thread, filled for the given input
+     */
+    @Override
+    public Object[] apply(long value) {
+        return applyInto(value, tlslots.get());
+    }
+
+    /**
+     * @param value The input value to the binding functions
+     * @return a new ordered map of field names to values, sized for the known number of fields
+     */
+    public Map<String, Object> applyMap(long value) {
+        LinkedHashMap<String, Object> map = new LinkedHashMap<>((int) (names.length / 0.75f) + 1);
+        int dpos = 0;
+        for (int i = 0; i < names.length; i++) {
+            if (dpos < dindexes.length && dindexes[dpos] == i) {
+                map.put(names[i], mapperary[i].apply(value));
+                dpos++;
+            } else {
+                map.put(names[i], protoary[i]);
+            }
+        }
+        return map;
+    }
+}
@@ -31,5 +31,6 @@ public enum Category {
     objects,
     periodic,
     experimental,
+    nondeterministic,
     HOF
 }
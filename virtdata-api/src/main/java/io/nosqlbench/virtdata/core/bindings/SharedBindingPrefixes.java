@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.core.bindings;
+
+import io.nosqlbench.api.system.NBEnvironment;
+import io.nosqlbench.virtdata.lang.ast.Expression;
+import io.nosqlbench.virtdata.lang.ast.VirtDataFlow;
+import io.nosqlbench.virtdata.lang.parser.VirtDataDSL;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * <p>A scope in which bindings which start with the same functions share the values of those
+ * functions, so that they are computed only once for each input. For example, with the bindings
+ * <pre>{@code
+ *   id: Hash(); Mod(1000000); ToString()
+ *   name: Hash(); Mod(1000000); NumberNameToString()
+ *   score: Hash(); Uniform(0,100)
+ * }</pre>
+ * the values of <em>Hash(); Mod(1000000)</em> and of <em>Hash()</em> are each remembered on the calling thread
+ * for the last input, and the bindings are composed from them. Only the points where the bindings of a scope
+ * branch from each other, or where one of them ends, are remembered in this way, since a longer prefix which is
+ * shared by exactly the same bindings includes all the work of the shorter one.</p>
+ *
+ * <p>A scope is opened on the current thread with all the binding recipes which will be resolved in it, and every
+ * binding which is resolved on the thread until it is closed takes part in it. Scopes may be nested, as when the
+ * op templates of an op sequence are resolved in the scope of the sequence. A nested scope decides which prefixes to
+ * share only from its own recipes, but reuses the shared functions of the outermost scope, so that identical
+ * prefixes across op templates are also resolved to the same function.</p>
+ *
+ * <p>Only prefixes of thread-safe functions with primitive, boxed or String results are shared, since these can be
+ * assumed to be deterministic for their input and their values can not be modified by the user of one binding.
+ * This is only enabled when the {@value #SHARE_PROPERTY} system property is set to true.</p>
+ */
+public class SharedBindingPrefixes implements AutoCloseable {
+
+    public final static String SHARE_PROPERTY = "nb.bindings.share";
+
+    private final static ThreadLocal<SharedBindingPrefixes> current = new ThreadLocal<>();
+
+    private final boolean installed;
+    private final SharedBindingPrefixes previous;
+    private final Map<String, Integer> counts = new HashMap<>();
+    private final Map<String, Integer> maxExtensionCounts = new HashMap<>();
+    private final Map<Object, Object> sharedFunctions;
+
+    private SharedBindingPrefixes(SharedBindingPrefixes outer, boolean installed) {
+        this.installed = installed;
+        this.previous = current.get();
+        this.sharedFunctions = (outer != null) ? outer.sharedFunctions : new ConcurrentHashMap<>();
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(NBEnvironment.INSTANCE.getOr(SHARE_PROPERTY, "false"));
+    }
+
+    /**
+     * Open a scope on the current thread for the given binding recipes. It must be closed on the same thread.
+     *
+     * @param recipes the binding recipes which will be resolved in this scope, including duplicates
+     * @return the scope, which does nothing if sharing is not enabled
+     */
+    public static SharedBindingPrefixes open(Collection<String> recipes) {
+        if (!isEnabled()) {
+            return new SharedBindingPrefixes(null, false);
+        }
+        SharedBindingPrefixes scope = new SharedBindingPrefixes(current.get(), true);
+        for (String recipe : recipes) {
+            scope.count(recipe);
+        }
+        current.set(scope);
+        return scope;
+    }
+
+    /**
+     * Open a scope on the current thread within this one, so that work which is done for this scope on other
+     * threads also shares its functions. It has no recipes of its own, and must be closed on the same thread.
+     *
+     * @return the nested scope
+     */
+    public SharedBindingPrefixes enter() {
+        SharedBindingPrefixes scope = new SharedBindingPrefixes(this, true);
+        current.set(scope);
+        return scope;
+    }
+
+    /**
+     * @return the innermost scope which is open on the current thread, if any
+     */
+    public static Optional<SharedBindingPrefixes> current() {
+        return Optional.ofNullable(current.get());
+    }
+
+    private void count(String recipe) {
+        if (recipe == null) {
+            return;
+        }
+        VirtDataDSL.ParseResult parseResult = VirtDataDSL.parse(recipe);
+        if (parseResult.throwable != null) {
+            return;
+        }
+        List<String> prefixes = prefixesOf(parseResult.flow);
+        for (int i = 0; i < prefixes.size(); i++) {
+            int count = counts.merge(prefixes.get(i), 1, Integer::sum);
+            if (i > 0) {
+                maxExtensionCounts.merge(prefixes.get(i - 1), count, Math::max);
+            }
+        }
+    }
+
+    /**
+     * @return the text of each prefix of the flow, from the first function alone to the whole flow,
+     * or none if the flow uses variable assignments
+     */
+    static List<String> prefixesOf(VirtDataFlow flow) {
+        List<String> prefixes = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        for (Expression expression : flow.getExpressions()) {
+            if (expression.getAssignment() != null) {
+                return List.of();
+            }
+            if (sb.length() > 0) {
+                sb.append("; ");
+            }
+            sb.append(expression.getCall());
+            prefixes.add(sb.toString());
+        }
+        return prefixes;
+    }
+
+    /**
+     * @return true if this prefix is used by more than one binding of this scope, and they do not all
+     * continue with the same next function
+     */
+    public boolean isBranchPoint(String prefix) {
+        int count = counts.getOrDefault(prefix, 0);
+        return count > 1 && maxExtensionCounts.getOrDefault(prefix, 0) < count;
+    }
+
+    /**
+     * @param key         the identity of a prefix, including the types of its resolved functions
+     * @param constructor creates the shared function if it is not yet known to the outermost scope
+     * @return the shared function for this prefix
+     */
+    public Object sharedFunction(Object key, Supplier<Object> constructor) {
+        return sharedFunctions.computeIfAbsent(key, k -> constructor.get());
+    }
+
+    @Override
+    public void close() {
+        if (!installed) {
+            return;
+        }
+        if (previous != null) {
+            current.set(previous);
+        } else {
+            current.remove();
+        }
+    }
+}
@@ -16,7 +16,11 @@
 
 package io.nosqlbench.virtdata.core.bindings;
 
+import io.nosqlbench.virtdata.api.annotations.Categories;
+import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.core.composers.FunctionAssembly;
+import io.nosqlbench.virtdata.core.composers.FusedFunctionCompiler;
+import io.nosqlbench.virtdata.core.composers.MemoizedFunctions;
 import io.nosqlbench.virtdata.lang.ast.FunctionCall;
 import io.nosqlbench.virtdata.lang.ast.VirtDataFlow;
 import io.nosqlbench.virtdata.lang.parser.VirtDataDSL;
@@ -192,22 +196,38 @@ public class VirtDataComposer {
 
         List<ResolvedFunction> flattenedFuncs = optimizePath(funcs, ValueType.classOfType(flow.getLastExpression().getCall().getOutputType()));
 
-        if (flattenedFuncs.size() == 1) {
-            diagnostics.trace("FUNCTION resolution succeeded (single): '" + flow + "'");
-            return diagnostics.setResolvedFunction(flattenedFuncs.get(0));
+        boolean isThreadSafe = flattenedFuncs.stream().allMatch(ResolvedFunction::isThreadSafe);
+        List<Object> functionObjects;
+        try {
+            functionObjects = shareBranchPoints(flow, flattenedFuncs);
+        } catch (Exception e) {
+            return diagnostics.error(new RuntimeException("FUNCTION resolution failed: '" + flow + "': " + e, e));
         }
 
-        FunctionAssembly assembly = new FunctionAssembly();
+        if (functionObjects.size() == 1) {
+            if (functionObjects.get(0) == flattenedFuncs.get(0).getFunctionObject()) {
+                diagnostics.trace("FUNCTION resolution succeeded (single): '" + flow + "'");
+                return diagnostics.setResolvedFunction(flattenedFuncs.get(0));
+            }
+            diagnostics.trace("FUNCTION resolution succeeded (shared): '" + flow + "'");
+            return diagnostics.setResolvedFunction(new ResolvedFunction(functionObjects.get(0), isThreadSafe, null, null, null, null));
+        }
 
-        boolean isThreadSafe = true;
         diagnostics.trace("FUNCTION chain selected: (multi) '" + this.summarize(flattenedFuncs, "  - ") + "'");
-        for (ResolvedFunction resolvedFunction : flattenedFuncs) {
+
+        // The composed functions are only assembled when the chain can not be fused
+        if (FusedFunctionCompiler.isEnabled()) {
+            Optional<Object> fused = FusedFunctionCompiler.fuse(functionObjects);
+            if (fused.isPresent()) {
+                diagnostics.trace("FUNCTION resolution succeeded (fused): '" + flow + "'");
+                return diagnostics.setResolvedFunction(new ResolvedFunction(fused.get(), isThreadSafe, null, null, null, null));
+            }
+        }
+
+        FunctionAssembly assembly = new FunctionAssembly();
+        for (Object functionObject : functionObjects) {
             try {
-                Object functionObject = resolvedFunction.getFunctionObject();
                 assembly.andThen(functionObject);
-                if (!resolvedFunction.isThreadSafe()) {
-                    isThreadSafe = false;
-                }
             } catch (Exception e) {
                 String flowdata = flow != null ? flow.toString() : "undefined";
                 return diagnostics.error(new RuntimeException("FUNCTION resolution failed: '" + flowdata + "': " + e,e));
@@ -218,6 +238,75 @@ public class VirtDataComposer {
         return diagnostics.setResolvedFunction(composedFunction);
     }
 
+    /**
+     * When a {@link SharedBindingPrefixes} scope is open, replace each leading part of the flow which other bindings
+     * of the scope start with by a shared function which remembers its last value. Each shared part is composed from
+     * the next shorter one, so that the functions of a common prefix are applied only once per input.
+     *
+     * @return the function objects to compose, in order
+     */
+    private List<Object> shareBranchPoints(VirtDataFlow flow, List<ResolvedFunction> flattenedFuncs) {
+        List<Object> functionObjects = flattenedFuncs.stream().map(ResolvedFunction::getFunctionObject).collect(Collectors.toList());
+        Optional<SharedBindingPrefixes> scope = SharedBindingPrefixes.current();
+        List<String> prefixes = SharedBindingPrefixes.prefixesOf(flow);
+        if (scope.isEmpty() || prefixes.size() != flattenedFuncs.size()) {
+            return functionObjects;
+        }
+
+        Object shared = null;
+        int sharedLength = 0;
+        List<Class<?>> stageTypes = new ArrayList<>();
+        for (int length = 1; length <= flattenedFuncs.size(); length++) {
+            ResolvedFunction stage = flattenedFuncs.get(length - 1);
+            if (!stage.isThreadSafe() || !isInputDetermined(stage.getFunctionObject())) {
+                break;
+            }
+            stageTypes.add(stage.getFunctionObject().getClass());
+            Class<?> resultClass = stage.getResultClass();
+            if (!scope.get().isBranchPoint(prefixes.get(length - 1))
+                || !(ClassUtils.isPrimitiveOrWrapper(resultClass) || resultClass == String.class)) {
+                continue;
+            }
+            List<Object> key = List.of(prefixes.get(length - 1), List.copyOf(stageTypes), new HashMap<>(customElements));
+            Object inner = shared;
+            List<Object> stages = functionObjects.subList(sharedLength, length);
+            shared = scope.get().sharedFunction(key, () -> {
+                FunctionAssembly prefixAssembly = new FunctionAssembly();
+                if (inner != null) {
+                    prefixAssembly.andThen(inner);
+                }
+                stages.forEach(prefixAssembly::andThen);
+                return MemoizedFunctions.memoize(prefixAssembly.getResolvedFunction().getFunctionObject());
+            });
+            sharedLength = length;
+        }
+        if (shared == null) {
+            return functionObjects;
+        }
+        List<Object> composed = new ArrayList<>();
+        composed.add(shared);
+        composed.addAll(functionObjects.subList(sharedLength, functionObjects.size()));
+        return composed;
+    }
+
+    /**
+     * A shared prefix remembers its value for the last input, so it may only contain functions whose
+     * result depends on nothing but their input. Functions which keep state between calls, like the
+     * Load, Save, Swap and Clear functions, or which read the clock or the current thread, are excluded.
+     */
+    private static boolean isInputDetermined(Object functionObject) {
+        Categories categories = functionObject.getClass().getAnnotation(Categories.class);
+        if (categories == null) {
+            return true;
+        }
+        for (Category category : categories.value()) {
+            if (category == Category.state || category == Category.nondeterministic) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public Optional<ResolvedFunction> resolveFunctionFlow(VirtDataFlow flow) {
         ResolverDiagnostics resolverDiagnostics = resolveDiagnosticFunctionFlow(flow);
         return resolverDiagnostics.getResolvedFunction();
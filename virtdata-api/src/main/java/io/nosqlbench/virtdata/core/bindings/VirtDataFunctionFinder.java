@@ -16,23 +16,54 @@
 
 package io.nosqlbench.virtdata.core.bindings;
 
+import io.nosqlbench.api.system.WarmStartCache;
 import io.nosqlbench.virtdata.api.processors.DocFuncData;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+/**
+ * Finds the names of all function classes from their doc info services. Since this instantiates every
+ * doc info class, the names are kept for each distinct set of service files, in memory and in the
+ * {@link WarmStartCache}.
+ */
 public class VirtDataFunctionFinder {
+    private final static Map<ClassLoader, String> libraryByLoader = new ConcurrentHashMap<>();
+    private final static Map<String, List<String>> namesByLibrary = new ConcurrentHashMap<>();
+
     public VirtDataFunctionFinder() {
     }
 
     public List<String> getFunctionNames() {
+        String library = getLibraryContent();
+        return namesByLibrary.computeIfAbsent(
+            library,
+            l -> List.copyOf(WarmStartCache.get("functions", l, this::findFunctionNames))
+        );
+    }
+
+    /**
+     * @return the combined content of the doc info service files, which identifies the function library
+     */
+    public String getLibraryContent() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = ClassLoader.getSystemClassLoader();
+        }
+        return libraryByLoader.computeIfAbsent(
+            classLoader,
+            l -> WarmStartCache.resourceContent(l, "META-INF/services/" + DocFuncData.class.getName())
+        );
+    }
 
+    private ArrayList<String> findFunctionNames() {
         ServiceLoader<DocFuncData> loader =ServiceLoader.load(DocFuncData.class);
         List<String> names = new ArrayList<>();
         loader.iterator().forEachRemaining(d -> names.add(d.getPackageName() + "." + d.getClassName()));
-        List<String> cleaned = names.stream().sorted().distinct().collect(Collectors.toList());
-        return cleaned;
+        return names.stream().sorted().distinct().collect(Collectors.toCollection(ArrayList::new));
     }
 }
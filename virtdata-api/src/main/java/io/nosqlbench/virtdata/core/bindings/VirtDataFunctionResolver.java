@@ -16,6 +16,7 @@
 
 package io.nosqlbench.virtdata.core.bindings;
 
+import io.nosqlbench.api.system.WarmStartCache;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.api.config.standard.NBMapConfigurable;
 import org.apache.commons.lang3.ClassUtils;
@@ -35,6 +36,7 @@ public class VirtDataFunctionResolver {
     private final static Logger logger  = LogManager.getLogger(VirtDataFunctionResolver.class);
     private final static MethodHandles.Lookup lookup = MethodHandles.publicLookup();
     private final VirtDataFunctionFinder virtDataFunctionFinder = new VirtDataFunctionFinder();
+    private volatile WarmStartCache.Index<ArrayList<String[]>> signatures;
 
     public List<ResolvedFunction> resolveFunctions(Class<?> returnType, Class<?> inputType, String functionName, Map<String,?> customParameters, Object... parameters) {
 
@@ -49,6 +51,92 @@ public class VirtDataFunctionResolver {
 
         List<ResolvedFunction> resolvedFunctions = new ArrayList<>();
 
+        List<Constructor<?>> matchingConstructors = findConstructors(returnType, inputType, functionName, parameterTypes, parameters);
+
+        if (returnType != null && inputType != null && matchingConstructors.size() > 1) {
+            throw new RuntimeException(
+                    "found more than one (" + matchingConstructors.size() + ") matching constructor for " +
+                            "return type '" + returnType + "', " +
+                            "inputType '" + inputType + "', " +
+                            "function name '" + functionName + ", " +
+                            "and parameter types '" + Arrays.toString(parameters) + "', " +
+                            "ctors: " + matchingConstructors);
+
+        }
+
+        for (Constructor<?> ctor : matchingConstructors) {
+            try {
+                Class<?> ctorDClass = ctor.getDeclaringClass();
+                MethodType ctorMethodType = MethodType.methodType(void.class, ctor.getParameterTypes());
+                MethodHandle constructor = lookup.findConstructor(ctorDClass, ctorMethodType);
+                Object functionalInstance = constructor.invokeWithArguments(parameters);
+                if (functionalInstance instanceof NBMapConfigurable) {
+                    ((NBMapConfigurable)functionalInstance).applyConfig(customParameters);
+                }
+                boolean threadSafe = functionalInstance.getClass().getAnnotation(ThreadSafeMapper.class) != null;
+                resolvedFunctions.add(
+                        new ResolvedFunction(
+                                functionalInstance,
+                                threadSafe,
+                                parameterTypes,
+                                parameters,
+                                getInputClass(functionalInstance.getClass()),
+                                getOutputClass(functionalInstance.getClass())
+                        )
+                );
+            } catch (Throwable throwable) {
+                throw new RuntimeException(throwable);
+            }
+        }
+        return resolvedFunctions;
+    }
+
+    /**
+     * Find the constructors of the named functions which match the signature, best match first.
+     * Since these only depend on the types involved, they are kept in a {@link WarmStartCache} index
+     * for the function library, so that only the matching classes are loaded when they are found there.
+     */
+    private List<Constructor<?>> findConstructors(Class<?> returnType, Class<?> inputType, String functionName, Class<?>[] parameterTypes, Object[] parameters) {
+        if (signatures == null) {
+            signatures = WarmStartCache.index("signatures", virtDataFunctionFinder.getLibraryContent());
+        }
+        String key = functionName + Arrays.stream(parameterTypes).map(Class::getName).collect(Collectors.joining(",", "(", ")"))
+            + ":" + (inputType == null ? "" : inputType.getName())
+            + "->" + (returnType == null ? "" : returnType.getName());
+
+        ArrayList<String[]> cached = signatures.get(key);
+        if (cached != null) {
+            try {
+                List<Constructor<?>> constructors = new ArrayList<>(cached.size());
+                for (String[] signature : cached) {
+                    Class<?>[] ctypes = new Class<?>[signature.length - 1];
+                    for (int i = 0; i < ctypes.length; i++) {
+                        ctypes[i] = ClassUtils.getClass(signature[i + 1]);
+                    }
+                    constructors.add(ClassUtils.getClass(signature[0]).getDeclaredConstructor(ctypes));
+                }
+                return constructors;
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                logger.debug(() -> "cached signature for " + key + " is no longer valid: " + e);
+            }
+        }
+
+        List<Constructor<?>> matchingConstructors = scanConstructors(returnType, inputType, functionName, parameterTypes, parameters);
+        ArrayList<String[]> found = new ArrayList<>(matchingConstructors.size());
+        for (Constructor<?> ctor : matchingConstructors) {
+            String[] signature = new String[ctor.getParameterCount() + 1];
+            signature[0] = ctor.getDeclaringClass().getName();
+            Class<?>[] ctypes = ctor.getParameterTypes();
+            for (int i = 0; i < ctypes.length; i++) {
+                signature[i + 1] = ctypes[i].getName();
+            }
+            found.add(signature);
+        }
+        signatures.put(key, found);
+        return matchingConstructors;
+    }
+
+    private List<Constructor<?>> scanConstructors(Class<?> returnType, Class<?> inputType, String functionName, Class<?>[] parameterTypes, Object[] parameters) {
         List<Class<?>> matchingClasses = virtDataFunctionFinder.getFunctionNames()
                 .stream()
                 .filter(s -> s.endsWith("." + functionName))
@@ -98,43 +186,7 @@ public class VirtDataFunctionResolver {
                 .collect(Collectors.toList());
 
         Collections.sort(matchingConstructors,new ArgsComparator(parameters));
-
-        if (returnType != null && inputType != null && matchingConstructors.size() > 1) {
-            throw new RuntimeException(
-                    "found more than one (" + matchingConstructors.size() + ") matching constructor for " +
-                            "return type '" + returnType + "', " +
-                            "inputType '" + inputType + "', " +
-                            "function name '" + functionName + ", " +
-                            "and parameter types '" + Arrays.toString(parameters) + "', " +
-                            "ctors: " + matchingConstructors);
-
-        }
-
-        for (Constructor<?> ctor : matchingConstructors) {
-            try {
-                Class<?> ctorDClass = ctor.getDeclaringClass();
-                MethodType ctorMethodType = MethodType.methodType(void.class, ctor.getParameterTypes());
-                MethodHandle constructor = lookup.findConstructor(ctorDClass, ctorMethodType);
-                Object functionalInstance = constructor.invokeWithArguments(parameters);
-                if (functionalInstance instanceof NBMapConfigurable) {
-                    ((NBMapConfigurable)functionalInstance).applyConfig(customParameters);
-                }
-                boolean threadSafe = functionalInstance.getClass().getAnnotation(ThreadSafeMapper.class) != null;
-                resolvedFunctions.add(
-                        new ResolvedFunction(
-                                functionalInstance,
-                                threadSafe,
-                                parameterTypes,
-                                parameters,
-                                getInputClass(functionalInstance.getClass()),
-                                getOutputClass(functionalInstance.getClass())
-                        )
-                );
-            } catch (Throwable throwable) {
-                throw new RuntimeException(throwable);
-            }
-        }
-        return resolvedFunctions;
+        return matchingConstructors;
     }
 
     private boolean isFunctionalInterface(Class<?> c) {
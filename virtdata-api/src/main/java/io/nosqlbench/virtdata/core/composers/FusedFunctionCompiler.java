@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.core.composers;
+
+import io.nosqlbench.api.system.NBEnvironment;
+import io.nosqlbench.virtdata.core.bindings.FunctionType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongFunction;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * <p>This compiler fuses a chain of functions into a single function object of its own hidden class,
+ * as an alternative to the nested lambdas of the {@link FunctionAssembly} composers. Each link of the
+ * chain is a method handle bound to its function, with primitive casts between adjacent stages, and the
+ * resulting handle is a constant of the generated class. This lets the JIT inline the whole chain at
+ * one monomorphic call site, instead of through the lambda classes which are shared by every binding.</p>
+ *
+ * <p>The conversions between stages are the same as those of the composers: primitive values are
+ * narrowed or widened with Java casts, and boxed when they are passed to an object function. A chain
+ * with an object result which is passed to a primitive function is not fused, since the composers
+ * convert those according to the value type which they observe at runtime. For such chains, or when
+ * the class can not be defined, no fused function is returned and the caller should use the composed one.</p>
+ *
+ * <p>This is only used when the {@value #FUSE_PROPERTY} system property is set to true.</p>
+ */
+public class FusedFunctionCompiler {
+    private final static Logger logger = LogManager.getLogger(FusedFunctionCompiler.class);
+
+    public final static String FUSE_PROPERTY = "nb.bindings.fuse";
+
+    private final static MethodHandles.Lookup lookup = MethodHandles.lookup();
+    private final static MethodHandles.Lookup publicLookup = MethodHandles.publicLookup();
+    private final static String FUSED_CLASS_NAME =
+        FusedFunctionCompiler.class.getPackageName().replace('.', '/') + "/FusedFunction";
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(NBEnvironment.INSTANCE.getOr(FUSE_PROPERTY, "false"));
+    }
+
+    /**
+     * Fuse the functions into one, in the order they are applied.
+     *
+     * @param functions the function objects of the chain, where the first takes a long input
+     * @return the fused function, or an empty optional if this chain can not be fused
+     */
+    public static Optional<Object> fuse(List<Object> functions) {
+        if (functions.size() < 2) {
+            return Optional.empty();
+        }
+        try {
+            MethodHandle chain = null;
+            for (Object function : functions) {
+                MethodHandle link = linkFor(function);
+                if (chain == null) {
+                    if (link.type().parameterType(0) != long.class) {
+                        return Optional.empty();
+                    }
+                    chain = link;
+                    continue;
+                }
+                Class<?> output = chain.type().returnType();
+                Class<?> input = link.type().parameterType(0);
+                if (output.isPrimitive()) {
+                    chain = MethodHandles.explicitCastArguments(chain, chain.type().changeReturnType(input));
+                } else if (input.isPrimitive()) {
+                    return Optional.empty();
+                }
+                chain = MethodHandles.filterReturnValue(chain, link);
+            }
+            return Optional.of(define(chain));
+        } catch (Throwable t) {
+            logger.debug(() -> "Unable to fuse function chain " + functions + ", using composed functions: " + t);
+            return Optional.empty();
+        }
+    }
+
+    private static MethodHandle linkFor(Object function) throws ReflectiveOperationException {
+        FunctionType functionType = FunctionType.valueOf(function);
+        MethodType type = MethodType.methodType(functionType.getReturnClass(), functionType.getInputClass());
+        return publicLookup.findVirtual(functionType.getFunctionClass(), methodNameFor(type.returnType()), type)
+            .bindTo(function);
+    }
+
+    private static String methodNameFor(Class<?> returnType) {
+        if (returnType == long.class) {
+            return "applyAsLong";
+        } else if (returnType == int.class) {
+            return "applyAsInt";
+        } else if (returnType == double.class) {
+            return "applyAsDouble";
+        }
+        return "apply";
+    }
+
+    private static Object define(MethodHandle chain) throws Throwable {
+        Class<?> returnType = chain.type().returnType();
+        Class<?> functionClass;
+        String descriptor;
+        int returnOpcode;
+        if (returnType == long.class) {
+            functionClass = LongUnaryOperator.class;
+            descriptor = "(J)J";
+            returnOpcode = 0xAD; // lreturn
+        } else if (returnType == int.class) {
+            functionClass = LongToIntFunction.class;
+            descriptor = "(J)I";
+            returnOpcode = 0xAC; // ireturn
+        } else if (returnType == double.class) {
+            functionClass = LongToDoubleFunction.class;
+            descriptor = "(J)D";
+            returnOpcode = 0xAF; // dreturn
+        } else {
+            functionClass = LongFunction.class;
+            descriptor = "(J)Ljava/lang/Object;";
+            chain = chain.asType(chain.type().changeReturnType(Object.class));
+            returnOpcode = 0xB0; // areturn
+        }
+        byte[] bytes = classBytes(
+            functionClass.getName().replace('.', '/'), methodNameFor(returnType), descriptor, returnOpcode
+        );
+        MethodHandles.Lookup fused = lookup.defineHiddenClassWithClassData(bytes, chain, true);
+        return fused.findConstructor(fused.lookupClass(), MethodType.methodType(void.class)).invoke();
+    }
+
+    /**
+     * The class file of a final class which implements the function interface with a single method. The method
+     * loads the method handle of the chain from the class data as a dynamic constant, and invokes it exactly.
+     */
+    private static byte[] classBytes(String interfaceName, String methodName, String descriptor, int returnOpcode)
+        throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(61);
+
+        out.writeShort(31);
+        utf8(out, FUSED_CLASS_NAME);                            // 1
+        ref(out, 7, 1);                                         // 2 this class
+        utf8(out, "java/lang/Object");                          // 3
+        ref(out, 7, 3);                                         // 4 super class
+        utf8(out, interfaceName);                               // 5
+        ref(out, 7, 5);                                         // 6 function interface
+        utf8(out, "<init>");                                    // 7
+        utf8(out, "()V");                                       // 8
+        ref(out, 12, 7, 8);                                     // 9
+        ref(out, 10, 4, 9);                                     // 10 Object.<init>
+        utf8(out, "Code");                                      // 11
+        utf8(out, methodName);                                  // 12
+        utf8(out, descriptor);                                  // 13
+        utf8(out, "java/lang/invoke/MethodHandle");             // 14
+        ref(out, 7, 14);                                        // 15
+        utf8(out, "invokeExact");                               // 16
+        ref(out, 12, 16, 13);                                   // 17
+        ref(out, 10, 15, 17);                                   // 18 MethodHandle.invokeExact
+        utf8(out, "java/lang/invoke/MethodHandles");            // 19
+        ref(out, 7, 19);                                        // 20
+        utf8(out, "classData");                                 // 21
+        utf8(out, "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;"); // 22
+        ref(out, 12, 21, 22);                                   // 23
+        ref(out, 10, 20, 23);                                   // 24 MethodHandles.classData
+        out.writeByte(15);                                      // 25 REF_invokeStatic handle of classData
+        out.writeByte(6);
+        out.writeShort(24);
+        utf8(out, "_");                                         // 26
+        utf8(out, "Ljava/lang/invoke/MethodHandle;");           // 27
+        ref(out, 12, 26, 27);                                   // 28
+        ref(out, 17, 0, 28);                                    // 29 the class data constant
+        utf8(out, "BootstrapMethods");                          // 30
+
+        out.writeShort(0x0001 | 0x0010 | 0x0020); // public final super
+        out.writeShort(2);
+        out.writeShort(4);
+        out.writeShort(1);
+        out.writeShort(6);
+        out.writeShort(0);
+
+        out.writeShort(2);
+        // public <init>()V { aload_0; invokespecial Object.<init>; return }
+        method(out, 0x0001, 7, 8, 1, 1, new byte[]{0x2A, (byte) 0xB7, 0, 10, (byte) 0xB1});
+        // public final method(J)? { ldc_w chain; lload_1; invokevirtual MethodHandle.invokeExact; return }
+        method(out, 0x0001 | 0x0010, 12, 13, 3, 3,
+            new byte[]{0x13, 0, 29, 0x1F, (byte) 0xB6, 0, 18, (byte) returnOpcode});
+
+        out.writeShort(1);
+        out.writeShort(30);
+        out.writeInt(6);
+        out.writeShort(1);
+        out.writeShort(25);
+        out.writeShort(0);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void utf8(DataOutputStream out, String value) throws IOException {
+        out.writeByte(1);
+        out.writeUTF(value);
+    }
+
+    private static void ref(DataOutputStream out, int tag, int... indices) throws IOException {
+        out.writeByte(tag);
+        for (int index : indices) {
+            out.writeShort(index);
+        }
+    }
+
+    private static void method(DataOutputStream out, int access, int name, int descriptor, int maxStack, int maxLocals, byte[] code)
+        throws IOException {
+        out.writeShort(access);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(11);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+}
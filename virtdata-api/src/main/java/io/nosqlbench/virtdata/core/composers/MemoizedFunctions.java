@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.core.composers;
+
+import io.nosqlbench.virtdata.core.bindings.FunctionType;
+
+import java.util.function.LongFunction;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Wrappers for functions of a long input which remember the last input and result on each thread.
+ * When several bindings are composed from the same wrapped function, as in the same cycle of
+ * an op, only the first of them calls it. The wrapped function must be thread-safe, and
+ * must always return the same result for the same input.
+ */
+public class MemoizedFunctions {
+
+    /**
+     * @param function a function object which takes a long input
+     * @return a memoizing wrapper of the same function type
+     * @throws IllegalArgumentException if the function does not take a long input
+     */
+    @SuppressWarnings("unchecked")
+    public static Object memoize(Object function) {
+        FunctionType functionType = FunctionType.valueOf(function);
+        return switch (functionType) {
+            case long_long -> new MemoLongUnaryOperator((LongUnaryOperator) function);
+            case long_int -> new MemoLongToIntFunction((LongToIntFunction) function);
+            case long_double -> new MemoLongToDoubleFunction((LongToDoubleFunction) function);
+            case long_T -> new MemoLongFunction<>((LongFunction<Object>) function);
+            default -> throw new IllegalArgumentException(
+                "Only functions of a long input can be memoized, but " + function + " is of type " + functionType);
+        };
+    }
+
+    private final static class LongSlot {
+        private boolean valid;
+        private long input;
+        private long value;
+    }
+
+    private final static class IntSlot {
+        private boolean valid;
+        private long input;
+        private int value;
+    }
+
+    private final static class DoubleSlot {
+        private boolean valid;
+        private long input;
+        private double value;
+    }
+
+    private final static class ObjectSlot {
+        private boolean valid;
+        private long input;
+        private Object value;
+    }
+
+    private final static class MemoLongUnaryOperator implements LongUnaryOperator {
+        private final LongUnaryOperator function;
+        private final ThreadLocal<LongSlot> slots = ThreadLocal.withInitial(LongSlot::new);
+
+        private MemoLongUnaryOperator(LongUnaryOperator function) {
+            this.function = function;
+        }
+
+        @Override
+        public long applyAsLong(long operand) {
+            LongSlot slot = slots.get();
+            if (!slot.valid || slot.input != operand) {
+                slot.value = function.applyAsLong(operand);
+                slot.input = operand;
+                slot.valid = true;
+            }
+            return slot.value;
+        }
+
+        @Override
+        public String toString() {
+            return "memo:" + function;
+        }
+    }
+
+    private final static class MemoLongToIntFunction implements LongToIntFunction {
+        private final LongToIntFunction function;
+        private final ThreadLocal<IntSlot> slots = ThreadLocal.withInitial(IntSlot::new);
+
+        private MemoLongToIntFunction(LongToIntFunction function) {
+            this.function = function;
+        }
+
+        @Override
+        public int applyAsInt(long value) {
+            IntSlot slot = slots.get();
+            if (!slot.valid || slot.input != value) {
+                slot.value = function.applyAsInt(value);
+                slot.input = value;
+                slot.valid = true;
+            }
+            return slot.value;
+        }
+
+        @Override
+        public String toString() {
+            return "memo:" + function;
+        }
+    }
+
+    private final static class MemoLongToDoubleFunction implements LongToDoubleFunction {
+        private final LongToDoubleFunction function;
+        private final ThreadLocal<DoubleSlot> slots = ThreadLocal.withInitial(DoubleSlot::new);
+
+        private MemoLongToDoubleFunction(LongToDoubleFunction function) {
+            this.function = function;
+        }
+
+        @Override
+        public double applyAsDouble(long value) {
+            DoubleSlot slot = slots.get();
+            if (!slot.valid || slot.input != value) {
+                slot.value = function.applyAsDouble(value);
+                slot.input = value;
+                slot.valid = true;
+            }
+            return slot.value;
+        }
+
+        @Override
+        public String toString() {
+            return "memo:" + function;
+        }
+    }
+
+    private final static class MemoLongFunction<R> implements LongFunction<R> {
+        private final LongFunction<R> function;
+        private final ThreadLocal<ObjectSlot> slots = ThreadLocal.withInitial(ObjectSlot::new);
+
+        private MemoLongFunction(LongFunction<R> function) {
+            this.function = function;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public R apply(long value) {
+            ObjectSlot slot = slots.get();
+            if (!slot.valid || slot.input != value) {
+                slot.value = function.apply(value);
+                slot.input = value;
+                slot.valid = true;
+            }
+            return (R) slot.value;
+        }
+
+        @Override
+        public String toString() {
+            return "memo:" + function;
+        }
+    }
+}
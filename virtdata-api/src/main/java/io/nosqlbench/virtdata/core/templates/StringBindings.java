@@ -64,6 +64,17 @@ public class StringBindings implements Binder<String> {
         return compositor.apply(value);
     }
 
+    /**
+     * Render the string binding for the given input directly into the provided buffer.
+     *
+     * @param value a long input value
+     * @param sb the buffer to append to
+     * @return the provided buffer
+     */
+    public StringBuilder bind(long value, StringBuilder sb) {
+        return compositor.appendTo(value, sb);
+    }
+
     @Override
     public String toString() {
         return "StringBindings{" +
@@ -30,6 +30,12 @@ import java.util.function.LongFunction;
  * string template and bindings set. It employs a few simplistic optimizations
  * to avoid re-generating duplicate values, as well as lower allocation
  * rate of buffer data.
+ *
+ * Rendering is done into a {@link StringBuilder} which is owned by the calling
+ * thread and reused across calls, so that the only allocation in {@link #apply(long)}
+ * beyond what the bindings themselves allocate is the resulting String. Callers which
+ * are assembling a larger value can avoid that too, by rendering directly into their
+ * own buffer with {@link #appendTo(long, StringBuilder)}.
  */
 public class StringCompositor implements LongFunction<String> {
 
@@ -37,6 +43,10 @@ public class StringCompositor implements LongFunction<String> {
     private final DataMapper<?>[] mappers;
     private final int[] LUT;
     private final int bufsize;
+    // true when every bind point has its own mapper, in which case LUT is the identity
+    private final boolean distinct;
+    private final ThreadLocal<String[]> tlvalues;
+    private final ThreadLocal<StringBuilder> tlbuffer;
 
     private final Function<Object, String> stringfunc;
 
@@ -60,13 +70,17 @@ public class StringCompositor implements LongFunction<String> {
         }
         spans[spans.length-1]=even_odd_spans[even_odd_spans.length-1];
         this.stringfunc = stringfunc;
+        this.distinct = (mappers.length == LUT.length);
+        this.tlvalues = ThreadLocal.withInitial(() -> new String[mappers.length]);
 
         int minsize = 0;
+        StringBuilder sizing = new StringBuilder();
         for (int i = 0; i < 100; i++) {
-            String result = apply(i);
-            minsize = Math.max(minsize,result.length());
+            sizing.setLength(0);
+            minsize = Math.max(minsize,appendTo(i,sizing).length());
         }
         bufsize = minsize*2;
+        this.tlbuffer = ThreadLocal.withInitial(() -> new StringBuilder(bufsize));
     }
 
     public StringCompositor(ParsedTemplateString template, Map<String,Object> fconfig) {
@@ -75,15 +89,32 @@ public class StringCompositor implements LongFunction<String> {
 
     @Override
     public String apply(long value) {
-        StringBuilder sb = new StringBuilder(bufsize);
-        String[] ary = new String[mappers.length];
-        for (int i = 0; i < ary.length; i++) {
-            ary[i] = stringfunc.apply(mappers[i].apply(value));
-        }
-        for (int i = 0; i < LUT.length; i++) {
-          sb.append(spans[i]).append(ary[LUT[i]]);
+        StringBuilder sb = tlbuffer.get();
+        sb.setLength(0);
+        return appendTo(value, sb).toString();
+    }
+
+    /**
+     * Render the template for the given input directly into the provided buffer.
+     * @param value The input value to the bindings
+     * @param sb The buffer to append to
+     * @return the provided buffer
+     */
+    public StringBuilder appendTo(long value, StringBuilder sb) {
+        if (distinct) {
+            for (int i = 0; i < mappers.length; i++) {
+                sb.append(spans[i]).append(stringfunc.apply(mappers[i].apply(value)));
+            }
+        } else {
+            String[] ary = tlvalues.get();
+            for (int i = 0; i < ary.length; i++) {
+                ary[i] = stringfunc.apply(mappers[i].apply(value));
+            }
+            for (int i = 0; i < LUT.length; i++) {
+                sb.append(spans[i]).append(ary[LUT[i]]);
+            }
         }
         sb.append(spans[spans.length-1]);
-        return sb.toString();
+        return sb;
     }
 }
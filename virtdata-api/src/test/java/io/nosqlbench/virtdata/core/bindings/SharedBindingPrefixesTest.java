@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.core.bindings;
+
+import io.nosqlbench.virtdata.lang.parser.VirtDataDSL;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SharedBindingPrefixesTest {
+
+    @BeforeEach
+    public void enable() {
+        System.setProperty(SharedBindingPrefixes.SHARE_PROPERTY, "true");
+    }
+
+    @AfterEach
+    public void disable() {
+        System.clearProperty(SharedBindingPrefixes.SHARE_PROPERTY);
+    }
+
+    @Test
+    public void testPrefixesOfFlow() {
+        List<String> prefixes = SharedBindingPrefixes.prefixesOf(VirtDataDSL.parse("Hash(); Mod(10); ToString()").flow);
+        assertThat(prefixes).containsExactly("Hash()", "Hash(); Mod(10)", "Hash(); Mod(10); ToString()");
+    }
+
+    @Test
+    public void testBranchPoints() {
+        try (SharedBindingPrefixes scope = SharedBindingPrefixes.open(List.of(
+            "Hash(); Mod(10); ToString()",
+            "Hash(); Mod(10); NumberNameToString()",
+            "Hash(); Uniform(0,100)",
+            "Mod(5)"
+        ))) {
+            assertThat(scope.isBranchPoint("Hash()")).isTrue();
+            assertThat(scope.isBranchPoint("Hash(); Mod(10)")).isTrue();
+            assertThat(scope.isBranchPoint("Hash(); Mod(10); ToString()")).isFalse();
+            assertThat(scope.isBranchPoint("Hash(); Uniform(0,100)")).isFalse();
+            assertThat(scope.isBranchPoint("Mod(5)")).isFalse();
+        }
+    }
+
+    @Test
+    public void testPrefixOnlySharedAsAWhole() {
+        try (SharedBindingPrefixes scope = SharedBindingPrefixes.open(List.of(
+            "Hash(); Mod(10); ToString()",
+            "Hash(); Mod(10); ToString()"
+        ))) {
+            assertThat(scope.isBranchPoint("Hash()")).isFalse();
+            assertThat(scope.isBranchPoint("Hash(); Mod(10)")).isFalse();
+            assertThat(scope.isBranchPoint("Hash(); Mod(10); ToString()")).isTrue();
+        }
+    }
+
+    @Test
+    public void testNestedScopesShareFunctions() {
+        try (SharedBindingPrefixes outer = SharedBindingPrefixes.open(List.of())) {
+            Object first;
+            try (SharedBindingPrefixes inner = SharedBindingPrefixes.open(List.of("Hash()", "Hash()"))) {
+                assertThat(SharedBindingPrefixes.current()).contains(inner);
+                first = inner.sharedFunction("Hash()", Object::new);
+            }
+            assertThat(SharedBindingPrefixes.current()).contains(outer);
+            assertThat(outer.isBranchPoint("Hash()")).isFalse();
+            assertThat(outer.sharedFunction("Hash()", Object::new)).isSameAs(first);
+        }
+        assertThat(SharedBindingPrefixes.current()).isEmpty();
+    }
+
+    @Test
+    public void testDisabledScopeIsNotCurrent() {
+        System.clearProperty(SharedBindingPrefixes.SHARE_PROPERTY);
+        try (SharedBindingPrefixes scope = SharedBindingPrefixes.open(List.of("Hash()", "Hash()"))) {
+            assertThat(SharedBindingPrefixes.current()).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.core.composers;
+
+import io.nosqlbench.virtdata.core.bindings.DataMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FusedFunctionCompilerTest {
+
+    private static Object fuse(Object... functions) {
+        Optional<Object> fused = FusedFunctionCompiler.fuse(List.of(functions));
+        assertThat(fused).isPresent();
+        return fused.get();
+    }
+
+    private static DataMapper<Object> compose(Object... functions) {
+        FunctionComposer assembly = new FunctionAssembly();
+        for (Object function : functions) {
+            assembly = assembly.andThen(function);
+        }
+        return assembly.getDataMapper();
+    }
+
+    @Test
+    public void testPrimitiveChain() {
+        LongUnaryOperator addThree = l -> l + 3;
+        LongToDoubleFunction half = l -> l / 2.0d;
+        DoubleToIntFunction negate = d -> (int) -d;
+        IntToLongFunction square = i -> (long) i * i;
+        Object fused = fuse(addThree, half, negate, square);
+        assertThat(fused).isInstanceOf(LongUnaryOperator.class);
+        DataMapper<Object> composed = compose(addThree, half, negate, square);
+        for (long cycle = 0; cycle < 100; cycle++) {
+            assertThat(((LongUnaryOperator) fused).applyAsLong(cycle)).isEqualTo(composed.get(cycle));
+        }
+    }
+
+    @Test
+    public void testNarrowingCasts() {
+        LongToDoubleFunction half = l -> l / 2.0d;
+        LongUnaryOperator identity = l -> l;
+        IntUnaryOperator twice = i -> i * 2;
+        Object fused = fuse(half, identity, twice);
+        assertThat(fused).isInstanceOf(LongToIntFunction.class);
+        assertThat(((LongToIntFunction) fused).applyAsInt(7)).isEqualTo(6);
+        assertThat(((LongToIntFunction) fused).applyAsInt(7)).isEqualTo(compose(half, identity, twice).get(7));
+    }
+
+    @Test
+    public void testBoxedObjectChain() {
+        LongToIntFunction mod = l -> (int) (l % 10);
+        IntFunction<String> prefix = i -> "v" + i;
+        Function<Object, String> upper = o -> o.toString().toUpperCase();
+        Function<Object, String> className = o -> o.getClass().getSimpleName();
+        Object fused = fuse(mod, prefix, upper);
+        assertThat(fused).isInstanceOf(LongFunction.class);
+        assertThat(((LongFunction<?>) fused).apply(123)).isEqualTo("V3");
+        assertThat(((LongFunction<?>) fuse(mod, className)).apply(123))
+            .isEqualTo(compose(mod, className).get(123))
+            .isEqualTo("Integer");
+    }
+
+    @Test
+    public void testObjectToPrimitiveIsNotFused() {
+        LongFunction<String> asString = String::valueOf;
+        Function<Object, Long> asLong = o -> Long.valueOf(o.toString());
+        LongUnaryOperator addOne = l -> l + 1;
+        assertThat(FusedFunctionCompiler.fuse(List.of(asString, asLong, addOne))).isEmpty();
+        assertThat(FusedFunctionCompiler.fuse(List.of(addOne))).isEmpty();
+    }
+
+    @Test
+    public void testEachChainHasItsOwnClass() {
+        LongUnaryOperator addOne = l -> l + 1;
+        LongUnaryOperator addTwo = l -> l + 2;
+        Object first = fuse(addOne, addTwo);
+        Object second = fuse(addTwo, addOne);
+        assertThat(first.getClass()).isNotEqualTo(second.getClass());
+        assertThat(first.getClass().isHidden()).isTrue();
+    }
+}
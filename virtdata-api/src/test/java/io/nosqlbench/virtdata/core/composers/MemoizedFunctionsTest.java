@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.core.composers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongFunction;
+import java.util.function.LongUnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class MemoizedFunctionsTest {
+
+    @Test
+    public void testLongUnaryOperatorIsAppliedOncePerInput() {
+        AtomicInteger calls = new AtomicInteger();
+        LongUnaryOperator memo = (LongUnaryOperator) MemoizedFunctions.memoize(
+            (LongUnaryOperator) l -> {
+                calls.incrementAndGet();
+                return l * 3;
+            });
+        assertThat(memo.applyAsLong(2)).isEqualTo(6);
+        assertThat(memo.applyAsLong(2)).isEqualTo(6);
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(memo.applyAsLong(0)).isEqualTo(0);
+        assertThat(memo.applyAsLong(2)).isEqualTo(6);
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void testLongFunctionIsAppliedOncePerInput() {
+        AtomicInteger calls = new AtomicInteger();
+        LongFunction<?> memo = (LongFunction<?>) MemoizedFunctions.memoize(
+            (LongFunction<String>) l -> {
+                calls.incrementAndGet();
+                return "v" + l;
+            });
+        assertThat(memo.apply(7)).isEqualTo("v7");
+        assertThat(memo.apply(7)).isEqualTo("v7");
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testValuesAreKeptPerThread() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        LongUnaryOperator memo = (LongUnaryOperator) MemoizedFunctions.memoize(
+            (LongUnaryOperator) l -> calls.incrementAndGet());
+        memo.applyAsLong(1);
+        Thread other = new Thread(() -> memo.applyAsLong(1));
+        other.start();
+        other.join();
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testOnlyLongInputsAreMemoized() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> MemoizedFunctions.memoize((IntUnaryOperator) i -> i));
+    }
+}
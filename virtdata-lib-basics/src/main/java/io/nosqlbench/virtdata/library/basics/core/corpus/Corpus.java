@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.nosqlbench.virtdata.library.basics.core.corpus;
+
+import io.nosqlbench.api.errors.BasicError;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>The content of a text file, held outside of the heap so that it can be shared by any number
+ * of functions without copying it. Files on the local filesystem are memory mapped, in segments
+ * of up to 1GiB which always end at a line boundary. Other content, such as resources inside a jar,
+ * is read once into a direct buffer.</p>
+ *
+ * <p>Lines are indexed the first time they are asked for, with the start offset of each line
+ * kept in an off-heap buffer as well. Lines are separated by '\n' and trailing empty lines are not
+ * counted, the same as when the file content is split into lines with {@link String#split(String)}.
+ * The text is assumed to be UTF-8.</p>
+ *
+ * <p>Instances are shared between threads. All reads use absolute positions, so they do not
+ * change the state of the underlying buffers.</p>
+ */
+public final class Corpus {
+
+    final static int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+    private final String name;
+    private final ByteBuffer[] segments;
+    private final long[] segmentStarts;
+    private final long size;
+
+    private volatile LongBuffer lineStarts;
+    private int pieceCount;
+    private int lineCount;
+
+    private Corpus(String name, List<ByteBuffer> segments) {
+        this.name = name;
+        this.segments = segments.toArray(new ByteBuffer[0]);
+        this.segmentStarts = new long[this.segments.length];
+        long offset = 0L;
+        for (int i = 0; i < this.segments.length; i++) {
+            segmentStarts[i] = offset;
+            offset += this.segments[i].limit();
+        }
+        this.size = offset;
+    }
+
+    /**
+     * Map a local file into memory.
+     *
+     * @param name        The name of the corpus, for diagnostics
+     * @param path        The path of a file on the default filesystem
+     * @param segmentSize The largest size of each mapped segment
+     * @return a corpus for the file
+     */
+    static Corpus map(String name, Path path, int segmentSize) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            List<ByteBuffer> segments = new ArrayList<>();
+            long position = 0L;
+            while (position < fileSize) {
+                long length = Math.min(segmentSize, fileSize - position);
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int cut = (int) length;
+                if (position + length < fileSize) {
+                    // Lines are never split between segments
+                    while (cut > 0 && mapped.get(cut - 1) != '\n') {
+                        cut--;
+                    }
+                    if (cut == 0) {
+                        throw new BasicError("Unable to map '" + name + "', since it has a line longer than " + segmentSize + " bytes");
+                    }
+                }
+                segments.add(mapped.slice(0, cut));
+                position += cut;
+            }
+            return new Corpus(name, segments);
+        } catch (IOException e) {
+            throw new RuntimeException("Error while mapping '" + name + "': " + e, e);
+        }
+    }
+
+    /**
+     * Read content which can not be mapped into a direct buffer.
+     *
+     * @param name   The name of the corpus, for diagnostics
+     * @param stream The content
+     * @return a corpus for the content
+     */
+    static Corpus read(String name, InputStream stream) {
+        try (stream) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+            byte[] chunk = new byte[1 << 16];
+            int read;
+            while ((read = stream.read(chunk)) >= 0) {
+                if (buffer.remaining() < read) {
+                    long needed = (long) buffer.position() + read;
+                    if (needed > Integer.MAX_VALUE - 8) {
+                        throw new BasicError("Unable to read '" + name + "' into memory, since it is larger than 2GiB. Use a local file instead.");
+                    }
+                    ByteBuffer grown = ByteBuffer.allocateDirect((int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, buffer.capacity() * 2L)));
+                    buffer.flip();
+                    grown.put(buffer);
+                    buffer = grown;
+                }
+                buffer.put(chunk, 0, read);
+            }
+            buffer.flip();
+            return new Corpus(name, List.of(buffer.slice()));
+        } catch (IOException e) {
+            throw new RuntimeException("Error while reading '" + name + "': " + e, e);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the size of the corpus in bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return the number of lines in the corpus
+     */
+    public int getLineCount() {
+        index();
+        return lineCount;
+    }
+
+    /**
+     * @param index The index of the line, from 0 to {@link #getLineCount()} - 1
+     * @return the text of the line, without the line separator
+     */
+    public String getLine(int index) {
+        LongBuffer starts = index();
+        if (index < 0 || index >= lineCount) {
+            throw new IndexOutOfBoundsException("Line " + index + " is out of bounds for " + lineCount + " lines in '" + name + "'");
+        }
+        long start = starts.get(index);
+        long end = (index + 1 < pieceCount) ? starts.get(index + 1) - 1 : size;
+        return text(start, (int) (end - start));
+    }
+
+    /**
+     * Return a section of the text. The start and end are moved forward as needed so that
+     * they do not fall within a multi-byte character.
+     *
+     * @param start  The offset of the first byte
+     * @param length The number of bytes
+     * @return the text
+     */
+    public String extract(long start, int length) {
+        long from = start;
+        long to = Math.min(size, start + length);
+        while (from < to && isContinuation(byteAt(from))) {
+            from++;
+        }
+        while (to < size && isContinuation(byteAt(to))) {
+            to++;
+        }
+        return text(from, (int) (to - from));
+    }
+
+    private static boolean isContinuation(byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    private byte byteAt(long offset) {
+        int segment = segmentOf(offset);
+        return segments[segment].get((int) (offset - segmentStarts[segment]));
+    }
+
+    private int segmentOf(long offset) {
+        int segment = Arrays.binarySearch(segmentStarts, offset);
+        return segment >= 0 ? segment : -segment - 2;
+    }
+
+    private String text(long start, int length) {
+        if (length == 0) {
+            return "";
+        }
+        byte[] bytes = new byte[length];
+        int copied = 0;
+        long offset = start;
+        while (copied < length) {
+            int segment = segmentOf(offset);
+            ByteBuffer buffer = segments[segment];
+            int position = (int) (offset - segmentStarts[segment]);
+            int count = Math.min(length - copied, buffer.limit() - position);
+            buffer.get(position, bytes, copied, count);
+            copied += count;
+            offset += count;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private LongBuffer index() {
+        LongBuffer starts = lineStarts;
+        if (starts == null) {
+            synchronized (this) {
+                starts = lineStarts;
+                if (starts == null) {
+                    starts = buildIndex();
+                    lineStarts = starts;
+                }
+            }
+        }
+        return starts;
+    }
+
+    private LongBuffer buildIndex() {
+        long pieces = 1L;
+        for (ByteBuffer segment : segments) {
+            for (int i = 0; i < segment.limit(); i++) {
+                if (segment.get(i) == '\n') {
+                    pieces++;
+                }
+            }
+        }
+        if (pieces > (Integer.MAX_VALUE - 8) / Long.BYTES) {
+            throw new BasicError("Unable to index '" + name + "', since it has more than " + ((Integer.MAX_VALUE - 8) / Long.BYTES) + " lines");
+        }
+        LongBuffer starts = ByteBuffer.allocateDirect((int) pieces * Long.BYTES).asLongBuffer();
+        starts.put(0, 0L);
+        int piece = 1;
+        for (int s = 0; s < segments.length; s++) {
+            ByteBuffer segment = segments[s];
+            for (int i = 0; i < segment.limit(); i++) {
+                if (segment.get(i) == '\n') {
+                    starts.put(piece++, segmentStarts[s] + i + 1);
+                }
+            }
+        }
+        this.pieceCount = (int) pieces;
+
+        int lines = pieceCount;
+        if (size == 0) {
+            lines = 1;
+        } else {
+            while (lines > 0) {
+                long start = starts.get(lines - 1);
+                long end = (lines < pieceCount) ? starts.get(lines) - 1 : size;
+                if (end > start) {
+                    break;
+                }
+                lines--;
+            }
+        }
+        this.lineCount = lines;
+        return starts;
+    }
+
+    @Override
+    public String toString() {
+        return "Corpus{" + name + ", bytes=" + size + ", segments=" + segments.length + '}';
+    }
+}
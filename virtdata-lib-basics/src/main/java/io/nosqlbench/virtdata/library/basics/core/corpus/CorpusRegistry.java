@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.nosqlbench.virtdata.library.basics.core.corpus;
+
+import io.nosqlbench.api.content.Content;
+import io.nosqlbench.api.content.NBIO;
+import io.nosqlbench.api.errors.BasicError;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.ref.Cleaner;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>A process-wide registry of {@link Corpus} instances, so that all of the functions which read
+ * the same file share one copy of it. Each corpus is loaded when it is first asked for, and is
+ * kept for as long as any function which asked for it is still reachable. When the last of these is
+ * garbage collected, the corpus is removed from the registry, and its memory is released once it
+ * is no longer referenced.</p>
+ */
+public final class CorpusRegistry {
+    private final static Logger logger = LogManager.getLogger(CorpusRegistry.class);
+
+    private final static Map<String, Entry> corpora = new HashMap<>();
+    private final static Cleaner cleaner = Cleaner.create();
+
+    private CorpusRegistry() {
+    }
+
+    /**
+     * Get the shared corpus for a file which is to be read as lines. This uses the same search
+     * paths as {@link NBIO#readLines(String)}.
+     *
+     * @param owner    The function which uses the corpus
+     * @param filename The name of the file
+     * @return the shared corpus
+     */
+    public static Corpus forLines(Object owner, String filename) {
+        Content<?> content = NBIO.all().searchPrefixes("data").pathname(filename).first().orElseThrow(
+            () -> new BasicError("Unable to read lines from " + filename)
+        );
+        return acquire(owner, content);
+    }
+
+    /**
+     * Get the shared corpus for a file which is to be read as text. This uses the same search
+     * paths as {@link NBIO#readCharBuffer(String, String...)}.
+     *
+     * @param owner       The function which uses the corpus
+     * @param filename    The name of the file
+     * @param searchPaths Any additional paths to search
+     * @return the shared corpus
+     */
+    public static Corpus forText(Object owner, String filename, String... searchPaths) {
+        Content<?> content = NBIO.all().searchPrefixes(searchPaths).pathname(filename).one();
+        return acquire(owner, content);
+    }
+
+    private static synchronized Corpus acquire(Object owner, Content<?> content) {
+        String key = content.getURI().toString();
+        Entry entry = corpora.get(key);
+        if (entry == null) {
+            entry = new Entry(load(key, content));
+            corpora.put(key, entry);
+            logger.debug(() -> "loaded " + corpora.get(key).corpus);
+        }
+        entry.references++;
+        cleaner.register(owner, () -> release(key));
+        return entry.corpus;
+    }
+
+    private static Corpus load(String key, Content<?> content) {
+        Path path = null;
+        try {
+            path = content.asPath();
+        } catch (Exception ignored) {
+        }
+        if (path != null && path.getFileSystem() == FileSystems.getDefault()) {
+            return Corpus.map(key, path, Corpus.DEFAULT_SEGMENT_SIZE);
+        }
+        return Corpus.read(key, content.getInputStream());
+    }
+
+    private static synchronized void release(String key) {
+        Entry entry = corpora.get(key);
+        if (entry != null && --entry.references == 0) {
+            corpora.remove(key);
+            logger.debug(() -> "released " + entry.corpus);
+        }
+    }
+
+    /**
+     * @param corpus A corpus from this registry
+     * @return the number of functions which are still using the corpus
+     */
+    public static synchronized int getReferenceCount(Corpus corpus) {
+        Entry entry = corpora.get(corpus.getName());
+        return (entry == null || entry.corpus != corpus) ? 0 : entry.references;
+    }
+
+    private final static class Entry {
+        private final Corpus corpus;
+        private int references;
+
+        private Entry(Corpus corpus) {
+            this.corpus = corpus;
+        }
+    }
+}
@@ -16,14 +16,14 @@
 
 package io.nosqlbench.virtdata.library.basics.shared.from_long.to_int;
 
-import io.nosqlbench.api.content.NBIO;
 import io.nosqlbench.virtdata.api.annotations.Categories;
 import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
+import io.nosqlbench.virtdata.library.basics.core.corpus.Corpus;
+import io.nosqlbench.virtdata.library.basics.core.corpus.CorpusRegistry;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
-import java.util.List;
 import java.util.function.LongToIntFunction;
 
 /**
@@ -40,8 +40,11 @@ public class HashedLineToInt implements LongToIntFunction {
 
     public HashedLineToInt(String filename) {
         this.filename = filename;
-        List<String> lines = NBIO.readLines(filename);
-        this.values = lines.stream().mapToInt(Integer::parseInt).toArray();
+        Corpus corpus = CorpusRegistry.forLines(this, filename);
+        this.values = new int[corpus.getLineCount()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Integer.parseInt(corpus.getLine(i));
+        }
         this.intHash = new Hash();
     }
 
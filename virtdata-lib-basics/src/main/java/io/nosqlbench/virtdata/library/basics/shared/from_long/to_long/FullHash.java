@@ -19,9 +19,8 @@ package io.nosqlbench.virtdata.library.basics.shared.from_long.to_long;
 import io.nosqlbench.virtdata.api.annotations.Categories;
 import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
-import io.nosqlbench.virtdata.murmur.Murmur3F;
+import io.nosqlbench.virtdata.murmur.Murmur3Long;
 
-import java.nio.ByteBuffer;
 import java.util.function.LongUnaryOperator;
 
 /**
@@ -37,19 +36,8 @@ import java.util.function.LongUnaryOperator;
 @Categories({Category.general})
 public class FullHash implements LongUnaryOperator {
 
-    private final ThreadLocal<State> state_TL = ThreadLocal.withInitial(State::new);
-
     @Override
     public long applyAsLong(long value) {
-        State state = state_TL.get();
-        state.murmur3F.reset();
-        state.bb.putLong(0,value);
-        state.murmur3F.update(state.bb.array(),0,Long.BYTES);
-        return state.murmur3F.getValue();
-    }
-
-    private static class State {
-        ByteBuffer bb = ByteBuffer.allocate(Long.BYTES);
-        Murmur3F murmur3F = new Murmur3F();
+        return Murmur3Long.hash(value);
     }
 }
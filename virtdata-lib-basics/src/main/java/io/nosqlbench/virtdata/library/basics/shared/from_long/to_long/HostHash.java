@@ -18,10 +18,10 @@ package io.nosqlbench.virtdata.library.basics.shared.from_long.to_long;
 
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.murmur.Murmur3F;
+import io.nosqlbench.virtdata.murmur.Murmur3Long;
 
 import java.net.InetAddress;
 import java.net.NetworkInterface;
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.function.LongUnaryOperator;
@@ -37,19 +37,18 @@ import java.util.function.LongUnaryOperator;
 public class HostHash implements LongUnaryOperator {
 
     private static final long hostHash = computeHostHash();
-    private final ByteBuffer bb = ByteBuffer.allocate(Long.BYTES);
-    private Murmur3F murmur3F;
+    private final int seed;
 
     @Example({"HostHash()","a simple per-host hash function"})
     public HostHash() {
-        murmur3F = new Murmur3F((int) hostHash % Integer.MAX_VALUE);
+        seed = (int) hostHash % Integer.MAX_VALUE;
     }
 
     @Example({"HostHash(2343)","further permute the host hash with a specific seed"})
     public HostHash(int seedMod) {
-        murmur3F = new Murmur3F((int) hostHash % Integer.MAX_VALUE);
+        Murmur3F murmur3F = new Murmur3F((int) hostHash % Integer.MAX_VALUE);
         murmur3F.update(seedMod);
-        murmur3F = new Murmur3F((int) murmur3F.getValue() & Integer.MAX_VALUE);
+        seed = (int) murmur3F.getValue() & Integer.MAX_VALUE;
     }
 
     private static long computeHostHash() {
@@ -90,10 +89,6 @@ public class HostHash implements LongUnaryOperator {
 
     @Override
     public long applyAsLong(long value) {
-        murmur3F.reset();
-        bb.putLong(0, value);
-        murmur3F.update(bb.array(), 0, Long.BYTES);
-        long result = Math.abs(murmur3F.getValue());
-        return result;
+        return Math.abs(Murmur3Long.hash(value, seed));
     }
 }
@@ -16,25 +16,26 @@
 
 package io.nosqlbench.virtdata.library.basics.shared.from_long.to_string;
 
-import io.nosqlbench.api.content.NBIO;
 import io.nosqlbench.virtdata.api.annotations.Categories;
 import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.Example;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import io.nosqlbench.virtdata.api.bindings.VirtDataConversions;
+import io.nosqlbench.virtdata.library.basics.core.corpus.Corpus;
+import io.nosqlbench.virtdata.library.basics.core.corpus.CorpusRegistry;
 import io.nosqlbench.virtdata.library.basics.shared.from_long.to_int.HashRange;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
-import java.nio.CharBuffer;
 import java.util.function.LongFunction;
 import java.util.function.LongToIntFunction;
 
 /**
  * Pseudo-randomly extract a section of a text file and return it according to some
- * minimum and maximum extract size. The file is loaded into memory as a shared
- * text image. It is then indexed into as a character buffer to find a pseudo-randomly
- * sized fragment.
+ * minimum and maximum extract size. The file is mapped into memory as a shared
+ * text image, outside of the heap. It is then indexed into by byte offset to find a
+ * pseudo-randomly sized fragment. For text which is not ASCII, the ends of the fragment
+ * are moved forward as needed to fall between characters.
  */
 @ThreadSafeMapper
 @Categories({Category.general})
@@ -43,7 +44,8 @@ public class HashedFileExtractToString implements LongFunction<String> {
     private final static Logger logger = LogManager.getLogger(HashedFileExtractToString.class);
 
 
-    private final CharBuffer buf;
+    private final Corpus corpus;
+    private final int limit;
     private final LongToIntFunction sizeFunc;
     private final LongToIntFunction positionRange = new HashRange(0, Integer.MAX_VALUE);
     private final static transient ThreadLocal<StringBuilder> tl_sb = ThreadLocal.withInitial(StringBuilder::new);
@@ -52,7 +54,8 @@ public class HashedFileExtractToString implements LongFunction<String> {
     @Example({"HashedFileExtractToString('data/adventures.txt',100,200)", "return a fragment from adventures.txt between 100 and 200 characters long"})
     public HashedFileExtractToString(String filename, int minsize, int maxsize) {
         this.filename = filename;
-        this.buf = NBIO.readCharBuffer(filename).asReadOnlyBuffer();
+        this.corpus = CorpusRegistry.forText(this, filename);
+        this.limit = (int) Math.min(corpus.size(), Integer.MAX_VALUE);
         this.sizeFunc = new HashRange(minsize, maxsize);
     }
 
@@ -66,16 +69,17 @@ public class HashedFileExtractToString implements LongFunction<String> {
     @Example({"HashedFileExtractToString('data/adventures.txt',Uniform())", "return a fragment from adventures.txt from a random offset, based on the size function provided."})
     public HashedFileExtractToString(String filename, Object sizefunc) {
         this.filename = filename;
-        this.buf = NBIO.readCharBuffer(filename).asReadOnlyBuffer();
+        this.corpus = CorpusRegistry.forText(this, filename);
+        this.limit = (int) Math.min(corpus.size(), Integer.MAX_VALUE);
         sizeFunc = VirtDataConversions.adaptFunction(sizefunc, LongToIntFunction.class);
     }
 
     @Override
     public String apply(long input) {
-        int size = sizeFunc.applyAsInt(input) % buf.limit();
+        int size = sizeFunc.applyAsInt(input) % limit;
         int pos = positionRange.applyAsInt(input);
-        pos = pos % (buf.limit() - size); // modulo by overrun if >0
-        return buf.subSequence(pos, pos + size).toString();
+        pos = pos % (limit - size); // modulo by overrun if >0
+        return corpus.extract(pos, size);
     }
 
     public String toString() {
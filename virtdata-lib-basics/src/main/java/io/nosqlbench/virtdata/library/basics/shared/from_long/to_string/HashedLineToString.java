@@ -16,22 +16,22 @@
 
 package io.nosqlbench.virtdata.library.basics.shared.from_long.to_string;
 
-import io.nosqlbench.api.content.NBIO;
 import io.nosqlbench.api.errors.BasicError;
 import io.nosqlbench.virtdata.api.annotations.Categories;
 import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
+import io.nosqlbench.virtdata.library.basics.core.corpus.Corpus;
+import io.nosqlbench.virtdata.library.basics.core.corpus.CorpusRegistry;
 import io.nosqlbench.virtdata.library.basics.shared.from_long.to_int.HashInterval;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.function.LongFunction;
 
 /**
  * Return a pseudo-randomly selected String value from a single line of
- * the specified file.
+ * the specified file. The file is shared with any other functions which
+ * read the same file, and is not copied onto the heap.
  */
 @ThreadSafeMapper
 @Categories({Category.general})
@@ -39,17 +39,17 @@ public class HashedLineToString implements LongFunction<String> {
     private final static Logger logger = LogManager.getLogger(HashedLineToString.class);
     private final HashInterval indexRange;
 
-    private List<String> lines = new ArrayList<>();
+    private final Corpus corpus;
 
     private final String filename;
 
     public HashedLineToString(String filename) {
         this.filename = filename;
-        this.lines = NBIO.readLines(filename);
-        if (lines.size()<1) {
-            throw new BasicError("Read " + lines.size() + " lines from " + filename + ", empty files are not supported");
+        this.corpus = CorpusRegistry.forLines(this, filename);
+        if (corpus.getLineCount()<1) {
+            throw new BasicError("Read " + corpus.getLineCount() + " lines from " + filename + ", empty files are not supported");
         }
-        this.indexRange = new HashInterval(0, lines.size());
+        this.indexRange = new HashInterval(0, corpus.getLineCount());
     }
 
     public String toString() {
@@ -59,7 +59,7 @@ public class HashedLineToString implements LongFunction<String> {
     @Override
     public String apply(long operand) {
         int itemIdx = indexRange.applyAsInt(operand);
-        String item = lines.get(itemIdx);
+        String item = corpus.getLine(itemIdx);
         return item;
     }
 
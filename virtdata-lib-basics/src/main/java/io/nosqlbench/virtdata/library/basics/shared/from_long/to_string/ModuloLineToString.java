@@ -16,39 +16,39 @@
 
 package io.nosqlbench.virtdata.library.basics.shared.from_long.to_string;
 
-import io.nosqlbench.api.content.NBIO;
 import io.nosqlbench.virtdata.api.annotations.Categories;
 import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
+import io.nosqlbench.virtdata.library.basics.core.corpus.Corpus;
+import io.nosqlbench.virtdata.library.basics.core.corpus.CorpusRegistry;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.function.LongFunction;
 
 /**
  * Select a value from a text file line by modulo division against the number
- * of lines in the file.
+ * of lines in the file. The file is shared with any other functions which
+ * read the same file, and is not copied onto the heap.
  */
 @ThreadSafeMapper
 @Categories({Category.general})
 public class ModuloLineToString implements LongFunction<String> {
     private final static Logger logger  = LogManager.getLogger(ModuloLineToString.class);
-    private List<String> lines = new ArrayList<>();
+    private final Corpus corpus;
 
     private final String filename;
 
     public ModuloLineToString(String filename) {
         this.filename = filename;
-        this.lines = NBIO.readLines(filename);
+        this.corpus = CorpusRegistry.forLines(this, filename);
 
     }
 
     @Override
     public String apply(long input) {
-        int itemIdx = (int) (input % lines.size()) % Integer.MAX_VALUE;
-        String item = lines.get(itemIdx);
+        int itemIdx = (int) (input % corpus.getLineCount()) % Integer.MAX_VALUE;
+        String item = corpus.getLine(itemIdx);
         return item;
     }
 
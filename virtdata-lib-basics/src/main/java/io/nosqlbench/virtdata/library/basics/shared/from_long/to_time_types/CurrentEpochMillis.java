@@ -27,7 +27,7 @@ import java.util.function.LongUnaryOperator;
  * CAUTION: This does not produce deterministic test data.
  */
 @ThreadSafeMapper
-@Categories({Category.datetime})
+@Categories({Category.datetime, Category.nondeterministic})
 public class CurrentEpochMillis implements LongUnaryOperator {
     @Override
     public long applyAsLong(long operand) {
@@ -27,7 +27,7 @@ import java.util.function.LongUnaryOperator;
  * CAUTION: This does not produce deterministic test data.
  */
 @ThreadSafeMapper
-@Categories({Category.general})
+@Categories({Category.general, Category.nondeterministic})
 public class ElapsedNanoTime implements LongUnaryOperator {
     @Override
     public long applyAsLong(long operand) {
@@ -33,7 +33,7 @@ import java.util.regex.Pattern;
  */
 @ThreadSafeMapper
 @DeprecatedFunction("This is being replaced by ThreadNum() for naming consistency.")
-@Categories({Category.general})
+@Categories({Category.general, Category.nondeterministic})
 public class ThreadNumToInteger implements LongFunction<Integer> {
 
     private static final Pattern pattern = Pattern.compile("^.*?(\\d+).*$");
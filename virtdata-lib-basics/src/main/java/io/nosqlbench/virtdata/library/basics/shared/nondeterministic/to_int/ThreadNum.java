@@ -16,31 +16,34 @@
 
 package io.nosqlbench.virtdata.library.basics.shared.nondeterministic.to_int;
 
-import io.nosqlbench.api.metadata.Indexed;
+import io.nosqlbench.api.metadata.ThreadIndex;
 import io.nosqlbench.virtdata.api.annotations.Categories;
 import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 
+import java.util.OptionalInt;
 import java.util.function.LongToIntFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * Matches a digit sequence in the current thread name and caches it in a thread local.
+ * Uses the index of the current thread, as set by the thread factory, or otherwise
+ * matches a digit sequence in the current thread name, and caches it in a thread local.
  * This allows you to use any intentionally indexed thread factories to provide an analogue for
  * concurrency. Note that once the thread number is cached, it will not be refreshed. This means
  * you can't change the thread name and get an updated value.
  */
 @ThreadSafeMapper
-@Categories({Category.state})
+@Categories({Category.state, Category.nondeterministic})
 public class ThreadNum implements LongToIntFunction {
 
     private static final Pattern pattern = Pattern.compile("^.*?(\\d+).*$");
     private final transient ThreadLocal<Integer> threadLocalInt = new ThreadLocal<Integer>() {
         @Override
         protected Integer initialValue() {
-            if (Thread.currentThread() instanceof Indexed ) {
-                return ((Indexed)Thread.currentThread()).getIndex();
+            OptionalInt index = ThreadIndex.current();
+            if (index.isPresent()) {
+                return index.getAsInt();
             }
 
             Matcher matcher = pattern.matcher(Thread.currentThread().getName());
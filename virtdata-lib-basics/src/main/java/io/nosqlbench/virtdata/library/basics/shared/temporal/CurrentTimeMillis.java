@@ -23,7 +23,7 @@ import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
 import java.util.function.LongUnaryOperator;
 
 @ThreadSafeMapper
-@Categories(Category.datetime)
+@Categories({Category.datetime, Category.nondeterministic})
 public class CurrentTimeMillis implements LongUnaryOperator {
     @Override
     public long applyAsLong(long operand) {
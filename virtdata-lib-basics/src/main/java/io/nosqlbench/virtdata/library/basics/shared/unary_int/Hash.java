@@ -19,27 +19,19 @@ package io.nosqlbench.virtdata.library.basics.shared.unary_int;
 import io.nosqlbench.virtdata.api.annotations.Categories;
 import io.nosqlbench.virtdata.api.annotations.Category;
 import io.nosqlbench.virtdata.api.annotations.ThreadSafeMapper;
-import io.nosqlbench.virtdata.murmur.Murmur3F;
+import io.nosqlbench.virtdata.murmur.Murmur3Long;
 
-import java.nio.ByteBuffer;
 import java.util.function.IntUnaryOperator;
 
 @ThreadSafeMapper
 @Categories({Category.general})
 public class Hash implements IntUnaryOperator {
 
-    private final transient ThreadLocal<Murmur3F> murmur3f_TL = ThreadLocal.withInitial(Murmur3F::new);
-
     @Override
     public int applyAsInt(int operand) {
-        ByteBuffer bb = ByteBuffer.allocate(Long.BYTES);
-        Murmur3F murmur3f = murmur3f_TL.get();
-        murmur3f.reset();
-        bb.putInt(0,operand);
-        bb.putInt(4,operand);
-        bb.position(0);
-        murmur3f.update(bb.array());
-        long result= Math.abs(murmur3f.getValue());
+        // The operand is hashed twice over, as two big-endian ints in one long
+        long doubled = ((long) operand << 32) | (operand & 0xffffffffL);
+        long result= Math.abs(Murmur3Long.hash(doubled));
         return (int) result & Integer.MAX_VALUE;
     }
 }
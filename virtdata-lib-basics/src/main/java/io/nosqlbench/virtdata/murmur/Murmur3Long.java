@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.murmur;
+
+/**
+ * <p>Stateless Murmur3F (MurmurHash3_x64_128) of a single long value, reduced to the arithmetic
+ * which {@link Murmur3F} performs when it is given the 8 big-endian bytes of a long and then asked
+ * for the lower 64 bits of the result. A single 8 byte input never fills a 16 byte block, so only
+ * the tail mixing and the finalization steps apply.</p>
+ *
+ * <p>The results are bit-identical to this, which is what the hash functions in virtdata have always done:
+ * <pre>{@code
+ * ByteBuffer bb = ByteBuffer.allocate(Long.BYTES);
+ * bb.putLong(0, value);
+ * Murmur3F murmur3F = new Murmur3F(seed);
+ * murmur3F.update(bb.array(), 0, Long.BYTES);
+ * return murmur3F.getValue();
+ * }</pre>
+ * but without the buffer, the hash state, or a thread local lookup.</p>
+ */
+public final class Murmur3Long {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private Murmur3Long() {
+    }
+
+    /**
+     * @param value The value to hash
+     * @return The lower 64 bits of the Murmur3F hash of the big-endian bytes of the value, with seed 0
+     */
+    public static long hash(long value) {
+        return hash(value, 0);
+    }
+
+    /**
+     * @param value The value to hash
+     * @param seed  The seed, as would be given to {@link Murmur3F#Murmur3F(int)}
+     * @return The lower 64 bits of the Murmur3F hash of the big-endian bytes of the value
+     */
+    public static long hash(long value, int seed) {
+        long h1 = seed & 0xffffffffL;
+        long h2 = h1;
+
+        // The bytes are read back in little-endian order as the partial first block
+        long k1 = Long.reverseBytes(value) * C1;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= C2;
+        h1 ^= k1;
+
+        h1 ^= Long.BYTES;
+        h2 ^= Long.BYTES;
+
+        h1 += h2;
+        h2 += h1;
+
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+
+        return h1 + h2;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.nosqlbench.virtdata.library.basics.core.corpus;
+package io.nosqlbench.virtdata.library.basics.core.corpus;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CorpusTest {
+
+    private static List<String> lines(Corpus corpus) {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < corpus.getLineCount(); i++) {
+            lines.add(corpus.getLine(i));
+        }
+        return lines;
+    }
+
+    private static Corpus read(String text) {
+        return Corpus.read("test", new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testLinesMatchSplit() {
+        for (String text : List.of("one\ntwo\nthree", "one\ntwo\n", "one\n\ntwo\n\n\n", "\none", "crlf\r\nlines\r\n", "")) {
+            assertThat(lines(read(text)))
+                .describedAs("lines of '" + text + "'")
+                .containsExactlyElementsOf(Arrays.asList(text.split("\n")));
+        }
+    }
+
+    @Test
+    public void testMappedSegmentsEndOnLines() throws Exception {
+        Path file = Files.createTempFile("corpus-test", ".txt");
+        file.toFile().deleteOnExit();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("line ").append(i).append('\n');
+        }
+        Files.writeString(file, sb);
+
+        Corpus corpus = Corpus.map("test", file, 64);
+        assertThat(corpus.size()).isEqualTo(sb.length());
+        assertThat(lines(corpus)).containsExactlyElementsOf(Arrays.asList(sb.toString().split("\n")));
+        assertThat(corpus.extract(0, sb.length())).isEqualTo(sb.toString());
+        assertThat(corpus.extract(50, 100)).isEqualTo(sb.substring(50, 150));
+    }
+
+    @Test
+    public void testExtractAvoidsSplitCharacters() {
+        Corpus corpus = read("aé€b");
+        // 'é' is 2 bytes and '€' is 3 bytes, starting at offsets 1 and 3
+        assertThat(corpus.extract(2, 2)).isEqualTo("€");
+        assertThat(corpus.extract(0, 2)).isEqualTo("aé");
+        assertThat(corpus.extract(1, 6)).isEqualTo("é€b");
+    }
+
+    @Test
+    public void testRegistrySharesCorpus() {
+        Object owner1 = new Object();
+        Object owner2 = new Object();
+        Corpus corpus1 = CorpusRegistry.forLines(owner1, "lorem_ipsum_full.txt");
+        Corpus corpus2 = CorpusRegistry.forLines(owner2, "lorem_ipsum_full.txt");
+        assertThat(corpus2).isSameAs(corpus1);
+        assertThat(CorpusRegistry.getReferenceCount(corpus1)).isGreaterThanOrEqualTo(2);
+        assertThat(corpus1.getLineCount()).isGreaterThan(0);
+    }
+}
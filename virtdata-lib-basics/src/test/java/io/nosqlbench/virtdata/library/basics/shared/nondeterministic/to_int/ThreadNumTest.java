@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.nosqlbench.virtdata.library.basics.shared.nondeterministic.to_int;
+
+import io.nosqlbench.api.metadata.ThreadIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ThreadNumTest {
+
+    @Test
+    public void testThreadIndexIsPreferredOverName() throws InterruptedException {
+        ThreadNum threadNum = new ThreadNum();
+        assertThat(applyIn("motor:042", () -> ThreadIndex.set(7), threadNum)).isEqualTo(7);
+    }
+
+    @Test
+    public void testThreadNameIsUsedWithoutThreadIndex() throws InterruptedException {
+        ThreadNum threadNum = new ThreadNum();
+        assertThat(applyIn("motor:042", () -> {}, threadNum)).isEqualTo(42);
+    }
+
+    private static int applyIn(String threadName, Runnable setup, ThreadNum threadNum) throws InterruptedException {
+        AtomicInteger result = new AtomicInteger(-1);
+        Thread thread = new Thread(() -> {
+            setup.run();
+            result.set(threadNum.applyAsInt(0L));
+        }, threadName);
+        thread.start();
+        thread.join();
+        return result.get();
+    }
+}
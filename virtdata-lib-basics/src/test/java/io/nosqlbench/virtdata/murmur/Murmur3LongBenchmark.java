@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.murmur;
+
+import io.nosqlbench.virtdata.library.basics.shared.from_long.to_long.Hash;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the stateless {@link Murmur3Long} hash with the buffer and thread local
+ * {@link Murmur3F} form which the Hash functions previously used.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 3, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class Murmur3LongBenchmark {
+
+    private final ThreadLocal<Murmur3F> murmur3f_TL = ThreadLocal.withInitial(Murmur3F::new);
+    private final Hash hash = new Hash();
+    private long value;
+
+    @Benchmark
+    public long bufferedMurmur3F() {
+        ByteBuffer bb = ByteBuffer.allocate(Long.BYTES);
+        Murmur3F murmur3f = murmur3f_TL.get();
+        murmur3f.reset();
+        bb.putLong(0, value++);
+        murmur3f.update(bb.array(), 0, Long.BYTES);
+        return Math.abs(murmur3f.getValue());
+    }
+
+    @Benchmark
+    public long murmur3Long() {
+        return Math.abs(Murmur3Long.hash(value++));
+    }
+
+    @Benchmark
+    public long hashFunction() {
+        return hash.applyAsLong(value++);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(Murmur3LongBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result("murmur3-long.json")
+            .build();
+        new Runner(options).run();
+    }
+}
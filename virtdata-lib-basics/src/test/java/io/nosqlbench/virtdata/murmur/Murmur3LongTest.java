@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.murmur;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class Murmur3LongTest {
+
+    /**
+     * These values are what the Hash functions have always produced. If any of them change,
+     * then existing workloads will no longer generate the same data.
+     */
+    @Test
+    public void testGoldenValues() {
+        assertThat(Murmur3Long.hash(0L)).isEqualTo(2945182322382062539L);
+        assertThat(Murmur3Long.hash(1L)).isEqualTo(6292367497774912474L);
+        assertThat(Murmur3Long.hash(2L)).isEqualTo(-8218881827949364593L);
+        assertThat(Murmur3Long.hash(3L)).isEqualTo(-8048510690352527683L);
+        assertThat(Murmur3Long.hash(42L)).isEqualTo(8623491988607824794L);
+        assertThat(Murmur3Long.hash(1000L)).isEqualTo(-8214298725648305215L);
+        assertThat(Murmur3Long.hash(-1L)).isEqualTo(-6853156495446839949L);
+        assertThat(Murmur3Long.hash(Long.MAX_VALUE)).isEqualTo(-9146070906113848730L);
+        assertThat(Murmur3Long.hash(Long.MIN_VALUE)).isEqualTo(1838927571072900970L);
+        assertThat(Murmur3Long.hash(7L, 2343)).isEqualTo(-4516323125740489940L);
+    }
+
+    @Test
+    public void testMatchesMurmur3F() {
+        SplittableRandom random = new SplittableRandom(42);
+        ByteBuffer bb = ByteBuffer.allocate(Long.BYTES);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong();
+            int seed = (i % 2 == 0) ? 0 : random.nextInt();
+            Murmur3F murmur3F = new Murmur3F(seed);
+            bb.putLong(0, value);
+            murmur3F.update(bb.array(), 0, Long.BYTES);
+            assertThat(Murmur3Long.hash(value, seed)).isEqualTo(murmur3F.getValue());
+        }
+    }
+
+    @Test
+    public void testMatchesMurmur3FForDoubledInts() {
+        SplittableRandom random = new SplittableRandom(42);
+        ByteBuffer bb = ByteBuffer.allocate(Long.BYTES);
+        for (int i = 0; i < 100_000; i++) {
+            int operand = random.nextInt();
+            Murmur3F murmur3F = new Murmur3F();
+            bb.putInt(0, operand);
+            bb.putInt(4, operand);
+            murmur3F.update(bb.array());
+            long doubled = ((long) operand << 32) | (operand & 0xffffffffL);
+            assertThat(Murmur3Long.hash(doubled)).isEqualTo(murmur3F.getValue());
+        }
+    }
+}
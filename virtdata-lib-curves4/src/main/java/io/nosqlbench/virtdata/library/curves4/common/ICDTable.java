@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.nosqlbench.virtdata.library.basics.core.corpus;
+package io.nosqlbench.virtdata.library.curves4.common;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+
+/**
+ * An interpolation lookup table of inverse cumulative distribution values. Small tables are kept
+ * on the heap. Tables with more than {@link #OFFHEAP_THRESHOLD} values are kept off-heap, either
+ * in a direct buffer or in a read-only mapping of an on-disk cache file.
+ *
+ * <p>Tables are shared by all samplers which use the same distribution and settings, so they
+ * must not be modified once they are built.</p>
+ */
+public final class ICDTable {
+
+    public final static int OFFHEAP_THRESHOLD = 1 << 17;
+
+    private final double[] values;
+    private final DoubleBuffer buffer;
+    private final int length;
+
+    private ICDTable(double[] values, DoubleBuffer buffer) {
+        this.values = values;
+        this.buffer = buffer;
+        this.length = values != null ? values.length : buffer.limit();
+    }
+
+    /**
+     * @param values The table values, which are copied off-heap if there are enough of them
+     * @return a table of the values
+     */
+    public static ICDTable of(double[] values) {
+        if (values.length <= OFFHEAP_THRESHOLD) {
+            return new ICDTable(values, null);
+        }
+        DoubleBuffer buffer = ByteBuffer.allocateDirect(values.length * Double.BYTES).asDoubleBuffer();
+        buffer.put(values).flip();
+        return new ICDTable(null, buffer);
+    }
+
+    /**
+     * @param buffer A buffer of the table values, which must not be modified later
+     * @return a table of the values
+     */
+    static ICDTable of(DoubleBuffer buffer) {
+        if (buffer.limit() <= OFFHEAP_THRESHOLD) {
+            double[] values = new double[buffer.limit()];
+            buffer.get(0, values);
+            return new ICDTable(values, null);
+        }
+        return new ICDTable(null, buffer);
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public double get(int index) {
+        return values != null ? values[index] : buffer.get(index);
+    }
+
+    public boolean isOffHeap() {
+        return values == null;
+    }
+
+    @Override
+    public String toString() {
+        return "ICDTable{length=" + length + (isOffHeap() ? ", offheap" : "") + '}';
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.nosqlbench.virtdata.library.basics.core.corpus;
+package io.nosqlbench.virtdata.library.curves4.common;
+
+import io.nosqlbench.api.system.NBEnvironment;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * <p>A process-wide cache of {@link ICDTable}s, so that samplers with the same distribution,
+ * parameters, resolution and clamping settings share one table instead of each computing their own.</p>
+ *
+ * <p>The key for a table is built from the type of sampler, the settings of the sampler, and
+ * the type and the field values of the distribution. If the fields of a distribution can not be
+ * read, or are not simple values, then the table is not cached.</p>
+ *
+ * <p>If the {@value #CACHEDIR_PROPERTY} system property is set to a directory,
+ * tables are also kept there between runs, so that they are only computed once. Large tables are
+ * mapped from these files rather than read onto the heap.</p>
+ */
+public final class ICDTables {
+    private final static Logger logger = LogManager.getLogger(ICDTables.class);
+
+    public final static String CACHEDIR_PROPERTY = "nb.icdcache";
+    public final static int DEFAULT_RESOLUTION = 1000;
+    public final static String RESOLUTION = "resolution=";
+
+    private final static long MAGIC = 0x4E42494344544231L; // NBICDTB1
+    private final static int MAX_DEPTH = 6;
+
+    private final static Map<String, ICDTable> tables = new ConcurrentHashMap<>();
+    private static volatile Path cacheDir;
+    private static volatile boolean cacheDirResolved;
+
+    private ICDTables() {
+    }
+
+    /**
+     * @param mod A curve modifier
+     * @return true if the modifier sets the table resolution, like <em>resolution=100000</em>
+     */
+    public static boolean isResolution(String mod) {
+        return mod.startsWith(RESOLUTION);
+    }
+
+    /**
+     * @param mods The curve modifiers
+     * @return the table resolution given by the modifiers, or {@link #DEFAULT_RESOLUTION}
+     */
+    public static int resolutionOf(String... mods) {
+        int resolution = DEFAULT_RESOLUTION;
+        for (String mod : mods) {
+            if (isResolution(mod)) {
+                try {
+                    resolution = Integer.parseInt(mod.substring(RESOLUTION.length()));
+                } catch (NumberFormatException e) {
+                    throw new RuntimeException("Unable to parse table resolution from '" + mod + "'");
+                }
+                if (resolution < 2) {
+                    throw new RuntimeException("The table resolution must be at least 2, but was " + resolution);
+                }
+            }
+        }
+        return resolution;
+    }
+
+    /**
+     * Get the shared table for the key, or build it.
+     *
+     * @param key     The key from {@link #keyOf(Class, Object, Object...)}, or null if the table should not be shared
+     * @param builder A function which computes the table values
+     * @return the table
+     */
+    public static ICDTable get(String key, Supplier<double[]> builder) {
+        if (key == null) {
+            return ICDTable.of(builder.get());
+        }
+        ICDTable table = tables.get(key);
+        if (table == null) {
+            table = tables.computeIfAbsent(key, k -> load(k, builder));
+        }
+        return table;
+    }
+
+    /**
+     * Build a table key from the type of sampler, the distribution it samples, and its settings.
+     *
+     * @param samplerType  The type of sampler which uses the table
+     * @param distribution The distribution, or any function which computes the ICD from its fields
+     * @param settings     The settings of the sampler which affect the table values
+     * @return a key, or null if the distribution can not be described by its field values
+     */
+    public static String keyOf(Class<?> samplerType, Object distribution, Object... settings) {
+        StringBuilder sb = new StringBuilder(samplerType.getName());
+        for (Object setting : settings) {
+            sb.append(',').append(setting);
+        }
+        sb.append(':');
+        try {
+            describe(distribution, sb, 0);
+        } catch (RuntimeException e) {
+            logger.debug(() -> "not sharing ICD table for " + distribution.getClass().getName() + ": " + e.getMessage());
+            return null;
+        }
+        return sb.toString();
+    }
+
+    private static void describe(Object value, StringBuilder sb, int depth) {
+        if (value == null || value instanceof Number || value instanceof Boolean
+            || value instanceof Character || value instanceof String || value instanceof Enum) {
+            sb.append(value);
+            return;
+        }
+        if (depth > MAX_DEPTH) {
+            throw new RuntimeException("distribution is nested too deeply");
+        }
+        Class<?> type = value.getClass();
+        if (type.isArray()) {
+            sb.append('[');
+            for (int i = 0; i < Array.getLength(value); i++) {
+                describe(Array.get(value, i), sb, depth + 1);
+                sb.append(',');
+            }
+            sb.append(']');
+            return;
+        }
+        if (value instanceof Collection<?> collection) {
+            sb.append('[');
+            for (Object element : collection) {
+                describe(element, sb, depth + 1);
+                sb.append(',');
+            }
+            sb.append(']');
+            return;
+        }
+        if (type.isHidden() || type.isSynthetic()
+            || !type.getName().startsWith("org.apache.commons.") && !type.getName().startsWith("io.nosqlbench.")) {
+            throw new RuntimeException("unable to describe a " + type.getName());
+        }
+        // The library version is included, since tables may be kept on disk across upgrades
+        sb.append(type.getName());
+        if (type.getPackage() != null && type.getPackage().getImplementationVersion() != null) {
+            sb.append('@').append(type.getPackage().getImplementationVersion());
+        }
+        sb.append('{');
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                field.setAccessible(true);
+                sb.append(field.getName()).append('=');
+                try {
+                    describe(field.get(value), sb, depth + 1);
+                } catch (IllegalAccessException e) {
+                    throw new RuntimeException(e);
+                }
+                sb.append(';');
+            }
+        }
+        sb.append('}');
+    }
+
+    private static ICDTable load(String key, Supplier<double[]> builder) {
+        Path dir = getCacheDir();
+        Path file = null;
+        if (dir != null) {
+            file = dir.resolve(digest(key) + ".icd");
+            ICDTable cached = read(file, key);
+            if (cached != null) {
+                logger.debug(() -> "loaded ICD table from " + key);
+                return cached;
+            }
+        }
+        ICDTable table = ICDTable.of(builder.get());
+        if (file != null) {
+            write(file, key, table);
+        }
+        return table;
+    }
+
+    private static Path getCacheDir() {
+        if (!cacheDirResolved) {
+            synchronized (ICDTables.class) {
+                if (!cacheDirResolved) {
+                    String dirname = NBEnvironment.INSTANCE.getOr(CACHEDIR_PROPERTY, "");
+                    if (!dirname.isBlank()) {
+                        try {
+                            cacheDir = Files.createDirectories(Path.of(dirname));
+                            logger.info(() -> "caching ICD tables in " + cacheDir);
+                        } catch (IOException e) {
+                            logger.warn("Unable to use '" + dirname + "' to cache ICD tables: " + e);
+                        }
+                    }
+                    cacheDirResolved = true;
+                }
+            }
+        }
+        return cacheDir;
+    }
+
+    private static String digest(String key) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * The file format is the magic number, the key, the number of values, and then the values,
+     * starting on an 8 byte boundary.
+     */
+    static ICDTable read(Path file, String key) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            DataInputStream in = new DataInputStream(Channels.newInputStream(channel));
+            if (in.readLong() != MAGIC) {
+                return null;
+            }
+            byte[] keyBytes = new byte[in.readInt()];
+            in.readFully(keyBytes);
+            if (!key.equals(new String(keyBytes, StandardCharsets.UTF_8))) {
+                logger.warn("ICD table cache file " + file + " is for a different key, so it will be replaced.");
+                return null;
+            }
+            int length = in.readInt();
+            long dataOffset = align(Long.BYTES + Integer.BYTES + keyBytes.length + Integer.BYTES);
+            if (channel.size() != dataOffset + (long) length * Double.BYTES) {
+                return null;
+            }
+            DoubleBuffer values = channel.map(FileChannel.MapMode.READ_ONLY, dataOffset, (long) length * Double.BYTES).asDoubleBuffer();
+            return ICDTable.of(values);
+        } catch (IOException e) {
+            logger.warn("Unable to read ICD table cache file " + file + ": " + e);
+            return null;
+        }
+    }
+
+    static void write(Path file, String key, ICDTable table) {
+        try {
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            long dataOffset = align(Long.BYTES + Integer.BYTES + keyBytes.length + Integer.BYTES);
+            ByteBuffer header = ByteBuffer.allocate((int) dataOffset);
+            header.putLong(MAGIC).putInt(keyBytes.length).put(keyBytes).putInt(table.length());
+            header.clear();
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                ByteBuffer chunk = ByteBuffer.allocate(Double.BYTES * 8192);
+                for (int i = 0; i < table.length(); ) {
+                    chunk.clear();
+                    while (chunk.hasRemaining() && i < table.length()) {
+                        chunk.putDouble(table.get(i++));
+                    }
+                    chunk.flip();
+                    while (chunk.hasRemaining()) {
+                        channel.write(chunk);
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Unable to write ICD table cache file " + file + ": " + e);
+        }
+    }
+
+    private static long align(long offset) {
+        return (offset + Double.BYTES - 1) & ~(long) (Double.BYTES - 1);
+    }
+
+    /**
+     * @return the number of tables which are shared in this process
+     */
+    public static int size() {
+        return tables.size();
+    }
+}
@@ -17,6 +17,8 @@
 package io.nosqlbench.virtdata.library.curves4.continuous.common;
 
 import io.nosqlbench.virtdata.library.basics.shared.unary_int.Hash;
+import io.nosqlbench.virtdata.library.curves4.common.ICDTable;
+import io.nosqlbench.virtdata.library.curves4.common.ICDTables;
 
 import java.util.Arrays;
 import java.util.function.DoubleUnaryOperator;
@@ -24,7 +26,7 @@ import java.util.function.IntToDoubleFunction;
 
 public class InterpolatingIntDoubleSampler implements IntToDoubleFunction{
 
-    private final double[] lut;
+    private final ICDTable lut;
     private final DoubleUnaryOperator f;
     private final boolean clamp;
     private final double clampMin;
@@ -40,6 +42,12 @@ public class InterpolatingIntDoubleSampler implements IntToDoubleFunction{
         if (hash) {
             this.hash = new Hash();
         }
+        String key = ICDTables.keyOf(getClass(), icdSource, resolution, clamp, clampMin, clampMax, finite);
+        this.lut = ICDTables.get(key, () -> buildLut(resolution, finite));
+        this.scaleToIntRanged = (1.0d/(double)Integer.MAX_VALUE) * ((lut.length()-2));
+    }
+
+    private double[] buildLut(int resolution, boolean finite) {
         double[] computed = precompute(resolution);
         if (finite) {
             while (computed.length>0 && Double.isInfinite(computed[0])) {
@@ -51,8 +59,7 @@ public class InterpolatingIntDoubleSampler implements IntToDoubleFunction{
         }
         double[] padded = new double[computed.length+1];
         System.arraycopy(computed,0,padded,0,computed.length);
-        this.scaleToIntRanged = (1.0d/(double)Integer.MAX_VALUE) * ((padded.length-2));
-        this.lut = padded;
+        return padded;
     }
 
     private double[] precompute(int resolution) {
@@ -74,7 +81,7 @@ public class InterpolatingIntDoubleSampler implements IntToDoubleFunction{
         double samplePoint = scaleToIntRanged * input;
         int leftidx = (int)samplePoint;
         double fractional = samplePoint - leftidx;
-        double sample = (lut[leftidx]* (1.0d-fractional)) + (lut[leftidx+1] * fractional);
+        double sample = (lut.get(leftidx)* (1.0d-fractional)) + (lut.get(leftidx+1) * fractional);
         return sample;
     }
 }
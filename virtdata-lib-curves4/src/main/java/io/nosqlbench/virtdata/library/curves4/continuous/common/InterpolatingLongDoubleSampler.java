@@ -16,6 +16,8 @@
 
 package io.nosqlbench.virtdata.library.curves4.continuous.common;
 
+import io.nosqlbench.virtdata.library.curves4.common.ICDTable;
+import io.nosqlbench.virtdata.library.curves4.common.ICDTables;
 import io.nosqlbench.virtdata.library.curves4.discrete.common.ThreadSafeHash;
 
 import java.util.Arrays;
@@ -35,12 +37,14 @@ import java.util.function.LongToDoubleFunction;
  *     <LI>+1 LUT padding for U=1.0</LI>
  *     <LI>Uniform LERP code in main function</LI>
  * </UL>>
+ *
+ * The LUT is shared through {@link ICDTables} with every other sampler of the same type, distribution and settings.
  */
 public class InterpolatingLongDoubleSampler implements LongToDoubleFunction {
 
     private static final double MAX_LONG_AS_DOUBLE = Long.MAX_VALUE;
 
-    private final double[] lut;
+    private final ICDTable lut;
     private final DoubleUnaryOperator f;
     private final boolean clamp;
     private final double clampMin;
@@ -62,11 +66,16 @@ public class InterpolatingLongDoubleSampler implements LongToDoubleFunction {
         this.finite = finite;
         this.clampMin=clampMin;
         this.clampMax=clampMax;
+        String key = ICDTables.keyOf(getClass(), icdSource, resolution, clamp, clampMin, clampMax, finite);
+        this.lut = ICDTables.get(key, () -> buildLut(resolution));
+        this.scaleToLong = (1.0d / (double) Long.MAX_VALUE) * (lut.length()-2);
+    }
+
+    private double[] buildLut(int resolution) {
         double[] computed = precompute(resolution);
         double[] padded = new double[computed.length+1];
         System.arraycopy(computed,0,padded,0,computed.length);
-        this.scaleToLong = (1.0d / (double) Long.MAX_VALUE) * (padded.length-2);
-        this.lut = padded;
+        return padded;
     }
 
     private double[] precompute(int resolution) {
@@ -97,7 +106,7 @@ public class InterpolatingLongDoubleSampler implements LongToDoubleFunction {
         double samplePoint = scaleToLong * input;
         int leftidx = (int)samplePoint;
         double fractional = samplePoint - leftidx;
-        double sample = (lut[leftidx]* (1.0d-fractional)) + (lut[leftidx+1] * fractional);
+        double sample = (lut.get(leftidx)* (1.0d-fractional)) + (lut.get(leftidx+1) * fractional);
         return sample;
     }
 }
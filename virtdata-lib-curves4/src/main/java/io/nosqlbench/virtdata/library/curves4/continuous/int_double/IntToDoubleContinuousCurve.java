@@ -16,6 +16,7 @@
 
 package io.nosqlbench.virtdata.library.curves4.continuous.int_double;
 
+import io.nosqlbench.virtdata.library.curves4.common.ICDTables;
 import io.nosqlbench.virtdata.library.curves4.continuous.common.InterpolatingIntDoubleSampler;
 import io.nosqlbench.virtdata.library.curves4.continuous.common.RealDistributionICDSource;
 import io.nosqlbench.virtdata.library.curves4.continuous.common.RealIntDoubleSampler;
@@ -71,6 +72,11 @@ import java.util.function.IntToDoubleFunction;
  * You can add one of 'clamp' or 'noclamp' but not both. if neither of
  * these is added, 'clamp' is implied as a default.
  *
+ * When interpolating, you can add 'resolution=N' to use a lookup table with
+ * N points instead of the default of 1000. Higher resolutions are more accurate
+ * in the tails of the distribution. Lookup tables are shared by all functions
+ * with the same distribution and settings.
+ *
  * At times, it might be useful to add 'hash', 'interpolate', or 'clamp'
  * to your specifiers as a form of verbosity or explicit specification.
  */
@@ -126,7 +132,7 @@ public class IntToDoubleContinuousCurve implements IntToDoubleFunction {
         }
 
         for (String s : modslist) {
-            if (!validModifiers.contains(s)) {
+            if (!validModifiers.contains(s) && !ICDTables.isResolution(s)) {
                 throw new RuntimeException("modifier '" + s + "' is not a valid modifier. Use one of " + validModifiers + " instead.");
             }
         }
@@ -137,7 +143,7 @@ public class IntToDoubleContinuousCurve implements IntToDoubleFunction {
         boolean finite = ( mods.contains(FINITE) || !mods.contains(INFINITE));
 
         function = interpolate ?
-                new InterpolatingIntDoubleSampler(icdSource, 1000, hash, clamp, Integer.MIN_VALUE, Integer.MAX_VALUE, finite)
+                new InterpolatingIntDoubleSampler(icdSource, ICDTables.resolutionOf(modslist), hash, clamp, Integer.MIN_VALUE, Integer.MAX_VALUE, finite)
                 :
                 new RealIntDoubleSampler(icdSource, hash, clamp, Integer.MIN_VALUE, Integer.MAX_VALUE, true);
 
@@ -16,6 +16,7 @@
 
 package io.nosqlbench.virtdata.library.curves4.continuous.long_double;
 
+import io.nosqlbench.virtdata.library.curves4.common.ICDTables;
 import io.nosqlbench.virtdata.library.curves4.continuous.common.InterpolatingLongDoubleSampler;
 import io.nosqlbench.virtdata.library.curves4.continuous.common.RealDistributionICDSource;
 import io.nosqlbench.virtdata.library.curves4.continuous.common.RealLongDoubleSampler;
@@ -71,6 +72,11 @@ import java.util.function.LongToDoubleFunction;
  * You can add one of 'clamp' or 'noclamp' but not both. if neither of
  * these is added, 'clamp' is implied as a default.
  *
+ * When interpolating, you can add 'resolution=N' to use a lookup table with
+ * N points instead of the default of 1000. Higher resolutions are more accurate
+ * in the tails of the distribution. Lookup tables are shared by all functions
+ * with the same distribution and settings.
+ *
  * At times, it might be useful to add 'hash', 'interpolate', or 'clamp'
  * to your specifiers as a form of verbosity or explicit specification.
  */
@@ -127,7 +133,7 @@ public class LongToDoubleContinuousCurve implements LongToDoubleFunction {
         }
 
         for (String s : modslist) {
-            if (!validModifiers.contains(s)) {
+            if (!validModifiers.contains(s) && !ICDTables.isResolution(s)) {
                 throw new RuntimeException("modifier '" + s + "' is not a valid modifier. Use one of " + validModifiers + " instead.");
             }
         }
@@ -138,7 +144,7 @@ public class LongToDoubleContinuousCurve implements LongToDoubleFunction {
         boolean finite = ( mods.contains(FINITE) || !mods.contains(INFINITE));
 
         function = interpolate ?
-                new InterpolatingLongDoubleSampler(icdSource, 1000, hash, clamp, Long.MIN_VALUE, Long.MAX_VALUE, finite)
+                new InterpolatingLongDoubleSampler(icdSource, ICDTables.resolutionOf(modslist), hash, clamp, Long.MIN_VALUE, Long.MAX_VALUE, finite)
                 :
                 new RealLongDoubleSampler(icdSource, hash, clamp, Long.MIN_VALUE, Long.MAX_VALUE, true);
 
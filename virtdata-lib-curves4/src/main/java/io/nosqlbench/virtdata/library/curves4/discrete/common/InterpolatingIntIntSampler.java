@@ -17,13 +17,15 @@
 package io.nosqlbench.virtdata.library.curves4.discrete.common;
 
 import io.nosqlbench.virtdata.library.basics.shared.unary_int.Hash;
+import io.nosqlbench.virtdata.library.curves4.common.ICDTable;
+import io.nosqlbench.virtdata.library.curves4.common.ICDTables;
 
 import java.util.function.DoubleToIntFunction;
 import java.util.function.IntUnaryOperator;
 
 public class InterpolatingIntIntSampler implements IntUnaryOperator {
 
-    private final double[] lut;
+    private final ICDTable lut;
     private final DoubleToIntFunction f;
     private Hash hash;
     private final double scaleToIntRanged;
@@ -33,13 +35,17 @@ public class InterpolatingIntIntSampler implements IntUnaryOperator {
         if (hash) {
             this.hash = new Hash();
         }
+        String key = ICDTables.keyOf(getClass(), icdSource, resolution);
+        this.lut = ICDTables.get(key, () -> buildLut(resolution));
+        this.scaleToIntRanged = (1.0d/Integer.MAX_VALUE)*(lut.length()-2);
+    }
+
+    private double[] buildLut(int resolution) {
         double[] computed = precompute(resolution);
         double[] padded = new double[computed.length+1];
         System.arraycopy(computed,0,padded,0,computed.length);
         padded[padded.length-1] = padded[padded.length-2];
-        scaleToIntRanged = (1.0d/Integer.MAX_VALUE)*(padded.length-2);
-        this.lut=padded;
-
+        return padded;
     }
 
     private double[] precompute(int resolution) {
@@ -60,7 +66,7 @@ public class InterpolatingIntIntSampler implements IntUnaryOperator {
         double samplePoint = scaleToIntRanged * input;
         int leftidx = (int)samplePoint;
         double fractional = samplePoint - leftidx;
-        double sample = (lut[leftidx]* (1.0d-fractional)) + (lut[leftidx+1] * fractional);
+        double sample = (lut.get(leftidx)* (1.0d-fractional)) + (lut.get(leftidx+1) * fractional);
         return (int) sample;
     }
 }
@@ -16,12 +16,15 @@
 
 package io.nosqlbench.virtdata.library.curves4.discrete.common;
 
+import io.nosqlbench.virtdata.library.curves4.common.ICDTable;
+import io.nosqlbench.virtdata.library.curves4.common.ICDTables;
+
 import java.util.function.DoubleToIntFunction;
 import java.util.function.LongToIntFunction;
 
 public class InterpolatingLongIntSampler implements LongToIntFunction {
 
-    private final double[] lut;
+    private final ICDTable lut;
     private final DoubleToIntFunction f;
     private ThreadSafeHash hash;
     private final double scaleToLong;
@@ -31,12 +34,17 @@ public class InterpolatingLongIntSampler implements LongToIntFunction {
         if (hash) {
             this.hash = new ThreadSafeHash();
         }
+        String key = ICDTables.keyOf(getClass(), icdSource, resolution);
+        this.lut = ICDTables.get(key, () -> buildLut(resolution));
+        this.scaleToLong=(1.0d/Long.MAX_VALUE) * (lut.length()-2);
+    }
+
+    private double[] buildLut(int resolution) {
         double[] computed = precompute(resolution);
         double[] padded = new double[computed.length+1];
         System.arraycopy(computed,0,padded,0,computed.length);
         padded[padded.length-1] = padded[padded.length-2];
-        scaleToLong=(1.0d/Long.MAX_VALUE) * (padded.length-2);
-        this.lut=padded;
+        return padded;
     }
 
     private double[] precompute(int resolution) {
@@ -57,7 +65,7 @@ public class InterpolatingLongIntSampler implements LongToIntFunction {
         double samplePoint = scaleToLong * input;
         int leftidx = (int)samplePoint;
         double fractional = samplePoint - leftidx;
-        double sample = (lut[leftidx]* (1.0d-fractional)) + (lut[leftidx+1] * fractional);
+        double sample = (lut.get(leftidx)* (1.0d-fractional)) + (lut.get(leftidx+1) * fractional);
         return (int)sample;
     }
 }
@@ -16,6 +16,7 @@
 
 package io.nosqlbench.virtdata.library.curves4.discrete.int_long;
 
+import io.nosqlbench.virtdata.library.curves4.common.ICDTables;
 import io.nosqlbench.virtdata.library.curves4.discrete.common.DiscreteIntLongSampler;
 import io.nosqlbench.virtdata.library.curves4.discrete.common.IntegerDistributionICDSource;
 import io.nosqlbench.virtdata.library.curves4.discrete.common.InterpolatingIntLongSampler;
@@ -61,6 +62,11 @@ import java.util.function.IntToLongFunction;
  * You can add one of 'interpolate' or 'compute' but not both. If neither
  * of these is added, 'interpolate' is implied as a default.
  *
+ * When interpolating, you can add 'resolution=N' to use a lookup table with
+ * N points instead of the default of 1000. Higher resolutions are more accurate
+ * in the tails of the distribution. Lookup tables are shared by all functions
+ * with the same distribution and settings.
+ *
  * At times, it might be useful to add 'hash', 'interpolate' to your
  * specifiers as a form of verbosity or explicit specification.
  */
@@ -97,7 +103,7 @@ public class IntToLongDiscreteCurve implements IntToLongFunction {
             throw new RuntimeException("mods must not contain both "+INTERPOLATE+" and "+COMPUTE+".");
         }
         for (String s : modslist) {
-            if (!validModifiers.contains(s)) {
+            if (!validModifiers.contains(s) && !ICDTables.isResolution(s)) {
                 throw new RuntimeException("modifier '" + s + "' is not a valid modifier. Use one of " + validModifiers + " instead.");
             }
         }
@@ -106,7 +112,7 @@ public class IntToLongDiscreteCurve implements IntToLongFunction {
         boolean interpolate = ( mods.contains(INTERPOLATE) || !mods.contains(COMPUTE));
 
         function = interpolate ?
-                new InterpolatingIntLongSampler(icdSource, 1000, hash)
+                new InterpolatingIntLongSampler(icdSource, ICDTables.resolutionOf(modslist), hash)
                 :
                 new DiscreteIntLongSampler(icdSource, hash);
     }
@@ -16,6 +16,7 @@
 
 package io.nosqlbench.virtdata.library.curves4.discrete.long_long;
 
+import io.nosqlbench.virtdata.library.curves4.common.ICDTables;
 import io.nosqlbench.virtdata.library.curves4.discrete.common.DiscreteLongLongSampler;
 import io.nosqlbench.virtdata.library.curves4.discrete.common.IntegerDistributionICDSource;
 import io.nosqlbench.virtdata.library.curves4.discrete.common.InterpolatingLongLongSampler;
@@ -61,6 +62,11 @@ import java.util.function.LongUnaryOperator;
  * You can add one of 'interpolate' or 'compute' but not both. If neither
  * of these is added, 'interpolate' is implied as a default.
  *
+ * When interpolating, you can add 'resolution=N' to use a lookup table with
+ * N points instead of the default of 1000. Higher resolutions are more accurate
+ * in the tails of the distribution. Lookup tables are shared by all functions
+ * with the same distribution and settings.
+ *
  * At times, it might be useful to add 'hash', 'interpolate' to your
  * specifiers as a form of verbosity or explicit specification.
  */
@@ -96,7 +102,7 @@ public class LongToLongDiscreteCurve implements LongUnaryOperator {
             throw new RuntimeException("mods must not contain both "+INTERPOLATE+" and "+COMPUTE+".");
         }
         for (String s : modslist) {
-            if (!validModifiers.contains(s)) {
+            if (!validModifiers.contains(s) && !ICDTables.isResolution(s)) {
                 throw new RuntimeException("modifier '" + s + "' is not a valid modifier. Use one of " + validModifiers + " instead.");
             }
         }
@@ -105,7 +111,7 @@ public class LongToLongDiscreteCurve implements LongUnaryOperator {
         boolean interpolate = ( mods.contains(INTERPOLATE) || !mods.contains(COMPUTE));
 
         function = interpolate ?
-                new InterpolatingLongLongSampler(icdSource, 1000, hash)
+                new InterpolatingLongLongSampler(icdSource, ICDTables.resolutionOf(modslist), hash)
                 :
                 new DiscreteLongLongSampler(icdSource, hash);
     }
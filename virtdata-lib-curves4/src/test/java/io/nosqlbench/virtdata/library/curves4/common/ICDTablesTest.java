@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.nosqlbench.virtdata.library.basics.core.corpus;
+package io.nosqlbench.virtdata.library.curves4.common;
+
+import io.nosqlbench.virtdata.library.curves4.continuous.common.RealDistributionICDSource;
+import io.nosqlbench.virtdata.library.curves4.continuous.long_double.Normal;
+import io.nosqlbench.virtdata.library.curves4.discrete.common.IntegerDistributionICDSource;
+import io.nosqlbench.virtdata.library.curves4.discrete.common.InterpolatingLongLongSampler;
+import io.nosqlbench.virtdata.library.curves4.discrete.long_long.Zipf;
+import org.apache.commons.statistics.distribution.NormalDistribution;
+import org.apache.commons.statistics.distribution.ZipfDistribution;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.function.DoubleToIntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+public class ICDTablesTest {
+
+    @Test
+    public void testKeysMatchForEqualDistributions() {
+        String zipf1 = ICDTables.keyOf(InterpolatingLongLongSampler.class,
+            new IntegerDistributionICDSource(ZipfDistribution.of(1000, 2.0)), 1000);
+        String zipf2 = ICDTables.keyOf(InterpolatingLongLongSampler.class,
+            new IntegerDistributionICDSource(ZipfDistribution.of(1000, 2.0)), 1000);
+        String zipf3 = ICDTables.keyOf(InterpolatingLongLongSampler.class,
+            new IntegerDistributionICDSource(ZipfDistribution.of(1000, 2.5)), 1000);
+        String zipf4 = ICDTables.keyOf(InterpolatingLongLongSampler.class,
+            new IntegerDistributionICDSource(ZipfDistribution.of(1000, 2.0)), 2000);
+        String normal = ICDTables.keyOf(InterpolatingLongLongSampler.class,
+            new RealDistributionICDSource(NormalDistribution.of(1000, 2.0)), 1000);
+
+        assertThat(zipf1).isNotNull();
+        assertThat(zipf1).isEqualTo(zipf2);
+        assertThat(zipf1).isNotEqualTo(zipf3);
+        assertThat(zipf1).isNotEqualTo(zipf4);
+        assertThat(zipf1).isNotEqualTo(normal);
+    }
+
+    @Test
+    public void testKeyIsNullForOpaqueFunctions() {
+        String key = ICDTables.keyOf(InterpolatingLongLongSampler.class, (DoubleToIntFunction) d -> 1, 1000);
+        assertThat(key).isNull();
+    }
+
+    @Test
+    public void testTablesAreShared() {
+        int[] builds = new int[1];
+        ICDTable t1 = ICDTables.get("testTablesAreShared", () -> { builds[0]++; return new double[]{1.0, 2.0}; });
+        ICDTable t2 = ICDTables.get("testTablesAreShared", () -> { builds[0]++; return new double[]{1.0, 2.0}; });
+        assertThat(t1).isSameAs(t2);
+        assertThat(builds[0]).isEqualTo(1);
+
+        ICDTable unshared = ICDTables.get(null, () -> new double[]{1.0, 2.0});
+        assertThat(unshared).isNotSameAs(t1);
+    }
+
+    @Test
+    public void testSharedTablesGiveSameValues() {
+        Zipf z1 = new Zipf(1000, 2.0);
+        Zipf z2 = new Zipf(1000, 2.0);
+        for (long i = 0; i < 1000; i++) {
+            assertThat(z1.applyAsLong(i)).isEqualTo(z2.applyAsLong(i));
+        }
+    }
+
+    @Test
+    public void testHighResolutionIsOffHeap() {
+        Normal coarse = new Normal(0.0, 1.0, "map");
+        Normal fine = new Normal(0.0, 1.0, "map", "resolution=1000000");
+        long median = Long.MAX_VALUE / 2;
+        assertThat(fine.applyAsDouble(median)).isCloseTo(0.0, offset(0.0001));
+        assertThat(coarse.applyAsDouble(median)).isCloseTo(0.0, offset(0.01));
+
+        ICDTable table = ICDTable.of(new double[1_000_000]);
+        assertThat(table.isOffHeap()).isTrue();
+        assertThat(ICDTable.of(new double[1000]).isOffHeap()).isFalse();
+    }
+
+    @Test
+    public void testInvalidResolution() {
+        assertThat(ICDTables.resolutionOf("hash")).isEqualTo(ICDTables.DEFAULT_RESOLUTION);
+        assertThat(ICDTables.resolutionOf("resolution=5000")).isEqualTo(5000);
+        assertThatThrownBy(() -> new Zipf(100, 2.0, "resolution=many")).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> new Zipf(100, 2.0, "resolution=1")).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    public void testCacheFileRoundTrip(@TempDir Path dir) {
+        double[] values = new double[300_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * 0.5d;
+        }
+        Path file = dir.resolve("table.icd");
+        ICDTables.write(file, "roundtrip", ICDTable.of(values));
+
+        ICDTable read = ICDTables.read(file, "roundtrip");
+        assertThat(read).isNotNull();
+        assertThat(read.isOffHeap()).isTrue();
+        assertThat(read.length()).isEqualTo(values.length);
+        assertThat(read.get(0)).isEqualTo(0.0d);
+        assertThat(read.get(values.length - 1)).isEqualTo(values[values.length - 1]);
+
+        assertThat(ICDTables.read(file, "otherkey")).isNull();
+    }
+}
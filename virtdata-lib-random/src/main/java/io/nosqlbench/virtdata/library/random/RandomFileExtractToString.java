@@ -16,15 +16,15 @@
 
 package io.nosqlbench.virtdata.library.random;
 
-import io.nosqlbench.api.content.NBIO;
 import io.nosqlbench.virtdata.api.annotations.DeprecatedFunction;
+import io.nosqlbench.virtdata.library.basics.core.corpus.Corpus;
+import io.nosqlbench.virtdata.library.basics.core.corpus.CorpusRegistry;
 import org.apache.commons.math3.distribution.IntegerDistribution;
 import org.apache.commons.math3.distribution.UniformIntegerDistribution;
 import org.apache.commons.math3.random.MersenneTwister;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
-import java.nio.CharBuffer;
 import java.util.function.LongFunction;
 
 @DeprecatedFunction("random mappers are not deterministic. They will be replaced with hash-based functions.")
@@ -32,8 +32,7 @@ public class RandomFileExtractToString implements LongFunction<String> {
 
     private final static Logger logger  = LogManager.getLogger(RandomFileExtractToString.class);
 
-    private static CharBuffer fileDataImage =null;
-
+    private final Corpus corpus;
     private final int minsize;
     private final int maxsize;
     private final MersenneTwister rng;
@@ -49,21 +48,10 @@ public class RandomFileExtractToString implements LongFunction<String> {
         this.fileName = fileName;
         this.minsize = minsize;
         this.maxsize = maxsize;
-        loadData();
+        this.corpus = CorpusRegistry.forText(this, fileName);
         this.rng = new MersenneTwister(seed);
         this.sizeDistribution = new UniformIntegerDistribution(rng, minsize, maxsize);
-        this.positionDistribution = new UniformIntegerDistribution(rng, 1, fileDataImage.limit() - maxsize);
-    }
-
-    private void loadData() {
-        if (fileDataImage == null) {
-            synchronized (RandomFileExtractToString.class) {
-                if (fileDataImage == null) {
-                    CharBuffer image= NBIO.readCharBuffer(fileName);
-                    fileDataImage = image;
-                }
-            }
-        }
+        this.positionDistribution = new UniformIntegerDistribution(rng, 1, (int) Math.min(corpus.size(), Integer.MAX_VALUE) - maxsize);
     }
 
     @Override
@@ -74,7 +62,7 @@ public class RandomFileExtractToString implements LongFunction<String> {
         int length = sizeDistribution.sample();
         String sub = null;
         try {
-            sub = fileDataImage.subSequence(offset, offset + length).toString();
+            sub = corpus.extract(offset, length);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
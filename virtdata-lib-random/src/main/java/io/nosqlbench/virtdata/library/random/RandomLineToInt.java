@@ -16,21 +16,21 @@
 
 package io.nosqlbench.virtdata.library.random;
 
-import io.nosqlbench.api.content.NBIO;
 import io.nosqlbench.virtdata.api.annotations.DeprecatedFunction;
+import io.nosqlbench.virtdata.library.basics.core.corpus.Corpus;
+import io.nosqlbench.virtdata.library.basics.core.corpus.CorpusRegistry;
 import org.apache.commons.math3.distribution.IntegerDistribution;
 import org.apache.commons.math3.distribution.UniformIntegerDistribution;
 import org.apache.commons.math3.random.MersenneTwister;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
-import java.util.List;
 import java.util.function.LongToIntFunction;
 
 @DeprecatedFunction("random mappers are not deterministic. They will be replaced with hash-based functions.")
 public class RandomLineToInt implements LongToIntFunction {
     private final static Logger logger  = LogManager.getLogger(RandomLineToInt.class);
-    private final List<String> lines;
+    private final Corpus corpus;
 
     private final MersenneTwister rng;
     private final IntegerDistribution itemDistribution;
@@ -42,9 +42,9 @@ public class RandomLineToInt implements LongToIntFunction {
 
     public RandomLineToInt(String filename, long seed) {
         this.filename = filename;
-        this.lines = NBIO.readLines(filename);
+        this.corpus = CorpusRegistry.forLines(this, filename);
         this.rng = new MersenneTwister(seed);
-        this.itemDistribution= new UniformIntegerDistribution(rng, 0, lines.size()-2);
+        this.itemDistribution= new UniformIntegerDistribution(rng, 0, corpus.getLineCount()-2);
     }
 
     public String toString() {
@@ -54,7 +54,7 @@ public class RandomLineToInt implements LongToIntFunction {
     @Override
     public int applyAsInt(long value) {
         int itemIdx = itemDistribution.sample();
-        String item = lines.get(itemIdx);
+        String item = corpus.getLine(itemIdx);
         return Integer.valueOf(item);
     }
 }
@@ -16,16 +16,15 @@
 
 package io.nosqlbench.virtdata.library.random;
 
-import io.nosqlbench.api.content.NBIO;
 import io.nosqlbench.virtdata.api.annotations.DeprecatedFunction;
+import io.nosqlbench.virtdata.library.basics.core.corpus.Corpus;
+import io.nosqlbench.virtdata.library.basics.core.corpus.CorpusRegistry;
 import org.apache.commons.math3.distribution.IntegerDistribution;
 import org.apache.commons.math3.distribution.UniformIntegerDistribution;
 import org.apache.commons.math3.random.MersenneTwister;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.function.LongFunction;
 
 /**
@@ -34,7 +33,7 @@ import java.util.function.LongFunction;
 @DeprecatedFunction("random mappers are not deterministic. They will be replaced with hash-based functions.")
 public class RandomLineToString implements LongFunction<String> {
     private final static Logger logger  = LogManager.getLogger(RandomLineToString.class);
-    private List<String> lines = new ArrayList<>();
+    private final Corpus corpus;
 
     private final MersenneTwister rng;
     private final IntegerDistribution itemDistribution;
@@ -43,22 +42,22 @@ public class RandomLineToString implements LongFunction<String> {
     public RandomLineToString(String filename) {
         this.rng = new MersenneTwister(System.nanoTime());
         this.filename = filename;
-        this.lines = NBIO.readLines(filename);
-        itemDistribution= new UniformIntegerDistribution(rng, 0, lines.size()-2);
+        this.corpus = CorpusRegistry.forLines(this, filename);
+        itemDistribution= new UniformIntegerDistribution(rng, 0, corpus.getLineCount()-2);
     }
 
     public RandomLineToString(String filename, MersenneTwister rng) {
         this.rng = rng;
         this.filename = filename;
-        this.lines = NBIO.readLines(filename);
-        itemDistribution= new UniformIntegerDistribution(rng, 0, lines.size()-2);
+        this.corpus = CorpusRegistry.forLines(this, filename);
+        itemDistribution= new UniformIntegerDistribution(rng, 0, corpus.getLineCount()-2);
     }
 
     public RandomLineToString(String filename, long seed) {
         this.rng = new MersenneTwister(seed);
         this.filename = filename;
-        this.lines = NBIO.readLines(filename);
-        itemDistribution= new UniformIntegerDistribution(rng, 0, lines.size()-2);
+        this.corpus = CorpusRegistry.forLines(this, filename);
+        itemDistribution= new UniformIntegerDistribution(rng, 0, corpus.getLineCount()-2);
     }
 
     public String toString() {
@@ -68,7 +67,7 @@ public class RandomLineToString implements LongFunction<String> {
     @Override
     public String apply(long operand) {
         int itemIdx = itemDistribution.sample();
-        String item = lines.get(itemIdx);
+        String item = corpus.getLine(itemIdx);
         return item;
     }
 
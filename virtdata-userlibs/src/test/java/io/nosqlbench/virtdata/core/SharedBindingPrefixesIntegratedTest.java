@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2023 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.core;
+
+import io.nosqlbench.virtdata.core.bindings.DataMapper;
+import io.nosqlbench.virtdata.core.bindings.SharedBindingPrefixes;
+import io.nosqlbench.virtdata.core.bindings.VirtData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SharedBindingPrefixesIntegratedTest {
+
+    @BeforeEach
+    public void enable() {
+        System.setProperty(SharedBindingPrefixes.SHARE_PROPERTY, "true");
+    }
+
+    @AfterEach
+    public void disable() {
+        System.clearProperty(SharedBindingPrefixes.SHARE_PROPERTY);
+    }
+
+    @Test
+    public void testSharedPrefixGivesSameValues() {
+        try (SharedBindingPrefixes scope = SharedBindingPrefixes.open(List.of(
+            "Hash(); Mod(1000); ToString()",
+            "Hash(); Mod(1000); Add(1); ToString()"
+        ))) {
+            DataMapper<String> first = VirtData.getMapper("Hash(); Mod(1000); ToString()");
+            DataMapper<String> second = VirtData.getMapper("Hash(); Mod(1000); Add(1); ToString()");
+            for (long cycle = 0; cycle < 100; cycle++) {
+                assertThat(Long.parseLong(second.get(cycle))).isEqualTo(Long.parseLong(first.get(cycle)) + 1);
+            }
+        }
+    }
+
+    @Test
+    public void testNondeterministicPrefixIsNotShared() throws InterruptedException {
+        try (SharedBindingPrefixes scope = SharedBindingPrefixes.open(List.of(
+            "CurrentEpochMillis(); ToString()",
+            "CurrentEpochMillis(); Add(1); ToString()"
+        ))) {
+            DataMapper<String> clock = VirtData.getMapper("CurrentEpochMillis(); ToString()");
+            String before = clock.get(1L);
+            Thread.sleep(20);
+            // a shared prefix would remember the value for the same input
+            assertThat(clock.get(1L)).isNotEqualTo(before);
+        }
+    }
+
+    @Test
+    public void testStatefulPrefixIsNotShared() {
+        try (SharedBindingPrefixes scope = SharedBindingPrefixes.open(List.of(
+            "Save('shared'); Mod(10); ToString()",
+            "Save('shared'); Mod(100); ToString()"
+        ))) {
+            DataMapper<String> save = VirtData.getMapper("Save('shared'); Mod(10); ToString()");
+            DataMapper<Long> load = VirtData.getMapper("Load('shared') -> long");
+            DataMapper<Object> clear = VirtData.getMapper("Clear()");
+            save.get(42L);
+            clear.get(0L);
+            // a shared prefix would not save the value again for the same input
+            save.get(42L);
+            assertThat(load.get(0L)).isEqualTo(42L);
+        }
+    }
+}